@@ -78,6 +78,7 @@ import org.kie.workbench.common.services.datamodeller.driver.FilterHolder;
 import org.kie.workbench.common.services.datamodeller.driver.ModelDriver;
 import org.kie.workbench.common.services.datamodeller.driver.ModelDriverException;
 import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelDriver;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaSourceParseCache;
 import org.kie.workbench.common.services.datamodeller.driver.impl.ModuleDataModelOracleUtils;
 import org.kie.workbench.common.services.datamodeller.driver.impl.UpdateInfo;
 import org.kie.workbench.common.services.datamodeller.driver.model.AnnotationDefinitionRequest;
@@ -155,6 +156,8 @@ public class DataModelerServiceImpl
     private Instance<DomainHandler> domainHandlers;
     @Inject
     private FilterHolder filterHolder;
+    @Inject
+    private JavaSourceParseCache parseCache;
 
     public DataModelerServiceImpl() {
     }
@@ -326,7 +329,8 @@ public class DataModelerServiceImpl
             ModelDriver modelDriver = new JavaRoasterModelDriver(ioService,
                                                                  Paths.convert(defaultPackage.getPackageMainSrcPath()),
                                                                  classLoader,
-                                                                 filterHolder);
+                                                                 filterHolder,
+                                                                 parseCache);
             ModelDriverResult result = modelDriver.loadModel();
             dataModel = result.getDataModel();
 
@@ -15,7 +15,6 @@
  */
 package org.kie.workbench.common.screens.impl;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -31,15 +30,10 @@ import org.kie.workbench.common.services.refactoring.backend.server.query.standa
 import org.kie.workbench.common.services.refactoring.KPropertyImpl;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.AbstractFileIndexer;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.IndexBuilder;
-import org.kie.workbench.common.services.refactoring.backend.server.util.KObjectUtil;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
-import org.uberfire.ext.metadata.model.KObject;
-import org.uberfire.ext.metadata.model.KObjectKey;
 import org.uberfire.ext.metadata.model.KProperty;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.Files;
@@ -50,8 +44,6 @@ import org.uberfire.workbench.type.ResourceTypeDefinition;
 @ApplicationScoped
 public class LibraryIndexer extends AbstractFileIndexer {
 
-    private static final Logger logger = LoggerFactory.getLogger(LibraryIndexer.class);
-
     private static final String LIBRARY_CLASSIFIER = "library";
 
     private Set<ResourceTypeDefinition> visibleResourceTypes;
@@ -128,38 +120,8 @@ public class LibraryIndexer extends AbstractFileIndexer {
     }
 
     @Override
-    public KObject toKObject(final Path path) {
-        KObject index = null;
-
-        try {
-            // create a builder with the default information
-            IndexBuilder builder = fillIndexBuilder(path);
-
-            Set<KProperty<?>> indexElements = null;
-            if (builder != null) {
-                // build index document
-                indexElements = builder.build();
-            } else {
-                indexElements = Collections.emptySet();
-            }
-
-            index = KObjectUtil.toKObject(path,
-                                          LIBRARY_CLASSIFIER,
-                                          indexElements);
-        } catch (Exception e) {
-            // Unexpected parsing or processing error
-            logger.error("Unable to index '" + path.toUri().toString() + "'.",
-                         e.getMessage(),
-                         e);
-        }
-
-        return index;
-    }
-
-    @Override
-    public KObjectKey toKObjectKey(final Path path) {
-        return KObjectUtil.toKObjectKey(path,
-                                        LIBRARY_CLASSIFIER);
+    protected String getClassifier() {
+        return LIBRARY_CLASSIFIER;
     }
 
     protected org.uberfire.backend.vfs.Path convertPath(Path path) {
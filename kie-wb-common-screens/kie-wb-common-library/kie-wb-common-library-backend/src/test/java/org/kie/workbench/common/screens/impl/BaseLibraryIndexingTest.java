@@ -54,6 +54,7 @@ import org.junit.rules.TestName;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.ImpactAnalysisAnalyzerWrapperFactory;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.LowerCaseOnlyAnalyzer;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQueries;
+import org.kie.workbench.common.services.refactoring.backend.server.query.QueryResultCache;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
 import org.kie.workbench.common.services.refactoring.backend.server.query.RefactoringQueryServiceImpl;
 import org.kie.workbench.common.services.refactoring.backend.server.query.standard.LibraryFileNameIndexTerm;
@@ -186,7 +187,8 @@ public abstract class BaseLibraryIndexingTest {
             when(namedQueriesProducer.iterator()).thenReturn(getQueries().iterator());
 
             service = new RefactoringQueryServiceImpl(config,
-                                                      new NamedQueries(namedQueriesProducer));
+                                                      new NamedQueries(namedQueriesProducer),
+                                                      new QueryResultCache(0));
             service.init();
         }
     }
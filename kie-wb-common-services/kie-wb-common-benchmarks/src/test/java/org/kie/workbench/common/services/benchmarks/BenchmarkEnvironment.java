@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.guvnor.m2repo.backend.server.repositories.ArtifactRepositoryService;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.jboss.weld.literal.NamedLiteral;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration;
+
+/**
+ * The local environment of the benchmarks: the git file systems and the Maven repository are in a temporary
+ * directory, the git daemons are disabled, and the CDI beans are those of the workbench services, with the
+ * {@link BenchmarkAppSetup} alternatives. Nothing is fetched from the network.
+ */
+public class BenchmarkEnvironment {
+
+    private final File directory;
+
+    private WeldContainer weldContainer;
+
+    private BenchmarkEnvironment(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets up the git file systems and the Maven repository, without CDI.
+     */
+    public static BenchmarkEnvironment local() throws IOException {
+        final File directory = Files.createTempDirectory("kie-benchmarks").toFile();
+
+        System.setProperty("org.uberfire.nio.git.dir",
+                           new File(directory,
+                                    "niogit").getAbsolutePath());
+        System.setProperty(JGitFileSystemProviderConfiguration.GIT_DAEMON_ENABLED,
+                           "false");
+        System.setProperty(JGitFileSystemProviderConfiguration.GIT_SSH_ENABLED,
+                           "false");
+        System.setProperty("org.uberfire.sys.repo.monitor.disabled",
+                           "true");
+        System.setProperty(ArtifactRepositoryService.ORG_GUVNOR_M2REPO_DIR_PROPERTY,
+                           new File(directory,
+                                    "m2repo").getAbsolutePath());
+
+        return new BenchmarkEnvironment(directory);
+    }
+
+    /**
+     * Sets up the local environment and starts the CDI container.
+     */
+    public static BenchmarkEnvironment weld() throws IOException {
+        final BenchmarkEnvironment environment = local();
+        environment.weldContainer = new Weld().initialize();
+        return environment;
+    }
+
+    public <T> T get(final Class<T> type,
+                     final Annotation... qualifiers) {
+        return weldContainer.select(type,
+                                    qualifiers).get();
+    }
+
+    public IOService getIOService() {
+        return get(IOService.class,
+                   new NamedLiteral("ioStrategy"));
+    }
+
+    /**
+     * @return the root of a new git repository.
+     */
+    public Path newRepository(final IOService ioService,
+                              final String name) {
+        final URI uri = URI.create("git://" + name);
+        ioService.newFileSystem(uri,
+                                new HashMap<>());
+        return ioService.get(URI.create("git://" + name + "/"));
+    }
+
+    public void shutdown() {
+        if (weldContainer != null) {
+            weldContainer.shutdown();
+        }
+        FileUtils.deleteQuietly(directory);
+
+        System.clearProperty("org.uberfire.nio.git.dir");
+        System.clearProperty(JGitFileSystemProviderConfiguration.GIT_DAEMON_ENABLED);
+        System.clearProperty(JGitFileSystemProviderConfiguration.GIT_SSH_ENABLED);
+        System.clearProperty("org.uberfire.sys.repo.monitor.disabled");
+        System.clearProperty(ArtifactRepositoryService.ORG_GUVNOR_M2REPO_DIR_PROPERTY);
+    }
+}
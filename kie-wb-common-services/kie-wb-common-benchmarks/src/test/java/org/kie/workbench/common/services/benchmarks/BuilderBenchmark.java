@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.guvnor.common.services.project.model.Module;
+import org.kie.workbench.common.services.backend.builder.core.Builder;
+import org.kie.workbench.common.services.backend.builder.core.LRUModuleDependenciesClassLoaderCache;
+import org.kie.workbench.common.services.backend.builder.core.LRUPomModelCache;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.kie.workbench.common.services.shared.whitelist.PackageNameWhiteListService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Full and incremental builds of a synthetic Module with {@link Builder}.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BuilderBenchmark {
+
+    @Param({"50", "500"})
+    private int facts;
+
+    @Param({"100", "1000"})
+    private int rules;
+
+    @Param({"5"})
+    private int packages;
+
+    private BenchmarkEnvironment environment;
+    private IOService ioService;
+    private SyntheticProject project;
+    private Path root;
+    private Module module;
+
+    private Path updatedDrl;
+    private Path addedDrl;
+    private int change;
+
+    @Setup
+    public void setUp() throws Exception {
+        environment = BenchmarkEnvironment.weld();
+        ioService = environment.getIOService();
+        project = new SyntheticProject("builder-" + facts + "-" + rules,
+                                       facts,
+                                       rules,
+                                       packages);
+        root = environment.newRepository(ioService,
+                                         project.getName());
+        project.write(ioService,
+                      root);
+        module = environment.get(KieModuleService.class).resolveModule(Paths.convert(root));
+
+        updatedDrl = project.getDrlPath(root,
+                                        0,
+                                        0);
+        addedDrl = root.resolve("src/main/resources/" + project.getPackageName(0).replace('.',
+                                                                                           '/') + "/added.drl");
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.shutdown();
+    }
+
+    private Builder newBuilder() {
+        return new Builder(module,
+                           ioService,
+                           environment.get(KieModuleService.class),
+                           environment.get(ProjectImportsService.class),
+                           new ArrayList<>(),
+                           environment.get(LRUModuleDependenciesClassLoaderCache.class),
+                           environment.get(LRUPomModelCache.class),
+                           environment.get(PackageNameWhiteListService.class),
+                           className -> true);
+    }
+
+    @Benchmark
+    public BuildResults build(final NewBuilder state) {
+        return state.builder.build();
+    }
+
+    @Benchmark
+    public IncrementalBuildResults updateResource(final BuiltBuilder state) {
+        return state.builder.updateResource(Paths.convert(updatedDrl));
+    }
+
+    @Benchmark
+    public IncrementalBuildResults addResource(final BuiltBuilder state) {
+        return state.builder.addResource(Paths.convert(addedDrl));
+    }
+
+    @State(Scope.Thread)
+    public static class NewBuilder {
+
+        private Builder builder;
+
+        @Setup(Level.Invocation)
+        public void setUp(final BuilderBenchmark benchmark) {
+            builder = benchmark.newBuilder();
+        }
+    }
+
+    /**
+     * A built Builder, with the first DRL file changed and a new DRL file added after the build.
+     */
+    @State(Scope.Thread)
+    public static class BuiltBuilder {
+
+        private Builder builder;
+
+        @Setup(Level.Invocation)
+        public void setUp(final BuilderBenchmark benchmark) {
+            builder = benchmark.newBuilder();
+            builder.build();
+            //Change the constraints of the first rule, so the content is not the one already built
+            final SyntheticProject project = benchmark.project;
+            benchmark.change++;
+            benchmark.ioService.write(benchmark.updatedDrl,
+                                      project.drl(0,
+                                                  0).replaceFirst("value > 0,",
+                                                                  "value > " + benchmark.change + ","));
+            benchmark.ioService.write(benchmark.addedDrl,
+                                      "package " + project.getPackageName(0) + ";\n\n" + project.rule(0,
+                                                                                                       benchmark.change).replace("rule \"rule0\"",
+                                                                                                                                 "rule \"added\""));
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown(final BuilderBenchmark benchmark) {
+            benchmark.ioService.deleteIfExists(benchmark.addedDrl);
+            benchmark.ioService.write(benchmark.updatedDrl,
+                                      benchmark.project.drl(0,
+                                                            0));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(BuilderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
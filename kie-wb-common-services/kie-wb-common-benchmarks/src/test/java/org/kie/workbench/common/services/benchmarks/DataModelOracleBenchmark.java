@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.model.Package;
+import org.jboss.weld.literal.NamedLiteral;
+import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
+import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUDataModelOracleCache;
+import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUModuleDataModelOracleCache;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * {@link LRUDataModelOracleCache#assertPackageDataModelOracle(KieModule, Package)} of a synthetic Module, with the
+ * Package DataModelOracle cached, with only the Module DataModelOracle cached and with neither cached. The Module is
+ * built once, before the measurements.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataModelOracleBenchmark {
+
+    @Param({"50", "500"})
+    private int facts;
+
+    @Param({"100"})
+    private int rules;
+
+    @Param({"5"})
+    private int packages;
+
+    /**
+     * What is invalidated before each call: nothing, the Package DataModelOracle or both DataModelOracles.
+     */
+    @Param({"none", "package", "module"})
+    private String invalidate;
+
+    private BenchmarkEnvironment environment;
+    private LRUDataModelOracleCache packageCache;
+    private LRUModuleDataModelOracleCache moduleCache;
+    private KieModule module;
+    private Package pkg;
+
+    @Setup
+    public void setUp() throws Exception {
+        environment = BenchmarkEnvironment.weld();
+        final IOService ioService = environment.getIOService();
+        final SyntheticProject project = new SyntheticProject("dmo-" + facts + "-" + rules,
+                                                              facts,
+                                                              rules,
+                                                              packages);
+        final Path root = environment.newRepository(ioService,
+                                                    project.getName());
+        project.write(ioService,
+                      root);
+
+        final KieModuleService moduleService = environment.get(KieModuleService.class);
+        module = moduleService.resolveModule(Paths.convert(root));
+        pkg = moduleService.resolvePackage(Paths.convert(project.getDrlPath(root,
+                                                                            0,
+                                                                            0)));
+        packageCache = environment.get(LRUDataModelOracleCache.class,
+                                       new NamedLiteral("PackageDataModelOracleCache"));
+        moduleCache = environment.get(LRUModuleDataModelOracleCache.class,
+                                      new NamedLiteral("ModuleDataModelOracleCache"));
+
+        //Builds the Module
+        packageCache.assertPackageDataModelOracle(module,
+                                                  pkg);
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidate() {
+        if ("package".equals(invalidate) || "module".equals(invalidate)) {
+            packageCache.invalidateCache(pkg);
+        }
+        if ("module".equals(invalidate)) {
+            moduleCache.invalidateCache(module);
+        }
+    }
+
+    @Benchmark
+    public PackageDataModelOracle assertPackageDataModelOracle() {
+        return packageCache.assertPackageDataModelOracle(module,
+                                                         pkg);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DataModelOracleBenchmark.class.getSimpleName()).build()).run();
+    }
+}
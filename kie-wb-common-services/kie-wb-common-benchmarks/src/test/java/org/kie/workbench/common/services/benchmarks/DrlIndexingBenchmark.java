@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.guvnor.common.services.project.model.Module;
+import org.guvnor.common.services.project.model.Package;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.PackageDescrIndexVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.ext.metadata.model.KProperty;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Indexing of a large DRL file with {@link PackageDescrIndexVisitor}, on its own and with the parsing of the DRL.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DrlIndexingBenchmark {
+
+    @Param({"50", "500"})
+    private int facts;
+
+    @Param({"100", "1000", "5000"})
+    private int rules;
+
+    private String drl;
+    private PackageDescr packageDescr;
+    private ModuleDataModelOracle dmo;
+    private Module module;
+    private Package pkg;
+
+    @Setup
+    public void setUp() throws Exception {
+        final SyntheticProject project = new SyntheticProject("indexing-" + facts + "-" + rules,
+                                                              facts,
+                                                              rules,
+                                                              1);
+        drl = project.drl();
+        packageDescr = parse(drl);
+        dmo = project.getModuleDataModelOracle();
+
+        module = mock(Module.class);
+        pkg = mock(Package.class);
+        doReturn(project.getPackageName(0)).when(pkg).getPackageName();
+    }
+
+    @Benchmark
+    public Set<KProperty<?>> visit() {
+        return new PackageDescrIndexVisitor(dmo,
+                                            new DefaultIndexBuilder("rules.drl",
+                                                                    module,
+                                                                    pkg),
+                                            packageDescr).visit();
+    }
+
+    @Benchmark
+    public Set<KProperty<?>> parseAndVisit() throws Exception {
+        return new PackageDescrIndexVisitor(dmo,
+                                            new DefaultIndexBuilder("rules.drl",
+                                                                    module,
+                                                                    pkg),
+                                            parse(drl)).visit();
+    }
+
+    private static PackageDescr parse(final String drl) throws Exception {
+        final DrlParser drlParser = new DrlParser();
+        final PackageDescr packageDescr = drlParser.parse(true,
+                                                          drl);
+        if (drlParser.hasErrors()) {
+            throw new IllegalStateException("The generated DRL is not valid: " + drlParser.getErrors());
+        }
+        return packageDescr;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DrlIndexingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.services.datamodeller.driver.FilterHolder;
+import org.kie.workbench.common.services.datamodeller.driver.MethodFilter;
+import org.kie.workbench.common.services.datamodeller.driver.NestedClassFilter;
+import org.kie.workbench.common.services.datamodeller.driver.SourceFilter;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelDriver;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaSourceParseCache;
+import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.io.IOService;
+import org.uberfire.io.impl.IOServiceDotFileImpl;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * {@link JavaRoasterModelDriver#loadModel()} of the facts of a synthetic Module, parsing all the sources and with the
+ * sources already parsed by the {@link JavaSourceParseCache}.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ModelDriverBenchmark {
+
+    @Param({"50", "500", "2000"})
+    private int facts;
+
+    @Param({"10"})
+    private int packages;
+
+    private BenchmarkEnvironment environment;
+    private IOService ioService;
+    private Path javaRoot;
+    private FilterHolder filterHolder;
+    private JavaSourceParseCache parseCache;
+
+    @Setup
+    public void setUp() throws Exception {
+        environment = BenchmarkEnvironment.local();
+        ioService = new IOServiceDotFileImpl();
+        final SyntheticProject project = new SyntheticProject("model-" + facts,
+                                                              facts,
+                                                              0,
+                                                              packages);
+        final Path root = environment.newRepository(ioService,
+                                                    project.getName());
+        project.write(ioService,
+                      root);
+        javaRoot = project.getJavaRoot(root);
+
+        filterHolder = new FilterHolder() {
+            @Override
+            public Collection<SourceFilter> getSourceFilters() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Collection<NestedClassFilter> getNestedClassFilters() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Collection<MethodFilter> getMethodFilters() {
+                return Collections.emptySet();
+            }
+        };
+        parseCache = new JavaSourceParseCache(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ioService.dispose();
+        environment.shutdown();
+    }
+
+    @Benchmark
+    public ModelDriverResult loadModel() throws Exception {
+        return new JavaRoasterModelDriver(ioService,
+                                          javaRoot,
+                                          getClass().getClassLoader(),
+                                          filterHolder).loadModel();
+    }
+
+    @Benchmark
+    public ModelDriverResult loadModelWithParseCache() throws Exception {
+        return new JavaRoasterModelDriver(ioService,
+                                          javaRoot,
+                                          getClass().getClassLoader(),
+                                          filterHolder,
+                                          parseCache).loadModel();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ModelDriverBenchmark.class.getSimpleName()).build()).run();
+    }
+}
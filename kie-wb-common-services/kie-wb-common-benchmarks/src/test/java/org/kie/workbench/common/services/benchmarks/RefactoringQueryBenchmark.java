@@ -0,0 +1,299 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.NotificationOptions;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.util.TypeLiteral;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.guvnor.common.services.project.model.Package;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.ImpactAnalysisAnalyzerWrapperFactory;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.IndexBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.drools.AbstractDrlFileIndexer;
+import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQueries;
+import org.kie.workbench.common.services.refactoring.backend.server.query.QueryResultCache;
+import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
+import org.kie.workbench.common.services.refactoring.backend.server.query.RefactoringQueryServiceImpl;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.DefaultResponseBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.query.standard.FindResourceReferencesQuery;
+import org.kie.workbench.common.services.refactoring.model.index.terms.ModuleRootPathIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueReferenceIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.kie.workbench.common.services.refactoring.service.ResourceType;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.commons.async.DescriptiveThreadFactory;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.backend.lucene.analyzer.FilenameAnalyzer;
+import org.uberfire.ext.metadata.io.ConstrainedIndexerScheduler.ConstraintBuilder;
+import org.uberfire.ext.metadata.io.IOServiceIndexedImpl;
+import org.uberfire.ext.metadata.io.IndexerDispatcher;
+import org.uberfire.ext.metadata.io.IndexersFactory;
+import org.uberfire.ext.metadata.io.MetadataConfigBuilder;
+import org.uberfire.io.IOService;
+import org.uberfire.paging.PageResponse;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link RefactoringQueryServiceImpl#query(RefactoringPageRequest)} of the references to a fact and of the references
+ * to all the facts of a synthetic Module, indexed in an in memory Lucene index. The results are not cached.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RefactoringQueryBenchmark {
+
+    private static final long INDEXING_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    @Param({"50", "500"})
+    private int facts;
+
+    @Param({"1000", "5000"})
+    private int rules;
+
+    @Param({"10"})
+    private int packages;
+
+    private BenchmarkEnvironment environment;
+    private MetadataConfig config;
+    private IOService ioService;
+    private RefactoringQueryServiceImpl service;
+
+    private RefactoringPageRequest factReferences;
+    private RefactoringPageRequest allReferences;
+
+    @Setup
+    public void setUp() throws Exception {
+        environment = BenchmarkEnvironment.local();
+        final SyntheticProject project = new SyntheticProject("query-" + facts + "-" + rules,
+                                                              facts,
+                                                              rules,
+                                                              packages);
+
+        final Map<String, Analyzer> analyzers = new HashMap<>();
+        analyzers.put(ModuleRootPathIndexTerm.TERM,
+                      new FilenameAnalyzer());
+        config = new MetadataConfigBuilder()
+                .withInMemoryMetaModelStore()
+                .usingAnalyzers(analyzers)
+                .usingAnalyzerWrapperFactory(ImpactAnalysisAnalyzerWrapperFactory.getInstance())
+                .useInMemoryDirectory()
+                .useDirectoryBasedIndex()
+                .build();
+
+        final ExecutorService executorService = Executors.newCachedThreadPool(new DescriptiveThreadFactory());
+        final IndexersFactory indexersFactory = new IndexersFactory();
+        ioService = new IOServiceIndexedImpl(config.getIndexEngine(),
+                                             executorService,
+                                             indexersFactory,
+                                             IndexerDispatcher.createFactory(config.getIndexEngine(),
+                                                                             new ConstraintBuilder().createFactory(),
+                                                                             new NoOpEvent<>(),
+                                                                             LoggerFactory.getLogger(IndexerDispatcher.class)));
+        indexersFactory.addIndexer(new SyntheticDrlFileIndexer(ioService,
+                                                               project));
+
+        final org.uberfire.java.nio.file.Path root = environment.newRepository(ioService,
+                                                                               project.getName());
+        //As in the indexing tests, a first file has to be written for the indexing to start
+        ioService.write(root.resolve("dummy"),
+                        "<none>");
+        project.write(ioService,
+                      root);
+
+        final Instance<NamedQuery> namedQueriesProducer = mock(Instance.class);
+        doReturn(Collections.singleton(new FindResourceReferencesQuery() {
+            @Override
+            public ResponseBuilder getResponseBuilder() {
+                return new DefaultResponseBuilder(ioService);
+            }
+        }).iterator()).when(namedQueriesProducer).iterator();
+        service = new RefactoringQueryServiceImpl(config,
+                                                  new NamedQueries(namedQueriesProducer),
+                                                  new QueryResultCache(0));
+        service.init();
+
+        factReferences = request(new ValueReferenceIndexTerm(project.getFactClassName(0),
+                                                             ResourceType.JAVA));
+        allReferences = request(new ValueReferenceIndexTerm(SyntheticProject.BASE_PACKAGE,
+                                                            ResourceType.JAVA,
+                                                            ValueIndexTerm.TermSearchType.PREFIX));
+
+        int drlFiles = 0;
+        for (int p = 0; p < packages; p++) {
+            drlFiles += project.getDrlFiles(p);
+        }
+        awaitIndexing(drlFiles);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ioService.dispose();
+        config.dispose();
+        environment.shutdown();
+    }
+
+    @Benchmark
+    public PageResponse<RefactoringPageRow> queryFactReferences() {
+        return service.query(factReferences);
+    }
+
+    @Benchmark
+    public PageResponse<RefactoringPageRow> queryAllReferences() {
+        return service.query(allReferences);
+    }
+
+    //The files are indexed asynchronously, wait until all of them can be found
+    private void awaitIndexing(final int drlFiles) throws InterruptedException {
+        final RefactoringPageRequest request = new RefactoringPageRequest(allReferences.getQueryName(),
+                                                                          allReferences.getQueryTerms(),
+                                                                          0,
+                                                                          drlFiles);
+        final long timeout = System.currentTimeMillis() + INDEXING_TIMEOUT;
+        while (service.queryHitCount(request) < drlFiles) {
+            if (System.currentTimeMillis() > timeout) {
+                throw new IllegalStateException("The " + drlFiles + " DRL files were not indexed after " + INDEXING_TIMEOUT + "ms.");
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private static RefactoringPageRequest request(final ValueIndexTerm term) {
+        return new RefactoringPageRequest(FindResourceReferencesQuery.NAME,
+                                          Collections.singleton(term),
+                                          0,
+                                          10);
+    }
+
+    /**
+     * Indexes the DRL files of the synthetic Module, with the facts of the Module as DataModelOracle.
+     */
+    private static class SyntheticDrlFileIndexer extends AbstractDrlFileIndexer {
+
+        private final ModuleDataModelOracle dmo;
+
+        private SyntheticDrlFileIndexer(final IOService ioService,
+                                        final SyntheticProject project) {
+            this.ioService = ioService;
+            this.dmo = project.getModuleDataModelOracle();
+
+            final Path rootPath = mock(Path.class);
+            doReturn("/" + project.getName()).when(rootPath).toURI();
+            final KieModule module = mock(KieModule.class);
+            doReturn(rootPath).when(module).getRootPath();
+            doReturn(project.getName()).when(module).getModuleName();
+            final Package pkg = mock(Package.class);
+            doReturn(project.getPackageName(0)).when(pkg).getPackageName();
+
+            this.moduleService = mock(KieModuleService.class);
+            doReturn(module).when(moduleService).resolveModule(any(Path.class));
+            doReturn(pkg).when(moduleService).resolvePackage(any(Path.class));
+        }
+
+        @Override
+        public boolean supportsPath(final org.uberfire.java.nio.file.Path path) {
+            return path.getFileName().toString().endsWith(".drl");
+        }
+
+        @Override
+        protected IndexBuilder fillIndexBuilder(final org.uberfire.java.nio.file.Path path) throws Exception {
+            return fillDrlIndexBuilder(path,
+                                       ioService.readAllString(path));
+        }
+
+        @Override
+        protected ModuleDataModelOracle getModuleDataModelOracle(final org.uberfire.java.nio.file.Path path) {
+            return dmo;
+        }
+    }
+
+    private static class NoOpEvent<T> implements Event<T> {
+
+        @Override
+        public void fire(final T event) {
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(final U event) {
+            return null;
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(final U event,
+                                                          final NotificationOptions options) {
+            return null;
+        }
+
+        @Override
+        public Event<T> select(final Annotation... qualifiers) {
+            return this;
+        }
+
+        @Override
+        public <U extends T> Event<U> select(final Class<U> subtype,
+                                             final Annotation... qualifiers) {
+            return new NoOpEvent<>();
+        }
+
+        @Override
+        public <U extends T> Event<U> select(final TypeLiteral<U> subtype,
+                                             final Annotation... qualifiers) {
+            return new NoOpEvent<>();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RefactoringQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.oracle.DataType;
+import org.kie.soup.project.datamodel.oracle.FieldAccessorsAndMutators;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Generates a Module of a given size: the facts are java classes spread over the packages, the rules are in DRL files
+ * of up to {@link #RULES_PER_FILE} rules, each rule matches two facts of its package. The content only depends on the
+ * sizes, so the benchmarks of different runs work on the same Module.
+ */
+public class SyntheticProject {
+
+    public static final String GROUP_ID = "org.kie.benchmarks";
+
+    public static final String BASE_PACKAGE = "org.kie.benchmarks";
+
+    public static final int RULES_PER_FILE = 25;
+
+    private final String name;
+
+    private final int facts;
+
+    private final int rules;
+
+    private final int packages;
+
+    public SyntheticProject(final String name,
+                            final int facts,
+                            final int rules,
+                            final int packages) {
+        if (packages < 1 || facts < packages) {
+            throw new IllegalArgumentException("Each of the " + packages + " packages needs at least one fact, there are " + facts);
+        }
+        this.name = name;
+        this.facts = facts;
+        this.rules = rules;
+        this.packages = packages;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPackages() {
+        return packages;
+    }
+
+    /**
+     * Writes the Module below the root path.
+     */
+    public void write(final IOService ioService,
+                      final Path root) {
+        ioService.startBatch(root.getFileSystem());
+        try {
+            ioService.write(root.resolve("pom.xml"),
+                            pom());
+            ioService.write(root.resolve("src/main/resources/META-INF/kmodule.xml"),
+                            kmodule());
+            for (int fact = 0; fact < facts; fact++) {
+                ioService.write(getJavaRoot(root).resolve(getPackageName(fact % packages).replace('.',
+                                                                                                  '/') + "/" + getFactName(fact) + ".java"),
+                                factSource(fact));
+            }
+            for (int p = 0; p < packages; p++) {
+                for (int file = 0; file < getDrlFiles(p); file++) {
+                    ioService.write(getDrlPath(root,
+                                               p,
+                                               file),
+                                    drl(p,
+                                        file));
+                }
+            }
+        } finally {
+            ioService.endBatch();
+        }
+    }
+
+    public Path getJavaRoot(final Path root) {
+        return root.resolve("src/main/java");
+    }
+
+    public Path getDrlPath(final Path root,
+                           final int p,
+                           final int file) {
+        return root.resolve("src/main/resources/" + getPackageName(p).replace('.',
+                                                                              '/') + "/rules" + file + ".drl");
+    }
+
+    public String getPackageName(final int p) {
+        return BASE_PACKAGE + ".pkg" + p;
+    }
+
+    public String getFactName(final int fact) {
+        return "Fact" + fact;
+    }
+
+    public String getFactClassName(final int fact) {
+        return getPackageName(fact % packages) + "." + getFactName(fact);
+    }
+
+    public int getDrlFiles(final int p) {
+        return (getRules(p).size() + RULES_PER_FILE - 1) / RULES_PER_FILE;
+    }
+
+    public String pom() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"\n" +
+                "         xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                "         xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId>" + GROUP_ID + "</groupId>\n" +
+                "  <artifactId>" + name + "</artifactId>\n" +
+                "  <version>1.0.0</version>\n" +
+                "  <packaging>kjar</packaging>\n" +
+                "</project>\n";
+    }
+
+    public String kmodule() {
+        return "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\"/>\n";
+    }
+
+    public String factSource(final int fact) {
+        return "package " + getPackageName(fact % packages) + ";\n\n" +
+                "public class " + getFactName(fact) + " implements java.io.Serializable {\n\n" +
+                "    private String name;\n\n" +
+                "    private int value;\n\n" +
+                "    private boolean active;\n\n" +
+                "    public String getName() {\n" +
+                "        return name;\n" +
+                "    }\n\n" +
+                "    public void setName(String name) {\n" +
+                "        this.name = name;\n" +
+                "    }\n\n" +
+                "    public int getValue() {\n" +
+                "        return value;\n" +
+                "    }\n\n" +
+                "    public void setValue(int value) {\n" +
+                "        this.value = value;\n" +
+                "    }\n\n" +
+                "    public boolean isActive() {\n" +
+                "        return active;\n" +
+                "    }\n\n" +
+                "    public void setActive(boolean active) {\n" +
+                "        this.active = active;\n" +
+                "    }\n" +
+                "}\n";
+    }
+
+    /**
+     * @return the content of a DRL file of a package.
+     */
+    public String drl(final int p,
+                      final int file) {
+        final List<Integer> packageRules = getRules(p);
+        final StringBuilder sb = new StringBuilder("package ").append(getPackageName(p)).append(";\n\n");
+        for (int i = file * RULES_PER_FILE; i < Math.min(packageRules.size(),
+                                                         (file + 1) * RULES_PER_FILE); i++) {
+            sb.append(rule(packageRules.get(i),
+                           0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return a single DRL file with all the rules, as if the Module only had one package.
+     */
+    public String drl() {
+        final StringBuilder sb = new StringBuilder("package ").append(getPackageName(0)).append(";\n\n");
+        for (int fact = 0; fact < facts; fact++) {
+            if (fact % packages != 0) {
+                sb.append("import ").append(getFactClassName(fact)).append(";\n");
+            }
+        }
+        sb.append("\n");
+        for (int rule = 0; rule < rules; rule++) {
+            sb.append(rule(rule,
+                           0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param rule the rule, it decides the facts and the package of the rule.
+     * @param threshold changes the constraints of the rule, so the same rule can be written with another content.
+     */
+    public String rule(final int rule,
+                       final int threshold) {
+        final List<Integer> packageFacts = getFacts(rule % packages);
+        final String fact1 = getFactName(packageFacts.get(rule % packageFacts.size()));
+        final String fact2 = getFactName(packageFacts.get((rule + 1) % packageFacts.size()));
+        return "rule \"rule" + rule + "\"\n" +
+                "when\n" +
+                "    $f : " + fact1 + "( value > " + (rule + threshold) + ", name != null )\n" +
+                "    " + fact2 + "( active == true, value < $f.value )\n" +
+                "then\n" +
+                "    $f.setName( \"fired by rule" + rule + "\" );\n" +
+                "end\n\n";
+    }
+
+    /**
+     * @return a ModuleDataModelOracle with the facts, as the one built for the Module.
+     */
+    public ModuleDataModelOracle getModuleDataModelOracle() {
+        final Map<String, ModelField[]> modelFields = new HashMap<>();
+        for (int fact = 0; fact < facts; fact++) {
+            final String className = getFactClassName(fact);
+            modelFields.put(className,
+                            new ModelField[]{
+                                    new ModelField("this",
+                                                   className,
+                                                   ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                   ModelField.FIELD_ORIGIN.SELF,
+                                                   FieldAccessorsAndMutators.ACCESSOR,
+                                                   className),
+                                    new ModelField("name",
+                                                   String.class.getName(),
+                                                   ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                   ModelField.FIELD_ORIGIN.DECLARED,
+                                                   FieldAccessorsAndMutators.BOTH,
+                                                   DataType.TYPE_STRING),
+                                    new ModelField("value",
+                                                   int.class.getName(),
+                                                   ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                   ModelField.FIELD_ORIGIN.DECLARED,
+                                                   FieldAccessorsAndMutators.BOTH,
+                                                   DataType.TYPE_NUMERIC_INTEGER),
+                                    new ModelField("active",
+                                                   boolean.class.getName(),
+                                                   ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                   ModelField.FIELD_ORIGIN.DECLARED,
+                                                   FieldAccessorsAndMutators.BOTH,
+                                                   DataType.TYPE_BOOLEAN)});
+        }
+        final ModuleDataModelOracle oracle = new ModuleDataModelOracleImpl();
+        oracle.addModuleModelFields(modelFields);
+        return oracle;
+    }
+
+    private List<Integer> getFacts(final int p) {
+        final List<Integer> packageFacts = new ArrayList<>();
+        for (int fact = p; fact < facts; fact += packages) {
+            packageFacts.add(fact);
+        }
+        return packageFacts;
+    }
+
+    private List<Integer> getRules(final int p) {
+        final List<Integer> packageRules = new ArrayList<>();
+        for (int rule = p; rule < rules; rule += packages) {
+            packageRules.add(rule);
+        }
+        return packageRules;
+    }
+}
@@ -74,6 +74,28 @@ public class DefaultKieCompilationResponseOffProcess implements Serializable {
         this.workingDir = res.getWorkingDir().map(Object::toString).orElse("");
     }
 
+    public DefaultKieCompilationResponseOffProcess(boolean successful,
+                                                   KieModuleMetaInfo kieModuleMetaInfo,
+                                                   KieModule kieModule,
+                                                   Map<String, byte[]> projectClassLoaderStore,
+                                                   Set<String> eventsTypeClasses,
+                                                   List<String> mavenOutput,
+                                                   List<String> projectDependencies,
+                                                   List<String> targetContent,
+                                                   String workingDir,
+                                                   String requestUUID) {
+        this.successful = successful;
+        this.kieModuleMetaInfo = kieModuleMetaInfo;
+        this.kieModule = kieModule;
+        this.projectClassLoaderStore = projectClassLoaderStore;
+        this.eventsTypeClasses = eventsTypeClasses;
+        this.mavenOutput = mavenOutput;
+        this.projectDependencies = projectDependencies;
+        this.targetContent = targetContent;
+        this.workingDir = workingDir;
+        this.requestUUID = requestUUID;
+    }
+
     public Optional<KieModuleMetaInfo> getKieModuleMetaInfo() {
         return Optional.ofNullable(kieModuleMetaInfo);
     }
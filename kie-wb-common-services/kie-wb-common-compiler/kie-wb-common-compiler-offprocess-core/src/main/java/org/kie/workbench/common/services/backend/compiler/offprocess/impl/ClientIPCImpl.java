@@ -111,8 +111,11 @@ public class ClientIPCImpl implements ClientIPC {
                 Bytes bytes = wire.bytes();
                 if (!bytes.isEmpty()) {
                     try {
-                        Object obj = deserialize(bytes.toByteArray());
-                        res = (DefaultKieCompilationResponseOffProcess) obj;
+                        if (CompilationResponseCodec.isEncoded(bytes)) {
+                            res = CompilationResponseCodec.read(bytes);
+                        } else {
+                            res = (DefaultKieCompilationResponseOffProcess) deserialize(bytes.toByteArray());
+                        }
                     } catch (Exception e) {
                         logger.error(e.getMessage(), e);
                     }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.drools.core.rule.KieModuleMetaInfo;
+import org.kie.api.builder.KieModule;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponseOffProcess;
+
+/***
+ * Binary wire format of the off process compilation response, written and read straight on the Chronicle Bytes.
+ * Strings, collections and the class bytes map are encoded with stop bit lengths, the Drools KieModule and
+ * KieModuleMetaInfo, which have no stable schema, are embedded as length prefixed Java serialization sections.
+ * A leading magic number lets the readers fall back to the plain Java serialization of the previous releases.
+ */
+public class CompilationResponseCodec {
+
+    static final int MAGIC = 0x4B435231; // "KCR1"
+
+    private CompilationResponseCodec() {
+    }
+
+    public static boolean isEncoded(Bytes<?> bytes) {
+        return bytes.readRemaining() >= 4 && bytes.readInt(bytes.readPosition()) == MAGIC;
+    }
+
+    public static void write(DefaultKieCompilationResponseOffProcess res,
+                             Bytes<?> bytes) throws IOException {
+        bytes.writeInt(MAGIC);
+        bytes.writeUtf8(res.getRequestUUID());
+        bytes.writeBoolean(Boolean.TRUE.equals(res.isSuccessful()));
+        bytes.writeUtf8(res.getWorkingDir());
+        writeStrings(res.getMavenOutput(), bytes);
+        writeStrings(res.getDependencies(), bytes);
+        writeStrings(res.getTargetContent(), bytes);
+        writeStrings(res.getEventTypeClasses(), bytes);
+        Map<String, byte[]> store = res.getProjectClassLoaderStore();
+        bytes.writeStopBit(store.size());
+        for (Map.Entry<String, byte[]> entry : store.entrySet()) {
+            bytes.writeUtf8(entry.getKey());
+            byte[] value = entry.getValue();
+            bytes.writeStopBit(value.length);
+            bytes.write(value);
+        }
+        writeObject(res.getKieModuleMetaInfo().orElse(null), bytes);
+        writeObject(res.getKieModule().orElse(null), bytes);
+    }
+
+    public static DefaultKieCompilationResponseOffProcess read(Bytes<?> bytes) throws IOException, ClassNotFoundException {
+        int magic = bytes.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Unknown compilation response format:" + Integer.toHexString(magic));
+        }
+        String requestUUID = bytes.readUtf8();
+        boolean successful = bytes.readBoolean();
+        String workingDir = bytes.readUtf8();
+        List<String> mavenOutput = readStrings(bytes, new ArrayList<>());
+        List<String> dependencies = readStrings(bytes, new ArrayList<>());
+        List<String> targetContent = readStrings(bytes, new ArrayList<>());
+        Set<String> eventTypeClasses = readStrings(bytes, new HashSet<>());
+        int storeSize = (int) bytes.readStopBit();
+        Map<String, byte[]> store = new HashMap<>(storeSize * 4 / 3 + 1);
+        for (int i = 0; i < storeSize; i++) {
+            String key = bytes.readUtf8();
+            byte[] value = new byte[(int) bytes.readStopBit()];
+            bytes.read(value);
+            store.put(key, value);
+        }
+        KieModuleMetaInfo kieModuleMetaInfo = (KieModuleMetaInfo) readObject(bytes);
+        KieModule kieModule = (KieModule) readObject(bytes);
+        return new DefaultKieCompilationResponseOffProcess(successful,
+                                                           kieModuleMetaInfo,
+                                                           kieModule,
+                                                           store,
+                                                           eventTypeClasses,
+                                                           mavenOutput,
+                                                           dependencies,
+                                                           targetContent,
+                                                           workingDir,
+                                                           requestUUID);
+    }
+
+    private static void writeStrings(Collection<String> values,
+                                     Bytes<?> bytes) {
+        bytes.writeStopBit(values.size());
+        for (String value : values) {
+            bytes.writeUtf8(value);
+        }
+    }
+
+    private static <C extends Collection<String>> C readStrings(Bytes<?> bytes,
+                                                                C target) {
+        long size = bytes.readStopBit();
+        for (long i = 0; i < size; i++) {
+            target.add(bytes.readUtf8());
+        }
+        return target;
+    }
+
+    private static void writeObject(Object obj,
+                                    Bytes<?> bytes) throws IOException {
+        if (obj == null) {
+            bytes.writeInt(-1);
+            return;
+        }
+        long lengthPosition = bytes.writePosition();
+        bytes.writeInt(0);
+        long start = bytes.writePosition();
+        // the stream is only flushed, closing it would release the underlying bytes
+        ObjectOutputStream out = new ObjectOutputStream(bytes.outputStream());
+        out.writeObject(obj);
+        out.flush();
+        bytes.writeInt(lengthPosition, (int) (bytes.writePosition() - start));
+    }
+
+    private static Object readObject(Bytes<?> bytes) throws IOException, ClassNotFoundException {
+        int length = bytes.readInt();
+        if (length < 0) {
+            return null;
+        }
+        long start = bytes.readPosition();
+        long limit = bytes.readLimit();
+        bytes.readLimit(start + length);
+        try {
+            return new ObjectInputStream(bytes.inputStream()).readObject();
+        } finally {
+            bytes.readLimit(limit);
+            bytes.readPosition(start + length);
+        }
+    }
+}
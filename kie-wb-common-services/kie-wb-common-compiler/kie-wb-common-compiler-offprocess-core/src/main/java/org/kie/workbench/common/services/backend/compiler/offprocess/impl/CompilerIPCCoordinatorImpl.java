@@ -20,7 +20,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.IOUtils;
 import org.guvnor.common.services.project.backend.server.utils.configuration.ConfigurationKey;
@@ -52,6 +55,8 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
     private QueueProvider provider;
     private String queueName;
     private String kieVersion;
+    private Map<String, CompilerWorkerPool> workerPools = new ConcurrentHashMap<>();
+    private Thread shutdownHook;
 
     public CompilerIPCCoordinatorImpl(QueueProvider provider) {
         this.kieVersion = getKieVersion();
@@ -95,7 +100,15 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
     private CompilationResponse internalBuild(String mavenRepo, String projectPath, String alternateSettingsAbsPath, String uuid) {
         String classpath = classpathTemplate.replace(placeholder, mavenRepo);
         try {
-            invokeServerBuild(mavenRepo, projectPath, uuid, classpath, alternateSettingsAbsPath, queueName);
+            if (CompilerWorkerPool.getConfiguredSize() > 0) {
+                Optional<CompilationResponse> failed = buildOnWorker(getWorkerPool(mavenRepo, classpath), uuid, projectPath, mavenRepo, alternateSettingsAbsPath);
+                if (failed.isPresent()) {
+                    logger.error("The compiler worker failed or did not complete the build {} of {}", uuid, projectPath);
+                    return failed.get();
+                }
+            } else {
+                invokeServerBuild(mavenRepo, projectPath, uuid, classpath, alternateSettingsAbsPath, queueName);
+            }
             if(logger.isDebugEnabled()) {
                 logger.debug("invokeServerBuild completed");
             }
@@ -106,6 +119,18 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
         }
     }
 
+    /**
+     * A worker replying the build as failed wrote no result on the queue, reading it would report a successful build
+     * @return the failed response of a build the worker failed to run or did not complete, empty if its result is on
+     * the queue
+     */
+    static Optional<CompilationResponse> buildOnWorker(CompilerWorkerPool pool, String uuid, String projectPath, String mavenRepo, String alternateSettingsAbsPath) throws IOException, InterruptedException {
+        if (pool.build(uuid, projectPath, mavenRepo, alternateSettingsAbsPath)) {
+            return Optional.empty();
+        }
+        return Optional.of(new DefaultKieCompilationResponse(false, uuid));
+    }
+
     private CompilationResponse getCompilationResponse(String uuid) {
         KieCompilationResponse res = clientIPC.getResponse(uuid);
         if (res != null) {
@@ -115,6 +140,46 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
         }
     }
 
+    /**
+     * The workers are started outside of the map, the first build on a repository warms up its pool
+     */
+    private CompilerWorkerPool getWorkerPool(String mavenRepo, String classpath) {
+        CompilerWorkerPool pool = workerPools.get(mavenRepo);
+        if (pool != null) {
+            return pool;
+        }
+        CompilerWorkerPool created = CompilerWorkerPool.fromSystemProperties(Arrays.asList(javaBin,
+                                                                                           "-cp",
+                                                                                           getClasspathIncludedCurrentModuleDep(mavenRepo, classpath),
+                                                                                           "-Dorg.uberfire.nio.git.daemon.enabled=false",
+                                                                                           "-Dorg.uberfire.nio.ssh.daemon.enabled=false",
+                                                                                           ServerIPCWorkerImpl.class.getCanonicalName(),
+                                                                                           queueName));
+        pool = workerPools.putIfAbsent(mavenRepo, created);
+        if (pool != null) {
+            return pool;
+        }
+        registerShutdownHook();
+        created.warmUp();
+        return created;
+    }
+
+    private synchronized void registerShutdownHook() {
+        if (shutdownHook == null) {
+            shutdownHook = new Thread(this::shutdownWorkers, "kie-compiler-workers-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Stops the pooled compiler workers, if any. Called by a shutdown hook once a pool has been started,
+     * the owner of the coordinator should call it when it is disposed.
+     */
+    public void shutdownWorkers() {
+        workerPools.values().forEach(CompilerWorkerPool::shutdown);
+        workerPools.clear();
+    }
+
     private void invokeServerBuild(String mavenRepo, String projectPath, String uuid, String classpath, String alternateSettingsAbsPath, String queueName) throws Exception {
         String[] commandArrayServer =
                 {
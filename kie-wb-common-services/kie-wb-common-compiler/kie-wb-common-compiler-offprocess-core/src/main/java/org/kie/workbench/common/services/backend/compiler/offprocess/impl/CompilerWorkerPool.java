@@ -0,0 +1,336 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.BUILD;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.CONTROL_PREFIX;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.DONE;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.EXIT;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.FAILED;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.PING;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.PONG;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.READY;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.SEPARATOR;
+
+/***
+ * Pool of pre-warmed compiler processes running the ServerIPCWorkerImpl.
+ * The results are still written on the Chronicle queue of the coordinator, the pool only hands the requests over.
+ * Idle workers are health checked before being reused, and recycled after a number of builds or when the heap
+ * they reported after the last build is over the memory ceiling. Once the pool is shut down the idle workers
+ * are asked to exit, the busy ones are destroyed and no new worker is started.
+ */
+public class CompilerWorkerPool {
+
+    public static final String POOL_SIZE = "org.kie.workbench.compiler.offprocess.pool.size";
+    public static final String MAX_BUILDS_PER_WORKER = "org.kie.workbench.compiler.offprocess.pool.maxBuildsPerWorker";
+    public static final String MEMORY_CEILING_MB = "org.kie.workbench.compiler.offprocess.pool.memoryCeilingMb";
+    public static final String BUILD_TIMEOUT_SECONDS = "org.kie.workbench.compiler.offprocess.pool.buildTimeoutSeconds";
+
+    private static final long HEALTH_CHECK_TIMEOUT_MILLIS = 5000;
+    private static final long STARTUP_TIMEOUT_MILLIS = 120000;
+
+    private Logger logger = LoggerFactory.getLogger(CompilerWorkerPool.class);
+    private final List<String> command;
+    private final int maxBuildsPerWorker;
+    private final long memoryCeilingBytes;
+    private final long buildTimeoutMillis;
+    private final Semaphore slots;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public CompilerWorkerPool(List<String> command,
+                              int size,
+                              int maxBuildsPerWorker,
+                              long memoryCeilingMb,
+                              long buildTimeoutSeconds) {
+        this.command = new ArrayList<>(command);
+        this.maxBuildsPerWorker = maxBuildsPerWorker;
+        this.memoryCeilingBytes = memoryCeilingMb * 1024 * 1024;
+        this.buildTimeoutMillis = TimeUnit.SECONDS.toMillis(buildTimeoutSeconds);
+        this.slots = new Semaphore(size, true);
+    }
+
+    public static int getConfiguredSize() {
+        return Integer.getInteger(POOL_SIZE, 0);
+    }
+
+    public static CompilerWorkerPool fromSystemProperties(List<String> command) {
+        return new CompilerWorkerPool(command,
+                                      getConfiguredSize(),
+                                      Integer.getInteger(MAX_BUILDS_PER_WORKER, 50),
+                                      Long.getLong(MEMORY_CEILING_MB, 1024),
+                                      Long.getLong(BUILD_TIMEOUT_SECONDS, 600));
+    }
+
+    /**
+     * Starts the workers in advance, so the first builds do not pay the JVM and the Maven container startup
+     */
+    public void warmUp() {
+        int available = slots.availablePermits();
+        for (int i = idle.size(); i < available && !closed; i++) {
+            try {
+                release(start());
+            } catch (IOException e) {
+                logger.error("Unable to start a compiler worker: {}", e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs a build on a pooled worker, returns when the worker wrote the response on the queue
+     * @return false if the worker failed to run the build, died or timed out before completing it, or if the pool is
+     * shut down
+     */
+    public boolean build(String uuid,
+                         String projectPath,
+                         String mavenRepo,
+                         String alternateSettingsAbsPath) throws IOException, InterruptedException {
+        if (closed) {
+            return false;
+        }
+        slots.acquire();
+        Worker worker = null;
+        try {
+            worker = borrow();
+            Outcome outcome = worker.build(uuid, projectPath, mavenRepo, alternateSettingsAbsPath, buildTimeoutMillis);
+            if (outcome == Outcome.LOST) {
+                logger.warn("Compiler worker did not complete the build {}, destroying it", uuid);
+                destroy(worker);
+                worker = null;
+            } else if (worker.builds >= maxBuildsPerWorker || worker.usedMemory > memoryCeilingBytes) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Recycling compiler worker after {} builds, used memory:{}", worker.builds, worker.usedMemory);
+                }
+                shutdown(worker);
+                worker = null;
+            }
+            return outcome == Outcome.SUCCEEDED;
+        } finally {
+            if (worker != null) {
+                release(worker);
+            }
+            slots.release();
+        }
+    }
+
+    public void shutdown() {
+        closed = true;
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            shutdown(worker);
+        }
+        for (Worker busy : workers) {
+            destroy(busy);
+        }
+    }
+
+    int getIdleWorkers() {
+        return idle.size();
+    }
+
+    int getWorkers() {
+        return workers.size();
+    }
+
+    private Worker start() throws IOException {
+        Worker worker = Worker.start(command);
+        workers.add(worker);
+        return worker;
+    }
+
+    private void release(Worker worker) {
+        idle.offer(worker);
+        if (closed && idle.remove(worker)) {
+            shutdown(worker);
+        }
+    }
+
+    private void shutdown(Worker worker) {
+        workers.remove(worker);
+        worker.shutdown();
+    }
+
+    private void destroy(Worker worker) {
+        workers.remove(worker);
+        worker.destroy();
+    }
+
+    private Worker borrow() throws IOException, InterruptedException {
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            if (worker.isHealthy()) {
+                return worker;
+            }
+            logger.warn("Discarding an unhealthy compiler worker");
+            destroy(worker);
+        }
+        return start();
+    }
+
+    /**
+     * A worker replying FAILED is still usable, only a LOST one is destroyed
+     */
+    private enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        LOST
+    }
+
+    private static class Worker {
+
+        private static Logger logger = LoggerFactory.getLogger(Worker.class);
+        private final Process process;
+        private final Writer input;
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+        private int builds;
+        private long usedMemory;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+            Thread reader = new Thread(this::readOutput, "kie-compiler-worker-output");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        static Worker start(List<String> command) throws IOException {
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.redirectErrorStream(true);
+            Worker worker = new Worker(builder.start());
+            try {
+                if (!worker.await(READY, STARTUP_TIMEOUT_MILLIS)) {
+                    worker.destroy();
+                    throw new IOException("Compiler worker not ready after " + STARTUP_TIMEOUT_MILLIS + " ms");
+                }
+            } catch (InterruptedException e) {
+                worker.destroy();
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            return worker;
+        }
+
+        boolean isHealthy() throws InterruptedException {
+            if (!process.isAlive()) {
+                return false;
+            }
+            replies.clear();
+            return send(PING) && await(PONG, HEALTH_CHECK_TIMEOUT_MILLIS);
+        }
+
+        Outcome build(String uuid,
+                      String projectPath,
+                      String mavenRepo,
+                      String alternateSettingsAbsPath,
+                      long timeoutMillis) throws InterruptedException {
+            builds++;
+            if (!send(BUILD + SEPARATOR + uuid + SEPARATOR + projectPath + SEPARATOR + mavenRepo + SEPARATOR + alternateSettingsAbsPath)) {
+                return Outcome.LOST;
+            }
+            String done = DONE + SEPARATOR + uuid + SEPARATOR;
+            String failed = FAILED + SEPARATOR + uuid + SEPARATOR;
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining;
+            while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+                String reply = replies.poll(remaining, TimeUnit.MILLISECONDS);
+                if (reply == null) {
+                    return Outcome.LOST;
+                }
+                if (reply.startsWith(done)) {
+                    usedMemory = Long.parseLong(reply.substring(done.length()));
+                    return Outcome.SUCCEEDED;
+                }
+                if (reply.startsWith(failed)) {
+                    usedMemory = Long.parseLong(reply.substring(failed.length()));
+                    return Outcome.FAILED;
+                }
+            }
+            return Outcome.LOST;
+        }
+
+        void shutdown() {
+            if (!send(EXIT)) {
+                destroy();
+            }
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+
+        private boolean send(String message) {
+            try {
+                input.write(message + "\n");
+                input.flush();
+                return true;
+            } catch (IOException e) {
+                logger.warn("Unable to send the request to the compiler worker: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        private boolean await(String expected,
+                              long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining;
+            while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+                String reply = replies.poll(remaining, TimeUnit.MILLISECONDS);
+                if (reply == null) {
+                    return false;
+                }
+                if (expected.equals(reply)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void readOutput() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(CONTROL_PREFIX)) {
+                        replies.offer(line.substring(CONTROL_PREFIX.length()));
+                    } else if (logger.isInfoEnabled()) {
+                        logger.info(line);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -15,14 +15,12 @@
  */
 package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.util.EnumSet;
 
-import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
 import org.apache.commons.lang3.StringUtils;
 import org.kie.workbench.common.services.backend.compiler.AFCompiler;
 import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
@@ -62,35 +60,35 @@ public class ServerIPCImpl {
         Thread.currentThread().setName(threadName);// restore the previous name to avoid the override of the maven output
     }
 
-    private static void checksQueueNameLenght(String queueName) {
+    static void checksQueueNameLenght(String queueName) {
         if(StringUtils.isEmpty(queueName) || queueName.length() < 5){
             logger.error("uuid too short, less than 5 chars:{}", queueName);
             throw new RuntimeException("uuid too short less than 5 chars:" + queueName);
         }
     }
 
-    private static void checksMavenRepo(String mavenRepo) {
+    static void checksMavenRepo(String mavenRepo) {
         if(!new File(mavenRepo).isDirectory()){
             logger.error("mavenRepo dir doesn't exists:{}",mavenRepo);
             throw new RuntimeException("MavenRepo dir  doesn't exists:"+mavenRepo);
         }
     }
 
-    private static void checksUUIDLength(String uuid) {
+    static void checksUUIDLength(String uuid) {
         if(StringUtils.isEmpty(uuid) || uuid.length() < 10){
             logger.error("uuid too short, less than 10 chars:{}", uuid);
             throw new RuntimeException("uuid too short less than 10 chars:" + uuid);
         }
     }
 
-    private static void checksSettingFile(String alternateSettingsAbsPath) {
+    static void checksSettingFile(String alternateSettingsAbsPath) {
         if(StringUtils.isNotEmpty(alternateSettingsAbsPath) && !new File(alternateSettingsAbsPath).exists()){
             logger.error("SettingsAbsPath doesn't exists:{}",alternateSettingsAbsPath);
             throw new RuntimeException("SettingsAbsPath doesn't exists:"+alternateSettingsAbsPath);
         }
     }
 
-    private static void checksWorkingDir(String workingDir) {
+    static void checksWorkingDir(String workingDir) {
         if(!new File(workingDir).exists()){
             logger.error("Working dir doesn't exists:{}",workingDir);
             throw new RuntimeException("Working dir doesn't exists:"+workingDir);
@@ -105,28 +103,35 @@ public class ServerIPCImpl {
     }
 
     public static void execute(String workingDir, String mavenRepo, String alternateSettingsAbsPath, String uuid, QueueProvider provider) throws Exception {
-        DefaultKieCompilationResponseOffProcess res = build(workingDir, mavenRepo, alternateSettingsAbsPath, uuid);
-        byte[] bytez = serialize(res);
-        if (bytez == null) {
-            logger.warn("The serialized response is null, working dir:{}\n mavenrepo:{} \n alternateSettingsAbsPath:{} \n uuid:{}", workingDir, mavenRepo, alternateSettingsAbsPath, uuid);
-            return;
-        }
-        writeOnQueue(bytez, provider);
+        execute(workingDir, mavenRepo, alternateSettingsAbsPath, uuid, provider, getCompiler());
+    }
+
+    /**
+     * Runs the build with a compiler owned by the caller, used by the long lived workers to reuse the warm Maven container
+     */
+    public static void execute(String workingDir, String mavenRepo, String alternateSettingsAbsPath, String uuid, QueueProvider provider, AFCompiler compiler) throws Exception {
+        DefaultKieCompilationResponseOffProcess res = build(compiler, workingDir, mavenRepo, alternateSettingsAbsPath, uuid);
+        writeOnQueue(res, provider);
     }
 
-    private static void writeOnQueue(byte[] bytez, QueueProvider provider) {
+    private static void writeOnQueue(DefaultKieCompilationResponseOffProcess res, QueueProvider provider) throws IOException {
         if(logger.isDebugEnabled()) {
             logger.debug("write On Queue");
         }
         ExcerptAppender appender = provider.getQueue().acquireAppender();
-        appender.writeBytes(Bytes.allocateDirect(bytez));
+        try (DocumentContext dc = appender.writingDocument()) {
+            CompilationResponseCodec.write(res, dc.wire().bytes());
+        }
         if(logger.isDebugEnabled()) {
             logger.debug("last index appended:{}", appender.lastIndexAppended());
         }
     }
 
-    private static DefaultKieCompilationResponseOffProcess build(String prjPath, String mavenRepo, String alternateSettingsAbsPath, String uuid) {
-        final AFCompiler compiler = KieMavenCompilerFactory.getCompiler(EnumSet.of(KieDecorator.ENABLE_LOGGING, KieDecorator.STORE_KIE_OBJECTS ));
+    static AFCompiler getCompiler() {
+        return KieMavenCompilerFactory.getCompiler(EnumSet.of(KieDecorator.ENABLE_LOGGING, KieDecorator.STORE_KIE_OBJECTS ));
+    }
+
+    private static DefaultKieCompilationResponseOffProcess build(AFCompiler compiler, String prjPath, String mavenRepo, String alternateSettingsAbsPath, String uuid) {
         WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(Paths.get("file://"+prjPath));
         CompilationRequest req;
         if (StringUtils.isNotEmpty(alternateSettingsAbsPath)) {
@@ -152,13 +157,4 @@ public class ServerIPCImpl {
         KieCompilationResponse res = (KieCompilationResponse) compiler.compile(req);
         return new DefaultKieCompilationResponseOffProcess(res);
     }
-
-    private static byte[] serialize(Object obj) throws IOException {
-        try (ByteArrayOutputStream b = new ByteArrayOutputStream()) {
-            try (ObjectOutputStream o = new ObjectOutputStream(b)) {
-                o.writeObject(obj);
-            }
-            return b.toByteArray();
-        }
-    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.kie.workbench.common.services.backend.compiler.AFCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/***
+ * Long lived counterpart of the ServerIPCImpl, started by the CompilerWorkerPool.
+ * The process boots the Maven container once and then serves build requests read from the standard input,
+ * one per line, writing each result on the queue like the ServerIPCImpl does. Control replies are written on the
+ * standard output with a prefix, to be told apart from the Maven output. A build that could not be run, e.g. because
+ * of an invalid working directory, is replied as FAILED instead of DONE, as no result was written on the queue.
+ */
+public class ServerIPCWorkerImpl {
+
+    static final String CONTROL_PREFIX = "@@kie-compiler-worker@@ ";
+    static final String SEPARATOR = "\t";
+    static final String READY = "READY";
+    static final String PING = "PING";
+    static final String PONG = "PONG";
+    static final String BUILD = "BUILD";
+    static final String DONE = "DONE";
+    static final String FAILED = "FAILED";
+    static final String EXIT = "EXIT";
+
+    private static Logger logger = LoggerFactory.getLogger(ServerIPCWorkerImpl.class);
+    private static PrintStream control = System.out;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            logger.error("Wrong number of params:{}", args.length);
+            throw new RuntimeException("Wrong number of params:" + args.length);
+        }
+        String queueName = args[0];
+        ServerIPCImpl.checksQueueNameLenght(queueName);
+        String threadName = Thread.currentThread().getName();
+        QueueProvider provider = new QueueProvider(queueName, true);
+        AFCompiler compiler = ServerIPCImpl.getCompiler();
+        reply(READY);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] tokens = line.split(SEPARATOR, -1);
+            if (PING.equals(tokens[0])) {
+                reply(PONG);
+            } else if (EXIT.equals(tokens[0])) {
+                break;
+            } else if (BUILD.equals(tokens[0]) && tokens.length == 5) {
+                String uuid = tokens[1];
+                String outcome = DONE;
+                try {
+                    String workingDir = tokens[2];
+                    String mavenRepo = tokens[3];
+                    String alternateSettingsAbsPath = tokens[4];
+                    ServerIPCImpl.checksUUIDLength(uuid);
+                    ServerIPCImpl.checksWorkingDir(workingDir);
+                    ServerIPCImpl.checksMavenRepo(mavenRepo);
+                    ServerIPCImpl.checksSettingFile(alternateSettingsAbsPath);
+                    ServerIPCImpl.execute(workingDir, mavenRepo, alternateSettingsAbsPath, uuid, provider, compiler);
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                    outcome = FAILED;
+                }
+                Thread.currentThread().setName(threadName);// restore the previous name to avoid the override of the maven output
+                Runtime runtime = Runtime.getRuntime();
+                reply(outcome + SEPARATOR + uuid + SEPARATOR + (runtime.totalMemory() - runtime.freeMemory()));
+            } else {
+                logger.warn("Unknown request:{}", line);
+            }
+        }
+        provider.cleanQueue();
+    }
+
+    private static void reply(String message) {
+        synchronized (control) {
+            control.println(CONTROL_PREFIX + message);
+            control.flush();
+        }
+    }
+}
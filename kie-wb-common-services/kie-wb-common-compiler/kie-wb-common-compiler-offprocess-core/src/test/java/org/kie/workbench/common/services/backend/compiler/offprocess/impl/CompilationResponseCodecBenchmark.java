@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponseOffProcess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the Java serialization used before on the IPC path with the CompilationResponseCodec.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CompilationResponseCodecBenchmark {
+
+    @Param({"100", "2000"})
+    private int classes;
+
+    private DefaultKieCompilationResponseOffProcess response;
+    private byte[] serialized;
+    private Bytes<?> bytes;
+    private Bytes<?> encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, byte[]> store = new HashMap<>();
+        List<String> targetContent = new ArrayList<>();
+        for (int i = 0; i < classes; i++) {
+            String name = "org/kie/generated/pkg" + (i % 20) + "/Fact" + i + ".class";
+            byte[] clazz = new byte[4096];
+            clazz[i % clazz.length] = (byte) i;
+            store.put(name, clazz);
+            targetContent.add("/tmp/project/target/classes/" + name);
+        }
+        List<String> dependencies = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            dependencies.add("file:/home/kie/.m2/repository/org/kie/artifact-" + i + "/7.55.0/artifact-" + i + "-7.55.0.jar");
+        }
+        response = new DefaultKieCompilationResponseOffProcess(true,
+                                                               null,
+                                                               null,
+                                                               store,
+                                                               Collections.emptySet(),
+                                                               Collections.singletonList("[INFO] BUILD SUCCESS"),
+                                                               dependencies,
+                                                               targetContent,
+                                                               "/tmp/project",
+                                                               "0123456789-uuid");
+        serialized = javaSerialize();
+        bytes = Bytes.elasticByteBuffer();
+        encoded = Bytes.elasticByteBuffer();
+        CompilationResponseCodec.write(response, encoded);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws Exception {
+        try (ByteArrayOutputStream b = new ByteArrayOutputStream()) {
+            try (ObjectOutputStream o = new ObjectOutputStream(b)) {
+                o.writeObject(response);
+            }
+            return b.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws Exception {
+        try (ObjectInputStream o = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return o.readObject();
+        }
+    }
+
+    @Benchmark
+    public long codecWrite() throws Exception {
+        bytes.clear();
+        CompilationResponseCodec.write(response, bytes);
+        return bytes.writePosition();
+    }
+
+    @Benchmark
+    public Object codecRead() throws Exception {
+        encoded.readPosition(0);
+        return CompilationResponseCodec.read(encoded);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CompilationResponseCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponseOffProcess;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompilationResponseCodecTest {
+
+    @Test
+    public void roundTrip() throws Exception {
+        Map<String, byte[]> store = new HashMap<>();
+        store.put("dummy/Dummy.class", new byte[]{1, 2, 3});
+        store.put("dummy/Other.class", new byte[0]);
+        DefaultKieCompilationResponseOffProcess res = new DefaultKieCompilationResponseOffProcess(true,
+                                                                                                   null,
+                                                                                                   null,
+                                                                                                   store,
+                                                                                                   Collections.singleton("dummy.Event"),
+                                                                                                   Arrays.asList("[INFO] BUILD SUCCESS"),
+                                                                                                   Arrays.asList("file:/repo/a.jar", "file:/repo/b.jar"),
+                                                                                                   Arrays.asList("/tmp/dummy/target/classes/dummy/Dummy.class"),
+                                                                                                   "/tmp/dummy",
+                                                                                                   "0123456789-uuid");
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        CompilationResponseCodec.write(res, bytes);
+
+        assertThat(CompilationResponseCodec.isEncoded(bytes)).isTrue();
+        DefaultKieCompilationResponseOffProcess read = CompilationResponseCodec.read(bytes);
+        assertThat(bytes.readRemaining()).isZero();
+        assertThat(read.isSuccessful()).isTrue();
+        assertThat(read.getRequestUUID()).isEqualTo("0123456789-uuid");
+        assertThat(read.getWorkingDir()).isEqualTo("/tmp/dummy");
+        assertThat(read.getMavenOutput()).containsExactly("[INFO] BUILD SUCCESS");
+        assertThat(read.getDependencies()).containsExactly("file:/repo/a.jar", "file:/repo/b.jar");
+        assertThat(read.getTargetContent()).containsExactly("/tmp/dummy/target/classes/dummy/Dummy.class");
+        assertThat(read.getEventTypeClasses()).containsExactly("dummy.Event");
+        assertThat(read.getProjectClassLoaderStore()).containsOnlyKeys("dummy/Dummy.class", "dummy/Other.class");
+        assertThat(read.getProjectClassLoaderStore().get("dummy/Dummy.class")).containsExactly(1, 2, 3);
+        assertThat(read.getKieModule()).isEmpty();
+        assertThat(read.getKieModuleMetaInfo()).isEmpty();
+    }
+
+    @Test
+    public void javaSerializedResponsesAreNotEncoded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream o = new ObjectOutputStream(out)) {
+            o.writeObject(new DefaultKieCompilationResponseOffProcess(false, "0123456789-uuid"));
+        }
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        bytes.write(out.toByteArray());
+        assertThat(CompilationResponseCodec.isEncoded(bytes)).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompilerIPCCoordinatorImplTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private CompilerWorkerPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new CompilerWorkerPool(Arrays.asList(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                                                    "-cp",
+                                                    System.getProperty("java.class.path"),
+                                                    FakeCompilerWorker.class.getName(),
+                                                    new File(temp.getRoot(), "starts").getAbsolutePath()),
+                                      1,
+                                      50,
+                                      1024,
+                                      30);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void failedBuildIsAFailedResponse() throws Exception {
+        Optional<CompilationResponse> res = CompilerIPCCoordinatorImpl.buildOnWorker(pool, "uuid-1", FakeCompilerWorker.FAIL, "/repo", "");
+        assertThat(res).isPresent();
+        assertThat(res.get().isSuccessful()).isFalse();
+        assertThat(((DefaultKieCompilationResponse) res.get()).getRequestUUID()).isEqualTo("uuid-1");
+    }
+
+    @Test
+    public void completedBuildIsReadFromTheQueue() throws Exception {
+        assertThat(CompilerIPCCoordinatorImpl.buildOnWorker(pool, "uuid-1", "project", "/repo", "")).isEmpty();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompilerWorkerPoolTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File starts;
+    private CompilerWorkerPool pool;
+
+    private CompilerWorkerPool createPool(int size,
+                                          int maxBuildsPerWorker,
+                                          long buildTimeoutSeconds) throws Exception {
+        starts = new File(temp.getRoot(), "starts");
+        pool = new CompilerWorkerPool(Arrays.asList(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                                                    "-cp",
+                                                    System.getProperty("java.class.path"),
+                                                    FakeCompilerWorker.class.getName(),
+                                                    starts.getAbsolutePath()),
+                                      size,
+                                      maxBuildsPerWorker,
+                                      1024,
+                                      buildTimeoutSeconds);
+        return pool;
+    }
+
+    private int getStarts() throws Exception {
+        return starts.exists() ? Files.readAllLines(starts.toPath()).size() : 0;
+    }
+
+    private boolean build(String uuid,
+                          String project) throws Exception {
+        return pool.build(uuid, project, "/repo", "");
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void warmUpStartsTheWorkers() throws Exception {
+        createPool(2, 50, 30).warmUp();
+        assertThat(pool.getIdleWorkers()).isEqualTo(2);
+        assertThat(getStarts()).isEqualTo(2);
+    }
+
+    @Test
+    public void workerIsReused() throws Exception {
+        createPool(1, 50, 30);
+        assertThat(build("uuid-1", "project")).isTrue();
+        assertThat(build("uuid-2", "project")).isTrue();
+        assertThat(build("uuid-3", "project")).isTrue();
+        assertThat(getStarts()).isEqualTo(1);
+        assertThat(pool.getIdleWorkers()).isEqualTo(1);
+    }
+
+    @Test
+    public void workerIsRecycledAfterTheMaxBuilds() throws Exception {
+        createPool(1, 2, 30);
+        assertThat(build("uuid-1", "project")).isTrue();
+        assertThat(pool.getIdleWorkers()).isEqualTo(1);
+        assertThat(build("uuid-2", "project")).isTrue();
+        assertThat(pool.getIdleWorkers()).isZero();
+        assertThat(build("uuid-3", "project")).isTrue();
+        assertThat(getStarts()).isEqualTo(2);
+    }
+
+    @Test
+    public void deadWorkerIsReplaced() throws Exception {
+        createPool(1, 50, 30);
+        assertThat(build("uuid-1", FakeCompilerWorker.DIE)).isFalse();
+        assertThat(pool.getWorkers()).isZero();
+        assertThat(pool.getIdleWorkers()).isZero();
+
+        assertThat(build("uuid-2", "project")).isTrue();
+        assertThat(getStarts()).isEqualTo(2);
+    }
+
+    @Test
+    public void failedBuildIsReportedAndTheWorkerKept() throws Exception {
+        createPool(1, 50, 30);
+        assertThat(build("uuid-1", FakeCompilerWorker.FAIL)).isFalse();
+        assertThat(pool.getWorkers()).isEqualTo(1);
+        assertThat(pool.getIdleWorkers()).isEqualTo(1);
+
+        assertThat(build("uuid-2", "project")).isTrue();
+        assertThat(getStarts()).isEqualTo(1);
+    }
+
+    @Test
+    public void timedOutWorkerIsDestroyed() throws Exception {
+        createPool(1, 50, 1);
+        assertThat(build("uuid-1", FakeCompilerWorker.HANG)).isFalse();
+        assertThat(pool.getWorkers()).isZero();
+        assertThat(pool.getIdleWorkers()).isZero();
+
+        assertThat(build("uuid-2", "project")).isTrue();
+        assertThat(getStarts()).isEqualTo(2);
+    }
+
+    @Test
+    public void noBuildAfterShutdown() throws Exception {
+        createPool(1, 50, 30).warmUp();
+        pool.shutdown();
+        assertThat(pool.getIdleWorkers()).isZero();
+        assertThat(pool.getWorkers()).isZero();
+        assertThat(build("uuid-1", "project")).isFalse();
+        assertThat(getStarts()).isEqualTo(1);
+    }
+}
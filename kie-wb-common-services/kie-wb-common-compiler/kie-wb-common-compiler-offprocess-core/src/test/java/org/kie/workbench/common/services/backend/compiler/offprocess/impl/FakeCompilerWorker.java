@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.BUILD;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.CONTROL_PREFIX;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.DONE;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.EXIT;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.FAILED;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.PING;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.PONG;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.READY;
+import static org.kie.workbench.common.services.backend.compiler.offprocess.impl.ServerIPCWorkerImpl.SEPARATOR;
+
+/**
+ * Worker speaking the ServerIPCWorkerImpl protocol without running Maven, used by the CompilerWorkerPoolTest.
+ * Each start is appended to the file received as argument, a build of the "hang" project never completes,
+ * a build of the "die" project exits the process and a build of the "fail" project is replied as failed.
+ */
+public class FakeCompilerWorker {
+
+    static final String HANG = "hang";
+    static final String DIE = "die";
+    static final String FAIL = "fail";
+
+    public static void main(String[] args) throws Exception {
+        Files.write(Paths.get(args[0]),
+                    "started\n".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        reply(READY);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] tokens = line.split(SEPARATOR, -1);
+            if (PING.equals(tokens[0])) {
+                reply(PONG);
+            } else if (EXIT.equals(tokens[0])) {
+                break;
+            } else if (BUILD.equals(tokens[0])) {
+                if (DIE.equals(tokens[2])) {
+                    System.exit(1);
+                } else if (FAIL.equals(tokens[2])) {
+                    reply(FAILED + SEPARATOR + tokens[1] + SEPARATOR + "1024");
+                } else if (!HANG.equals(tokens[2])) {
+                    reply(DONE + SEPARATOR + tokens[1] + SEPARATOR + "1024");
+                }
+            }
+        }
+    }
+
+    private static void reply(String message) {
+        System.out.println(CONTROL_PREFIX + message);
+        System.out.flush();
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.service.executors;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.guvnor.common.services.backend.cache.LRUCache;
+import org.kie.workbench.common.services.backend.compiler.impl.CommonConstants;
+import org.kie.workbench.common.services.backend.compiler.impl.classloader.CompilerClassloaderUtils;
+import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.Paths;
+
+/**
+ * Content addressed cache of the successful compilation results, disabled unless
+ * {@value #ENABLED_PROPERTY} is set to true.
+ * The key is a hash of the project tree (sources and poms, skipping the target folder and the hidden files),
+ * the parent and imported poms resolved from the local repository, the content of the maven settings and the
+ * build arguments. The project tree is read through the NIO API, so a git project is hashed as committed.
+ * Each entry also keeps a fingerprint of the resolved dependency artifacts and of the target folder content of
+ * the directory Maven actually built, the temporary clone for a git project. A hit is only served while both are
+ * unchanged, so a rebuilt SNAPSHOT dependency or a cleaned target folder sends the build back to Maven.
+ * <p>
+ * The entries are kept in memory: a result holds the KieModule and the generated classes, which have no
+ * explicit serialized form, and its target folder check is tied to the clone of this node.
+ */
+class CompilationResultCache {
+
+    static final String ENABLED_PROPERTY = "org.kie.workbench.compiler.cache.results.enabled";
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationResultCache.class);
+    private static final String TARGET_DIR = "target";
+    private static final String POM_EXTENSION = ".pom";
+    private static final String FILE_SCHEME = "file";
+    private static final int MAX_PARENT_DEPTH = 32;
+
+    private final LRUCache<String, Entry> memory;
+
+    CompilationResultCache() {
+        this.memory = new LRUCache<String, Entry>() {
+        };
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "false"));
+    }
+
+    /**
+     * Computes the cache key of a build, returns null when the project tree or one of the poms it inherits
+     * from can not be read
+     */
+    String key(Path projectPath,
+               String mavenRepoPath,
+               String settingXML,
+               String[] args,
+               boolean skipProjectDepCreation) {
+        try {
+            MessageDigest digest = newDigest();
+            List<Path> poms = new ArrayList<>();
+            digest.update(hashTree(projectPath,
+                                   poms));
+            for (Path pom : poms) {
+                if (!hashInheritedPoms(pom,
+                                       mavenRepoPath,
+                                       digest)) {
+                    return null;
+                }
+            }
+            if (settingXML != null) {
+                java.nio.file.Path settings = java.nio.file.Paths.get(settingXML);
+                digest.update(java.nio.file.Files.isRegularFile(settings) ? java.nio.file.Files.readAllBytes(settings) : settingXML.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(String.valueOf(mavenRepoPath).getBytes(StandardCharsets.UTF_8));
+            for (String arg : args) {
+                digest.update(arg.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) (skipProjectDepCreation ? 1 : 0));
+            return toHex(digest.digest());
+        } catch (Exception e) {
+            logger.warn("Unable to compute the compilation cache key of {}: {}", projectPath, e.getMessage());
+            return null;
+        }
+    }
+
+    KieCompilationResponse get(String key) {
+        Entry entry = memory.getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!Arrays.equals(entry.fingerprint,
+                           fingerprint(entry.response.getDependencies(),
+                                       entry.workingDir))) {
+            memory.invalidateCache(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    void put(String key,
+             Path projectPath,
+             KieCompilationResponse response) {
+        if (!response.isSuccessful()) {
+            return;
+        }
+        //A git project is built in a temporary clone, its target folder is the one to check
+        Path workingDir = response.getWorkingDir().orElse(projectPath);
+        byte[] fingerprint = fingerprint(response.getDependencies(),
+                                         workingDir);
+        if (fingerprint != null) {
+            memory.setEntry(key,
+                            new Entry(response,
+                                      workingDir,
+                                      fingerprint));
+        }
+    }
+
+    /**
+     * Hash of the resolved dependency artifacts with their poms and of the compiled files under the target
+     * folder, null when one of them can not be read or the folder is not on the local file system
+     */
+    private byte[] fingerprint(List<String> dependencies,
+                               Path workingDir) {
+        if (!FILE_SCHEME.equals(workingDir.toUri().getScheme())) {
+            return null;
+        }
+        try {
+            MessageDigest digest = newDigest();
+            for (String dependency : new TreeSet<>(dependencies)) {
+                java.nio.file.Path artifact = toLocalPath(dependency);
+                hashFile(artifact,
+                         digest);
+                String name = artifact.getFileName().toString();
+                if (name.endsWith(CommonConstants.JAVA_ARCHIVE_RESOURCE_EXT)) {
+                    java.nio.file.Path pom = artifact.resolveSibling(name.substring(0, name.length() - CommonConstants.JAVA_ARCHIVE_RESOURCE_EXT.length()) + POM_EXTENSION);
+                    if (java.nio.file.Files.isRegularFile(pom)) {
+                        hashFile(pom,
+                                 digest);
+                    }
+                }
+            }
+            for (String file : new TreeSet<>(CompilerClassloaderUtils.getStringFromTargets(workingDir))) {
+                digest.update(file.getBytes(StandardCharsets.UTF_8));
+                hashFile(java.nio.file.Paths.get(file),
+                         digest);
+            }
+            return digest.digest();
+        } catch (Exception e) {
+            logger.debug("Unable to fingerprint the compilation of {}: {}", workingDir, e.getMessage());
+            return null;
+        }
+    }
+
+    private static java.nio.file.Path toLocalPath(String dependency) {
+        if (dependency.startsWith(CommonConstants.FILE_URI)) {
+            return java.nio.file.Paths.get(dependency.substring(CommonConstants.FILE_URI.length()));
+        }
+        if (dependency.startsWith("file:")) {
+            return java.nio.file.Paths.get(dependency.substring("file:".length()));
+        }
+        return java.nio.file.Paths.get(dependency);
+    }
+
+    /**
+     * Adds to the digest the parent chain and the imported boms of a pom which are not part of the project tree,
+     * as they are resolved by Maven from the local repository. Returns false when one of them is missing.
+     */
+    private boolean hashInheritedPoms(Path pom,
+                                      String mavenRepoPath,
+                                      MessageDigest digest) throws Exception {
+        Path current = pom;
+        for (int depth = 0; depth < MAX_PARENT_DEPTH; depth++) {
+            Model model = readModel(current);
+            if (model.getDependencyManagement() != null) {
+                for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                    if ("import".equals(dependency.getScope())) {
+                        Path imported = fromRepository(mavenRepoPath,
+                                                                     interpolate(dependency.getGroupId(), model),
+                                                                     interpolate(dependency.getArtifactId(), model),
+                                                                     interpolate(dependency.getVersion(), model));
+                        if (imported == null) {
+                            return false;
+                        }
+                        hashFile(imported,
+                                 digest);
+                    }
+                }
+            }
+            Parent parent = model.getParent();
+            if (parent == null) {
+                return true;
+            }
+            String relativePath = parent.getRelativePath() != null ? parent.getRelativePath() : "../" + CommonConstants.POM_NAME;
+            Path local = relativePath.isEmpty() ? null : current.resolveSibling(relativePath).normalize();
+            if (local != null && Files.isDirectory(local)) {
+                local = local.resolve(CommonConstants.POM_NAME);
+            }
+            if (local != null && Files.isRegularFile(local) && isParent(readModel(local), parent)) {
+                current = local;
+            } else {
+                current = fromRepository(mavenRepoPath,
+                                         parent.getGroupId(),
+                                         parent.getArtifactId(),
+                                         parent.getVersion());
+                if (current == null) {
+                    return false;
+                }
+            }
+            hashFile(current,
+                     digest);
+        }
+        return false;
+    }
+
+    private static boolean isParent(Model model,
+                                    Parent parent) {
+        String groupId = model.getGroupId() != null ? model.getGroupId() : (model.getParent() != null ? model.getParent().getGroupId() : null);
+        return parent.getArtifactId().equals(model.getArtifactId()) && parent.getGroupId().equals(groupId);
+    }
+
+    private static Path fromRepository(String mavenRepoPath,
+                                       String groupId,
+                                       String artifactId,
+                                       String version) {
+        if (mavenRepoPath == null || groupId == null || artifactId == null || version == null) {
+            return null;
+        }
+        java.nio.file.Path pom = java.nio.file.Paths.get(mavenRepoPath,
+                                                         groupId.replace('.', '/'),
+                                                         artifactId,
+                                                         version,
+                                                         artifactId + "-" + version + POM_EXTENSION);
+        return java.nio.file.Files.isRegularFile(pom) ? Paths.get(pom.toUri()) : null;
+    }
+
+    /**
+     * Resolves the values which are a single property defined in the pom itself, the others are returned as they are
+     * and will not be found in the repository
+     */
+    private static String interpolate(String value,
+                                      Model model) {
+        if (value == null || !value.startsWith("${") || !value.endsWith("}")) {
+            return value;
+        }
+        String property = value.substring(2, value.length() - 1);
+        if ("project.version".equals(property)) {
+            return model.getVersion() != null ? model.getVersion() : (model.getParent() != null ? model.getParent().getVersion() : null);
+        }
+        Properties properties = model.getProperties();
+        return properties != null ? properties.getProperty(property, value) : value;
+    }
+
+    private static Model readModel(Path pom) throws Exception {
+        try (InputStream in = Files.newInputStream(pom)) {
+            return new MavenXpp3Reader().read(in);
+        }
+    }
+
+    private byte[] hashTree(Path path,
+                            List<Path> poms) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = newDigest();
+        if (Files.isDirectory(path)) {
+            Map<String, Path> children = new TreeMap<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) {
+                    String name = child.getFileName().toString();
+                    if (name.startsWith(".") || (TARGET_DIR.equals(name) && Files.isDirectory(child))) {
+                        continue;
+                    }
+                    children.put(name, child);
+                }
+            }
+            for (Map.Entry<String, Path> child : children.entrySet()) {
+                digest.update(child.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update(hashTree(child.getValue(),
+                                       poms));
+            }
+        } else {
+            if (CommonConstants.POM_NAME.equals(path.getFileName().toString())) {
+                poms.add(path);
+            }
+            hashFile(path,
+                     digest);
+        }
+        return digest.digest();
+    }
+
+    private static void hashFile(Path file,
+                                 MessageDigest digest) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            update(digest,
+                   in);
+        }
+    }
+
+    private static void hashFile(java.nio.file.Path file,
+                                 MessageDigest digest) throws IOException {
+        try (InputStream in = java.nio.file.Files.newInputStream(file)) {
+            update(digest,
+                   in);
+        }
+    }
+
+    private static void update(MessageDigest digest,
+                               InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+    }
+
+    private static MessageDigest newDigest() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static class Entry {
+
+        private final KieCompilationResponse response;
+        private final Path workingDir;
+        private final byte[] fingerprint;
+
+        Entry(KieCompilationResponse response,
+              Path workingDir,
+              byte[] fingerprint) {
+            this.response = response;
+            this.workingDir = workingDir;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
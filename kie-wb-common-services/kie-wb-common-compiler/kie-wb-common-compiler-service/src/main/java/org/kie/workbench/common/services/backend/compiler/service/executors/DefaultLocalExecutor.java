@@ -15,9 +15,17 @@
  */
 package org.kie.workbench.common.services.backend.compiler.service.executors;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
@@ -30,18 +38,22 @@ import org.kie.workbench.common.services.backend.compiler.impl.DefaultCompilatio
 import org.kie.workbench.common.services.backend.compiler.impl.WorkspaceCompilationInfo;
 import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
 import org.kie.workbench.common.services.backend.compiler.impl.kie.KieMavenCompilerFactory;
+import org.kie.workbench.common.services.backend.compiler.service.executors.SingleFlightBuildCoalescer.BuildKey;
 import org.uberfire.java.nio.file.Path;
 
 /**
- * Implementation for a local build requested by a local execution (Contains NIO Objects)
+ * Implementation for a local build requested by a local execution (Contains NIO Objects).
+ * Concurrent requests for the same build are coalesced, see {@link SingleFlightBuildCoalescer}
  */
 public class DefaultLocalExecutor implements CompilerExecutor {
 
-    private ExecutorService executor;
     private LRUCache<Path, CompilerAggregateEntryCache> compilerCacheForLocalInvocation;
+    private SingleFlightBuildCoalescer coalescer;
+    private CompilationResultCache resultCache;
 
     public DefaultLocalExecutor(ExecutorService executorService) {
-        executor = executorService;
+        coalescer = new SingleFlightBuildCoalescer(executorService);
+        resultCache = CompilationResultCache.isEnabled() ? new CompilationResultCache() : null;
         compilerCacheForLocalInvocation = new LRUCache<Path, CompilerAggregateEntryCache>() {
         };
     }
@@ -102,8 +114,45 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                     skipProjectDepCreation,
                                     new String[]{goal});
         }
-        return CompletableFuture.supplyAsync(() -> ((KieCompilationResponse) compiler.compile(req)),
-                                             executor);
+        final boolean cacheable = resultCache != null && MavenCLIArgs.COMPILE.equals(goal);
+        return coalescer.submit(new BuildKey(projectPath,
+                                             mavenRepoPath,
+                                             req.getOriginalArgs(),
+                                             skipProjectDepCreation,
+                                             null),
+                                () -> cacheable ?
+                                        compileWithResultCache(compiler,
+                                                               req,
+                                                               settingXML,
+                                                               skipProjectDepCreation) :
+                                        (KieCompilationResponse) compiler.compile(req));
+    }
+
+    /**
+     * Only plain compilations are served from the result cache, goals like install have side effects Maven must run
+     */
+    private KieCompilationResponse compileWithResultCache(AFCompiler compiler,
+                                                          CompilationRequest req,
+                                                          String settingXML,
+                                                          boolean skipProjectDepCreation) {
+        String key = resultCache.key(req.getInfo().getPrjPath(),
+                                     req.getMavenRepo(),
+                                     settingXML,
+                                     req.getOriginalArgs(),
+                                     skipProjectDepCreation);
+        if (key != null) {
+            KieCompilationResponse cached = resultCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        KieCompilationResponse res = (KieCompilationResponse) compiler.compile(req);
+        if (key != null) {
+            resultCache.put(key,
+                            req.getInfo().getPrjPath(),
+                            res);
+        }
+        return res;
     }
 
     private CompletableFuture<KieCompilationResponse> internalBuild(Path projectPath,
@@ -116,8 +165,12 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                                    info,
                                                    skipProjectDepCreation,
                                                    args);
-        return CompletableFuture.supplyAsync(() -> ((KieCompilationResponse) compiler.compile(req)),
-                                             executor);
+        return coalescer.submit(new BuildKey(projectPath,
+                                             mavenRepoPath,
+                                             args,
+                                             skipProjectDepCreation,
+                                             null),
+                                () -> ((KieCompilationResponse) compiler.compile(req)));
     }
 
     private CompletableFuture<KieCompilationResponse> internalBuild(Path projectPath,
@@ -140,9 +193,59 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                     skipProjectDepCreation,
                                     new String[]{goal});
         }
-        return CompletableFuture.supplyAsync(() -> ((KieCompilationResponse) compiler.compile(req,
-                                                                                              override)),
-                                             executor);
+        Map<Path, InputStream> buffered = new LinkedHashMap<>();
+        String overrideDigest;
+        try {
+            overrideDigest = digestAndBuffer(override,
+                                             buffered);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            CompletableFuture<KieCompilationResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return coalescer.submit(new BuildKey(projectPath,
+                                             mavenRepoPath,
+                                             req.getOriginalArgs(),
+                                             skipProjectDepCreation,
+                                             overrideDigest),
+                                () -> ((KieCompilationResponse) compiler.compile(req,
+                                                                                 buffered)));
+    }
+
+    /**
+     * Reads the overridden contents once, to fingerprint them for the coalescing key and to
+     * hand the compiler streams that are still unread
+     */
+    private String digestAndBuffer(Map<Path, InputStream> override,
+                                   Map<Path, InputStream> buffered) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        Map<String, Path> sorted = new TreeMap<>();
+        for (Path path : override.keySet()) {
+            sorted.put(path.toString(),
+                       path);
+        }
+        byte[] chunk = new byte[8192];
+        for (Map.Entry<String, Path> entry : sorted.entrySet()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = override.get(entry.getValue())) {
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    out.write(chunk,
+                              0,
+                              read);
+                }
+            }
+            byte[] content = out.toByteArray();
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update(content);
+            buffered.put(entry.getValue(),
+                         new ByteArrayInputStream(content));
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
     }
 
     /************************************ Suitable for the Local Builds ***********************************************/
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.service.executors;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Collapses identical build requests on the same project into a single compilation.
+ * A request that arrives before the build of its key has started joins that build,
+ * while all the requests that arrive while it is running share one trailing rebuild,
+ * started as soon as the running one completes.
+ */
+class SingleFlightBuildCoalescer {
+
+    private final ExecutorService executor;
+    private final Map<BuildKey, Flight> flights = new HashMap<>();
+
+    SingleFlightBuildCoalescer(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    CompletableFuture<KieCompilationResponse> submit(BuildKey key,
+                                                     Supplier<KieCompilationResponse> build) {
+        synchronized (flights) {
+            Flight flight = flights.get(key);
+            if (flight == null) {
+                flight = new Flight();
+                flights.put(key,
+                            flight);
+                return launch(key,
+                              flight,
+                              new CompletableFuture<>(),
+                              build);
+            }
+            if (!flight.started) {
+                return flight.current;
+            }
+            if (flight.trailing == null) {
+                flight.trailing = new CompletableFuture<>();
+            }
+            flight.trailingBuild = build;
+            return flight.trailing;
+        }
+    }
+
+    int inFlight() {
+        synchronized (flights) {
+            return flights.size();
+        }
+    }
+
+    private CompletableFuture<KieCompilationResponse> launch(BuildKey key,
+                                                             Flight flight,
+                                                             CompletableFuture<KieCompilationResponse> future,
+                                                             Supplier<KieCompilationResponse> build) {
+        flight.current = future;
+        flight.started = false;
+        try {
+            executor.execute(() -> run(key,
+                                       flight,
+                                       future,
+                                       build));
+        } catch (RejectedExecutionException e) {
+            flights.remove(key);
+            future.completeExceptionally(e);
+            if (flight.trailing != null) {
+                flight.trailing.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    private void run(BuildKey key,
+                     Flight flight,
+                     CompletableFuture<KieCompilationResponse> future,
+                     Supplier<KieCompilationResponse> build) {
+        synchronized (flights) {
+            flight.started = true;
+        }
+        KieCompilationResponse response = null;
+        Throwable failure = null;
+        try {
+            response = build.get();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // the flight is released before completing, so callers observe a consistent state
+        onFinished(key,
+                   flight);
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else {
+            future.complete(response);
+        }
+    }
+
+    private void onFinished(BuildKey key,
+                            Flight flight) {
+        synchronized (flights) {
+            if (flight.trailing == null) {
+                flights.remove(key);
+                return;
+            }
+            CompletableFuture<KieCompilationResponse> trailing = flight.trailing;
+            Supplier<KieCompilationResponse> trailingBuild = flight.trailingBuild;
+            flight.trailing = null;
+            flight.trailingBuild = null;
+            launch(key,
+                   flight,
+                   trailing,
+                   trailingBuild);
+        }
+    }
+
+    private static class Flight {
+
+        private CompletableFuture<KieCompilationResponse> current;
+        private boolean started;
+        private CompletableFuture<KieCompilationResponse> trailing;
+        private Supplier<KieCompilationResponse> trailingBuild;
+    }
+
+    /**
+     * Identity of a build: two requests with equal keys produce the same compilation output
+     */
+    static class BuildKey {
+
+        private final Path projectPath;
+        private final String mavenRepoPath;
+        private final String[] args;
+        private final boolean skipProjectDepCreation;
+        private final String overrideDigest;
+
+        BuildKey(Path projectPath,
+                 String mavenRepoPath,
+                 String[] args,
+                 boolean skipProjectDepCreation,
+                 String overrideDigest) {
+            this.projectPath = projectPath;
+            this.mavenRepoPath = mavenRepoPath;
+            this.args = args.clone();
+            this.skipProjectDepCreation = skipProjectDepCreation;
+            this.overrideDigest = overrideDigest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BuildKey)) {
+                return false;
+            }
+            BuildKey other = (BuildKey) o;
+            return skipProjectDepCreation == other.skipProjectDepCreation &&
+                    Objects.equals(projectPath, other.projectPath) &&
+                    Objects.equals(mavenRepoPath, other.mavenRepoPath) &&
+                    Arrays.equals(args, other.args) &&
+                    Objects.equals(overrideDigest, other.overrideDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hash(projectPath,
+                                      mavenRepoPath,
+                                      skipProjectDepCreation,
+                                      overrideDigest);
+            return 31 * result + Arrays.hashCode(args);
+        }
+    }
+}
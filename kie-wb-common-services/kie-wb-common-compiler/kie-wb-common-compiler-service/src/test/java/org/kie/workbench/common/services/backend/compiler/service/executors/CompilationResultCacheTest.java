@@ -0,0 +1,214 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.service.executors;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.Paths;
+import org.uberfire.mocks.FileSystemTestingUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompilationResultCacheTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private java.nio.file.Path project;
+    private java.nio.file.Path repo;
+    private Path projectPath;
+
+    @BeforeClass
+    public static void setupSystemProperties() {
+        //These are not needed for the tests
+        System.setProperty("org.uberfire.nio.git.daemon.enabled",
+                           "false");
+        System.setProperty("org.uberfire.nio.git.ssh.enabled",
+                           "false");
+        System.setProperty("org.uberfire.sys.repo.monitor.disabled",
+                           "true");
+    }
+
+    @AfterClass
+    public static void restoreSystemProperties() {
+        System.clearProperty("org.uberfire.nio.git.daemon.enabled");
+        System.clearProperty("org.uberfire.nio.git.ssh.enabled");
+        System.clearProperty("org.uberfire.sys.repo.monitor.disabled");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        project = temp.newFolder("project").toPath();
+        repo = temp.newFolder("repo").toPath();
+        Files.write(project.resolve("pom.xml"), "<project/>".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(project.resolve("src/main/java/dummy"));
+        Files.write(project.resolve("src/main/java/dummy/Dummy.java"), "class Dummy {}".getBytes(StandardCharsets.UTF_8));
+        projectPath = Paths.get(project.toUri());
+    }
+
+    private String key(CompilationResultCache cache) {
+        return cache.key(projectPath, repo.toString(), null, new String[]{MavenCLIArgs.COMPILE}, false);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertThat(System.getProperty(CompilationResultCache.ENABLED_PROPERTY)).isNull();
+        assertThat(CompilationResultCache.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void keyChangesOnlyWithSources() throws Exception {
+        CompilationResultCache cache = new CompilationResultCache();
+        String original = key(cache);
+        assertThat(original).isNotNull().isEqualTo(key(cache));
+
+        Files.createDirectories(project.resolve("target/classes"));
+        Files.write(project.resolve("target/classes/Dummy.class"), new byte[]{1, 2, 3});
+        assertThat(key(cache)).isEqualTo(original);
+
+        Files.write(project.resolve("src/main/java/dummy/Dummy.java"), "class Dummy { int a; }".getBytes(StandardCharsets.UTF_8));
+        assertThat(key(cache)).isNotEqualTo(original);
+    }
+
+    @Test
+    public void keyChangesWithTheParentPomOfTheRepository() throws Exception {
+        Files.write(project.resolve("pom.xml"), ("<project><modelVersion>4.0.0</modelVersion>" +
+                "<parent><groupId>org.dummy</groupId><artifactId>dummy-parent</artifactId><version>1.0-SNAPSHOT</version><relativePath/></parent>" +
+                "<artifactId>dummy</artifactId></project>").getBytes(StandardCharsets.UTF_8));
+        CompilationResultCache cache = new CompilationResultCache();
+        assertThat(key(cache)).isNull();
+
+        java.nio.file.Path parent = repo.resolve("org/dummy/dummy-parent/1.0-SNAPSHOT/dummy-parent-1.0-SNAPSHOT.pom");
+        Files.createDirectories(parent.getParent());
+        Files.write(parent, ("<project><modelVersion>4.0.0</modelVersion><groupId>org.dummy</groupId>" +
+                "<artifactId>dummy-parent</artifactId><version>1.0-SNAPSHOT</version></project>").getBytes(StandardCharsets.UTF_8));
+        String original = key(cache);
+        assertThat(original).isNotNull().isEqualTo(key(cache));
+
+        Files.write(parent, ("<project><modelVersion>4.0.0</modelVersion><groupId>org.dummy</groupId>" +
+                "<artifactId>dummy-parent</artifactId><version>1.0-SNAPSHOT</version><packaging>pom</packaging></project>").getBytes(StandardCharsets.UTF_8));
+        assertThat(key(cache)).isNotEqualTo(original);
+    }
+
+    @Test
+    public void changedDependencyIsNotServed() throws Exception {
+        java.nio.file.Path jar = repo.resolve("org/dummy/dep/1.0-SNAPSHOT/dep-1.0-SNAPSHOT.jar");
+        Files.createDirectories(jar.getParent());
+        Files.write(jar, new byte[]{1, 2, 3});
+        CompilationResultCache cache = new CompilationResultCache();
+        String key = key(cache);
+
+        cache.put(key, projectPath, new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                                      Arrays.asList("BUILD SUCCESS"),
+                                                                      Collections.emptyList(),
+                                                                      Arrays.asList(jar.toString()),
+                                                                      null,
+                                                                      "uuid"));
+        KieCompilationResponse cached = cache.get(key);
+        assertThat(cached).isNotNull();
+        assertThat(cached.isSuccessful()).isTrue();
+        assertThat(cached.getMavenOutput()).containsExactly("BUILD SUCCESS");
+
+        Files.write(jar, new byte[]{1, 2, 3, 4});
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    public void changedTargetIsNotServed() throws Exception {
+        java.nio.file.Path compiled = project.resolve("target/classes/dummy/Dummy.class");
+        Files.createDirectories(compiled.getParent());
+        Files.write(compiled, new byte[]{1, 2, 3});
+        CompilationResultCache cache = new CompilationResultCache();
+        String key = key(cache);
+
+        cache.put(key, projectPath, new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                                      Arrays.asList("BUILD SUCCESS"),
+                                                                      Arrays.asList(compiled.toString()),
+                                                                      Collections.emptyList(),
+                                                                      null,
+                                                                      "uuid"));
+        assertThat(cache.get(key)).isNotNull();
+
+        Files.delete(compiled);
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    public void failedResultsAreNotCached() throws Exception {
+        CompilationResultCache cache = new CompilationResultCache();
+        String key = key(cache);
+        cache.put(key, projectPath, new DefaultKieCompilationResponse(Boolean.FALSE, "uuid"));
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    public void gitProjectIsServedWhileItsCloneIsUnchanged() throws Exception {
+        FileSystemTestingUtils fileSystemTestingUtils = new FileSystemTestingUtils();
+        fileSystemTestingUtils.setup();
+        try {
+            IOService ioService = fileSystemTestingUtils.getIoService();
+            Map<String, Object> env = new HashMap<>();
+            env.put("init", Boolean.TRUE);
+            env.put("internal", Boolean.TRUE);
+            FileSystem fileSystem = ioService.newFileSystem(URI.create("git://cachedrepo"), env);
+            ioService.write(fileSystem.getPath("/pom.xml"), "<project/>");
+            ioService.write(fileSystem.getPath("/src/main/java/dummy/Dummy.java"), "class Dummy {}");
+            Path gitPath = fileSystem.getPath("/");
+
+            CompilationResultCache cache = new CompilationResultCache();
+            String key = cache.key(gitPath, repo.toString(), null, new String[]{MavenCLIArgs.COMPILE}, false);
+            assertThat(key).isNotNull().isEqualTo(cache.key(gitPath, repo.toString(), null, new String[]{MavenCLIArgs.COMPILE}, false));
+
+            //The project folder stands for the temporary clone Maven built
+            java.nio.file.Path compiled = project.resolve("target/classes/dummy/Dummy.class");
+            Files.createDirectories(compiled.getParent());
+            Files.write(compiled, new byte[]{1, 2, 3});
+            cache.put(key, gitPath, new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                                      Arrays.asList("BUILD SUCCESS"),
+                                                                      Arrays.asList(compiled.toString()),
+                                                                      Collections.emptyList(),
+                                                                      projectPath,
+                                                                      "uuid"));
+            assertThat(cache.get(key)).isNotNull();
+
+            ioService.write(fileSystem.getPath("/src/main/java/dummy/Dummy.java"), "class Dummy { int a; }");
+            assertThat(cache.key(gitPath, repo.toString(), null, new String[]{MavenCLIArgs.COMPILE}, false)).isNotEqualTo(key);
+
+            Files.delete(compiled);
+            assertThat(cache.get(key)).isNull();
+        } finally {
+            fileSystemTestingUtils.cleanup();
+        }
+    }
+}
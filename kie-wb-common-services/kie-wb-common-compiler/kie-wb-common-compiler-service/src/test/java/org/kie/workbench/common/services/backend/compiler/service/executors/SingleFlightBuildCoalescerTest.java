@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.service.executors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
+import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.service.executors.SingleFlightBuildCoalescer.BuildKey;
+import org.uberfire.java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SingleFlightBuildCoalescerTest {
+
+    private ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private BuildKey key(String goal) {
+        return new BuildKey(Paths.get("/tmp/dummy"),
+                            "/tmp/repo",
+                            new String[]{goal},
+                            false,
+                            null);
+    }
+
+    @Test
+    public void burstDuringBuildCollapsesIntoOneTrailingBuild() throws Exception {
+        SingleFlightBuildCoalescer coalescer = new SingleFlightBuildCoalescer(executorService);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger builds = new AtomicInteger();
+
+        CompletableFuture<KieCompilationResponse> first = coalescer.submit(key(MavenCLIArgs.COMPILE),
+                                                                           () -> {
+                                                                               builds.incrementAndGet();
+                                                                               started.countDown();
+                                                                               await(release);
+                                                                               return null;
+                                                                           });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<KieCompilationResponse> second = coalescer.submit(key(MavenCLIArgs.COMPILE),
+                                                                            () -> {
+                                                                                builds.incrementAndGet();
+                                                                                return null;
+                                                                            });
+        CompletableFuture<KieCompilationResponse> third = coalescer.submit(key(MavenCLIArgs.COMPILE),
+                                                                           () -> {
+                                                                               builds.incrementAndGet();
+                                                                               return null;
+                                                                           });
+        assertThat(second).isSameAs(third);
+        assertThat(second).isNotSameAs(first);
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(builds.get()).isEqualTo(2);
+        assertThat(coalescer.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void differentKeysAreNotCoalesced() throws Exception {
+        SingleFlightBuildCoalescer coalescer = new SingleFlightBuildCoalescer(executorService);
+        AtomicInteger builds = new AtomicInteger();
+
+        CompletableFuture<KieCompilationResponse> compile = coalescer.submit(key(MavenCLIArgs.COMPILE),
+                                                                             () -> {
+                                                                                 builds.incrementAndGet();
+                                                                                 return null;
+                                                                             });
+        CompletableFuture<KieCompilationResponse> install = coalescer.submit(key(MavenCLIArgs.INSTALL),
+                                                                             () -> {
+                                                                                 builds.incrementAndGet();
+                                                                                 return null;
+                                                                             });
+        CompletableFuture.allOf(compile, install).get(5, TimeUnit.SECONDS);
+        assertThat(builds.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void failureIsPropagatedToCallers() throws Exception {
+        SingleFlightBuildCoalescer coalescer = new SingleFlightBuildCoalescer(executorService);
+        CompletableFuture<KieCompilationResponse> future = coalescer.submit(key(MavenCLIArgs.COMPILE),
+                                                                            () -> {
+                                                                                throw new IllegalStateException("boom");
+                                                                            });
+        assertThat(future.handle((res, t) -> t).get(5, TimeUnit.SECONDS)).hasMessageContaining("boom");
+        assertThat(coalescer.inFlight()).isEqualTo(0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
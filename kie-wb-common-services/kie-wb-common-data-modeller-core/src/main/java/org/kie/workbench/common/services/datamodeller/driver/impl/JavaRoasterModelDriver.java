@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -115,6 +116,8 @@ public class JavaRoasterModelDriver implements ModelDriver {
 
     private FilterHolder filterHolder;
 
+    private JavaSourceParseCache parseCache;
+
     private static final String DATA_OBJECT_LOAD_ERROR = "It was not possible to create or load DataObject: \"{0}\" .";
 
     private static final String ANNOTATION_LOAD_ERROR = "It was not possible to create or load a DataObject or Field annotation for annotation class name: \"{0}\" .";
@@ -144,11 +147,24 @@ public class JavaRoasterModelDriver implements ModelDriver {
                                   Path javaRootPath,
                                   ClassLoader classLoader,
                                   FilterHolder filterHolder) {
+        this(ioService,
+             javaRootPath,
+             classLoader,
+             filterHolder,
+             new JavaSourceParseCache(0));
+    }
+
+    public JavaRoasterModelDriver(IOService ioService,
+                                  Path javaRootPath,
+                                  ClassLoader classLoader,
+                                  FilterHolder filterHolder,
+                                  JavaSourceParseCache parseCache) {
         this();
         this.ioService = ioService;
         this.javaRootPath = javaRootPath;
         this.classLoader = classLoader;
         this.filterHolder = filterHolder;
+        this.parseCache = parseCache != null ? parseCache : new JavaSourceParseCache(0);
     }
 
     @Override
@@ -189,6 +205,8 @@ public class JavaRoasterModelDriver implements ModelDriver {
                                                                                     ".java",
                                                                                     true);
         if (scanResults != null) {
+            //Files are read first, and parsed all at once: the cache only parses the files that changed
+            final Map<Path, String> sources = new LinkedHashMap<Path, String>();
             for (FileUtils.ScanResult scanResult : scanResults) {
 
                 logger.debug("Starting file loading into model, file: " + scanResult.getFile());
@@ -199,37 +217,25 @@ public class JavaRoasterModelDriver implements ModelDriver {
                                                     Paths.convert(scanResult.getFile())));
                     continue;
                 }
+                sources.put(scanResult.getFile(),
+                            fileContent);
+            }
+
+            for (JavaSourceParseCache.ParsedSource parsedSource : parseCache.parse(javaRootPath,
+                                                                                   sources)) {
+                final Path file = parsedSource.getFile();
                 try {
-                    JavaType<?> javaType = Roaster.parse(fileContent);
-                    final boolean isManaged = isManagedJavaType(javaType);
-                    final boolean vetoed = (isManaged ? isVetoed(javaType) : false);
-                    if (isManaged && !vetoed) {
-                        if (javaType.getSyntaxErrors() != null && !javaType.getSyntaxErrors().isEmpty()) {
-                            //if a file has parsing errors it will be skipped.
-                            addSyntaxErrors(result,
-                                            scanResult.getFile(),
-                                            javaType.getSyntaxErrors());
-                        } else if (javaType.isEnum()) {
-                            loadFromJavaEnum((JavaEnumSource) javaType,
-                                             scanResult.getFile(),
-                                             dataModel,
-                                             result);
-                        } else {
-                            loadFromJavaClass((JavaClassSource) javaType,
-                                              scanResult.getFile(),
-                                              dataModel,
-                                              result);
-                        }
-                    } else if (vetoed) {
-                        logger.debug("The class, {}, in the file, {}, was vetoed and will be skipped.",
-                                     javaType.getQualifiedName(),
-                                     scanResult.getFile());
-                    } else {
-                        logger.debug("File: " + scanResult.getFile() + " do not contain a managed java type, it will be skipped.");
+                    JavaType<?> javaType = parsedSource.getJavaType();
+                    //The parsed type may be shared with other loads of the module
+                    synchronized (javaType) {
+                        loadFromJavaType(javaType,
+                                         file,
+                                         dataModel,
+                                         result);
                     }
                 } catch (ParserException e) {
                     result.addError(new DriverError(e.getMessage(),
-                                                    Paths.convert(scanResult.getFile())));
+                                                    Paths.convert(file)));
                 } catch (Exception e) {
                     //Unexpected error.
                     logger.error(errorMessage(MODEL_LOAD_GENERIC_ERROR,
@@ -244,6 +250,38 @@ public class JavaRoasterModelDriver implements ModelDriver {
         return result;
     }
 
+    private void loadFromJavaType(JavaType<?> javaType,
+                                  Path file,
+                                  DataModel dataModel,
+                                  ModelDriverResult result) {
+        final boolean isManaged = isManagedJavaType(javaType);
+        final boolean vetoed = (isManaged ? isVetoed(javaType) : false);
+        if (isManaged && !vetoed) {
+            if (javaType.getSyntaxErrors() != null && !javaType.getSyntaxErrors().isEmpty()) {
+                //if a file has parsing errors it will be skipped.
+                addSyntaxErrors(result,
+                                file,
+                                javaType.getSyntaxErrors());
+            } else if (javaType.isEnum()) {
+                loadFromJavaEnum((JavaEnumSource) javaType,
+                                 file,
+                                 dataModel,
+                                 result);
+            } else {
+                loadFromJavaClass((JavaClassSource) javaType,
+                                  file,
+                                  dataModel,
+                                  result);
+            }
+        } else if (vetoed) {
+            logger.debug("The class, {}, in the file, {}, was vetoed and will be skipped.",
+                         javaType.getQualifiedName(),
+                         file);
+        } else {
+            logger.debug("File: " + file + " do not contain a managed java type, it will be skipped.");
+        }
+    }
+
     private boolean isVetoed(final JavaType<?> javaType) {
         return filterHolder.getSourceFilters().stream().anyMatch(filter -> filter.veto(javaType));
     }
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodeller.driver.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.jboss.forge.roaster.ParserException;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.JavaType;
+import org.kie.workbench.common.services.datamodeller.util.FileHashingUtils;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Keeps the java types parsed by {@link JavaRoasterModelDriver#loadModel()}, per java root path and file, together with
+ * the hash of the file content. When a model is loaded again only the files whose content changed are parsed, the
+ * entries of the files that are gone are dropped. The files that need to be parsed are parsed in parallel.
+ * <p>
+ * Up to {@link #CACHE_SIZE} java root paths are kept, 0 disables the cache. As a parsed type takes many times the
+ * memory of its source, the roots are also limited by the total length of their sources, in characters, set with
+ * {@link #CACHE_SOURCE_SIZE} (4M by default): the least recently loaded roots are dropped beyond it, and a root whose
+ * sources alone exceed it is not kept. The number of threads used to parse is set with {@link #PARSE_THREADS}, it
+ * defaults to the number of processors.
+ */
+@ApplicationScoped
+public class JavaSourceParseCache {
+
+    public static final String CACHE_SIZE = "org.kie.workbench.datamodeller.parse.cache.size";
+
+    public static final String CACHE_SOURCE_SIZE = "org.kie.workbench.datamodeller.parse.cache.sourceSize";
+
+    public static final String PARSE_THREADS = "org.kie.workbench.datamodeller.parse.threads";
+
+    private static final long DEFAULT_SOURCE_SIZE = 4 * 1024 * 1024;
+
+    private final int maxSize;
+
+    private final long maxSourceSize;
+
+    private final Map<String, Map<String, ParsedSource>> roots;
+
+    private long sourceSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public JavaSourceParseCache() {
+        this(Integer.getInteger(CACHE_SIZE,
+                                32));
+    }
+
+    public JavaSourceParseCache(final int maxSize) {
+        this(maxSize,
+             Long.getLong(CACHE_SOURCE_SIZE,
+                          DEFAULT_SOURCE_SIZE));
+    }
+
+    public JavaSourceParseCache(final int maxSize,
+                                final long maxSourceSize) {
+        this.maxSize = maxSize;
+        this.maxSourceSize = maxSourceSize;
+        this.roots = new LinkedHashMap<>(16,
+                                         0.75f,
+                                         true);
+    }
+
+    /**
+     * @param javaRootPath the root the sources were scanned from.
+     * @param sources the content of all the sources found under the root, by file.
+     * @return the parsed sources, in the order of the given sources.
+     */
+    public List<ParsedSource> parse(final Path javaRootPath,
+                                    final Map<Path, String> sources) {
+        final String rootKey = javaRootPath.toUri().toString();
+        final Map<String, ParsedSource> cached;
+        synchronized (roots) {
+            cached = maxSize > 0 ? roots.getOrDefault(rootKey,
+                                                      new HashMap<>()) : new HashMap<>();
+        }
+
+        final Map<String, ParsedSource> parsed = new HashMap<>();
+        final List<Map.Entry<Path, String>> toParse = new ArrayList<>();
+        for (Map.Entry<Path, String> source : sources.entrySet()) {
+            final String fileKey = source.getKey().toUri().toString();
+            final ParsedSource parsedSource = cached.get(fileKey);
+            if (parsedSource != null && parsedSource.hash.equals(FileHashingUtils.md5Hex(source.getValue()))) {
+                hits.incrementAndGet();
+                parsed.put(fileKey,
+                           parsedSource);
+            } else {
+                misses.incrementAndGet();
+                toParse.add(source);
+            }
+        }
+
+        for (ParsedSource parsedSource : parseAll(toParse)) {
+            parsed.put(parsedSource.file.toUri().toString(),
+                       parsedSource);
+        }
+
+        if (maxSize > 0) {
+            //Only the files found by this scan are kept, the others were deleted or moved
+            synchronized (roots) {
+                put(rootKey,
+                    parsed);
+            }
+        }
+
+        final List<ParsedSource> result = new ArrayList<>(sources.size());
+        for (Path file : sources.keySet()) {
+            result.add(parsed.get(file.toUri().toString()));
+        }
+        return result;
+    }
+
+    public void invalidate(final Path javaRootPath) {
+        synchronized (roots) {
+            remove(javaRootPath.toUri().toString());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getSourceSize() {
+        synchronized (roots) {
+            return sourceSize;
+        }
+    }
+
+    private void put(final String rootKey,
+                     final Map<String, ParsedSource> parsed) {
+        remove(rootKey);
+        final long parsedSize = sourceSize(parsed);
+        if (parsedSize > maxSourceSize) {
+            return;
+        }
+        final Iterator<Map.Entry<String, Map<String, ParsedSource>>> eldest = roots.entrySet().iterator();
+        while (eldest.hasNext() && (roots.size() >= maxSize || sourceSize + parsedSize > maxSourceSize)) {
+            sourceSize -= sourceSize(eldest.next().getValue());
+            eldest.remove();
+        }
+        roots.put(rootKey,
+                  parsed);
+        sourceSize += parsedSize;
+    }
+
+    private void remove(final String rootKey) {
+        final Map<String, ParsedSource> removed = roots.remove(rootKey);
+        if (removed != null) {
+            sourceSize -= sourceSize(removed);
+        }
+    }
+
+    private static long sourceSize(final Map<String, ParsedSource> parsed) {
+        long size = 0;
+        for (ParsedSource parsedSource : parsed.values()) {
+            size += parsedSource.sourceSize;
+        }
+        return size;
+    }
+
+    private List<ParsedSource> parseAll(final List<Map.Entry<Path, String>> sources) {
+        if (sources.size() < 2) {
+            return sources.stream().map(ParsedSource::new).collect(Collectors.toList());
+        }
+        try {
+            return ParsePool.INSTANCE.submit(() -> sources.parallelStream()
+                    .map(ParsedSource::new)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The result of parsing a java file, either the java type or the failure.
+     */
+    public static class ParsedSource {
+
+        private final Path file;
+
+        private final String hash;
+
+        private final int sourceSize;
+
+        private final JavaType<?> javaType;
+
+        private final ParserException parserException;
+
+        private final RuntimeException exception;
+
+        private ParsedSource(final Map.Entry<Path, String> source) {
+            this.file = source.getKey();
+            this.hash = FileHashingUtils.md5Hex(source.getValue());
+            this.sourceSize = source.getValue().length();
+            JavaType<?> parsedType = null;
+            ParserException parserError = null;
+            RuntimeException error = null;
+            try {
+                parsedType = Roaster.parse(source.getValue());
+            } catch (ParserException e) {
+                parserError = e;
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            this.javaType = parsedType;
+            this.parserException = parserError;
+            this.exception = error;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the parsed java type, it is shared with the other loads of the same file content.
+         */
+        public JavaType<?> getJavaType() throws ParserException {
+            if (parserException != null) {
+                throw parserException;
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            return javaType;
+        }
+    }
+
+    private static class ParsePool {
+
+        private static final ForkJoinPool INSTANCE = new ForkJoinPool(Integer.getInteger(PARSE_THREADS,
+                                                                                         Runtime.getRuntime().availableProcessors()));
+    }
+}
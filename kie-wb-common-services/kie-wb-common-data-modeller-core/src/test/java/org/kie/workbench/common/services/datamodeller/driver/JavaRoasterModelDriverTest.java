@@ -80,6 +80,7 @@ import org.kie.workbench.common.services.datamodeller.core.impl.MethodImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.ParameterImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.TypeImpl;
 import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelDriver;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaSourceParseCache;
 import org.kie.workbench.common.services.datamodeller.driver.impl.UpdateInfo;
 import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
 import org.kie.workbench.common.services.datamodeller.parser.test.TestAnnotation1;
@@ -217,6 +218,71 @@ public class JavaRoasterModelDriverTest {
         }
     }
 
+    @Test
+    public void modelReadWithParseCacheTest() throws Exception {
+        FilterHolder filterHolder = mock(FilterHolder.class);
+        when(filterHolder.getSourceFilters()).thenReturn(Collections.emptySet());
+        when(filterHolder.getNestedClassFilters()).thenReturn(Collections.emptySet());
+        when(filterHolder.getMethodFilters()).thenReturn(Collections.emptySet());
+
+        JavaSourceParseCache parseCache = new JavaSourceParseCache(10);
+        ModelDriverResult firstResult = new JavaRoasterModelDriver(ioService,
+                                                                   rootPath,
+                                                                   getClass().getClassLoader(),
+                                                                   filterHolder,
+                                                                   parseCache).loadModel();
+        long parsedFiles = parseCache.getMisses();
+        ModelDriverResult secondResult = new JavaRoasterModelDriver(ioService,
+                                                                    rootPath,
+                                                                    getClass().getClassLoader(),
+                                                                    filterHolder,
+                                                                    parseCache).loadModel();
+
+        //Nothing changed, so nothing is parsed again
+        assertEquals(parsedFiles,
+                     parseCache.getMisses());
+        assertEquals(parsedFiles,
+                     parseCache.getHits());
+        assertEquals(firstResult.getDataModel().getDataObjects().size(),
+                     secondResult.getDataModel().getDataObjects().size());
+        for (DataObject dataObject : firstResult.getDataModel().getDataObjects()) {
+            DataModelerAssert.assertEqualsDataObject(dataObject,
+                                                     secondResult.getDataModel().getDataObject(dataObject.getClassName()));
+        }
+        assertEquals(firstResult.getErrors().size(),
+                     secondResult.getErrors().size());
+    }
+
+    @Test
+    public void modelReadWithParseCacheLimitedBySourceSizeTest() throws Exception {
+        FilterHolder filterHolder = mock(FilterHolder.class);
+        when(filterHolder.getSourceFilters()).thenReturn(Collections.emptySet());
+        when(filterHolder.getNestedClassFilters()).thenReturn(Collections.emptySet());
+        when(filterHolder.getMethodFilters()).thenReturn(Collections.emptySet());
+
+        //The sources of the root do not fit, so they are not kept
+        JavaSourceParseCache parseCache = new JavaSourceParseCache(10,
+                                                                   1);
+        new JavaRoasterModelDriver(ioService,
+                                   rootPath,
+                                   getClass().getClassLoader(),
+                                   filterHolder,
+                                   parseCache).loadModel();
+        long parsedFiles = parseCache.getMisses();
+        new JavaRoasterModelDriver(ioService,
+                                   rootPath,
+                                   getClass().getClassLoader(),
+                                   filterHolder,
+                                   parseCache).loadModel();
+
+        assertEquals(0,
+                     parseCache.getSourceSize());
+        assertEquals(0,
+                     parseCache.getHits());
+        assertEquals(2 * parsedFiles,
+                     parseCache.getMisses());
+    }
+
     private void verifyErrorFilesWereDetected(ModelDriverResult result,
                                               org.uberfire.backend.vfs.Path... errorFiles) {
         assertEquals(result.getErrors().size(),
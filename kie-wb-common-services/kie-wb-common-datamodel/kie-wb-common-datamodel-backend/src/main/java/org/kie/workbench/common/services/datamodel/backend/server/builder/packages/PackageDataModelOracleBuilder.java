@@ -83,6 +83,14 @@ public final class PackageDataModelOracleBuilder {
         return this;
     }
 
+    /**
+     * Adds enumerations already parsed, keyed by "factType#fieldName".
+     */
+    public PackageDataModelOracleBuilder addEnums(final Map<String, String[]> enums) {
+        factFieldEnums.putAll(enums);
+        return this;
+    }
+
     private void parseEnumDefinition(final String enumDefinition,
                                      final ClassLoader classLoader,
                                      final MVELEvaluator evaluator) {
@@ -17,8 +17,6 @@ package org.kie.workbench.common.services.datamodel.backend.server.builder.proje
 
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -32,7 +30,6 @@ import org.kie.soup.project.datamodel.oracle.Annotation;
 import org.kie.soup.project.datamodel.oracle.MethodInfo;
 import org.kie.soup.project.datamodel.oracle.ModelField;
 import org.kie.soup.project.datamodel.oracle.TypeSource;
-import org.kie.workbench.common.services.datamodel.backend.server.builder.util.AnnotationUtils;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.util.BlackLists;
 
 /**
@@ -69,9 +66,10 @@ public class ClassFactBuilder extends BaseFactBuilder {
               clazz,
               isEvent,
               typeSourceResolver);
-        this.superTypes = getSuperTypes(clazz);
-        this.annotations.addAll(AnnotationUtils.getClassAnnotations(clazz));
-        loadClassFields(clazz, discoveredFieldFactBuilders);
+        final ClassInspection inspection = ClassInspection.of(clazz);
+        this.superTypes = inspection.getSuperTypes();
+        this.annotations.addAll(inspection.getAnnotations());
+        loadClassFields(clazz, inspection, discoveredFieldFactBuilders);
     }
 
     @Override
@@ -84,18 +82,8 @@ public class ClassFactBuilder extends BaseFactBuilder {
         oracle.addModuleTypeFieldsAnnotations(buildTypeFieldsAnnotations());
     }
 
-    private List<String> getSuperTypes(final Class<?> clazz) {
-        ArrayList<String> strings = new ArrayList<String>();
-        Class<?> superType = clazz.getSuperclass();
-        while (superType != null) {
-            strings.add(superType.getName());
-            superType = superType.getSuperclass();
-        }
-
-        return strings;
-    }
-
     private void loadClassFields(final Class<?> clazz,
+                                 final ClassInspection inspection,
                                  final Map<String, FactBuilder> discoveredFieldFactBuilders) throws IOException {
         if (clazz == null) {
             return;
@@ -106,16 +94,15 @@ public class ClassFactBuilder extends BaseFactBuilder {
         //Get all getters and setters for the class. This does not handle delegated properties
         //- FIELDS need a getter ("getXXX", "isXXX") or setter ("setXXX") or are public properties
         //- METHODS are any accessor that does not have a getter or setter
-        final ClassFieldInspector inspector = new ClassFieldInspector(clazz);
-        final Set<String> fieldNames = inspector.getFieldNames();
-
-        for (final String fieldName : fieldNames) {
-            final ClassFieldInspector.FieldInfo f = inspector.getFieldTypesFieldInfo().get(fieldName);
+        for (final ClassInspection.FieldInspection f : inspection.getFields()) {
+            final String fieldName = f.getName();
             addParametricTypeForField(factType,
                                       fieldName,
-                                      f.getGenericType());
+                                      f.getParametricType());
 
-            final Class<?> returnType = f.getReturnType();
+            final Class<?> returnType = loadType(clazz,
+                                                 fieldName,
+                                                 f.getReturnTypeName());
             final String genericReturnType = typeSystemConverter.translateClassToGenericType(returnType);
 
             addField(new ModelField(fieldName,
@@ -137,21 +124,16 @@ public class ClassFactBuilder extends BaseFactBuilder {
             discoverFieldFactBuilder(genericReturnType, returnType, discoveredFieldFactBuilders);
 
             // Check types on generic arguments
-            if (f.getGenericType() instanceof ParameterizedType) {
-                ParameterizedType parameterizedType = (ParameterizedType) f.getGenericType();
-
-                for (Type parameterType : parameterizedType.getActualTypeArguments()) {
-                    if (discoveredFieldFactBuilders.containsKey(parameterType.getTypeName())) {
-                        continue;
-                    }
-
-                    if (parameterType instanceof Class) {
-                        Class<?> parameterClazz = (Class<?>) parameterType;
-                        discoverFieldFactBuilder(parameterClazz.getName(),
-                                                 parameterClazz,
-                                                 discoveredFieldFactBuilders);
-                    }
+            for (Map.Entry<String, String> parameterType : f.getTypeArguments().entrySet()) {
+                if (discoveredFieldFactBuilders.containsKey(parameterType.getKey())) {
+                    continue;
                 }
+
+                discoverFieldFactBuilder(parameterType.getValue(),
+                                         loadType(clazz,
+                                                  fieldName,
+                                                  parameterType.getValue()),
+                                         discoveredFieldFactBuilders);
             }
 
             Set<Annotation> fieldAnnotations = f.getAnnotations();
@@ -161,10 +143,7 @@ public class ClassFactBuilder extends BaseFactBuilder {
         }
 
         //Methods for use in Expressions and ActionCallMethod's
-        ClassMethodInspector methodInspector = new ClassMethodInspector(clazz,
-                                                                        typeSystemConverter);
-
-        final List<MethodInfo> methodInformation = methodInspector.getMethodInfos();
+        final List<MethodInfo> methodInformation = inspection.getMethodInfos();
         for (final MethodInfo mi : methodInformation) {
             final String genericType = mi.getParametricReturnType();
             if (genericType != null) {
@@ -177,6 +156,22 @@ public class ClassFactBuilder extends BaseFactBuilder {
                                    methodInformation);
     }
 
+    /**
+     * The inspection may have been made on the same class loaded by another class loader, so the types of the fields
+     * are loaded by name from the class loader of the class.
+     */
+    private Class<?> loadType(final Class<?> clazz,
+                              final String fieldName,
+                              final String typeName) throws IOException {
+        try {
+            return ClassInspection.loadType(clazz,
+                                            typeName);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IOException("Unable to load type '" + typeName + "' of field '" + fieldName + "' of class '" + clazz.getName() + "'.",
+                                  e);
+        }
+    }
+
     protected void discoverFieldFactBuilder(final String genericTypeName,
                                             final Class<?> genericType,
                                             final Map<String, FactBuilder> discoveredFieldFactBuilders) throws IOException {
@@ -222,34 +217,14 @@ public class ClassFactBuilder extends BaseFactBuilder {
 
     private void addParametricTypeForField(final String className,
                                            final String fieldName,
-                                           final Type type) {
+                                           final String parametricType) {
         final String qualifiedFactFieldName = className + "#" + fieldName;
-        final String parametricType = getParametricType(type);
         if (parametricType != null) {
             fieldParametersType.put(qualifiedFactFieldName,
                                     parametricType);
         }
     }
 
-    private String getParametricType(final Type type) {
-        if (type instanceof ParameterizedType) {
-            final ParameterizedType pt = (ParameterizedType) type;
-            Type parameter = null;
-            for (final Type t : pt.getActualTypeArguments()) {
-                parameter = t;
-            }
-            if (parameter != null) {
-                if (parameter instanceof Class<?>) {
-                    return ((Class<?>) parameter).getName();
-                }
-                return null;
-            } else {
-                return null;
-            }
-        }
-        return null;
-    }
-
     private Map<String, List<String>> buildSuperTypes() {
         final Map<String, List<String>> loadableSuperTypes = new HashMap<String, List<String>>();
         loadableSuperTypes.put(getType(),
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kie.soup.project.datamodel.oracle.Annotation;
+import org.kie.soup.project.datamodel.oracle.FieldAccessorsAndMutators;
+import org.kie.soup.project.datamodel.oracle.MethodInfo;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.util.AnnotationUtils;
+
+/**
+ * The result of inspecting a class with {@link ClassFieldInspector} and {@link ClassMethodInspector}.
+ * <p>
+ * A {@link Class} is only inspected once. Its fields, super types and annotations are kept by name, so they are also
+ * shared by the classes with the same bytes loaded by other class loaders, e.g. the classes of a dependency jar used by
+ * many modules. They are cached by the hash of the bytes of the class and of all its super types, for up to
+ * {@link #CACHE_SIZE} classes. Classes whose bytes cannot be read are not cached.
+ */
+public class ClassInspection {
+
+    public static final String CACHE_SIZE = "org.kie.workbench.datamodel.inspection.cache.size";
+
+    private static final int MAX_CACHE_SIZE = Integer.getInteger(CACHE_SIZE,
+                                                                 10000);
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class}) {
+            PRIMITIVE_TYPES.put(type.getName(),
+                                type);
+        }
+    }
+
+    private static final ClassValue<Optional<String>> HASHES = new ClassValue<Optional<String>>() {
+        @Override
+        protected Optional<String> computeValue(final Class<?> type) {
+            return Optional.ofNullable(hash(type));
+        }
+    };
+
+    private static final ClassValue<ClassInspection> INSPECTIONS = new ClassValue<ClassInspection>() {
+        @Override
+        protected ClassInspection computeValue(final Class<?> type) {
+            return new ClassInspection(type);
+        }
+    };
+
+    private static final Map<String, Structure> STRUCTURES = new LinkedHashMap<String, Structure>(16,
+                                                                                                 0.75f,
+                                                                                                 true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Structure> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private final Structure structure;
+
+    private final List<MethodInfo> methodInfos;
+
+    private ClassInspection(final Class<?> clazz) {
+        this.structure = getStructure(clazz);
+        this.methodInfos = new ClassMethodInspector(clazz,
+                                                    new JavaTypeSystemTranslator()).getMethodInfos();
+    }
+
+    public static ClassInspection of(final Class<?> clazz) {
+        return INSPECTIONS.get(clazz);
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public List<String> getSuperTypes() {
+        return new ArrayList<>(structure.superTypes);
+    }
+
+    public Set<Annotation> getAnnotations() {
+        return structure.annotations;
+    }
+
+    public Collection<FieldInspection> getFields() {
+        return structure.fields;
+    }
+
+    public List<MethodInfo> getMethodInfos() {
+        return new ArrayList<>(methodInfos);
+    }
+
+    /**
+     * Loads a type by name with the class loader of the inspected class, the inspection may come from another one.
+     */
+    static Class<?> loadType(final Class<?> clazz,
+                             final String typeName) throws ClassNotFoundException {
+        final Class<?> primitiveType = PRIMITIVE_TYPES.get(typeName);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+        return Class.forName(typeName,
+                             false,
+                             clazz.getClassLoader());
+    }
+
+    private static Structure getStructure(final Class<?> clazz) {
+        final Optional<String> hash = HASHES.get(clazz);
+        if (hash.isPresent()) {
+            synchronized (STRUCTURES) {
+                final Structure structure = STRUCTURES.get(hash.get());
+                if (structure != null) {
+                    hits.incrementAndGet();
+                    return structure;
+                }
+            }
+        }
+        misses.incrementAndGet();
+        final Structure structure = new Structure(clazz);
+        if (hash.isPresent()) {
+            synchronized (STRUCTURES) {
+                STRUCTURES.put(hash.get(),
+                               structure);
+            }
+        }
+        return structure;
+    }
+
+    private static String hash(final Class<?> type) {
+        final byte[] bytes = readBytes(type);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(bytes);
+            final List<Class<?>> superTypes = new ArrayList<>();
+            if (type.getSuperclass() != null) {
+                superTypes.add(type.getSuperclass());
+            }
+            Collections.addAll(superTypes,
+                               type.getInterfaces());
+            for (Class<?> superType : superTypes) {
+                final Optional<String> superTypeHash = HASHES.get(superType);
+                if (!superTypeHash.isPresent()) {
+                    return null;
+                }
+                digest.update(superTypeHash.get().getBytes(StandardCharsets.UTF_8));
+            }
+            final StringBuilder sb = new StringBuilder(type.getName()).append('@');
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x",
+                                        b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readBytes(final Class<?> type) {
+        final String resourceName = type.getName().replace('.',
+                                                           '/') + ".class";
+        final ClassLoader classLoader = type.getClassLoader();
+        try (InputStream is = classLoader != null ? classLoader.getResourceAsStream(resourceName) : ClassLoader.getSystemResourceAsStream(resourceName)) {
+            if (is == null) {
+                return null;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                bytes.write(buffer,
+                            0,
+                            read);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The part of the inspection that only depends on the bytes of the class and of its super types.
+     */
+    private static class Structure {
+
+        private final List<String> superTypes = new ArrayList<>();
+        private final Set<Annotation> annotations = new LinkedHashSet<>();
+        private final List<FieldInspection> fields = new ArrayList<>();
+
+        private Structure(final Class<?> clazz) {
+            Class<?> superType = clazz.getSuperclass();
+            while (superType != null) {
+                superTypes.add(superType.getName());
+                superType = superType.getSuperclass();
+            }
+            annotations.addAll(AnnotationUtils.getClassAnnotations(clazz));
+            final ClassFieldInspector inspector = new ClassFieldInspector(clazz);
+            for (Map.Entry<String, ClassFieldInspector.FieldInfo> e : inspector.getFieldTypesFieldInfo().entrySet()) {
+                fields.add(new FieldInspection(e.getKey(),
+                                               e.getValue()));
+            }
+        }
+    }
+
+    /**
+     * A field found by {@link ClassFieldInspector}, with its types kept by name.
+     */
+    public static class FieldInspection {
+
+        private final String name;
+        private final FieldAccessorsAndMutators accessorAndMutator;
+        private final ModelField.FIELD_ORIGIN origin;
+        private final Set<Annotation> annotations;
+        private final String returnTypeName;
+        private final String parametricType;
+        private final Map<String, String> typeArguments = new LinkedHashMap<>();
+
+        private FieldInspection(final String name,
+                                final ClassFieldInspector.FieldInfo info) {
+            this.name = name;
+            this.accessorAndMutator = info.getAccessorAndMutator();
+            this.origin = info.getOrigin();
+            this.annotations = info.getAnnotations();
+            this.returnTypeName = info.getReturnType().getName();
+            this.parametricType = getParametricType(info.getGenericType());
+            if (info.getGenericType() instanceof ParameterizedType) {
+                for (Type parameterType : ((ParameterizedType) info.getGenericType()).getActualTypeArguments()) {
+                    if (parameterType instanceof Class) {
+                        typeArguments.put(parameterType.getTypeName(),
+                                          ((Class<?>) parameterType).getName());
+                    }
+                }
+            }
+        }
+
+        private static String getParametricType(final Type type) {
+            if (type instanceof ParameterizedType) {
+                final ParameterizedType pt = (ParameterizedType) type;
+                Type parameter = null;
+                for (final Type t : pt.getActualTypeArguments()) {
+                    parameter = t;
+                }
+                if (parameter instanceof Class<?>) {
+                    return ((Class<?>) parameter).getName();
+                }
+            }
+            return null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public FieldAccessorsAndMutators getAccessorAndMutator() {
+            return accessorAndMutator;
+        }
+
+        public ModelField.FIELD_ORIGIN getOrigin() {
+            return origin;
+        }
+
+        public Set<Annotation> getAnnotations() {
+            return annotations;
+        }
+
+        public String getReturnTypeName() {
+            return returnTypeName;
+        }
+
+        /**
+         * @return the name of the last type argument of the field, when it is a class.
+         */
+        public String getParametricType() {
+            return parametricType;
+        }
+
+        /**
+         * @return the type arguments of the field that are classes, type name to class name.
+         */
+        public Map<String, String> getTypeArguments() {
+            return typeArguments;
+        }
+    }
+}
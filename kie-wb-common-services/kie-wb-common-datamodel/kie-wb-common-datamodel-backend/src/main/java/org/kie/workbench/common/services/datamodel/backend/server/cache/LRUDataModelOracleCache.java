@@ -17,7 +17,13 @@ package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
@@ -35,9 +41,11 @@ import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.CacheMetrics;
 import org.kie.workbench.common.services.backend.file.EnumerationsFileFilter;
 import org.kie.workbench.common.services.backend.file.GlobalsFileFilter;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.util.DataEnumLoader;
 import org.kie.workbench.common.services.datamodel.spi.DataModelExtension;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
@@ -45,7 +53,6 @@ import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.DirectoryStream;
-import org.uberfire.java.nio.file.DirectoryStream.Filter;
 
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
@@ -75,6 +82,10 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
 
     private MVELEvaluator evaluator;
 
+    private final CacheMetrics metrics = new CacheMetrics("PackageDataModelOracleCache");
+
+    private final Map<Package, PackageContributions> contributions = new ConcurrentHashMap<>();
+
     public LRUDataModelOracleCache() {
         //CDI proxy
     }
@@ -96,6 +107,42 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
         this.evaluator = evaluator;
     }
 
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public PackageDataModelOracle getEntry(final Package pkg) {
+        final PackageDataModelOracle oracle = super.getEntry(pkg);
+        metrics.recordAccess(oracle != null);
+        return oracle;
+    }
+
+    @Override
+    public synchronized void setEntry(final Package pkg,
+                                      final PackageDataModelOracle oracle) {
+        final int expectedSize = getKeys().size() + (getKeys().contains(pkg) ? 0 : 1);
+        super.setEntry(pkg,
+                       oracle);
+        final int size = getKeys().size();
+        //Contributions are only kept for the Packages still cached, evicted ones are loaded from scratch
+        contributions.keySet().retainAll(getKeys());
+        metrics.recordEvictions(expectedSize - size);
+        metrics.setWeight(size);
+    }
+
+    @Override
+    public synchronized void invalidateCache(final Package pkg) {
+        contributions.remove(pkg);
+        super.invalidateCache(pkg);
+    }
+
+    @Override
+    public synchronized void invalidateCache() {
+        contributions.clear();
+        super.invalidateCache();
+    }
+
     public void invalidatePackageCache(@Observes final InvalidateDMOPackageCacheEvent event) {
         PortablePreconditions.checkNotNull("event",
                                            event);
@@ -103,7 +150,17 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
         final Package pkg = moduleService.resolvePackage(resourcePath);
 
         //If resource was not within a Package there's nothing to invalidate
-        if (pkg != null) {
+        if (pkg == null) {
+            return;
+        }
+
+        //Enumerations, extensions and globals only contribute to the Package DMO: re-load the changed file alone
+        final PackageContributions packageContributions = contributions.get(pkg);
+        final org.uberfire.java.nio.file.Path nioResourcePath = Paths.convert(resourcePath);
+        if (packageContributions != null && isContribution(nioResourcePath)) {
+            packageContributions.markChanged(nioResourcePath);
+            super.invalidateCache(pkg);
+        } else {
             invalidateCache(pkg);
         }
     }
@@ -119,6 +176,15 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
             return;
         }
 
+        invalidateModulePackagesCache(module);
+    }
+
+    //The Package DMOs were made from a snapshot of the Module DMO that has since been rebuilt
+    public void onModuleDataModelOracleRefreshed(@Observes final ModuleDataModelOracleRefreshedEvent event) {
+        invalidateModulePackagesCache(event.getModule());
+    }
+
+    private void invalidateModulePackagesCache(final KieModule module) {
         final String moduleUri = module.getRootPath().toURI();
         final List<Package> cacheEntriesToInvalidate = new ArrayList<Package>();
         for (final Package pkg : getKeys()) {
@@ -162,65 +228,158 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
         final ModuleDataModelOracle moduleOracle = cacheModules.assertModuleDataModelOracle(module);
         dmoBuilder.setModuleOracle(moduleOracle);
 
-        //Add Guvnor enumerations
-        loadEnumsForPackage(dmoBuilder,
-                            module,
-                            pkg);
-
-        //Add DSLs
-        loadExtensionsForPackage(dmoBuilder,
-                                 pkg);
+        PackageContributions packageContributions = contributions.get(pkg);
+        if (packageContributions == null) {
+            packageContributions = loadContributions(module,
+                                                     pkg);
+            contributions.put(pkg,
+                              packageContributions);
+        } else {
+            reloadChangedContributions(module,
+                                       packageContributions);
+        }
 
-        //Add Globals
-        loadGlobalsForPackage(dmoBuilder,
-                              pkg);
+        //Add Guvnor enumerations, DSLs and Globals
+        packageContributions.addTo(dmoBuilder);
 
         return dmoBuilder.build();
     }
 
-    private void loadEnumsForPackage(final PackageDataModelOracleBuilder dmoBuilder,
-                                     final KieModule module,
-                                     final Package pkg) {
-        final org.kie.api.builder.KieModule kieModule = buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors();
-        final ClassLoader classLoader = KieModuleMetaData.Factory.newKieModuleMetaData(kieModule).getClassLoader();
+    private PackageContributions loadContributions(final KieModule module,
+                                                   final Package pkg) {
         final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
-        final Collection<org.uberfire.java.nio.file.Path> enumFiles = fileDiscoveryService.discoverFiles(nioPackagePath,
-                                                                                                         FILTER_ENUMERATIONS);
-        for (final org.uberfire.java.nio.file.Path path : enumFiles) {
-            final String enumDefinition = ioService.readAllString(path);
-            dmoBuilder.addEnum(enumDefinition,
-                               classLoader);
+        final Set<org.uberfire.java.nio.file.Path> files = new LinkedHashSet<>();
+        files.addAll(fileDiscoveryService.discoverFiles(nioPackagePath,
+                                                        FILTER_ENUMERATIONS));
+        for (final DataModelExtension extension : getExtensions()) {
+            files.addAll(fileDiscoveryService.discoverFiles(nioPackagePath,
+                                                            extension.getFilter()));
+        }
+        files.addAll(fileDiscoveryService.discoverFiles(nioPackagePath,
+                                                        FILTER_GLOBALS));
+
+        final PackageContributions packageContributions = new PackageContributions();
+        final ClassLoader classLoader = files.stream().anyMatch(FILTER_ENUMERATIONS::accept) ? getClassLoader(module) : null;
+        for (final org.uberfire.java.nio.file.Path file : files) {
+            packageContributions.put(file,
+                                     loadContribution(file,
+                                                      classLoader));
         }
+        return packageContributions;
     }
 
-    private void loadExtensionsForPackage(final PackageDataModelOracleBuilder dmoBuilder,
-                                          final Package pkg) {
-        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
-        List<DataModelExtension> extensions = stream(dataModelExtensionsProvider.spliterator(),
-                                                     false)
-                .collect(toList());
+    private void reloadChangedContributions(final KieModule module,
+                                            final PackageContributions packageContributions) {
+        final Collection<org.uberfire.java.nio.file.Path> changedFiles = packageContributions.takeChanged();
+        if (changedFiles.isEmpty()) {
+            return;
+        }
+        final ClassLoader classLoader = changedFiles.stream().anyMatch(FILTER_ENUMERATIONS::accept) ? getClassLoader(module) : null;
+        for (final org.uberfire.java.nio.file.Path file : changedFiles) {
+            if (ioService.exists(file)) {
+                packageContributions.put(file,
+                                         loadContribution(file,
+                                                          classLoader));
+            } else {
+                packageContributions.remove(file);
+            }
+        }
+    }
 
-        for (final DataModelExtension extension : extensions) {
-            Filter<org.uberfire.java.nio.file.Path> filter = extension.getFilter();
-            final Collection<org.uberfire.java.nio.file.Path> extensionFiles = fileDiscoveryService.discoverFiles(nioPackagePath,
-                                                                                                                  filter);
-            extensionFiles
-                    .stream()
-                    .map(file -> extension.getExtensions(file,
-                                                         ioService.readAllString(file)))
-                    .forEach(mappings -> mappings.forEach(mapping -> dmoBuilder.addExtension(mapping.getKind(),
-                                                                                             mapping.getValues())));
+    private FileContribution loadContribution(final org.uberfire.java.nio.file.Path file,
+                                              final ClassLoader classLoader) {
+        final String content = ioService.readAllString(file);
+        final FileContribution contribution = new FileContribution();
+        if (FILTER_ENUMERATIONS.accept(file)) {
+            final DataEnumLoader enumLoader = new DataEnumLoader(content,
+                                                                 classLoader,
+                                                                 evaluator);
+            if (!enumLoader.hasErrors()) {
+                contribution.enums = enumLoader.getData();
+            }
         }
+        for (final DataModelExtension extension : getExtensions()) {
+            if (extension.getFilter().accept(file)) {
+                contribution.extensions.addAll(extension.getExtensions(file,
+                                                                       content));
+            }
+        }
+        if (FILTER_GLOBALS.accept(file)) {
+            contribution.globals = content;
+        }
+        return contribution;
     }
 
-    private void loadGlobalsForPackage(final PackageDataModelOracleBuilder dmoBuilder,
-                                       final Package pkg) {
-        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
-        final Collection<org.uberfire.java.nio.file.Path> globalFiles = fileDiscoveryService.discoverFiles(nioPackagePath,
-                                                                                                           FILTER_GLOBALS);
-        for (final org.uberfire.java.nio.file.Path path : globalFiles) {
-            final String definition = ioService.readAllString(path);
-            dmoBuilder.addGlobals(definition);
+    private boolean isContribution(final org.uberfire.java.nio.file.Path file) {
+        if (FILTER_ENUMERATIONS.accept(file) || FILTER_GLOBALS.accept(file)) {
+            return true;
+        }
+        return getExtensions().stream().anyMatch(extension -> extension.getFilter().accept(file));
+    }
+
+    private List<DataModelExtension> getExtensions() {
+        return stream(dataModelExtensionsProvider.spliterator(),
+                      false)
+                .collect(toList());
+    }
+
+    private ClassLoader getClassLoader(final KieModule module) {
+        final org.kie.api.builder.KieModule kieModule = buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors();
+        return KieModuleMetaData.Factory.newKieModuleMetaData(kieModule).getClassLoader();
+    }
+
+    /**
+     * What each enumeration, extension and globals file of a Package contributes to its DataModelOracle, so that
+     * a change to one of them only requires that file to be loaded again.
+     */
+    private static class PackageContributions {
+
+        private final Map<org.uberfire.java.nio.file.Path, FileContribution> files = new LinkedHashMap<>();
+
+        private final Set<org.uberfire.java.nio.file.Path> changedFiles = ConcurrentHashMap.newKeySet();
+
+        synchronized void put(final org.uberfire.java.nio.file.Path file,
+                              final FileContribution contribution) {
+            files.put(file,
+                      contribution);
         }
+
+        synchronized void remove(final org.uberfire.java.nio.file.Path file) {
+            files.remove(file);
+        }
+
+        void markChanged(final org.uberfire.java.nio.file.Path file) {
+            changedFiles.add(file);
+        }
+
+        Collection<org.uberfire.java.nio.file.Path> takeChanged() {
+            final List<org.uberfire.java.nio.file.Path> changed = new ArrayList<>(changedFiles);
+            changedFiles.removeAll(changed);
+            return changed;
+        }
+
+        synchronized void addTo(final PackageDataModelOracleBuilder dmoBuilder) {
+            for (final FileContribution contribution : files.values()) {
+                dmoBuilder.addEnums(contribution.enums);
+            }
+            for (final FileContribution contribution : files.values()) {
+                contribution.extensions.forEach(mapping -> dmoBuilder.addExtension(mapping.getKind(),
+                                                                                   mapping.getValues()));
+            }
+            for (final FileContribution contribution : files.values()) {
+                if (contribution.globals != null) {
+                    dmoBuilder.addGlobals(contribution.globals);
+                }
+            }
+        }
+    }
+
+    private static class FileContribution {
+
+        private Map<String, String[]> enums = Collections.emptyMap();
+
+        private final List<DataModelExtension.ExtensionMapping<?>> extensions = new ArrayList<>();
+
+        private String globals;
     }
 }
@@ -15,7 +15,11 @@
 
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -27,30 +31,72 @@ import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.vfs.Path;
 
 /**
  * A simple LRU cache for Module DataModelOracles
+ * <p>
+ * A Module DataModelOracle that is not cached is first looked up in the {@link ModuleDataModelOracleSnapshotStore},
+ * so the Modules do not have to be built again after a restart. A snapshot that was not taken at the latest commit of
+ * the Module is used straight away, and rebuilt in the background: if the rebuilt DataModelOracle differs, it replaces
+ * the snapshot and a {@link ModuleDataModelOracleRefreshedEvent} is fired. Snapshots only stand in after a restart:
+ * invalidating a Module deletes its snapshot as well, so a changed Module is rebuilt straight away.
  */
 @ApplicationScoped
 @Named("ModuleDataModelOracleCache")
 public class LRUModuleDataModelOracleCache
         extends LRUCache<KieModule, ModuleDataModelOracle> {
 
+    private static final Logger log = LoggerFactory.getLogger(LRUModuleDataModelOracleCache.class);
+
     private ModuleDataModelOracleBuilderProvider builderProvider;
     private KieModuleService moduleService;
     private BuildInfoService buildInfoService;
+    private ModuleDataModelOracleSnapshotStore snapshotStore;
+    private Event<ModuleDataModelOracleRefreshedEvent> refreshedEvent;
+    private ExecutorService validator;
 
     public LRUModuleDataModelOracleCache() {
     }
 
-    @Inject
     public LRUModuleDataModelOracleCache(final ModuleDataModelOracleBuilderProvider builderProvider,
                                          final KieModuleService moduleService,
                                          final BuildInfoService buildInfoService) {
+        this(builderProvider,
+             moduleService,
+             buildInfoService,
+             null,
+             null);
+    }
+
+    @Inject
+    public LRUModuleDataModelOracleCache(final ModuleDataModelOracleBuilderProvider builderProvider,
+                                         final KieModuleService moduleService,
+                                         final BuildInfoService buildInfoService,
+                                         final ModuleDataModelOracleSnapshotStore snapshotStore,
+                                         final Event<ModuleDataModelOracleRefreshedEvent> refreshedEvent) {
         this.builderProvider = builderProvider;
         this.moduleService = moduleService;
         this.buildInfoService = buildInfoService;
+        this.snapshotStore = snapshotStore;
+        this.refreshedEvent = refreshedEvent;
+        if (snapshotStore != null && snapshotStore.isEnabled()) {
+            this.validator = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r,
+                                                 "dmo-snapshot-validator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (validator != null) {
+            validator.shutdownNow();
+        }
     }
 
     public void invalidateModuleCache(@Observes final InvalidateDMOModuleCacheEvent event) {
@@ -61,21 +107,80 @@ public class LRUModuleDataModelOracleCache
 
         //If resource was not within a Module there's nothing to invalidate
         if (module != null) {
-            invalidateCache(module);
+            synchronized (this) {
+                invalidateCache(module);
+                if (validator != null) {
+                    snapshotStore.delete(module);
+                }
+            }
         }
     }
 
     //Check the ModuleOracle for the Module has been created, otherwise create one!
     public ModuleDataModelOracle assertModuleDataModelOracle(final KieModule module) {
         ModuleDataModelOracle moduleOracle = getEntry(module);
+        if (moduleOracle == null) {
+            moduleOracle = loadSnapshot(module);
+        }
         if (moduleOracle == null) {
             moduleOracle = makeModuleOracle(module);
             setEntry(module,
                      moduleOracle);
+            if (validator != null) {
+                snapshotStore.save(module,
+                                   moduleOracle);
+            }
         }
         return moduleOracle;
     }
 
+    private ModuleDataModelOracle loadSnapshot(final KieModule module) {
+        if (validator == null) {
+            return null;
+        }
+        final ModuleDataModelOracleSnapshotStore.Snapshot snapshot = snapshotStore.load(module);
+        if (snapshot == null) {
+            return null;
+        }
+        final ModuleDataModelOracle moduleOracle = snapshot.getOracle();
+        setEntry(module,
+                 moduleOracle);
+        if (!snapshot.isCurrent()) {
+            validator.execute(() -> validateSnapshot(module,
+                                                     moduleOracle));
+        }
+        return moduleOracle;
+    }
+
+    void validateSnapshot(final KieModule module,
+                          final ModuleDataModelOracle snapshotOracle) {
+        try {
+            //The entry may have been invalidated meanwhile, it is then rebuilt on demand
+            if (getEntry(module) != snapshotOracle) {
+                return;
+            }
+            final ModuleDataModelOracle moduleOracle = makeModuleOracle(module);
+            //Saved under the lock, so a snapshot deleted by an invalidation is not written back
+            synchronized (this) {
+                if (getEntry(module) != snapshotOracle) {
+                    return;
+                }
+                snapshotStore.save(module,
+                                   moduleOracle);
+                if (snapshotStore.isSame(snapshotOracle,
+                                         moduleOracle)) {
+                    return;
+                }
+                setEntry(module,
+                         moduleOracle);
+            }
+            refreshedEvent.fire(new ModuleDataModelOracleRefreshedEvent(module));
+        } catch (Exception e) {
+            log.warn("Unable to validate the DataModelOracle snapshot of Module '" + module.getModuleName() + "'.",
+                     e);
+        }
+    }
+
     private ModuleDataModelOracle makeModuleOracle(final KieModule module) {
         return builderProvider.newBuilder(module,
                                           buildInfoService.getBuildInfo(module)).build();
@@ -16,8 +16,11 @@
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.inject.Inject;
 
@@ -28,6 +31,7 @@ import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.soup.project.datamodel.oracle.TypeSource;
 import org.kie.workbench.common.services.backend.builder.core.TypeSourceResolver;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfo;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ClassInspection;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ModuleDataModelOracleBuilder;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -42,6 +46,14 @@ public class ModuleDataModelOracleBuilderProvider {
 
     private static final Logger log = LoggerFactory.getLogger(ModuleDataModelOracleBuilderProvider.class);
 
+    /**
+     * The number of threads inspecting the classes of a module, 1 inspects them while they are added to the oracle.
+     */
+    public static final String INSPECTION_THREADS = "org.kie.workbench.datamodel.inspection.threads";
+
+    private static final int inspectionThreads = Integer.getInteger(INSPECTION_THREADS,
+                                                                    Runtime.getRuntime().availableProcessors());
+
     private ProjectImportsService importsService;
     private PackageNameWhiteListService packageNameWhiteListService;
 
@@ -85,7 +97,11 @@ public class ModuleDataModelOracleBuilderProvider {
 
         public ModuleDataModelOracle build() {
 
-            addFromKieModuleMetadata();
+            final WhiteList packageNames = getFilteredPackageNames();
+
+            inspectClasses(packageNames);
+
+            addFromKieModuleMetadata(packageNames);
 
             addExternalImports();
 
@@ -103,8 +119,49 @@ public class ModuleDataModelOracleBuilderProvider {
             }
         }
 
-        private void addFromKieModuleMetadata() {
-            for (final String packageName : getFilteredPackageNames()) {
+        /**
+         * Inspecting the classes with reflection is the slowest part of building the oracle, so it is done in parallel
+         * first. The classes are then added one by one to the builder, which is not thread safe, using the inspections.
+         */
+        private void inspectClasses(final WhiteList packageNames) {
+            if (inspectionThreads <= 1) {
+                return;
+            }
+            final List<Class<?>> classes = new ArrayList<>();
+            for (final String packageName : packageNames) {
+                for (final String className : kieModuleMetaData.getClasses(packageName)) {
+                    try {
+                        final Class<?> clazz = kieModuleMetaData.getClass(packageName,
+                                                                          className);
+                        if (clazz != null) {
+                            classes.add(clazz);
+                        }
+                    } catch (Throwable e) {
+                        //Reported again when the class is added
+                        log.debug(e.getMessage());
+                    }
+                }
+            }
+            try {
+                InspectionPool.INSTANCE.submit(() -> classes.parallelStream().forEach(this::inspectClass)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                //The classes not inspected are inspected when they are added
+                log.debug(e.getMessage());
+            }
+        }
+
+        private void inspectClass(final Class<?> clazz) {
+            try {
+                ClassInspection.of(clazz);
+            } catch (Throwable e) {
+                log.debug(e.getMessage());
+            }
+        }
+
+        private void addFromKieModuleMetadata(final WhiteList packageNames) {
+            for (final String packageName : packageNames) {
                 pdBuilder.addPackage(packageName);
                 addClasses(packageName,
                            kieModuleMetaData.getClasses(packageName));
@@ -173,4 +230,9 @@ public class ModuleDataModelOracleBuilderProvider {
             return typeSourceResolver.getTypeSource(clazz);
         }
     }
+
+    private static class InspectionPool {
+
+        private static final ForkJoinPool INSTANCE = new ForkJoinPool(inspectionThreads);
+    }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.workbench.common.services.shared.project.KieModule;
+
+/**
+ * Fired when the Module DataModelOracle loaded from a snapshot has been replaced by a different, rebuilt, one.
+ * The Package DataModelOracles made from the snapshot are stale.
+ */
+public class ModuleDataModelOracleRefreshedEvent {
+
+    private final KieModule module;
+
+    public ModuleDataModelOracleRefreshedEvent(final KieModule module) {
+        this.module = PortablePreconditions.checkNotNull("module",
+                                                         module);
+    }
+
+    public KieModule getModule() {
+        return module;
+    }
+}
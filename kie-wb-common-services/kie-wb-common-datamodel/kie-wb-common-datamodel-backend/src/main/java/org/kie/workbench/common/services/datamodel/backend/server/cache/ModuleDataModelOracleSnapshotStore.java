@@ -0,0 +1,307 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.errai.marshalling.server.ServerMarshalling;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.version.VersionAttributeView;
+import org.uberfire.java.nio.base.version.VersionRecord;
+
+/**
+ * Keeps a copy of the Module DataModelOracles on the local disk, so they do not have to be rebuilt from the
+ * Module's classes and dependencies after a restart.
+ * <p>
+ * There is one snapshot per Module. It is stored with the hash of the Module descriptors (pom.xml, kmodule.xml,
+ * project.imports and package-names-white-list) and with the latest commit of the Module. A snapshot whose descriptors
+ * changed is discarded, as the dependencies of the Module may have changed. A snapshot of another commit is still
+ * returned, but not as {@link Snapshot#isCurrent() current}: the sources of the Module may have changed. A snapshot is
+ * {@link #delete(KieModule) deleted} when the Module changes while the workbench runs, so only the snapshots of Modules
+ * untouched since the last save survive a restart.
+ * <p>
+ * The snapshots are stored in the directory set with {@link #SNAPSHOT_DIR}, there are none when it is not set.
+ */
+@ApplicationScoped
+public class ModuleDataModelOracleSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ModuleDataModelOracleSnapshotStore.class);
+
+    public static final String SNAPSHOT_DIR = "org.kie.workbench.datamodel.snapshot.dir";
+
+    //Bump when the content of the snapshots changes, older snapshots are then discarded
+    private static final String FORMAT_VERSION = "1";
+
+    private IOService ioService;
+
+    private java.nio.file.Path directory;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong discards = new AtomicLong();
+    private final AtomicLong saves = new AtomicLong();
+
+    public ModuleDataModelOracleSnapshotStore() {
+        //Make proxyable
+    }
+
+    @Inject
+    public ModuleDataModelOracleSnapshotStore(final @Named("ioStrategy") IOService ioService) {
+        this(ioService,
+             System.getProperty(SNAPSHOT_DIR) != null ? java.nio.file.Paths.get(System.getProperty(SNAPSHOT_DIR)) : null);
+    }
+
+    ModuleDataModelOracleSnapshotStore(final IOService ioService,
+                                       final java.nio.file.Path directory) {
+        this.ioService = ioService;
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * @return the snapshot of the Module, or null when there is none or its descriptors changed.
+     */
+    public Snapshot load(final KieModule module) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final java.nio.file.Path file = getFile(module);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            final String content = new String(Files.readAllBytes(file),
+                                              StandardCharsets.UTF_8);
+            final int headerEnd = content.indexOf('\n');
+            final String[] header = content.substring(0,
+                                                      headerEnd).split(" ",
+                                                                       -1);
+            if (header.length != 3 || !FORMAT_VERSION.equals(header[0]) || !getDescriptorsHash(module).equals(header[1])) {
+                discards.incrementAndGet();
+                Files.deleteIfExists(file);
+                return null;
+            }
+            final String commitId = getCommitId(module);
+            final PackageDataModelOracleBaselinePayload payload = (PackageDataModelOracleBaselinePayload) ServerMarshalling.fromJSON(content.substring(headerEnd + 1));
+            loads.incrementAndGet();
+            return new Snapshot(toOracle(payload),
+                                commitId != null && commitId.equals(header[2]));
+        } catch (Exception e) {
+            log.warn("Unable to load the DataModelOracle snapshot of Module '" + module.getModuleName() + "', it will be rebuilt.",
+                     e);
+            discards.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void save(final KieModule module,
+                     final ModuleDataModelOracle oracle) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            final String commitId = getCommitId(module);
+            final String content = FORMAT_VERSION + " " + getDescriptorsHash(module) + " " + (commitId == null ? "" : commitId) + "\n" +
+                    ServerMarshalling.toJSON(toPayload(oracle));
+            Files.createDirectories(directory);
+            //Write aside and move, so a snapshot is never read half written
+            final java.nio.file.Path file = getFile(module);
+            final java.nio.file.Path tmp = Files.createTempFile(directory,
+                                                                file.getFileName().toString(),
+                                                                ".tmp");
+            Files.write(tmp,
+                        content.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp,
+                       file,
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            saves.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Unable to save the DataModelOracle snapshot of Module '" + module.getModuleName() + "'.",
+                     e);
+        }
+    }
+
+    /**
+     * Deletes the snapshot of the Module, if any, so it is not loaded again once the Module changed.
+     */
+    public void delete(final KieModule module) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            if (Files.deleteIfExists(getFile(module))) {
+                discards.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.warn("Unable to delete the DataModelOracle snapshot of Module '" + module.getModuleName() + "'.",
+                     e);
+        }
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    public long getDiscards() {
+        return discards.get();
+    }
+
+    public long getSaves() {
+        return saves.get();
+    }
+
+    /**
+     * @return true when both DataModelOracles have the same content, as far as a snapshot can tell.
+     */
+    public boolean isSame(final ModuleDataModelOracle oracle1,
+                          final ModuleDataModelOracle oracle2) {
+        try {
+            return ServerMarshalling.toJSON(toPayload(oracle1)).equals(ServerMarshalling.toJSON(toPayload(oracle2)));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    static PackageDataModelOracleBaselinePayload toPayload(final ModuleDataModelOracle oracle) {
+        final PackageDataModelOracleBaselinePayload payload = new PackageDataModelOracleBaselinePayload();
+        payload.setModelFields(oracle.getModuleModelFields());
+        payload.setFieldParametersType(oracle.getModuleFieldParametersType());
+        payload.setEventTypes(oracle.getModuleEventTypes());
+        payload.setTypeSources(oracle.getModuleTypeSources());
+        payload.setSuperTypes(oracle.getModuleSuperTypes());
+        payload.setTypeAnnotations(oracle.getModuleTypeAnnotations());
+        payload.setTypeFieldsAnnotations(oracle.getModuleTypeFieldsAnnotations());
+        payload.setJavaEnumDefinitions(oracle.getModuleJavaEnumDefinitions());
+        payload.setMethodInformation(oracle.getModuleMethodInformation());
+        payload.setCollectionTypes(oracle.getModuleCollectionTypes());
+        payload.setPackageNames(oracle.getModulePackageNames());
+        return payload;
+    }
+
+    static ModuleDataModelOracle toOracle(final PackageDataModelOracleBaselinePayload payload) {
+        final ModuleDataModelOracleImpl oracle = new ModuleDataModelOracleImpl();
+        oracle.addModuleModelFields(payload.getModelFields());
+        oracle.addModuleFieldParametersType(payload.getFieldParametersType());
+        oracle.addModuleEventTypes(payload.getEventTypes());
+        oracle.addModuleTypeSources(payload.getTypeSources());
+        oracle.addModuleSuperTypes(payload.getSuperTypes());
+        oracle.addModuleTypeAnnotations(payload.getTypeAnnotations());
+        oracle.addModuleTypeFieldsAnnotations(payload.getTypeFieldsAnnotations());
+        oracle.addModuleJavaEnumDefinitions(payload.getJavaEnumDefinitions());
+        oracle.addModuleMethodInformation(payload.getMethodInformation());
+        oracle.addModuleCollectionTypes(payload.getCollectionTypes());
+        oracle.addModulePackageNames(payload.getPackageNames());
+        return oracle;
+    }
+
+    private java.nio.file.Path getFile(final KieModule module) {
+        return directory.resolve(hash(module.getRootPath().toURI().getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+
+    private String getDescriptorsHash(final KieModule module) throws NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        for (Path descriptor : new Path[]{module.getPomXMLPath(), module.getKModuleXMLPath(), module.getImportsPath(), module.getPackageNamesWhiteListPath()}) {
+            if (descriptor == null) {
+                continue;
+            }
+            final org.uberfire.java.nio.file.Path nioDescriptor = Paths.convert(descriptor);
+            if (ioService.exists(nioDescriptor)) {
+                digest.update(ioService.readAllBytes(nioDescriptor));
+            }
+            digest.update((byte) 0);
+        }
+        return toHex(digest.digest());
+    }
+
+    //The id of the latest commit of the Module, when its file system keeps a history
+    private String getCommitId(final KieModule module) {
+        try {
+            final VersionAttributeView view = ioService.getFileAttributeView(Paths.convert(module.getRootPath()),
+                                                                             VersionAttributeView.class);
+            if (view == null) {
+                return null;
+            }
+            final List<VersionRecord> records = view.readAttributes().history().records();
+            if (records.isEmpty()) {
+                return null;
+            }
+            return records.get(records.size() - 1).id();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String hash(final byte[] bytes) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x",
+                                    b));
+        }
+        return sb.toString();
+    }
+
+    public static class Snapshot {
+
+        private final ModuleDataModelOracle oracle;
+        private final boolean current;
+
+        Snapshot(final ModuleDataModelOracle oracle,
+                 final boolean current) {
+            this.oracle = oracle;
+            this.current = current;
+        }
+
+        public ModuleDataModelOracle getOracle() {
+            return oracle;
+        }
+
+        /**
+         * @return true when the snapshot was taken at the latest commit of the Module.
+         */
+        public boolean isCurrent() {
+            return current;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
+import org.kie.soup.project.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+
+import static org.junit.Assert.*;
+
+public class ClassInspectionTest {
+
+    @Test
+    public void testClassIsInspectedOnce() {
+        final ClassInspection inspection = ClassInspection.of(Product.class);
+
+        assertSame(inspection,
+                   ClassInspection.of(Product.class));
+        assertEquals(1,
+                     inspection.getFields().size());
+        assertEquals("colour",
+                     inspection.getFields().iterator().next().getName());
+    }
+
+    @Test
+    public void testInspectionIsSharedByClassesWithSameBytes() throws Exception {
+        final Class<?> product1 = loadIsolated(Product.class);
+        final Class<?> product2 = loadIsolated(Product.class);
+        assertNotSame(product1,
+                      product2);
+
+        ClassInspection.of(product1);
+        final long hits = ClassInspection.getHits();
+        ClassInspection.of(product2);
+
+        assertEquals(hits + 1,
+                     ClassInspection.getHits());
+    }
+
+    @Test
+    public void testFieldTypesAreLoadedByClassLoaderOfTheClass() throws Exception {
+        final Class<?> product1 = loadIsolated(Product.class);
+        final Class<?> product2 = loadIsolated(Product.class);
+        ClassInspection.of(product1);
+
+        final ModuleDataModelOracleBuilder builder = ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator());
+        final ModuleDataModelOracleImpl oracle = new ModuleDataModelOracleImpl();
+        new ClassFactBuilder(builder,
+                             product2,
+                             false,
+                             type -> TypeSource.JAVA_PROJECT).build(oracle);
+
+        assertSame(product2.getClassLoader(),
+                   ClassInspection.loadType(product2,
+                                            Product.Colour.class.getName()).getClassLoader());
+        assertEquals(Product.Colour.class.getName(),
+                     oracle.getModuleModelFields().get(Product.class.getName())[1].getClassName());
+    }
+
+    private Class<?> loadIsolated(final Class<?> clazz) throws Exception {
+        final URL location = clazz.getProtectionDomain().getCodeSource().getLocation();
+        return new URLClassLoader(new URL[]{location},
+                                  null).loadClass(clazz.getName());
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.enterprise.inject.Instance;
+
+import org.guvnor.common.services.backend.file.FileDiscoveryService;
+import org.guvnor.common.services.project.builder.events.InvalidateDMOPackageCacheEvent;
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
+import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
+import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.file.GlobalsFileFilter;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ModuleDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.spi.DataModelExtension;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.io.IOService;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class LRUDataModelOracleCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private FileDiscoveryService fileDiscoveryService;
+
+    @Mock
+    private LRUModuleDataModelOracleCache cacheModules;
+
+    @Mock
+    private KieModuleService moduleService;
+
+    @Mock
+    private BuildInfoService buildInfoService;
+
+    @Mock
+    private Instance<DataModelExtension> dataModelExtensionsProvider;
+
+    @Mock
+    private KieModule module;
+
+    private LRUDataModelOracleCache cache;
+
+    private Package pkg;
+
+    private Path packagePath;
+
+    private Path globalsA;
+
+    private Path globalsB;
+
+    @Before
+    public void setUp() throws Exception {
+        doAnswer(invocation -> Collections.<DataModelExtension>emptyList().spliterator()).when(dataModelExtensionsProvider).spliterator();
+        doReturn(ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator()).build()).when(cacheModules).assertModuleDataModelOracle(module);
+        doReturn(true).when(ioService).exists(any());
+
+        cache = new LRUDataModelOracleCache(ioService,
+                                            fileDiscoveryService,
+                                            cacheModules,
+                                            moduleService,
+                                            buildInfoService,
+                                            dataModelExtensionsProvider,
+                                            new RawMVELEvaluator());
+
+        packagePath = newPath(folder.newFolder("pkg"));
+        globalsA = newPath(new File(folder.getRoot(),
+                                    "pkg/a.gdrl"));
+        globalsB = newPath(new File(folder.getRoot(),
+                                    "pkg/b.gdrl"));
+        pkg = newPackage(packagePath,
+                         globalsA,
+                         globalsB);
+        setContent(globalsA,
+                   "global java.lang.String a;");
+        setContent(globalsB,
+                   "global java.lang.Integer b;");
+    }
+
+    @Test
+    public void modifiedContributionIsReloadedAlone() {
+        assertGlobals(globals("a",
+                              "java.lang.String",
+                              "b",
+                              "java.lang.Integer"));
+
+        setContent(globalsA,
+                   "global java.lang.Long a;");
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(globalsA));
+
+        assertGlobals(globals("a",
+                              "java.lang.Long",
+                              "b",
+                              "java.lang.Integer"));
+        verifyDiscoveries(packagePath,
+                          1);
+        verify(ioService,
+               times(2)).readAllString(Paths.convert(globalsA));
+        verify(ioService,
+               times(1)).readAllString(Paths.convert(globalsB));
+    }
+
+    @Test
+    public void addedContributionIsLoaded() throws Exception {
+        assertGlobals(globals("a",
+                              "java.lang.String",
+                              "b",
+                              "java.lang.Integer"));
+
+        final Path globalsC = newPath(new File(folder.getRoot(),
+                                               "pkg/c.gdrl"));
+        setContent(globalsC,
+                   "global java.lang.Boolean c;");
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(globalsC));
+
+        final Map<String, String> expected = globals("a",
+                                                     "java.lang.String",
+                                                     "b",
+                                                     "java.lang.Integer");
+        expected.put("c",
+                     "java.lang.Boolean");
+        assertGlobals(expected);
+        verifyDiscoveries(packagePath,
+                          1);
+    }
+
+    @Test
+    public void deletedContributionIsDropped() {
+        assertGlobals(globals("a",
+                              "java.lang.String",
+                              "b",
+                              "java.lang.Integer"));
+
+        doReturn(false).when(ioService).exists(Paths.convert(globalsA));
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(globalsA));
+
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("b",
+                     "java.lang.Integer");
+        assertGlobals(expected);
+        verifyDiscoveries(packagePath,
+                          1);
+        verify(ioService,
+               times(1)).readAllString(Paths.convert(globalsB));
+    }
+
+    @Test
+    public void evictedPackagesDropTheirContributions() throws Exception {
+        cache.assertPackageDataModelOracle(module,
+                                           pkg);
+
+        //Fill the cache with other Packages until the first one is evicted
+        for (int i = 0; i < 1000 && cache.getKeys().contains(pkg); i++) {
+            cache.assertPackageDataModelOracle(module,
+                                               newPackage(newPath(folder.newFolder("other" + i))));
+        }
+        assertFalse(cache.getKeys().contains(pkg));
+
+        //The change can not be applied to contributions that are no longer kept: everything is loaded again
+        setContent(globalsA,
+                   "global java.lang.Long a;");
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(globalsA));
+
+        assertGlobals(globals("a",
+                              "java.lang.Long",
+                              "b",
+                              "java.lang.Integer"));
+        verifyDiscoveries(packagePath,
+                          2);
+        verify(ioService,
+               times(2)).readAllString(Paths.convert(globalsB));
+    }
+
+    @Test
+    public void invalidatedPackagesDropTheirContributions() {
+        cache.assertPackageDataModelOracle(module,
+                                           pkg);
+
+        cache.invalidateCache(pkg);
+        assertFalse(cache.getKeys().contains(pkg));
+
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(globalsA));
+        cache.assertPackageDataModelOracle(module,
+                                           pkg);
+
+        verifyDiscoveries(packagePath,
+                          2);
+    }
+
+    private void assertGlobals(final Map<String, String> expected) {
+        final PackageDataModelOracle oracle = cache.assertPackageDataModelOracle(module,
+                                                                                 pkg);
+        assertEquals(expected,
+                     oracle.getPackageGlobals());
+    }
+
+    private void verifyDiscoveries(final Path path,
+                                   final int times) {
+        verify(fileDiscoveryService,
+               times(times)).discoverFiles(eq(Paths.convert(path)),
+                                           isA(GlobalsFileFilter.class));
+    }
+
+    private Package newPackage(final Path path,
+                               final Path... globalsFiles) {
+        final Package newPackage = mock(Package.class);
+        doReturn("org.test").when(newPackage).getPackageName();
+        doReturn(path).when(newPackage).getPackageMainResourcesPath();
+        doReturn(Collections.emptyList()).when(fileDiscoveryService).discoverFiles(eq(Paths.convert(path)),
+                                                                                 any());
+        doReturn(Arrays.stream(globalsFiles).map(Paths::convert).collect(toList()))
+                .when(fileDiscoveryService).discoverFiles(eq(Paths.convert(path)),
+                                                          isA(GlobalsFileFilter.class));
+        for (final Path globalsFile : globalsFiles) {
+            doReturn(newPackage).when(moduleService).resolvePackage(globalsFile);
+        }
+        return newPackage;
+    }
+
+    private void setContent(final Path path,
+                            final String content) {
+        doReturn(content).when(ioService).readAllString(Paths.convert(path));
+        doReturn(pkg).when(moduleService).resolvePackage(path);
+    }
+
+    private static Map<String, String> globals(final String name1,
+                                               final String type1,
+                                               final String name2,
+                                               final String type2) {
+        final Map<String, String> globals = new HashMap<>();
+        globals.put(name1,
+                    type1);
+        globals.put(name2,
+                    type2);
+        return globals;
+    }
+
+    private static Path newPath(final File file) {
+        return PathFactory.newPath(file.getName(),
+                                   file.toURI().toString());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import javax.enterprise.event.Event;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.workbench.common.services.backend.builder.service.BuildInfo;
+import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ModuleDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.io.IOService;
+import org.uberfire.rpc.SessionInfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class LRUModuleDataModelOracleCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private ModuleDataModelOracleBuilderProvider builderProvider;
+
+    @Mock
+    private ModuleDataModelOracleBuilderProvider.InnerBuilder builder;
+
+    @Mock
+    private KieModuleService moduleService;
+
+    @Mock
+    private BuildInfoService buildInfoService;
+
+    @Mock
+    private Event<ModuleDataModelOracleRefreshedEvent> refreshedEvent;
+
+    @Mock
+    private KieModule module;
+
+    private Path pomPath;
+
+    private ModuleDataModelOracleSnapshotStore snapshotStore;
+
+    private LRUModuleDataModelOracleCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        final File moduleRoot = folder.newFolder("module");
+        pomPath = PathFactory.newPath("pom.xml",
+                                      new File(moduleRoot,
+                                               "pom.xml").toURI().toString());
+        doReturn(PathFactory.newPath("module",
+                                     moduleRoot.toURI().toString())).when(module).getRootPath();
+        doReturn(pomPath).when(module).getPomXMLPath();
+        doReturn(module).when(moduleService).resolveModule(pomPath);
+        doReturn(true).when(ioService).exists(any());
+        doReturn("<project/>".getBytes(StandardCharsets.UTF_8)).when(ioService).readAllBytes(any());
+
+        final BuildInfo buildInfo = mock(BuildInfo.class);
+        doReturn(buildInfo).when(buildInfoService).getBuildInfo(module);
+        doReturn(builder).when(builderProvider).newBuilder(module,
+                                                           buildInfo);
+
+        snapshotStore = new ModuleDataModelOracleSnapshotStore(ioService,
+                                                               folder.newFolder("snapshots").toPath());
+        cache = new LRUModuleDataModelOracleCache(builderProvider,
+                                                  moduleService,
+                                                  buildInfoService,
+                                                  snapshotStore,
+                                                  refreshedEvent);
+    }
+
+    @After
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    public void testInvalidatedModuleIsRebuiltStraightAway() {
+        final ModuleDataModelOracle oracle = newOracle();
+        doReturn(oracle).when(builder).build();
+        cache.assertModuleDataModelOracle(module);
+        assertEquals(1,
+                     snapshotStore.getSaves());
+
+        //Saving a fact type changes the Module, its snapshot must not be served in place of a rebuild
+        final ModuleDataModelOracle changedOracle = newOracle();
+        doReturn(changedOracle).when(builder).build();
+        cache.invalidateModuleCache(new InvalidateDMOModuleCacheEvent(mock(SessionInfo.class),
+                                                                      module,
+                                                                      pomPath));
+
+        assertSame(changedOracle,
+                   cache.assertModuleDataModelOracle(module));
+        assertEquals(0,
+                     snapshotStore.getLoads());
+        verify(builder,
+               times(2)).build();
+    }
+
+    @Test
+    public void testSnapshotIsUsedOnColdStart() {
+        final ModuleDataModelOracle snapshotOracle = newOracle();
+        snapshotStore.save(module,
+                           snapshotOracle);
+        doReturn(snapshotOracle).when(builder).build();
+
+        cache.assertModuleDataModelOracle(module);
+
+        assertEquals(1,
+                     snapshotStore.getLoads());
+    }
+
+    @Test
+    public void testInvalidationDeletesSnapshot() {
+        snapshotStore.save(module,
+                           newOracle());
+
+        cache.invalidateModuleCache(new InvalidateDMOModuleCacheEvent(mock(SessionInfo.class),
+                                                                      module,
+                                                                      pomPath));
+
+        assertNull(snapshotStore.load(module));
+    }
+
+    private static ModuleDataModelOracle newOracle() {
+        return ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator())
+                .addClass(Product.class)
+                .build();
+    }
+}
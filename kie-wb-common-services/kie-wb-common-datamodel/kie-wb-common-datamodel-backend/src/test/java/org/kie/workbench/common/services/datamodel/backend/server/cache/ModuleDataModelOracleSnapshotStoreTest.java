@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ModuleDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.io.IOService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ModuleDataModelOracleSnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private KieModule module;
+
+    private ModuleDataModelOracleSnapshotStore store;
+
+    private ModuleDataModelOracle oracle;
+
+    @Before
+    public void setUp() throws Exception {
+        final File moduleRoot = folder.newFolder("module");
+        final Path rootPath = PathFactory.newPath("module",
+                                                  moduleRoot.toURI().toString());
+        final Path pomPath = PathFactory.newPath("pom.xml",
+                                                 new File(moduleRoot,
+                                                          "pom.xml").toURI().toString());
+        doReturn(rootPath).when(module).getRootPath();
+        doReturn(pomPath).when(module).getPomXMLPath();
+        doReturn(true).when(ioService).exists(any());
+        doReturn("<project/>".getBytes(StandardCharsets.UTF_8)).when(ioService).readAllBytes(any());
+
+        store = new ModuleDataModelOracleSnapshotStore(ioService,
+                                                       folder.newFolder("snapshots").toPath());
+        oracle = ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator())
+                .addClass(Product.class)
+                .build();
+    }
+
+    @Test
+    public void testSnapshotIsLoaded() {
+        assertNull(store.load(module));
+
+        store.save(module,
+                   oracle);
+        final ModuleDataModelOracleSnapshotStore.Snapshot snapshot = store.load(module);
+
+        assertNotNull(snapshot);
+        assertTrue(store.isSame(oracle,
+                                snapshot.getOracle()));
+        assertEquals(oracle.getModuleModelFields().keySet(),
+                     snapshot.getOracle().getModuleModelFields().keySet());
+        //There is no commit to tell the snapshot is up to date
+        assertFalse(snapshot.isCurrent());
+    }
+
+    @Test
+    public void testSnapshotIsDiscardedWhenDescriptorsChange() {
+        store.save(module,
+                   oracle);
+        doReturn("<project><dependencies/></project>".getBytes(StandardCharsets.UTF_8)).when(ioService).readAllBytes(any());
+
+        assertNull(store.load(module));
+        assertEquals(1,
+                     store.getDiscards());
+    }
+
+    @Test
+    public void testDisabledStore() {
+        final ModuleDataModelOracleSnapshotStore disabled = new ModuleDataModelOracleSnapshotStore(ioService,
+                                                                                                   null);
+        disabled.save(module,
+                      oracle);
+
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.load(module));
+        assertEquals(0,
+                     disabled.getSaves());
+    }
+}
@@ -27,6 +27,7 @@ import org.kie.workbench.common.services.refactoring.Resource;
 import org.kie.workbench.common.services.refactoring.ResourceReference;
 import org.kie.workbench.common.services.refactoring.SharedPart;
 import org.kie.workbench.common.services.refactoring.backend.server.impact.ResourceReferenceCollector;
+import org.kie.workbench.common.services.refactoring.backend.server.query.QueryResultCache;
 import org.kie.workbench.common.services.refactoring.backend.server.util.KObjectUtil;
 import org.kie.workbench.common.services.refactoring.model.index.terms.IndexTerm;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
@@ -54,6 +55,12 @@ public abstract class AbstractFileIndexer implements Indexer {
     @Inject
     protected KieModuleService moduleService;
 
+    @Inject
+    protected BatchIndexingPipeline batchIndexingPipeline;
+
+    @Inject
+    protected QueryResultCache queryResultCache;
+
     /**
      * This method fills a {@link DefaultIndexBuilder} instance with the default information.
      * If the index builder could not be built, it should either throw an exception or return null.
@@ -71,6 +78,19 @@ public abstract class AbstractFileIndexer implements Indexer {
      */
     @Override
     public KObject toKObject(Path path) {
+        documentChanged();
+        if (batchIndexingPipeline != null) {
+            return batchIndexingPipeline.toKObject(this,
+                                                   path);
+        }
+        return buildKObject(path);
+    }
+
+    /**
+     * Builds the document of the resource, possibly ahead of {@link #toKObject(Path)} and concurrently with other
+     * resources when a repository is batch indexed, see {@link BatchIndexingPipeline}.
+     */
+    protected KObject buildKObject(Path path) {
         KObject index = null;
 
         try {
@@ -86,7 +106,7 @@ public abstract class AbstractFileIndexer implements Indexer {
             }
 
             index = KObjectUtil.toKObject(path,
-                                          IndexTerm.REFACTORING_CLASSIFIER,
+                                          getClassifier(),
                                           indexElements);
         } catch (Exception e) {
             // Unexpected parsing or processing error
@@ -155,7 +175,25 @@ public abstract class AbstractFileIndexer implements Indexer {
      */
     @Override
     public KObjectKey toKObjectKey(final Path path) {
+        documentChanged();
         return KObjectUtil.toKObjectKey(path,
-                                        IndexTerm.REFACTORING_CLASSIFIER);
+                                        getClassifier());
+    }
+
+    /**
+     * The document built or removed changes the results of the queries once committed, see {@link QueryResultCache}.
+     */
+    private void documentChanged() {
+        if (queryResultCache != null) {
+            queryResultCache.documentChanged();
+        }
+    }
+
+    /**
+     * The classifier of the documents of this indexer, it tells them apart from the documents other indexers build for
+     * the same resource.
+     */
+    protected String getClassifier() {
+        return IndexTerm.REFACTORING_CLASSIFIER;
     }
 }
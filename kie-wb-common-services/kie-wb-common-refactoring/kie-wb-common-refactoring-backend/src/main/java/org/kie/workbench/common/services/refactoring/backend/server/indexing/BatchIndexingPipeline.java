@@ -0,0 +1,344 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.kie.workbench.common.services.refactoring.model.index.events.IndexingFinishedEvent;
+import org.kie.workbench.common.services.refactoring.model.index.events.IndexingStartedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.file.FileVisitResult;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.SimpleFileVisitor;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Speeds up the batch indexing of a repository, while the indexing engine still visits and commits the files one by one:
+ * when the batch starts, the files of the repository are walked in the background and the documents of every
+ * {@link AbstractFileIndexer} supporting them are built in parallel. The engine then takes the prepared documents
+ * instead of parsing the files itself.
+ * The number of threads preparing documents is set with the {@link #INDEXING_THREADS} system property, 1 disables
+ * the parallel preparation. At most {@link #PREFETCH_SIZE} documents are prepared ahead of the engine, the walk waits
+ * for the engine to take them before preparing more.
+ */
+@ApplicationScoped
+public class BatchIndexingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchIndexingPipeline.class);
+
+    public static final String INDEXING_THREADS = "org.kie.workbench.indexing.threads";
+
+    public static final String PREFETCH_SIZE = "org.kie.workbench.indexing.prefetch";
+
+    private Iterable<? extends Indexer> indexers;
+
+    private ExecutorService executor;
+
+    private Semaphore prefetchWindow;
+
+    private final AtomicInteger walkers = new AtomicInteger();
+
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+    private final AtomicLong walkedFiles = new AtomicLong();
+    private final AtomicLong preparedDocuments = new AtomicLong();
+    private final AtomicLong usedDocuments = new AtomicLong();
+
+    public BatchIndexingPipeline() {
+        //Make proxyable
+    }
+
+    @Inject
+    public BatchIndexingPipeline(final @Any Instance<Indexer> indexers) {
+        this(indexers,
+             Integer.getInteger(INDEXING_THREADS,
+                                Runtime.getRuntime().availableProcessors()),
+             Integer.getInteger(PREFETCH_SIZE,
+                                256));
+    }
+
+    BatchIndexingPipeline(final Iterable<? extends Indexer> indexers,
+                          final int threads,
+                          final int prefetchSize) {
+        this.indexers = indexers;
+        this.prefetchWindow = new Semaphore(Math.max(1,
+                                                     prefetchSize));
+        if (threads > 1) {
+            final AtomicInteger count = new AtomicInteger();
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads,
+                                                                   threads,
+                                                                   60L,
+                                                                   TimeUnit.SECONDS,
+                                                                   //Holds at most the documents of the prefetch window
+                                                                   new LinkedBlockingQueue<>(),
+                                                                   r -> {
+                                                                       final Thread thread = new Thread(r,
+                                                                                                        "batch-indexing-" + count.incrementAndGet());
+                                                                       thread.setDaemon(true);
+                                                                       return thread;
+                                                                   });
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batches.keySet().forEach(this::finish);
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public void onIndexingStarted(@Observes final IndexingStartedEvent event) {
+        start(event.getkClusterId(),
+              event.getPath() != null ? Paths.convert(event.getPath()) : null);
+    }
+
+    public void onIndexingFinished(@Observes final IndexingFinishedEvent event) {
+        finish(event.getkClusterId());
+    }
+
+    void start(final String clusterId,
+               final Path root) {
+        final Batch batch = new Batch(root);
+        final Batch previous = batches.put(clusterId,
+                                           batch);
+        if (previous != null) {
+            close(previous);
+        }
+        if (executor != null && root != null) {
+            //The event is observed synchronously: walk the repository without holding up its sender
+            batch.walker = new Thread(() -> prepare(root,
+                                                    batch),
+                                      "batch-indexing-walker-" + walkers.incrementAndGet());
+            batch.walker.setDaemon(true);
+            batch.walker.start();
+        }
+    }
+
+    void finish(final String clusterId) {
+        final Batch batch = batches.remove(clusterId);
+        if (batch != null) {
+            close(batch);
+            logger.info("Batch indexing of '{}' completed in {} ms: {} files walked, {} documents prepared, {} used.",
+                        clusterId,
+                        System.currentTimeMillis() - batch.startTime,
+                        batch.walkedFiles.get(),
+                        batch.preparedDocuments.get(),
+                        batch.usedDocuments.get());
+        }
+    }
+
+    /**
+     * Waits for the walk of the repository of a batch to complete, all its documents are then prepared or submitted.
+     */
+    void awaitWalk(final String clusterId) throws InterruptedException {
+        final Batch batch = batches.get(clusterId);
+        if (batch != null && batch.walker != null) {
+            batch.walker.join();
+        }
+    }
+
+    private void close(final Batch batch) {
+        batch.closed = true;
+        if (batch.walker != null) {
+            batch.walker.interrupt();
+        }
+        for (String key : batch.prepared.keySet()) {
+            final Future<KObject> document = batch.prepared.remove(key);
+            if (document != null) {
+                document.cancel(true);
+                prefetchWindow.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the document prepared for the file by the indexer, or builds it if it has not been prepared.
+     */
+    public KObject toKObject(final AbstractFileIndexer indexer,
+                             final Path path) {
+        final String key = key(indexer,
+                               path);
+        for (Batch batch : batches.values()) {
+            final Future<KObject> document = batch.prepared.remove(key);
+            if (document == null) {
+                if (batch.contains(path)) {
+                    //Not prepared yet, the walk no longer needs to
+                    batch.builtByEngine.add(key);
+                }
+                continue;
+            }
+            try {
+                final KObject kObject = document.get();
+                batch.usedDocuments.incrementAndGet();
+                usedDocuments.incrementAndGet();
+                return kObject;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Unable to prepare the document of '" + path.toUri() + "', building it again.",
+                            e.getCause());
+            } finally {
+                prefetchWindow.release();
+            }
+            break;
+        }
+        return indexer.buildKObject(path);
+    }
+
+    public long getWalkedFiles() {
+        return walkedFiles.get();
+    }
+
+    public long getPreparedDocuments() {
+        return preparedDocuments.get();
+    }
+
+    public long getUsedDocuments() {
+        return usedDocuments.get();
+    }
+
+    private void prepare(final Path root,
+                         final Batch batch) {
+        final List<AbstractFileIndexer> fileIndexers = new ArrayList<>();
+        for (Indexer indexer : indexers) {
+            if (indexer instanceof AbstractFileIndexer) {
+                fileIndexers.add((AbstractFileIndexer) indexer);
+            }
+        }
+        if (fileIndexers.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.walkFileTree(root,
+                               new SimpleFileVisitor<Path>() {
+                                   @Override
+                                   public FileVisitResult preVisitDirectory(final Path dir,
+                                                                            final BasicFileAttributes attrs) throws IOException {
+                                       if (batch.closed) {
+                                           return FileVisitResult.TERMINATE;
+                                       }
+                                       final Path fileName = dir.getFileName();
+                                       if (fileName != null && fileName.toString().startsWith(".")) {
+                                           return FileVisitResult.SKIP_SUBTREE;
+                                       }
+                                       return FileVisitResult.CONTINUE;
+                                   }
+
+                                   @Override
+                                   public FileVisitResult visitFile(final Path file,
+                                                                    final BasicFileAttributes attrs) throws IOException {
+                                       batch.walkedFiles.incrementAndGet();
+                                       walkedFiles.incrementAndGet();
+                                       for (AbstractFileIndexer indexer : fileIndexers) {
+                                           if (!indexer.supportsPath(file)) {
+                                               continue;
+                                           }
+                                           final String key = key(indexer,
+                                                                  file);
+                                           if (batch.builtByEngine.contains(key)) {
+                                               continue;
+                                           }
+                                           try {
+                                               prefetchWindow.acquire();
+                                           } catch (InterruptedException e) {
+                                               Thread.currentThread().interrupt();
+                                               return FileVisitResult.TERMINATE;
+                                           }
+                                           if (batch.builtByEngine.contains(key)) {
+                                               //Taken by the engine while waiting for the window
+                                               prefetchWindow.release();
+                                               continue;
+                                           }
+                                           batch.prepared.put(key,
+                                                              executor.submit(() -> indexer.buildKObject(file)));
+                                           batch.preparedDocuments.incrementAndGet();
+                                           preparedDocuments.incrementAndGet();
+                                           if (batch.closed && batch.prepared.remove(key) != null) {
+                                               prefetchWindow.release();
+                                               return FileVisitResult.TERMINATE;
+                                           }
+                                       }
+                                       return FileVisitResult.CONTINUE;
+                                   }
+                               });
+        } catch (Exception e) {
+            //The files not prepared are built by the indexing engine itself
+            logger.warn("Unable to prepare the documents of '" + root.toUri() + "': " + e.getMessage(),
+                        e);
+        }
+    }
+
+    private static String key(final Indexer indexer,
+                              final Path path) {
+        return indexer.getIndexerId() + "|" + path.toUri().toString();
+    }
+
+    private static class Batch {
+
+        private final String rootUri;
+        private final long startTime = System.currentTimeMillis();
+        private final Map<String, Future<KObject>> prepared = new ConcurrentHashMap<>();
+        private final Set<String> builtByEngine = ConcurrentHashMap.newKeySet();
+        private final AtomicLong walkedFiles = new AtomicLong();
+        private final AtomicLong preparedDocuments = new AtomicLong();
+        private final AtomicLong usedDocuments = new AtomicLong();
+        private volatile Thread walker;
+        private volatile boolean closed;
+
+        private Batch(final Path root) {
+            if (root == null) {
+                this.rootUri = null;
+            } else {
+                final String uri = root.toUri().toString();
+                this.rootUri = uri.endsWith("/") ? uri : uri + "/";
+            }
+        }
+
+        private boolean contains(final Path path) {
+            return rootUri != null && path.toUri().toString().startsWith(rootUri);
+        }
+    }
+}
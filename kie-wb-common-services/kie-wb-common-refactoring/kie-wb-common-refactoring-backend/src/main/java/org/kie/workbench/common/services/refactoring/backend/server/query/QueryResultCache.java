@@ -0,0 +1,203 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.kie.workbench.common.services.refactoring.model.index.events.IndexingFinishedEvent;
+import org.kie.workbench.common.services.refactoring.model.index.events.IndexingStartedEvent;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.uberfire.ext.metadata.event.BatchIndexEvent;
+
+/**
+ * Caches the results of the named queries, keyed by query name, terms and page window.
+ * <p>
+ * The indexing engine reports the documents it has committed with {@link BatchIndexEvent} after the changes of a
+ * file system have been indexed, and with {@link IndexingFinishedEvent} after a whole repository has been indexed.
+ * Both advance the generation of the index and drop the entries of the older generation. The queries search all the
+ * clusters, so a commit in any cluster invalidates all the entries. Between a document being built or removed,
+ * reported by the indexers with {@link #documentChanged()}, and the commit that follows it, the index is in flux: the
+ * cache is then bypassed, neither serving nor storing results.
+ * <p>
+ * The number of entries is bounded by {@link #CACHE_SIZE}, 0 disables the cache.
+ */
+@ApplicationScoped
+public class QueryResultCache {
+
+    public static final String CACHE_SIZE = "org.kie.workbench.refactoring.query.cache.size";
+
+    private final int maxSize;
+
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicInteger runningBatches = new AtomicInteger();
+
+    private volatile boolean changesPending;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public QueryResultCache() {
+        this(Integer.getInteger(CACHE_SIZE,
+                                256));
+    }
+
+    public QueryResultCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<String, Entry>(16,
+                                                        0.75f,
+                                                        true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                final boolean evict = size() > QueryResultCache.this.maxSize;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public static String key(final String queryName,
+                             final Set<ValueIndexTerm> queryTerms,
+                             final int startIndex,
+                             final int pageSize) {
+        //The order of the terms does not change the query
+        final String terms = queryTerms.stream()
+                .map(term -> term.getClass().getName() + ":" + term.getTerm() + ":" + term.getSearchType() + "=" + term.getValue())
+                .sorted()
+                .collect(Collectors.joining("|"));
+        return queryName + "[" + terms + "]" + startIndex + ":" + pageSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String key,
+                     final Supplier<T> query) {
+        if (maxSize <= 0) {
+            return query.get();
+        }
+        if (changesPending) {
+            misses.incrementAndGet();
+            return query.get();
+        }
+        final long currentGeneration = generation.get();
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+            if (entry != null && entry.generation == currentGeneration) {
+                hits.incrementAndGet();
+                return (T) entry.value;
+            }
+        }
+        misses.incrementAndGet();
+        final T value = query.get();
+        //A change while the query was running may or may not be part of the result
+        if (generation.get() == currentGeneration && !changesPending) {
+            synchronized (entries) {
+                entries.put(key,
+                            new Entry(currentGeneration,
+                                      value));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * A document has been built or removed and is yet to be committed: the cache is bypassed until the next commit.
+     */
+    public void documentChanged() {
+        changesPending = true;
+    }
+
+    public void onIndexingStarted(@Observes final IndexingStartedEvent event) {
+        runningBatches.incrementAndGet();
+        changesPending = true;
+    }
+
+    public void onBatchIndexed(@Observes final BatchIndexEvent event) {
+        indexCommitted(runningBatches.get() == 0);
+    }
+
+    public void onIndexingFinished(@Observes final IndexingFinishedEvent event) {
+        final int running = runningBatches.updateAndGet(count -> Math.max(0,
+                                                                          count - 1));
+        indexCommitted(running == 0);
+    }
+
+    /**
+     * Advances the generation of the index, invalidating all the entries.
+     * @param settled whether no repository is still being indexed, so that the cache can be used again.
+     */
+    void indexCommitted(final boolean settled) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+        if (settled) {
+            changesPending = false;
+        }
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getHitRatio() {
+        final long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    private static class Entry {
+
+        private final long generation;
+        private final Object value;
+
+        private Entry(final long generation,
+                      final Object value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -23,19 +23,19 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.function.IntFunction;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.TopFieldDocs;
-import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.TermRangeQuery;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
@@ -59,10 +59,17 @@ import org.uberfire.paging.PageResponse;
 @ApplicationScoped
 public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
+    //The metadata engine stores the document id in this field, a Base64 SHA-1 for the documents built by the indexers
+    private static final String ID_FIELD = "id";
+    private static final String ID_ALPHABET = "+/0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int ID_PREFIXES = ID_ALPHABET.length() * ID_ALPHABET.length();
+    private static final int STREAM_WINDOW = 1000;
+
     private Logger logger = LoggerFactory.getLogger(RefactoringQueryServiceImpl.class);
 
     private MetadataConfig config;
     private NamedQueries namedQueries;
+    private QueryResultCache queryResultCache;
     private PageResponse<RefactoringPageRow> emptyResponse;
 
     public RefactoringQueryServiceImpl() {
@@ -71,11 +78,14 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
     @Inject
     public RefactoringQueryServiceImpl(@Named("luceneConfig") final MetadataConfig config,
-                                       final NamedQueries namedQueries) {
+                                       final NamedQueries namedQueries,
+                                       final QueryResultCache queryResultCache) {
         this.config = PortablePreconditions.checkNotNull("config",
                                                          config);
         this.namedQueries = PortablePreconditions.checkNotNull("namedQueries",
                                                                namedQueries);
+        this.queryResultCache = PortablePreconditions.checkNotNull("queryResultCache",
+                                                                   queryResultCache);
     }
 
     @PostConstruct
@@ -105,18 +115,22 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
         final Query query = namedQuery.toQuery(request.getQueryTerms());
         final Sort sort = namedQuery.getSortOrder();
+        final boolean distinct = Boolean.TRUE.equals(request.distinctResults());
 
         try {
-            List<KObject> found = config.getIndexProvider().findByQuery(Collections.EMPTY_LIST,
-                                                                        query,
-                                                                        sort,
-                                                                        0);
-
-            if (request.distinctResults()) {
-                found = distinct(found);
-            }
-
-            return found.size();
+            return queryResultCache.get(key(queryName,
+                                            request.getQueryTerms(),
+                                            -1,
+                                            -1,
+                                            distinct),
+                                        () -> {
+                                            if (distinct) {
+                                                return countDistinct(query);
+                                            }
+                                            //Only the hits are counted, documents are not loaded
+                                            return (int) config.getIndexProvider().findHitsByQuery(Collections.emptyList(),
+                                                                                                   query);
+                                        });
         } catch (final Exception ex) {
             String message = "Error during Query!";
             logger.error(message,
@@ -126,11 +140,34 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         }
     }
 
+    /**
+     * The IndexProvider has neither a collector nor a way to group the hits, so duplicates can only be told apart by
+     * reading the hits. The duplicates of a file are always in the same index, so the indices are read one at a time and
+     * only the keys of their hits are kept. The count is then cached like any other result until the index changes.
+     */
+    private int countDistinct(final Query query) {
+        int count = 0;
+        for (String index : config.getIndexProvider().getIndices()) {
+            final List<String> indices = Collections.singletonList(index);
+            if (config.getIndexProvider().findHitsByQuery(indices,
+                                                          query) == 0) {
+                continue;
+            }
+            final Set<String> keys = new HashSet<>();
+            for (KObject kObject : config.getIndexProvider().findByQuery(indices,
+                                                                         query,
+                                                                         0)) {
+                keys.add(generateUniqueIdentifierForKObject(kObject));
+            }
+            count += keys.size();
+        }
+        return count;
+    }
+
     public List<KObject> distinct(List<KObject> found) {
         //This is a temporary way to cleanup index results
         //for library assets list and count.
         //In cluster environment library index each file more than once.
-        //The index should be revised on next release (7.6).
         return found
                 .stream()
                 .filter(distinctByKey(RefactoringQueryServiceImpl::generateUniqueIdentifierForKObject))
@@ -162,16 +199,18 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
         final int pageSize = request.getPageSize();
         final int startIndex = request.getStartRowIndex();
-
-        List<KObject> kObjects
-                = search(query,
-                         sort,
-                         () -> (startIndex),
-                         // start index of docs to get
-                         (numHits) -> (numHits - startIndex > pageSize ? pageSize : numHits - startIndex),
-                         request.distinctResults()
-                         // num docs to add to response
-        );
+        final boolean distinct = Boolean.TRUE.equals(request.distinctResults());
+
+        final List<KObject> kObjects = queryResultCache.get(key(queryName,
+                                                                request.getQueryTerms(),
+                                                                startIndex,
+                                                                pageSize,
+                                                                distinct),
+                                                            () -> search(query,
+                                                                         sort,
+                                                                         startIndex,
+                                                                         pageSize,
+                                                                         distinct));
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
@@ -199,15 +238,15 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         final Query query = namedQuery.toQuery(queryTerms);
         final Sort sort = namedQuery.getSortOrder();
 
-        final List<KObject> kObjects
-                = search(query,
-                         sort,
-                         () -> (0),
-                         // start index of docs to get
-                         (numHits) -> (numHits),
-                         false
-                         // num docs to add to response
-        );
+        final List<KObject> kObjects = queryResultCache.get(QueryResultCache.key(queryName,
+                                                                                 queryTerms,
+                                                                                 0,
+                                                                                 0),
+                                                            () -> search(query,
+                                                                         sort,
+                                                                         0,
+                                                                         0,
+                                                                         false));
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
@@ -217,10 +256,90 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         }
     }
 
+    /**
+     * Streams the rows of a query, building them while the stream is consumed: a consumer stopping early (e.g. with
+     * findFirst, anyMatch or limit) does not build the rows of the remaining hits. The IndexProvider has no cursor
+     * to resume a search from the last hit read, so the hits are split by ranges of their document id into windows of
+     * about a thousand hits that are searched one after the other. Every hit is read once and only the current window
+     * is held in memory. Queries sorted on a field are read with a single search, as the windows would break the order.
+     */
+    public Stream<RefactoringPageRow> stream(final String queryName,
+                                             final Set<ValueIndexTerm> queryTerms) {
+        PortablePreconditions.checkNotNull("queryName",
+                                           queryName);
+        PortablePreconditions.checkNotNull("queryTerms",
+                                           queryTerms);
+
+        final NamedQuery namedQuery = namedQueries.findNamedQuery(queryName);
+
+        //Validate provided terms against those required for the named query
+        namedQuery.validateTerms(queryTerms);
+
+        final Query query = namedQuery.toQuery(queryTerms);
+        final Sort sort = namedQuery.getSortOrder();
+
+        final Stream<KObject> kObjects = windows(query,
+                                                 sort)
+                .stream()
+                .flatMap(window -> search(window,
+                                          sort,
+                                          0,
+                                          0,
+                                          false).stream());
+        return namedQuery.getResponseBuilder().buildResponse(kObjects);
+    }
+
+    private List<Query> windows(final Query query,
+                                final Sort sort) {
+        if (!Sort.INDEXORDER.equals(sort)) {
+            return Collections.singletonList(query);
+        }
+        final long hits = config.getIndexProvider().findHitsByQuery(Collections.emptyList(),
+                                                                    query);
+        final int windows = (int) Math.min(ID_PREFIXES,
+                                           (hits + STREAM_WINDOW - 1) / STREAM_WINDOW);
+        if (windows <= 1) {
+            return Collections.singletonList(query);
+        }
+        //The ranges are open at both ends, so that documents with any other id are read too
+        final List<Query> queries = new ArrayList<>(windows);
+        String lower = null;
+        for (int window = 1; window <= windows; window++) {
+            final String upper = window == windows ? null : idPrefix(window * ID_PREFIXES / windows);
+            queries.add(new BooleanQuery.Builder()
+                                .add(query,
+                                     Occur.MUST)
+                                .add(TermRangeQuery.newStringRange(ID_FIELD,
+                                                                   lower,
+                                                                   upper,
+                                                                   true,
+                                                                   false),
+                                     Occur.MUST)
+                                .build());
+            lower = upper;
+        }
+        return queries;
+    }
+
+    private static String idPrefix(final int prefix) {
+        return new String(new char[]{
+                ID_ALPHABET.charAt(prefix / ID_ALPHABET.length()),
+                ID_ALPHABET.charAt(prefix % ID_ALPHABET.length())
+        });
+    }
+
+    /**
+     * Without duplicates to remove, only the top startIndex + pageSize hits are collected by the index and the others
+     * are never read. The IndexProvider has no cursor to resume a search from the previous page, so the hits before
+     * startIndex are still loaded, but only the requested page is kept.
+     * With duplicates to remove, the top startIndex + pageSize hits are collected first and collected again twice as
+     * many while their duplicates leave fewer unique hits than the page needs, so only the hits up to the page are read.
+     * @param pageSize the number of hits to return, 0 to return all of them.
+     */
     private List<KObject> search(final Query query,
                                  final Sort sort,
-                                 final Supplier<Integer> startIndexSupplier,
-                                 final IntFunction<Integer> numOfHitsToReturnSupplier,
+                                 final int startIndex,
+                                 final int pageSize,
                                  final boolean distinct,
                                  final ClusterSegment... clusterSegments) {
 
@@ -229,19 +348,29 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
                     .map(clusterSegment -> clusterSegment.getClusterId())
                     .collect(Collectors.toList());
 
+            final int wanted = pageSize <= 0 ? 0 : hitsToReturn(startIndex,
+                                                                pageSize);
+            int limit = wanted;
             List<KObject> found = config.getIndexProvider().findByQuery(indices,
                                                                         query,
                                                                         sort,
-                                                                        0);
-
+                                                                        limit);
             if (distinct) {
-                found = distinct(found);
+                List<KObject> unique = distinct(found);
+                //Lucene returns the same leading hits for a larger limit, so the unique hits read are kept in order
+                while (limit > 0 && found.size() == limit && unique.size() < wanted) {
+                    limit = limit > Integer.MAX_VALUE / 2 ? 0 : limit * 2;
+                    found = config.getIndexProvider().findByQuery(indices,
+                                                                  query,
+                                                                  sort,
+                                                                  limit);
+                    unique = distinct(found);
+                }
+                found = unique;
             }
-            final int startIndex = startIndexSupplier.get();
-            final int numOfHitsToReturn = numOfHitsToReturnSupplier.apply(found.size());
-
-            return found.subList(startIndex,
-                                 startIndex + numOfHitsToReturn);
+            return page(found,
+                        startIndex,
+                        pageSize <= 0 ? found.size() : pageSize);
         } catch (
                 final Exception ex)
 
@@ -251,6 +380,40 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         }
     }
 
+    private static int hitsToReturn(final int startIndex,
+                                    final int pageSize) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                              (long) startIndex + pageSize);
+    }
+
+    private static List<KObject> page(final List<KObject> found,
+                                      final int startIndex,
+                                      final int pageSize) {
+        if (startIndex >= found.size()) {
+            return Collections.emptyList();
+        }
+        if (startIndex == 0 && pageSize >= found.size()) {
+            return found;
+        }
+        //A copy, so that the hits outside of the page are not retained with it
+        return new ArrayList<>(found.subList(startIndex,
+                                             Math.min(found.size(),
+                                                      hitsToReturn(startIndex,
+                                                                   pageSize))));
+    }
+
+    private static String key(final String queryName,
+                              final Set<ValueIndexTerm> queryTerms,
+                              final int startIndex,
+                              final int pageSize,
+                              final boolean distinct) {
+        final String key = QueryResultCache.key(queryName,
+                                                queryTerms,
+                                                startIndex,
+                                                pageSize);
+        return distinct ? key + ":distinct" : key;
+    }
+
     /* (non-Javadoc)
      * @see org.kie.workbench.common.services.refactoring.service.RefactoringQueryService#queryToPageResponse(org.kie.workbench.common.services.refactoring.service.impact.QueryOperationRequest)
      */
@@ -273,6 +436,16 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         return response;
     }
 
+    /**
+     * Streaming variant of {@link #queryToList(QueryOperationRequest)}, see {@link #stream(String, Set)}.
+     */
+    public Stream<RefactoringPageRow> queryToStream(final QueryOperationRequest queryOpRequest) {
+        final RefactoringPageRequest request = convertToRefactoringPageRequest(queryOpRequest);
+
+        return stream(request.getQueryName(),
+                      request.getQueryTerms());
+    }
+
     private RefactoringPageRequest convertToRefactoringPageRequest(QueryOperationRequest refOpRequest) {
         RefactoringPageRequest request = new RefactoringPageRequest(
                 FindAllChangeImpactQuery.NAME,
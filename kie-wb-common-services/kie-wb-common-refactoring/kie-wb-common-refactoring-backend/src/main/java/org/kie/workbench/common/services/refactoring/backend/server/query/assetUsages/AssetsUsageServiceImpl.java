@@ -22,9 +22,9 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.jboss.errai.bus.server.annotations.Service;
+import org.kie.workbench.common.services.refactoring.backend.server.query.RefactoringQueryServiceImpl;
 import org.kie.workbench.common.services.refactoring.service.AssetsUsageService;
 import org.kie.workbench.common.services.refactoring.service.PartType;
-import org.kie.workbench.common.services.refactoring.service.RefactoringQueryService;
 import org.kie.workbench.common.services.refactoring.service.ResourceType;
 import org.kie.workbench.common.services.refactoring.service.impact.QueryOperationRequest;
 import org.kie.workbench.common.services.refactoring.service.impact.RefactorOperationBuilder;
@@ -40,11 +40,11 @@ public class AssetsUsageServiceImpl implements AssetsUsageService {
 
     private KieModuleService moduleService;
 
-    private RefactoringQueryService refactoringQueryService;
+    private RefactoringQueryServiceImpl refactoringQueryService;
 
     @Inject
     public AssetsUsageServiceImpl(KieModuleService moduleService,
-                                  RefactoringQueryService refactoringQueryService) {
+                                  RefactoringQueryServiceImpl refactoringQueryService) {
         this.moduleService = moduleService;
         this.refactoringQueryService = refactoringQueryService;
     }
@@ -86,6 +86,6 @@ public class AssetsUsageServiceImpl implements AssetsUsageService {
 
         QueryOperationRequest request = builder.inModuleRootPathURI(project.getRootPath().toURI()).onBranch(branch);
 
-        return refactoringQueryService.queryToList(request).stream().map(row -> (Path) row.getValue()).collect(Collectors.toList());
+        return refactoringQueryService.queryToStream(request).map(row -> (Path) row.getValue()).collect(Collectors.toList());
     }
 }
@@ -18,6 +18,7 @@ package org.kie.workbench.common.services.refactoring.backend.server.query.respo
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -68,11 +69,20 @@ public class FileDetailsResponseBuilder
     public List<RefactoringPageRow> buildResponse(final List<KObject> kObjects) {
         final List<RefactoringPageRow> result = new ArrayList<RefactoringPageRow>(kObjects.size());
         for (final KObject kObject : kObjects) {
-            final Path path = Paths.convert(ioService.get(URI.create(kObject.getKey())));
-            final RefactoringPathPageRow row = new RefactoringPathPageRow();
-            row.setValue(path);
-            result.add(row);
+            result.add(toRow(kObject));
         }
         return result;
     }
+
+    @Override
+    public Stream<RefactoringPageRow> buildResponse(final Stream<KObject> kObjects) {
+        return kObjects.map(this::toRow);
+    }
+
+    private RefactoringPageRow toRow(final KObject kObject) {
+        final Path path = Paths.convert(ioService.get(URI.create(kObject.getKey())));
+        final RefactoringPathPageRow row = new RefactoringPathPageRow();
+        row.setValue(path);
+        return row;
+    }
 }
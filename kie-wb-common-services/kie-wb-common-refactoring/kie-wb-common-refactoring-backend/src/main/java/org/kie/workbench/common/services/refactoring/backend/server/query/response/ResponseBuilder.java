@@ -16,6 +16,8 @@
 package org.kie.workbench.common.services.refactoring.backend.server.query.response;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
 import org.uberfire.ext.metadata.model.KObject;
@@ -29,4 +31,12 @@ public interface ResponseBuilder {
 
     List<RefactoringPageRow> buildResponse( final List<KObject> kObjects );
 
+    /**
+     * Builds the rows while the stream is consumed. The default implementation collects all the objects first,
+     * builders creating one row per object should override it to build the rows lazily.
+     */
+    default Stream<RefactoringPageRow> buildResponse( final Stream<KObject> kObjects ) {
+        return buildResponse( kObjects.collect( Collectors.toList() ) ).stream();
+    }
+
 }
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.kie.workbench.common.services.refactoring.model.index.terms.PackageNameIndexTerm;
@@ -66,14 +67,26 @@ public class RuleNameResponseBuilder
         }
 
         for (RuleName ruleName : uniqueRuleNames) {
-            final RefactoringRuleNamePageRow row = new RefactoringRuleNamePageRow();
-            row.setValue(ruleName);
-            result.add(row);
+            result.add(toRow(ruleName));
         }
 
         return result;
     }
 
+    @Override
+    public Stream<RefactoringPageRow> buildResponse(final Stream<KObject> kObjects) {
+        return kObjects
+                .flatMap((kObject) -> getRuleNamesFromKObject(kObject).stream())
+                .distinct()
+                .map(this::toRow);
+    }
+
+    private RefactoringPageRow toRow(final RuleName ruleName) {
+        final RefactoringRuleNamePageRow row = new RefactoringRuleNamePageRow();
+        row.setValue(ruleName);
+        return row;
+    }
+
     private Set<RuleName> getRuleNamesFromKObject(final KObject kObject) {
         //Some resources (e.g. Decision Tables etc) contain multiple rule names so add them all
         final Set<RuleName> ruleNames = new HashSet<>();
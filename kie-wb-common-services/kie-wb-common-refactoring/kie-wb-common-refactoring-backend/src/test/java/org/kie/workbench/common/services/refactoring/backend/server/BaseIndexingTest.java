@@ -32,6 +32,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.rules.TestName;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQueries;
+import org.kie.workbench.common.services.refactoring.backend.server.query.QueryResultCache;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
 import org.kie.workbench.common.services.refactoring.backend.server.query.RefactoringQueryServiceImpl;
 import org.kie.workbench.common.services.refactoring.model.index.terms.ModuleRootPathIndexTerm;
@@ -95,7 +96,8 @@ public abstract class BaseIndexingTest<T extends ResourceTypeDefinition> extends
             when(namedQueriesProducer.iterator()).thenReturn(getQueries().iterator());
 
             service = new RefactoringQueryServiceImpl(getConfig(),
-                                                      new NamedQueries(namedQueriesProducer));
+                                                      new NamedQueries(namedQueriesProducer),
+                                                      new QueryResultCache(0));
             service.init();
         }
     }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BatchIndexingPipelineTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Mock
+    private AbstractFileIndexer indexer;
+
+    @Mock
+    private KObject kObject;
+
+    private SimpleFileSystemProvider fileSystemProvider;
+
+    private BatchIndexingPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        fileSystemProvider = new SimpleFileSystemProvider();
+        doReturn("test").when(indexer).getIndexerId();
+        doReturn(true).when(indexer).supportsPath(any(Path.class));
+        doReturn(kObject).when(indexer).buildKObject(any(Path.class));
+        pipeline = new BatchIndexingPipeline(Collections.singletonList(indexer),
+                                             4,
+                                             10);
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testDocumentsArePreparedWhenBatchStarts() throws Exception {
+        final File root = temp.newFolder("repo");
+        final Path rule1 = path(root,
+                                "rule1.drl");
+        final Path rule2 = path(root,
+                                "rule2.drl");
+
+        pipeline.start("cluster",
+                       fileSystemProvider.getPath(root.toURI()));
+        pipeline.awaitWalk("cluster");
+
+        assertEquals(2,
+                     pipeline.getWalkedFiles());
+        assertEquals(2,
+                     pipeline.getPreparedDocuments());
+        assertSame(kObject,
+                   pipeline.toKObject(indexer,
+                                      rule1));
+        assertSame(kObject,
+                   pipeline.toKObject(indexer,
+                                      rule2));
+        assertEquals(2,
+                     pipeline.getUsedDocuments());
+        verify(indexer,
+               times(2)).buildKObject(any(Path.class));
+        pipeline.finish("cluster");
+    }
+
+    @Test
+    public void testPreparationIsBoundedAndDoesNotHoldUpTheStart() throws Exception {
+        final BatchIndexingPipeline boundedPipeline = new BatchIndexingPipeline(Collections.singletonList(indexer),
+                                                                                4,
+                                                                                1);
+        final File root = temp.newFolder("repo");
+        final Path rule1 = path(root,
+                                "rule1.drl");
+        final Path rule2 = path(root,
+                                "rule2.drl");
+        final Path rule3 = path(root,
+                                "rule3.drl");
+
+        try {
+            //Returns while the walk is waiting for the engine to take the first document
+            boundedPipeline.start("cluster",
+                                  fileSystemProvider.getPath(root.toURI()));
+            awaitPreparedDocuments(boundedPipeline,
+                                   1);
+            Thread.sleep(200);
+            assertEquals(1,
+                         boundedPipeline.getPreparedDocuments());
+
+            assertSame(kObject,
+                       boundedPipeline.toKObject(indexer,
+                                                 rule1));
+            assertSame(kObject,
+                       boundedPipeline.toKObject(indexer,
+                                                 rule2));
+            assertSame(kObject,
+                       boundedPipeline.toKObject(indexer,
+                                                 rule3));
+            boundedPipeline.awaitWalk("cluster");
+            assertEquals(3,
+                         boundedPipeline.getWalkedFiles());
+        } finally {
+            boundedPipeline.finish("cluster");
+            boundedPipeline.shutdown();
+        }
+    }
+
+    @Test
+    public void testDocumentIsBuiltWhenNotPrepared() throws Exception {
+        final Path rule = path(temp.newFolder("other"),
+                               "rule.drl");
+
+        assertSame(kObject,
+                   pipeline.toKObject(indexer,
+                                      rule));
+        assertEquals(0,
+                     pipeline.getUsedDocuments());
+        verify(indexer).buildKObject(rule);
+    }
+
+    private static void awaitPreparedDocuments(final BatchIndexingPipeline pipeline,
+                                               final long expected) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (pipeline.getPreparedDocuments() < expected && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected,
+                     pipeline.getPreparedDocuments());
+    }
+
+    private Path path(final File directory,
+                      final String fileName) throws Exception {
+        final File file = new File(directory,
+                                   fileName);
+        file.createNewFile();
+        return fileSystemProvider.getPath(file.toURI());
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.query;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.refactoring.model.index.events.IndexingFinishedEvent;
+import org.kie.workbench.common.services.refactoring.model.index.events.IndexingStartedEvent;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueModuleNameIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValuePackageNameIndexTerm;
+import org.uberfire.ext.metadata.event.BatchIndexEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+public class QueryResultCacheTest {
+
+    private AtomicInteger queries;
+
+    @Before
+    public void setUp() {
+        queries = new AtomicInteger();
+    }
+
+    @Test
+    public void testResultIsCachedUntilIndexChanges() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        assertEquals(1,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(1,
+                     (int) cache.get("key",
+                                     this::query));
+
+        cache.documentChanged();
+        cache.onIndexingFinished(finished());
+
+        assertEquals(2,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(1,
+                     cache.getHits());
+        assertEquals(2,
+                     cache.getMisses());
+    }
+
+    @Test
+    public void testCacheIsBypassedUntilChangesAreCommitted() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        cache.get("key",
+                  this::query);
+        cache.documentChanged();
+
+        //The entries are kept but neither served nor replaced while the index is in flux
+        assertEquals(1,
+                     cache.getSize());
+        assertEquals(2,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(3,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(0,
+                     cache.getHits());
+
+        cache.onIndexingFinished(finished());
+
+        assertEquals(0,
+                     cache.getSize());
+        assertEquals(4,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(4,
+                     (int) cache.get("key",
+                                     this::query));
+    }
+
+    @Test
+    public void testResultIsCachedAfterSavedFileIsIndexed() {
+        final QueryResultCache cache = new QueryResultCache(10);
+        cache.get("key",
+                  this::query);
+
+        //A saved file is indexed incrementally, outside of any repository indexing
+        cache.documentChanged();
+        assertEquals(2,
+                     (int) cache.get("key",
+                                     this::query));
+        cache.onBatchIndexed(mock(BatchIndexEvent.class));
+
+        assertEquals(3,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(3,
+                     (int) cache.get("key",
+                                     this::query));
+        assertEquals(1,
+                     cache.getHits());
+    }
+
+    @Test
+    public void testIncrementalIndexingDoesNotEndRepositoryIndexing() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        cache.onIndexingStarted(started());
+        cache.onBatchIndexed(mock(BatchIndexEvent.class));
+        cache.get("key",
+                  this::query);
+        cache.get("key",
+                  this::query);
+        assertEquals(2,
+                     queries.get());
+
+        cache.onIndexingFinished(finished());
+        cache.get("key",
+                  this::query);
+        cache.get("key",
+                  this::query);
+        assertEquals(3,
+                     queries.get());
+    }
+
+    @Test
+    public void testCacheIsBypassedUntilAllBatchesAreFinished() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        cache.onIndexingStarted(started());
+        cache.onIndexingStarted(started());
+        cache.onIndexingFinished(finished());
+
+        cache.get("key",
+                  this::query);
+        cache.get("key",
+                  this::query);
+        assertEquals(2,
+                     queries.get());
+
+        cache.onIndexingFinished(finished());
+
+        cache.get("key",
+                  this::query);
+        cache.get("key",
+                  this::query);
+        assertEquals(3,
+                     queries.get());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        final QueryResultCache cache = new QueryResultCache(2);
+
+        cache.get("key1",
+                  this::query);
+        cache.get("key2",
+                  this::query);
+        cache.get("key3",
+                  this::query);
+
+        assertEquals(2,
+                     cache.getSize());
+        assertEquals(1,
+                     cache.getEvictions());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        final QueryResultCache cache = new QueryResultCache(0);
+
+        cache.get("key",
+                  this::query);
+        cache.get("key",
+                  this::query);
+
+        assertEquals(2,
+                     queries.get());
+    }
+
+    @Test
+    public void testKeyIgnoresTermsOrder() {
+        final ValueIndexTerm module = new ValueModuleNameIndexTerm("module");
+        final ValueIndexTerm pkg = new ValuePackageNameIndexTerm("org.kie");
+
+        assertEquals(QueryResultCache.key("query",
+                                          new LinkedHashSet<>(Arrays.asList(module,
+                                                                            pkg)),
+                                          0,
+                                          10),
+                     QueryResultCache.key("query",
+                                          new LinkedHashSet<>(Arrays.asList(pkg,
+                                                                            module)),
+                                          0,
+                                          10));
+        assertNotEquals(QueryResultCache.key("query",
+                                             new HashSet<>(Arrays.asList(module)),
+                                             0,
+                                             10),
+                        QueryResultCache.key("query",
+                                             new HashSet<>(Arrays.asList(module)),
+                                             10,
+                                             10));
+    }
+
+    private static IndexingStartedEvent started() {
+        return new IndexingStartedEvent("cluster",
+                                        null);
+    }
+
+    private static IndexingFinishedEvent finished() {
+        return new IndexingFinishedEvent("cluster",
+                                         null);
+    }
+
+    private Integer query() {
+        return queries.incrementAndGet();
+    }
+}
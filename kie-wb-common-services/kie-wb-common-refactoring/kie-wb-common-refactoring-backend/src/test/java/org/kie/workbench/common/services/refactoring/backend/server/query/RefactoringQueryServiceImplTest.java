@@ -0,0 +1,269 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringStringPageRow;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.engine.IndexProvider;
+import org.uberfire.ext.metadata.model.KObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RefactoringQueryServiceImplTest {
+
+    private static final String QUERY_NAME = "query";
+
+    @Mock
+    private MetadataConfig config;
+
+    @Mock
+    private IndexProvider indexProvider;
+
+    @Mock
+    private NamedQueries namedQueries;
+
+    @Mock
+    private NamedQuery namedQuery;
+
+    @Mock
+    private ResponseBuilder responseBuilder;
+
+    @Mock
+    private Query query;
+
+    private Sort sort = new Sort();
+
+    private List<KObject> hits;
+
+    private RefactoringQueryServiceImpl service;
+
+    @Before
+    public void setUp() {
+        //The same file is indexed twice for "a" and "b"
+        hits = Arrays.asList(hit("a"),
+                             hit("a"),
+                             hit("b"),
+                             hit("b"),
+                             hit("c"),
+                             hit("d"));
+
+        doReturn(indexProvider).when(config).getIndexProvider();
+        doReturn(namedQuery).when(namedQueries).findNamedQuery(QUERY_NAME);
+        doReturn(query).when(namedQuery).toQuery(any());
+        doReturn(sort).when(namedQuery).getSortOrder();
+        doReturn(responseBuilder).when(namedQuery).getResponseBuilder();
+        doAnswer(invocation -> {
+            final int limit = invocation.getArgument(3);
+            return new ArrayList<>(hits.subList(0,
+                                                limit == 0 ? hits.size() : Math.min(limit,
+                                                                                    hits.size())));
+        }).when(indexProvider).findByQuery(anyList(),
+                                           eq(query),
+                                           eq(sort),
+                                           anyInt());
+        doReturn(Collections.singletonList("index")).when(indexProvider).getIndices();
+        doReturn((long) hits.size()).when(indexProvider).findHitsByQuery(anyList(),
+                                                                           eq(query));
+        doReturn(hits).when(indexProvider).findByQuery(eq(Collections.singletonList("index")),
+                                                       eq(query),
+                                                       eq(0));
+
+        service = new RefactoringQueryServiceImpl(config,
+                                                  namedQueries,
+                                                  new QueryResultCache(0));
+        service.init();
+    }
+
+    @Test
+    public void testDistinctPageReadsHitsUpToThePage() {
+        final List<KObject> page = queryPage(0,
+                                             2);
+
+        assertEquals(Arrays.asList(hits.get(0),
+                                   hits.get(2)),
+                     page);
+        //The duplicates of "a" leave a single unique hit in the first two, the next read doubles them
+        verify(indexProvider).findByQuery(anyList(),
+                                          eq(query),
+                                          eq(sort),
+                                          eq(2));
+        verify(indexProvider).findByQuery(anyList(),
+                                          eq(query),
+                                          eq(sort),
+                                          eq(4));
+        verify(indexProvider,
+               never()).findByQuery(anyList(),
+                                    eq(query),
+                                    eq(sort),
+                                    eq(0));
+    }
+
+    @Test
+    public void testDistinctLastPage() {
+        final List<KObject> page = queryPage(2,
+                                             2);
+
+        assertEquals(Arrays.asList(hits.get(4),
+                                   hits.get(5)),
+                     page);
+    }
+
+    @Test
+    public void testDistinctCount() {
+        assertEquals(4,
+                     service.queryHitCount(new RefactoringPageRequest(QUERY_NAME,
+                                                                      new HashSet<>(),
+                                                                      0,
+                                                                      2,
+                                                                      true)));
+        assertEquals(6,
+                     service.queryHitCount(new RefactoringPageRequest(QUERY_NAME,
+                                                                      new HashSet<>(),
+                                                                      0,
+                                                                      2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamReadsEachHitOnceByWindows() {
+        doReturn(Sort.INDEXORDER).when(namedQuery).getSortOrder();
+        doReturn(2500L).when(indexProvider).findHitsByQuery(anyList(),
+                                                            eq(query));
+        //Each window of the ids holds two of the hits
+        doReturn(hits.subList(0,
+                              2),
+                 hits.subList(2,
+                              4),
+                 hits.subList(4,
+                              6)).when(indexProvider).findByQuery(anyList(),
+                                                                  any(BooleanQuery.class),
+                                                                  eq(Sort.INDEXORDER),
+                                                                  eq(0));
+        doAnswer(invocation -> ((Stream<KObject>) invocation.getArgument(0)).map(RefactoringQueryServiceImplTest::row))
+                .when(responseBuilder).buildResponse(any(Stream.class));
+
+        final List<String> rows = service.stream(QUERY_NAME,
+                                                 new HashSet<>())
+                .map(row -> (String) row.getValue())
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("default://a",
+                                   "default://a",
+                                   "default://b",
+                                   "default://b",
+                                   "default://c",
+                                   "default://d"),
+                     rows);
+        //2500 hits are read in three windows of the ids and never in a single search
+        verify(indexProvider,
+               times(3)).findByQuery(anyList(),
+                                     any(BooleanQuery.class),
+                                     eq(Sort.INDEXORDER),
+                                     eq(0));
+        verify(indexProvider,
+               never()).findByQuery(anyList(),
+                                    eq(query),
+                                    any(Sort.class),
+                                    anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamStopsReadingWindowsEarly() {
+        doReturn(Sort.INDEXORDER).when(namedQuery).getSortOrder();
+        doReturn(2500L).when(indexProvider).findHitsByQuery(anyList(),
+                                                            eq(query));
+        doReturn(hits.subList(0,
+                              2)).when(indexProvider).findByQuery(anyList(),
+                                                                  any(BooleanQuery.class),
+                                                                  eq(Sort.INDEXORDER),
+                                                                  eq(0));
+        doAnswer(invocation -> ((Stream<KObject>) invocation.getArgument(0)).map(RefactoringQueryServiceImplTest::row))
+                .when(responseBuilder).buildResponse(any(Stream.class));
+
+        assertEquals("default://a",
+                     service.stream(QUERY_NAME,
+                                    new HashSet<>())
+                             .findFirst()
+                             .get()
+                             .getValue());
+        verify(indexProvider,
+               times(1)).findByQuery(anyList(),
+                                     any(BooleanQuery.class),
+                                     eq(Sort.INDEXORDER),
+                                     eq(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<KObject> queryPage(final int startIndex,
+                                    final int pageSize) {
+        service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                 new HashSet<>(),
+                                                 startIndex,
+                                                 pageSize,
+                                                 true));
+        final ArgumentCaptor<List> page = ArgumentCaptor.forClass(List.class);
+        verify(responseBuilder).buildResponse(eq(pageSize),
+                                              eq(startIndex),
+                                              page.capture());
+        return page.getValue();
+    }
+
+    private static RefactoringPageRow row(final KObject kObject) {
+        final RefactoringStringPageRow row = new RefactoringStringPageRow();
+        row.setValue(kObject.getKey());
+        return row;
+    }
+
+    private static KObject hit(final String file) {
+        final KObject kObject = mock(KObject.class);
+        doReturn("cluster").when(kObject).getClusterId();
+        doReturn("default://" + file).when(kObject).getKey();
+        return kObject;
+    }
+}
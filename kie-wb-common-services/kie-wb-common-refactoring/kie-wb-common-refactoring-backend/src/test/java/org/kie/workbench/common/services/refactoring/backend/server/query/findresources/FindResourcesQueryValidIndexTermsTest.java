@@ -149,6 +149,132 @@ public class FindResourcesQueryValidIndexTermsTest extends BaseIndexingTest<Test
         }
     }
 
+    @Test
+    public void testQueryIsPaged() throws IOException, InterruptedException {
+        //Add test files
+        final Path [] path = {
+                basePath.resolve( "drl1.drl" ),
+                basePath.resolve( "drl2.drl" ),
+                basePath.resolve( "drl3.drl" )
+        };
+
+        final String [] content = {
+                loadText( "drl1.drl" ),
+                loadText( "drl2.drl" ),
+                loadText( "drl3.drl" )
+        };
+
+        for( int i = 0; i < path.length; ++i ) {
+            ioService().write( path[i], content[i] );
+        }
+
+        Thread.sleep( 5000 ); //wait for events to be consumed from jgit -> (notify changes -> watcher -> index) -> lucene index
+
+        final Set<ValueIndexTerm> terms = new HashSet<ValueIndexTerm>() {{
+            add( new ValueResourceIndexTerm( "org.kie.workbench.mock.package.myRule*",
+                                             ResourceType.RULE,
+                                             TermSearchType.WILDCARD ) );
+        }};
+
+        assertEquals( 3,
+                      service.queryHitCount( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                         terms,
+                                                                         0,
+                                                                         1 ) ) );
+
+        final PageResponse<RefactoringPageRow> firstPage = service.query( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                                                       terms,
+                                                                                                       0,
+                                                                                                       2 ) );
+        assertEquals( 2,
+                      firstPage.getPageRowList().size() );
+
+        final PageResponse<RefactoringPageRow> lastPage = service.query( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                                                      terms,
+                                                                                                      2,
+                                                                                                      2 ) );
+        assertEquals( 1,
+                      lastPage.getPageRowList().size() );
+
+        final PageResponse<RefactoringPageRow> outOfRange = service.query( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                                                        terms,
+                                                                                                        5,
+                                                                                                        2 ) );
+        assertTrue( outOfRange.getPageRowList().isEmpty() );
+    }
+
+    @Test
+    public void testDistinctQueryCountMatchesPages() throws IOException, InterruptedException {
+        //Add test files
+        final Path [] path = {
+                basePath.resolve( "drl1.drl" ),
+                basePath.resolve( "drl2.drl" ),
+                basePath.resolve( "drl3.drl" )
+        };
+
+        final String [] content = {
+                loadText( "drl1.drl" ),
+                loadText( "drl2.drl" ),
+                loadText( "drl3.drl" )
+        };
+
+        for( int i = 0; i < path.length; ++i ) {
+            ioService().write( path[i], content[i] );
+        }
+
+        Thread.sleep( 5000 ); //wait for events to be consumed from jgit -> (notify changes -> watcher -> index) -> lucene index
+
+        //A second document for the same file, as written by another indexer
+        final TestDrlFileIndexer duplicateIndexer = new TestDrlFileIndexer() {
+            @Override
+            protected String getClassifier() {
+                return "duplicate";
+            }
+        };
+        duplicateIndexer.setIOService( ioService() );
+        duplicateIndexer.setModuleService( getModuleService() );
+        duplicateIndexer.setResourceTypeDefinition( getResourceTypeDefinition() );
+        getConfig().getIndexProvider().index( duplicateIndexer.toKObject( path[ 0 ] ) );
+
+        final Set<ValueIndexTerm> terms = new HashSet<ValueIndexTerm>() {{
+            add( new ValueResourceIndexTerm( "org.kie.workbench.mock.package.myRule*",
+                                             ResourceType.RULE,
+                                             TermSearchType.WILDCARD ) );
+        }};
+
+        assertEquals( 4,
+                      service.queryHitCount( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                         terms,
+                                                                         0,
+                                                                         10 ) ) );
+        assertEquals( 3,
+                      service.queryHitCount( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                         terms,
+                                                                         0,
+                                                                         10,
+                                                                         true ) ) );
+
+        final PageResponse<RefactoringPageRow> firstPage = service.query( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                                                       terms,
+                                                                                                       0,
+                                                                                                       2,
+                                                                                                       true ) );
+        final PageResponse<RefactoringPageRow> lastPage = service.query( new RefactoringPageRequest( FindResourcesQuery.NAME,
+                                                                                                      terms,
+                                                                                                      2,
+                                                                                                      2,
+                                                                                                      true ) );
+        final Set<Object> rows = new HashSet<>();
+        firstPage.getPageRowList().forEach( row -> rows.add( row.getValue() ) );
+        lastPage.getPageRowList().forEach( row -> rows.add( row.getValue() ) );
+        assertEquals( 2,
+                      firstPage.getPageRowList().size() );
+        assertEquals( 1,
+                      lastPage.getPageRowList().size() );
+        assertEquals( 3,
+                      rows.size() );
+    }
+
     @Override
     protected TestIndexer getIndexer() {
         return new TestDrlFileIndexer();
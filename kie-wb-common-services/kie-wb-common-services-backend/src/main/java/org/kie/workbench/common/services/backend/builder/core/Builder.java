@@ -16,21 +16,28 @@
 
 package org.kie.workbench.common.services.backend.builder.core;
 
-import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 
+import org.apache.commons.io.IOUtils;
+
 import org.appformer.maven.support.DependencyFilter;
 import org.appformer.maven.support.PomModel;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.compiler.kie.builder.impl.KieContainerImpl;
@@ -54,7 +61,6 @@ import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.Message;
 import org.kie.api.builder.ReleaseId;
 import org.kie.api.builder.Results;
-import org.kie.api.io.Resource;
 import org.kie.api.runtime.KieContainer;
 import org.kie.internal.builder.IncrementalResults;
 import org.kie.internal.builder.InternalKieBuilder;
@@ -91,6 +97,21 @@ public class Builder implements Serializable {
     private final static String ERROR_CLASS_NOT_FOUND = "Definition of class \"{0}\" was not found.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
 
+    /**
+     * When enabled (default) incremental builds requested while a full build is running are validated against a
+     * snapshot of the KieFileSystem taken when the full build started, instead of waiting for the full build to finish.
+     */
+    public static final String INCREMENTAL_SNAPSHOT = "org.kie.builder.incremental.snapshot";
+
+    /**
+     * Rough ratio between the retained heap of a Builder and the size of its sources and compiled resources, which
+     * accounts for the parsed packages, the KieBases and the class definitions built from them.
+     */
+    private static final int RETAINED_SIZE_FACTOR = 4;
+
+    private static final boolean incrementalSnapshotEnabled = Boolean.parseBoolean(System.getProperty(INCREMENTAL_SNAPSHOT,
+                                                                                                      "true"));
+
     private final GAV projectGAV;
     private final KieServices kieServices;
     private final KieFileSystem kieFileSystem;
@@ -104,12 +125,18 @@ public class Builder implements Serializable {
     private final KieModuleService moduleService;
     private final ProjectImportsService importsService;
     private final List<BuildValidationHelper> buildValidationHelpers;
-    private final Map<Path, BuildValidationHelper> nonKieResourceValidationHelpers = new HashMap<Path, BuildValidationHelper>();
-    private final Map<Path, List<ValidationMessage>> nonKieResourceValidationHelperMessages = new HashMap<Path, List<ValidationMessage>>();
+    //Non-KIE resources are validated outside of the lock, by batches and full builds running concurrently
+    private final Map<Path, BuildValidationHelper> nonKieResourceValidationHelpers = new ConcurrentHashMap<Path, BuildValidationHelper>();
+    private final Map<Path, List<ValidationMessage>> nonKieResourceValidationHelperMessages = new ConcurrentHashMap<Path, List<ValidationMessage>>();
     private final DirectoryStream.Filter<Path> javaResourceFilter = new JavaFileFilter();
     private final DirectoryStream.Filter<Path> dotFileFilter = new DotFileFilter();
     private final Set<String> javaResources = new HashSet<String>();
     private final Predicate<String> classFilter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BuilderLockMetrics lockMetrics = new BuilderLockMetrics();
+    private transient volatile Snapshot snapshot;
+    private volatile long compiledSize;
+    private volatile long estimatedRetainedSize;
     private KieBuilder kieBuilder;
     private LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache;
     private LRUPomModelCache pomModelCache;
@@ -191,11 +218,17 @@ public class Builder implements Serializable {
     }
 
     private KieBuilderImpl kieBuilderClone(final KieFileSystem kieFileSystemClone) {
+        return kieBuilderClone(kieFileSystemClone,
+                               this.kieBuilder);
+    }
+
+    private KieBuilderImpl kieBuilderClone(final KieFileSystem kieFileSystemClone,
+                                           final KieBuilder source) {
         KieBuilderImpl kieBuilder = null;
 
-        if (this.kieBuilder != null) {
+        if (source != null) {
             kieBuilder = createKieBuilder(kieFileSystemClone);
-            kieBuilder.setkModule((MemoryKieModule) ((KieBuilderImpl) this.kieBuilder).getKieModuleIgnoringErrors());
+            kieBuilder.setkModule((MemoryKieModule) ((KieBuilderImpl) source).getKieModuleIgnoringErrors());
             kieBuilder.setTrgMfs(((KieFileSystemImpl) kieFileSystemClone).getMfs());
         }
 
@@ -204,10 +237,19 @@ public class Builder implements Serializable {
 
     public BuildResults build() {
         final BuildResults results = new BuildResults(projectGAV);
-        synchronized (kieFileSystem) {
+        lock();
+        try {
+            final KieBuilder builtKieBuilder = kieBuilder;
+
             //KieBuilder is not re-usable for successive "full" builds
             kieBuilder = createKieBuilder(kieFileSystem);
 
+            //Incremental builds requested in the meantime are run against a snapshot of the current state, the
+            //KieFileSystem is only read by the full build from here on
+            if (incrementalSnapshotEnabled && builtKieBuilder != null) {
+                snapshot = new Snapshot(builtKieBuilder);
+            }
+
             //Record RTEs from KieBuilder - that can fail if a rule uses an inaccessible class
             try {
                 final Results kieResults = ((InternalKieBuilder) kieBuilder).buildAll(classFilter).getResults();
@@ -229,7 +271,10 @@ public class Builder implements Serializable {
                     pomModelCache.setEntry(project,
                                            pomModel);
                 }
+                reconcileSnapshot();
             }
+        } finally {
+            lock.unlock();
         }
 
         //Add validate messages from external helpers
@@ -237,7 +282,7 @@ public class Builder implements Serializable {
             final org.uberfire.backend.vfs.Path vfsPath = Paths.convert(e.getKey());
             final List<ValidationMessage> validationMessages = e.getValue().validate(vfsPath);
             nonKieResourceValidationHelperMessages.put(e.getKey(),
-                                                       validationMessages);
+                                                       nonNull(validationMessages));
             results.addAllBuildMessages(convertValidationMessages(validationMessages));
         }
 
@@ -261,29 +306,62 @@ public class Builder implements Serializable {
         }
 
         //Store the project dependencies ClassLoader for optimization purposes.
-        final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData(getKieModuleIgnoringErrors(),
+        final org.kie.api.builder.KieModule builtKieModule = getKieModuleIgnoringErrors();
+        compiledSize = builtKieModule instanceof MemoryKieModule ? sizeOf(((MemoryKieModule) builtKieModule).getMemoryFileSystem()) : 0;
+        final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData(builtKieModule,
                                                                                                    DependencyFilter.COMPILE_FILTER);
-        updateDependenciesClassLoader(project,
-                                      kieModuleMetaData);
+        try {
+            updateDependenciesClassLoader(project,
+                                          kieModuleMetaData);
 
-        results.addAllBuildMessages(verifyClasses(kieModuleMetaData));
+            results.addAllBuildMessages(verifyClasses(kieModuleMetaData));
+        } finally {
+            LRUModuleDependenciesClassLoaderCache.closeMetaDataClassLoader(kieModuleMetaData);
+        }
 
         return results;
     }
 
     public BuildResults build(final Path resource,
                               final InputStream inputStream) {
-        synchronized (kieFileSystem) {
-            final String destinationPath = destinationPath(resource);
-            final Resource inputStreamResource = KieServices.Factory.get().getResources().newInputStreamResource(new BufferedInputStream(inputStream));
-
-            kieFileSystem.write(destinationPath,
-                                inputStreamResource);
+        lock();
+        try {
+            kieFileSystem.write(destinationPath(resource),
+                                toByteArray(inputStream));
+        } finally {
+            lock.unlock();
         }
 
         return build();
     }
 
+    /**
+     * Replays on the new KieBuilder the changes validated against the snapshot while the full build was running.
+     * Their messages have already been reported by the incremental builds, hence the results are discarded.
+     */
+    private void reconcileSnapshot() {
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        snapshot = null;
+
+        final Map<Path, byte[]> pendingChanges = current.close();
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        write(kieFileSystem,
+              pendingChanges,
+              true);
+        final List<String> destinationPaths = new ArrayList<String>();
+        for (Path resource : pendingChanges.keySet()) {
+            destinationPaths.add(destinationPath(resource));
+        }
+        buildIncrementally(kieBuilder,
+                           new IncrementalBuildResults(projectGAV),
+                           toArray(destinationPaths));
+    }
+
     private List<BuildMessage> verifyClasses(final KieModuleMetaData kieModuleMetaData) {
         //At the end we are interested to ensure that external .jar files referenced as dependencies don't have
         // referential inconsistencies. We will at least provide a basic algorithm to ensure that if an external class
@@ -352,15 +430,15 @@ public class Builder implements Serializable {
             nonKieResourceValidationHelpers.put(resource,
                                                 validator);
             nonKieResourceValidationHelperMessages.put(resource,
-                                                       addedValidationMessages);
+                                                       nonNull(addedValidationMessages));
         }
 
-        synchronized (kieFileSystem) {
-            addNewResource(resource,
-                           inputStream);
-            buildIncrementally(results,
-                               destinationPath(resource));
-        }
+        final Map<Path, byte[]> changes = new LinkedHashMap<Path, byte[]>();
+        changes.put(resource,
+                    toByteArray(inputStream));
+        applyIncrementally(results,
+                           changes,
+                           destinationPath(resource));
 
         return results;
     }
@@ -368,15 +446,73 @@ public class Builder implements Serializable {
     private void addNewResource(final Path path,
                                 final InputStream inputStream) {
         final String destinationPath = destinationPath(path);
-        final Resource inputStreamResource = KieServices.Factory.get().getResources().newInputStreamResource(new BufferedInputStream(inputStream));
 
         kieFileSystem.write(destinationPath,
-                            inputStreamResource);
+                            toByteArray(inputStream));
         handles.put(getBaseFileName(destinationPath),
                     Paths.convert(path));
         addJavaClass(path);
     }
 
+    /**
+     * Writes the changes to the KieFileSystem and builds them incrementally. If a full build is running the changes
+     * are validated against the snapshot taken when it started and replayed once it completes.
+     * @param changes the new content of each changed resource, null for deleted resources
+     */
+    private void applyIncrementally(final IncrementalBuildResults results,
+                                    final Map<Path, byte[]> changes,
+                                    final String... destinationPaths) {
+        final Snapshot current = snapshot;
+        if (current != null && !lock.isHeldByCurrentThread() && current.build(results,
+                                                                              changes,
+                                                                              destinationPaths)) {
+            return;
+        }
+
+        lock();
+        try {
+            write(kieFileSystem,
+                  changes,
+                  true);
+            buildIncrementally(kieBuilder,
+                               results,
+                               destinationPaths);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(final KieFileSystem kieFileSystem,
+                       final Map<Path, byte[]> changes,
+                       final boolean updateJavaResources) {
+        for (Map.Entry<Path, byte[]> change : changes.entrySet()) {
+            final Path resource = change.getKey();
+            final String destinationPath = destinationPath(resource);
+            if (change.getValue() == null) {
+                kieFileSystem.delete(destinationPath);
+                if (updateJavaResources) {
+                    removeJavaClass(resource);
+                }
+            } else {
+                kieFileSystem.write(destinationPath,
+                                    change.getValue());
+                handles.put(getBaseFileName(destinationPath),
+                            Paths.convert(resource));
+                if (updateJavaResources) {
+                    addJavaClass(resource);
+                }
+            }
+        }
+    }
+
+    private byte[] toByteArray(final InputStream inputStream) {
+        try (InputStream in = inputStream) {
+            return IOUtils.toByteArray(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public IncrementalBuildResults deleteResource(final Path resource) {
         checkNotNull("resource",
                      resource);
@@ -391,20 +527,16 @@ public class Builder implements Serializable {
             results.addAllRemovedMessages(convertValidationMessages(nonKieResourceValidationHelperMessages.remove(resource)));
         }
 
-        synchronized (kieFileSystem) {
-            removeResource(resource);
-            buildIncrementally(results,
-                               destinationPath(resource));
-        }
+        final Map<Path, byte[]> changes = new LinkedHashMap<Path, byte[]>();
+        changes.put(resource,
+                    null);
+        applyIncrementally(results,
+                           changes,
+                           destinationPath(resource));
 
         return results;
     }
 
-    private void removeResource(final Path resource) {
-        kieFileSystem.delete(destinationPath(resource));
-        removeJavaClass(resource);
-    }
-
     private String destinationPath(final Path resource) {
         final String destinationPath = EncodingUtil.decode(resource.toUri().toString().substring(projectPrefix.length()));
 
@@ -438,46 +570,50 @@ public class Builder implements Serializable {
         final List<ValidationMessage> nonKieResourceValidatorAddedMessages = new ArrayList<ValidationMessage>();
         final List<ValidationMessage> nonKieResourceValidatorRemovedMessages = new ArrayList<ValidationMessage>();
         final IncrementalBuildResults results = new IncrementalBuildResults(projectGAV);
-
-        synchronized (kieFileSystem) {
-            for (final Map.Entry<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> pathCollectionEntry : changes.entrySet()) {
-                for (final ResourceChange change : pathCollectionEntry.getValue()) {
-                    final ResourceChangeType type = change.getType();
-                    final Path resource = Paths.convert(pathCollectionEntry.getKey());
-
-                    checkNotNull("type",
-                                 type);
-                    checkNotNull("Builder.resource§",
-                                 resource);
-
-                    final String destinationPath = destinationPath(resource);
-                    changedFilesKieBuilderPaths.add(destinationPath);
-                    switch (type) {
-                        case ADD:
-                        case UPDATE:
-                            //Only files can be processed
-                            if (!Files.isRegularFile(resource)) {
-                                continue;
-                            }
-
-                            update(nonKieResourceValidatorAddedMessages,
-                                   nonKieResourceValidatorRemovedMessages,
-                                   resource);
-
-                            break;
-                        case DELETE:
-                        case RENAME:
-                            delete(nonKieResourceValidatorRemovedMessages,
-                                   resource);
-                    }
+        final Map<Path, byte[]> kieChanges = new LinkedHashMap<Path, byte[]>();
+
+        for (final Map.Entry<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> pathCollectionEntry : changes.entrySet()) {
+            for (final ResourceChange change : pathCollectionEntry.getValue()) {
+                final ResourceChangeType type = change.getType();
+                final Path resource = Paths.convert(pathCollectionEntry.getKey());
+
+                checkNotNull("type",
+                             type);
+                checkNotNull("Builder.resource§",
+                             resource);
+
+                final String destinationPath = destinationPath(resource);
+                changedFilesKieBuilderPaths.add(destinationPath);
+                switch (type) {
+                    case ADD:
+                    case UPDATE:
+                        //Only files can be processed
+                        if (!Files.isRegularFile(resource)) {
+                            continue;
+                        }
+
+                        update(nonKieResourceValidatorAddedMessages,
+                               nonKieResourceValidatorRemovedMessages,
+                               resource);
+                        kieChanges.put(resource,
+                                       toByteArray(ioService.newInputStream(resource)));
+
+                        break;
+                    case DELETE:
+                    case RENAME:
+                        delete(nonKieResourceValidatorRemovedMessages,
+                               resource);
+                        kieChanges.put(resource,
+                                       null);
                 }
             }
-
-            //Perform the Incremental build and get messages from incremental build
-            buildIncrementally(results,
-                               toArray(changedFilesKieBuilderPaths));
         }
 
+        //Perform the Incremental build and get messages from incremental build
+        applyIncrementally(results,
+                           kieChanges,
+                           toArray(changedFilesKieBuilderPaths));
+
         //Copy in BuildMessages for non-KIE resources
         results.addAllAddedMessages(convertValidationMessages(nonKieResourceValidatorAddedMessages));
         results.addAllRemovedMessages(convertValidationMessages(nonKieResourceValidatorRemovedMessages));
@@ -514,11 +650,8 @@ public class Builder implements Serializable {
             nonKieResourceValidationHelpers.put(resource,
                                                 validator);
             nonKieResourceValidationHelperMessages.put(resource,
-                                                       addedValidationMessages);
+                                                       nonNull(addedValidationMessages));
         }
-
-        addNewResource(resource,
-                       ioService.newInputStream(resource));
     }
 
     private void delete(final List<ValidationMessage> nonKieResourceValidatorRemovedMessages,
@@ -531,11 +664,14 @@ public class Builder implements Serializable {
                 nonKieResourceValidatorRemovedMessages.add(validationMessage);
             }
         }
+    }
 
-        removeResource(resource);
+    private static List<ValidationMessage> nonNull(final List<ValidationMessage> validationMessages) {
+        return validationMessages == null ? Collections.<ValidationMessage>emptyList() : validationMessages;
     }
 
-    private void buildIncrementally(final IncrementalBuildResults results,
+    private void buildIncrementally(final KieBuilder kieBuilder,
+                                    final IncrementalBuildResults results,
                                     final String... destinationPath) {
         try {
             final IncrementalResults incrementalResults = ((InternalKieBuilder) kieBuilder).createFileSet(Message.Level.WARNING, destinationPath).build();
@@ -572,8 +708,11 @@ public class Builder implements Serializable {
         if (!isBuilt()) {
             build();
         }
-        synchronized (kieFileSystem) {
+        lock();
+        try {
             return kieBuilder.getKieModule();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -582,8 +721,11 @@ public class Builder implements Serializable {
         if (!isBuilt()) {
             build();
         }
-        synchronized (kieFileSystem) {
+        lock();
+        try {
             return ((InternalKieBuilder) kieBuilder).getKieModuleIgnoringErrors();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -697,4 +839,96 @@ public class Builder implements Serializable {
     KieFileSystem getKieFileSystem() {
         return kieFileSystem;
     }
+
+    public BuilderLockMetrics getLockMetrics() {
+        return lockMetrics;
+    }
+
+    /**
+     * Estimation, in bytes, of the heap retained by this Builder, based on the size of the resources of its
+     * KieFileSystem and of the resources compiled by the last full build. The dependencies class loader is shared
+     * between modules and not accounted. While a build is running the previous estimation is returned.
+     */
+    public long estimateRetainedSize() {
+        if (lock.tryLock()) {
+            try {
+                estimatedRetainedSize = (sizeOf(((KieFileSystemImpl) kieFileSystem).getMfs()) + compiledSize) * RETAINED_SIZE_FACTOR;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return estimatedRetainedSize;
+    }
+
+    private static long sizeOf(final MemoryFileSystem mfs) {
+        long size = 0;
+        for (String fileName : mfs.getFileNames()) {
+            final byte[] bytes = mfs.getBytes(fileName);
+            size += fileName.length() + (bytes == null ? 0 : bytes.length);
+        }
+        return size;
+    }
+
+    private void lock() {
+        if (lock.tryLock()) {
+            lockMetrics.acquired(0);
+            return;
+        }
+        final long start = System.nanoTime();
+        lock.lock();
+        lockMetrics.acquired(System.nanoTime() - start);
+    }
+
+    /**
+     * Copy of the KieFileSystem, and of the KieBuilder that built it, made when the first incremental build arrives
+     * while a full build is running. The incremental builds are applied to this copy and recorded, to be replayed on
+     * the new KieBuilder once the full build completes. Full builds without concurrent incremental builds do not copy
+     * anything.
+     */
+    private class Snapshot {
+
+        private final KieBuilder builtKieBuilder;
+        private final Map<Path, byte[]> pendingChanges = new LinkedHashMap<Path, byte[]>();
+        private KieFileSystem kieFileSystem;
+        private KieBuilder kieBuilder;
+        private boolean closed;
+
+        private Snapshot(final KieBuilder builtKieBuilder) {
+            this.builtKieBuilder = builtKieBuilder;
+        }
+
+        /**
+         * @return false if the full build has already completed and the changes must be applied to the Builder
+         */
+        private synchronized boolean build(final IncrementalBuildResults results,
+                                           final Map<Path, byte[]> changes,
+                                           final String... destinationPaths) {
+            if (closed) {
+                return false;
+            }
+            if (kieBuilder == null) {
+                kieFileSystem = kieFileSystemClone();
+                kieBuilder = kieBuilderClone(kieFileSystem,
+                                             builtKieBuilder);
+            }
+            write(kieFileSystem,
+                  changes,
+                  false);
+            buildIncrementally(kieBuilder,
+                               results,
+                               destinationPaths);
+            for (Map.Entry<Path, byte[]> change : changes.entrySet()) {
+                pendingChanges.remove(change.getKey());
+                pendingChanges.put(change.getKey(),
+                                   change.getValue());
+            }
+            lockMetrics.snapshotBuild();
+            return true;
+        }
+
+        private synchronized Map<Path, byte[]> close() {
+            closed = true;
+            return pendingChanges;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the time spent by a {@link Builder} waiting for its lock, and of the incremental builds that did not
+ * wait because they were run against the snapshot of a running full build.
+ */
+public class BuilderLockMetrics implements Serializable {
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong contendedAcquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong snapshotBuilds = new AtomicLong();
+
+    void acquired(final long waitNanos) {
+        acquisitions.incrementAndGet();
+        if (waitNanos <= 0) {
+            return;
+        }
+        contendedAcquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        long max;
+        while (waitNanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max,
+                                                                                        waitNanos)) {
+            //Retry until the maximum is updated or a longer wait has been recorded
+        }
+    }
+
+    void snapshotBuild() {
+        snapshotBuilds.incrementAndGet();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.get();
+    }
+
+    public long getTotalWaitTime(final TimeUnit unit) {
+        return unit.convert(totalWaitNanos.get(),
+                            TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(),
+                            TimeUnit.NANOSECONDS);
+    }
+
+    public long getSnapshotBuilds() {
+        return snapshotBuilds.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BuilderLockMetrics{" +
+                "acquisitions=" + acquisitions +
+                ", contendedAcquisitions=" + contendedAcquisitions +
+                ", totalWaitNanos=" + totalWaitNanos +
+                ", maxWaitNanos=" + maxWaitNanos +
+                ", snapshotBuilds=" + snapshotBuilds +
+                '}';
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+
+/**
+ * Coalesces the resource changes of each module received within a time window into a single batch.
+ * Successive changes of the same path are merged: only the last one is kept, and a resource added and deleted
+ * within the same window is dropped altogether. Changes of a prioritized path, i.e. an asset that is being
+ * validated in an editor, do not wait for the window and are sent straight away together with the pending
+ * changes of their module.
+ */
+public class IncrementalBuildScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalBuildScheduler.class);
+
+    public static final String BATCH_WINDOW = "org.kie.build.incremental.batch.window";
+    public static final String DEFAULT_BATCH_WINDOW = "250";
+
+    static final long PRIORITY_EXPIRATION_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final long windowMillis;
+    private final Consumer<Map<Path, Collection<ResourceChange>>> batchBuilder;
+    private final ScheduledExecutorService timer;
+    private final Map<Object, Batch> pending = new HashMap<>();
+    private final Map<Path, Long> prioritized = new ConcurrentHashMap<>();
+    private final AtomicLong receivedChanges = new AtomicLong();
+    private final AtomicLong builtBatches = new AtomicLong();
+
+    public IncrementalBuildScheduler(final long windowMillis,
+                                     final Consumer<Map<Path, Collection<ResourceChange>>> batchBuilder) {
+        this.windowMillis = windowMillis;
+        this.batchBuilder = batchBuilder;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r,
+                                             "incremental-build-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static long getWindowMillis() {
+        return Long.parseLong(System.getProperty(BATCH_WINDOW,
+                                                 DEFAULT_BATCH_WINDOW));
+    }
+
+    /**
+     * @param module identifies the batch the change belongs to, changes of different modules are never merged
+     */
+    public void schedule(final Object module,
+                         final Path resource,
+                         final ResourceChange change) {
+        receivedChanges.incrementAndGet();
+        Batch ready = null;
+        synchronized (this) {
+            Batch batch = pending.get(module);
+            if (batch == null) {
+                batch = new Batch();
+                pending.put(module,
+                            batch);
+                final Batch scheduled = batch;
+                timer.schedule(() -> flush(module,
+                                           scheduled),
+                               windowMillis,
+                               TimeUnit.MILLISECONDS);
+            }
+            batch.merge(resource,
+                        change);
+            if (isPrioritized(resource)) {
+                pending.remove(module);
+                ready = batch;
+            }
+        }
+        if (ready != null) {
+            build(ready);
+        }
+    }
+
+    /**
+     * Marks the path as being edited, its next changes are built without waiting for the batch window.
+     */
+    public void prioritize(final Path resource) {
+        prioritized.put(resource,
+                        System.currentTimeMillis() + PRIORITY_EXPIRATION_MILLIS);
+    }
+
+    boolean isPrioritized(final Path resource) {
+        final Long expiration = prioritized.get(resource);
+        if (expiration == null) {
+            return false;
+        }
+        if (expiration < System.currentTimeMillis()) {
+            prioritized.remove(resource);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Builds all the pending batches without waiting for their window to expire.
+     */
+    public void flushAll() {
+        final Collection<Batch> batches;
+        synchronized (this) {
+            batches = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Batch batch : batches) {
+            build(batch);
+        }
+    }
+
+    public void shutdown() {
+        flushAll();
+        timer.shutdownNow();
+    }
+
+    public long getReceivedChanges() {
+        return receivedChanges.get();
+    }
+
+    public long getBuiltBatches() {
+        return builtBatches.get();
+    }
+
+    private void flush(final Object module,
+                       final Batch batch) {
+        synchronized (this) {
+            //The batch may have already been sent by a prioritized change
+            if (pending.get(module) != batch) {
+                return;
+            }
+            pending.remove(module);
+        }
+        build(batch);
+    }
+
+    private void build(final Batch batch) {
+        final Map<Path, Collection<ResourceChange>> changes = batch.toChanges();
+        if (changes.isEmpty()) {
+            return;
+        }
+        builtBatches.incrementAndGet();
+        try {
+            batchBuilder.accept(changes);
+        } catch (Exception e) {
+            logger.error("Unable to build a batch of " + changes.size() + " resource changes: " + e.getMessage(),
+                         e);
+        }
+    }
+
+    static class Batch {
+
+        private final Map<Path, MergedChange> changes = new LinkedHashMap<>();
+
+        void merge(final Path resource,
+                   final ResourceChange change) {
+            final MergedChange merged = changes.get(resource);
+            if (merged == null) {
+                changes.put(resource,
+                            new MergedChange(change));
+            } else {
+                merged.last = change;
+            }
+        }
+
+        Map<Path, Collection<ResourceChange>> toChanges() {
+            final Map<Path, Collection<ResourceChange>> result = new LinkedHashMap<>();
+            for (Map.Entry<Path, MergedChange> e : changes.entrySet()) {
+                final MergedChange merged = e.getValue();
+                if (merged.isAddedAndDeleted()) {
+                    continue;
+                }
+                result.put(e.getKey(),
+                           Collections.singletonList(merged.last));
+            }
+            return result;
+        }
+    }
+
+    private static class MergedChange {
+
+        private final ResourceChangeType first;
+        private ResourceChange last;
+
+        private MergedChange(final ResourceChange change) {
+            this.first = change.getType();
+            this.last = change;
+        }
+
+        private boolean isAddedAndDeleted() {
+            return first == ResourceChangeType.ADD && (last.getType() == ResourceChangeType.DELETE || last.getType() == ResourceChangeType.RENAME);
+        }
+    }
+}
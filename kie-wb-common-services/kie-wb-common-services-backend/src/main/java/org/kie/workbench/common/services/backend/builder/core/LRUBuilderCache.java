@@ -15,8 +15,15 @@
  */
 package org.kie.workbench.common.services.backend.builder.core;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -34,6 +41,7 @@ import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.POM;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.backend.builder.JavaSourceFilter;
+import org.kie.workbench.common.services.backend.cache.CacheMetrics;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -46,7 +54,9 @@ import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.StreamSupport.stream;
 
 /**
- * A simple LRU cache for Builders
+ * A LRU cache for Builders, bounded by a number of entries and by a heap budget.
+ * When the estimated retained size of the cached Builders exceeds the budget the least recently used ones are
+ * evicted to a soft reference spill area, from where they are restored if requested before being garbage collected.
  */
 @ApplicationScoped
 public class LRUBuilderCache extends LRUCache<Module, Builder> {
@@ -57,8 +67,26 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
     protected static final int MAX_ENTRIES = Integer.parseInt(validateCacheSize(System.getProperty(BUILDER_CACHE_SIZE,
                                                                                                  DEFAULT_BUILDER_CACHE_SIZE)));
 
+    protected static final String BUILDER_CACHE_BUDGET = "org.kie.builder.cache.budget.mb";
+    protected static final long DEFAULT_BUILDER_CACHE_BUDGET = Runtime.getRuntime().maxMemory() / 4;
+    protected static final long BUDGET = getBudget(System.getProperty(BUILDER_CACHE_BUDGET));
+
+    //Weights are refreshed on access at most once per interval, Builders grow when they are built
+    private static final long WEIGHT_REFRESH_INTERVAL_MILLIS = 1000;
+
+    //Builders are created under striped locks, a module always maps to the same lock
+    private static final int MODULE_LOCK_STRIPES = 64;
+
     private final List<BuildValidationHelper> buildValidationHelpers = new ArrayList<>();
     private final List<Predicate<String>> classFilters = new ArrayList<>();
+    private final Object[] moduleLocks = new Object[MODULE_LOCK_STRIPES];
+    private final Map<Module, Long> weights = new LinkedHashMap<>(16,
+                                                                  0.75f,
+                                                                  true);
+    private final Map<Module, SoftReference<Builder>> spill = new HashMap<>();
+    private final CacheMetrics metrics = new CacheMetrics("BuilderCache");
+    private long budget = BUDGET;
+    private volatile long lastWeightRefresh;
     private IOService ioService;
     private KieModuleService moduleService;
     private ProjectImportsService importsService;
@@ -68,6 +96,12 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
     private PackageNameWhiteListServiceImpl packageNameWhiteListService;
     private Instance<Predicate<String>> classFilterBeans;
 
+    {
+        for (int i = 0; i < moduleLocks.length; i++) {
+            moduleLocks[i] = new Object();
+        }
+    }
+
     public LRUBuilderCache() {
         //CDI proxy
     }
@@ -114,6 +148,134 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
         return value;
     }
 
+    protected static long getBudget(final String value) {
+        if (value == null || value.isEmpty()) {
+            return DEFAULT_BUILDER_CACHE_BUDGET;
+        }
+        if (!value.matches("^[0-9]+$")) {
+            logger.error("Illeagal Argument : Property {} should be a positive integer", BUILDER_CACHE_BUDGET);
+            return DEFAULT_BUILDER_CACHE_BUDGET;
+        }
+        return Long.parseLong(value) * 1024 * 1024;
+    }
+
+    protected void setBudget(final long budget) {
+        this.budget = budget;
+    }
+
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Builder getEntry(final Module module) {
+        Builder builder = super.getEntry(module);
+        if (builder != null) {
+            metrics.recordAccess(true);
+            synchronized (this) {
+                weights.get(module);
+            }
+            if (System.currentTimeMillis() - lastWeightRefresh > WEIGHT_REFRESH_INTERVAL_MILLIS) {
+                enforceBudget();
+            }
+            return builder;
+        }
+
+        metrics.recordAccess(false);
+        synchronized (this) {
+            final SoftReference<Builder> reference = spill.remove(module);
+            builder = reference == null ? null : reference.get();
+        }
+        if (builder != null) {
+            metrics.recordSpillHit();
+            setEntry(module,
+                     builder);
+        }
+        return builder;
+    }
+
+    @Override
+    public void setEntry(final Module module,
+                         final Builder builder) {
+        synchronized (this) {
+            super.setEntry(module,
+                           builder);
+            spill.remove(module);
+            weights.put(module,
+                        0L);
+        }
+        enforceBudget();
+    }
+
+    @Override
+    public synchronized void invalidateCache(final Module module) {
+        super.invalidateCache(module);
+        weights.remove(module);
+        spill.remove(module);
+        metrics.setWeight(totalWeight());
+    }
+
+    @Override
+    public synchronized void invalidateCache() {
+        super.invalidateCache();
+        weights.clear();
+        spill.clear();
+        metrics.setWeight(0);
+    }
+
+    /**
+     * Refreshes the estimated weight of the cached Builders and evicts the least recently used ones while the total
+     * exceeds the budget. The most recently used Builder is always kept.
+     */
+    synchronized void enforceBudget() {
+        lastWeightRefresh = System.currentTimeMillis();
+
+        //Entries dropped by the LRU bound on the number of entries
+        final Set<Module> cached = new HashSet<>(getKeys());
+        final Iterator<Module> dropped = weights.keySet().iterator();
+        while (dropped.hasNext()) {
+            if (!cached.contains(dropped.next())) {
+                dropped.remove();
+                metrics.recordEvictions(1);
+            }
+        }
+
+        for (Map.Entry<Module, Long> entry : weights.entrySet()) {
+            final Builder builder = super.getEntry(entry.getKey());
+            entry.setValue(builder == null ? 0L : builder.estimateRetainedSize());
+        }
+
+        long total = totalWeight();
+        final Iterator<Map.Entry<Module, Long>> eldest = weights.entrySet().iterator();
+        while (total > budget && weights.size() > 1 && eldest.hasNext()) {
+            final Map.Entry<Module, Long> entry = eldest.next();
+            final Module module = entry.getKey();
+            final Builder builder = super.getEntry(module);
+            eldest.remove();
+            super.invalidateCache(module);
+            if (builder != null) {
+                spill.put(module,
+                          new SoftReference<>(builder));
+            }
+            total -= entry.getValue();
+            metrics.recordEvictions(1);
+            logger.debug("Builder of module {} evicted, cache weight {} exceeds the budget of {} bytes.",
+                         module.getModuleName(),
+                         total + entry.getValue(),
+                         budget);
+        }
+        spill.values().removeIf(reference -> reference.get() == null);
+        metrics.setWeight(total);
+    }
+
+    private long totalWeight() {
+        long total = 0;
+        for (Long weight : weights.values()) {
+            total += weight;
+        }
+        return total;
+    }
+
     public void invalidateProjectCache(@Observes final InvalidateDMOModuleCacheEvent event) {
         PortablePreconditions.checkNotNull("event",
                                            event);
@@ -145,21 +307,29 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
 
     private Builder makeBuilder(final Module module) {
         Builder builder = getEntry(module);
-        if (builder == null) {
-            builder = new Builder(module,
-                                  ioService,
-                                  moduleService,
-                                  importsService,
-                                  buildValidationHelpers,
-                                  dependenciesClassLoaderCache,
-                                  pomModelCache,
-                                  packageNameWhiteListService,
-                                  createSingleClassFilterPredicate());
+        if (builder != null) {
+            return builder;
+        }
+        //Builders of different modules can be created concurrently, but only one per module
+        final Object lockKey = module.getRootPath() != null ? module.getRootPath() : module;
+        synchronized (moduleLocks[(lockKey.hashCode() & Integer.MAX_VALUE) % moduleLocks.length]) {
+            builder = getEntry(module);
+            if (builder == null) {
+                builder = new Builder(module,
+                                      ioService,
+                                      moduleService,
+                                      importsService,
+                                      buildValidationHelpers,
+                                      dependenciesClassLoaderCache,
+                                      pomModelCache,
+                                      packageNameWhiteListService,
+                                      createSingleClassFilterPredicate());
 
-            setEntry(module,
-                     builder);
+                setEntry(module,
+                         builder);
+            }
+            return builder;
         }
-        return builder;
     }
 
     private Predicate<String> createSingleClassFilterPredicate() {
@@ -16,7 +16,13 @@
 
 package org.kie.workbench.common.services.backend.builder.core;
 
+import java.io.IOException;
 import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -26,14 +32,23 @@ import org.guvnor.common.services.backend.cache.LRUCache;
 import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
 import org.kie.workbench.common.services.shared.project.KieModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @ApplicationScoped
 @Named("LRUModuleDependenciesClassLoaderCache")
 public class LRUModuleDependenciesClassLoaderCache
         extends LRUCache<KieModule, ClassLoader> {
 
+    private static final Logger logger = LoggerFactory.getLogger(LRUModuleDependenciesClassLoaderCache.class);
+
     private BuildInfoService buildInfoService;
 
+    /**
+     * Class loaders acquired from the SharedDependenciesClassLoaderCache, released when their module leaves this cache
+     */
+    private final Map<KieModule, ClassLoader> acquired = new HashMap<>();
+
     public LRUModuleDependenciesClassLoaderCache() {
     }
 
@@ -72,7 +87,9 @@ public class LRUModuleDependenciesClassLoaderCache
         //optimization was added to avoid the maven transitive calculation on complex modules.
         final ClassLoader classLoader = kieModuleMetaData.getClassLoader().getParent();
         if (classLoader instanceof URLClassLoader) {
-            return classLoader;
+            //Modules with the same dependencies share the same class loader, see SharedDependenciesClassLoaderCache
+            return SharedDependenciesClassLoaderCache.getInstance().acquire(Arrays.asList(((URLClassLoader) classLoader).getURLs()),
+                                                                            classLoader.getParent());
         } else {
             //this case should never happen. But if ProjectClassLoader calculation for KieModuleMetadata changes at
             //the error will be notified for implementation review.
@@ -81,14 +98,76 @@ public class LRUModuleDependenciesClassLoaderCache
         }
     }
 
+    /**
+     * Closes the dependencies class loader built by the KieModuleMetaData, which the shared class loader returned by
+     * {@link #buildClassLoader(KieModule, KieModuleMetaData)} replaces. The KieModuleMetaData can't be used afterwards.
+     */
+    public static void closeMetaDataClassLoader(final KieModuleMetaData kieModuleMetaData) {
+        final ClassLoader classLoader = kieModuleMetaData.getClassLoader().getParent();
+        if (classLoader instanceof URLClassLoader) {
+            try {
+                ((URLClassLoader) classLoader).close();
+            } catch (IOException e) {
+                logger.warn("Unable to close the module metadata class loader: {}",
+                            e.getMessage());
+            }
+        }
+    }
+
     public void setDependenciesClassLoader(final KieModule module,
                                                         final ClassLoader classLoader) {
         setEntry(module,
                  classLoader);
     }
 
+    @Override
+    public synchronized void setEntry(final KieModule module,
+                                      final ClassLoader classLoader) {
+        super.setEntry(module,
+                       classLoader);
+        final ClassLoader previous = acquired.put(module,
+                                                  classLoader);
+        if (previous != null) {
+            //when the same shared class loader is set again this drops the reference acquired for it by buildClassLoader
+            SharedDependenciesClassLoaderCache.getInstance().release(previous);
+        }
+        releaseEvicted();
+    }
+
+    @Override
+    public synchronized void invalidateCache(final KieModule module) {
+        super.invalidateCache(module);
+        final ClassLoader previous = acquired.remove(module);
+        if (previous != null) {
+            SharedDependenciesClassLoaderCache.getInstance().release(previous);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateCache() {
+        super.invalidateCache();
+        acquired.values().forEach(SharedDependenciesClassLoaderCache.getInstance()::release);
+        acquired.clear();
+    }
+
+    private void releaseEvicted() {
+        final Set<KieModule> cached = new HashSet<>(getKeys());
+        acquired.entrySet().removeIf(entry -> {
+            if (cached.contains(entry.getKey())) {
+                return false;
+            }
+            SharedDependenciesClassLoaderCache.getInstance().release(entry.getValue());
+            return true;
+        });
+    }
+
     private ClassLoader buildClassLoader(final KieModule module) {
-        return buildClassLoader(module,
-                                KieModuleMetaData.Factory.newKieModuleMetaData(buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors()));
+        final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData(buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors());
+        try {
+            return buildClassLoader(module,
+                                    kieModuleMetaData);
+        } finally {
+            closeMetaDataClassLoader(kieModuleMetaData);
+        }
     }
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.model.Module;
 import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.workbench.common.services.backend.cache.CacheMetrics;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
@@ -37,6 +38,8 @@ public class LRUPomModelCache
 
     private KieModuleService moduleService;
 
+    private final CacheMetrics metrics = new CacheMetrics("PomModelCache");
+
     public LRUPomModelCache() {
         //CDI proxy
     }
@@ -46,6 +49,28 @@ public class LRUPomModelCache
         this.moduleService = moduleService;
     }
 
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public PomModel getEntry(final Module module) {
+        final PomModel pomModel = super.getEntry(module);
+        metrics.recordAccess(pomModel != null);
+        return pomModel;
+    }
+
+    @Override
+    public synchronized void setEntry(final Module module,
+                                      final PomModel pomModel) {
+        final int expectedSize = getKeys().size() + (getKeys().contains(module) ? 0 : 1);
+        super.setEntry(module,
+                       pomModel);
+        final int size = getKeys().size();
+        metrics.recordEvictions(expectedSize - size);
+        metrics.setWeight(size);
+    }
+
     public void invalidateProjectCache(@Observes final InvalidateDMOModuleCacheEvent event) {
         PortablePreconditions.checkNotNull("event",
                                            event);
@@ -15,15 +15,27 @@
  */
 package org.kie.workbench.common.services.backend.builder.core;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Specializes;
 import javax.inject.Inject;
 
+import org.guvnor.common.services.project.model.Module;
 import org.kie.workbench.common.services.shared.kmodule.KModuleService;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
 
 /**
- * Listener for changes to project resources to handle incremental builds
+ * Listener for changes to project resources to handle incremental builds.
+ * Changes are coalesced per module by an {@link IncrementalBuildScheduler} and built in batches; setting
+ * {@link IncrementalBuildScheduler#BATCH_WINDOW} to 0 builds every change on its own.
  */
 @ApplicationScoped
 @Specializes
@@ -33,8 +45,91 @@ public class ResourceChangeIncrementalBuilder
     @Inject
     private KModuleService kModuleService;
 
+    private IncrementalBuildScheduler scheduler;
+
+    @PostConstruct
+    public void startScheduler() {
+        final long windowMillis = IncrementalBuildScheduler.getWindowMillis();
+        if (windowMillis > 0) {
+            scheduler = new IncrementalBuildScheduler(windowMillis,
+                                                      super::batchResourceChanges);
+        }
+    }
+
+    @PreDestroy
+    public void stopScheduler() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
     @Override
     protected boolean isProjectResourceUpdateNeeded(Path resource) {
         return moduleService.isPom(resource) || kModuleService.isKModule(resource);
     }
+
+    @Override
+    public void addResource(final Path resource) {
+        if (!schedule(resource,
+                      new ResourceAdded(""))) {
+            super.addResource(resource);
+        }
+    }
+
+    @Override
+    public void deleteResource(final Path resource) {
+        if (!schedule(resource,
+                      new ResourceDeleted(""))) {
+            super.deleteResource(resource);
+        }
+    }
+
+    @Override
+    public void updateResource(final Path resource) {
+        //Changes to pom.xml and kmodule.xml trigger a full build, they are not batched
+        if (isProjectResourceUpdateNeeded(resource) || !schedule(resource,
+                                                                 new ResourceUpdated(""))) {
+            super.updateResource(resource);
+        }
+    }
+
+    @Override
+    public void batchResourceChanges(final Map<Path, Collection<ResourceChange>> batch) {
+        if (scheduler == null) {
+            super.batchResourceChanges(batch);
+            return;
+        }
+        for (Map.Entry<Path, Collection<ResourceChange>> e : batch.entrySet()) {
+            for (ResourceChange change : e.getValue()) {
+                schedule(e.getKey(),
+                         change);
+            }
+        }
+    }
+
+    /**
+     * Changes of the given resource, which is being validated in an editor, are built without waiting for the batch window.
+     */
+    public void prioritize(final Path resource) {
+        if (scheduler != null) {
+            scheduler.prioritize(resource);
+        }
+    }
+
+    private boolean schedule(final Path resource,
+                             final ResourceChange change) {
+        if (scheduler == null) {
+            return false;
+        }
+        final Module module = moduleService.resolveModule(resource);
+        if (module == null) {
+            super.batchResourceChanges(Collections.singletonMap(resource,
+                                                                Collections.singletonList(change)));
+        } else {
+            scheduler.schedule(module.getRootPath(),
+                               resource,
+                               change);
+        }
+        return true;
+    }
 }
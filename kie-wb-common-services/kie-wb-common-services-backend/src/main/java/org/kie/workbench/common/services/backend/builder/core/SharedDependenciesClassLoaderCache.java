@@ -0,0 +1,232 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process wide cache of the dependencies class loaders.
+ * Modules resolving the same dependency set, with the same parent, share a single URLClassLoader instead of loading
+ * their own copy of the same classes. The set is identified by the ordered artifact locations and their checksums
+ * (the .sha1 file stored by Maven next to the artifact, or the size and the last modified time when missing).
+ * Every {@link #acquire(List, ClassLoader)} must be paired with a {@link #release(ClassLoader)}; class loaders no
+ * longer referenced are kept in a bounded idle LRU to be reused and dropped when evicted from it. An evicted class
+ * loader is not closed: cached Builders and DataModelOracles may still load classes through module class loaders
+ * built on top of it, so its jar files are only closed once it is garbage collected.
+ * Class paths with a directory, like the target folder of a module, are never shared: the classes in it change on
+ * every build without a reliable checksum, so they get a class loader of their own which the cache does not track.
+ */
+public class SharedDependenciesClassLoaderCache {
+
+    public static final String IDLE_SIZE = "org.kie.workbench.classloader.shared.idle.size";
+
+    private static final SharedDependenciesClassLoaderCache INSTANCE = new SharedDependenciesClassLoaderCache(Integer.getInteger(IDLE_SIZE, 10));
+
+    private final int maxIdle;
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Map<ClassLoader, Entry> byClassLoader = new IdentityHashMap<>();
+    private final LinkedHashMap<Key, Entry> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    SharedDependenciesClassLoaderCache(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public static SharedDependenciesClassLoaderCache getInstance() {
+        return INSTANCE;
+    }
+
+    public URLClassLoader acquire(List<URL> urls,
+                                  ClassLoader parent) {
+        if (containsDirectory(urls)) {
+            return new URLClassLoader(urls.toArray(new URL[urls.size()]), parent);
+        }
+        Key key = new Key(digest(urls), parent);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                entry = new Entry(key, new URLClassLoader(urls.toArray(new URL[urls.size()]), parent));
+                entries.put(key, entry);
+                byClassLoader.put(entry.classLoader, entry);
+            } else {
+                hits++;
+                idle.remove(key);
+            }
+            entry.references++;
+            return entry.classLoader;
+        }
+    }
+
+    /**
+     * @return false if the class loader was not created by this cache
+     */
+    public synchronized boolean release(ClassLoader classLoader) {
+        Entry entry = byClassLoader.get(classLoader);
+        if (entry == null || entry.references == 0) {
+            return false;
+        }
+        entry.references--;
+        if (entry.references == 0) {
+            idle.put(entry.key, entry);
+            evictIdle();
+        }
+        return true;
+    }
+
+    public synchronized int getReferences(ClassLoader classLoader) {
+        Entry entry = byClassLoader.get(classLoader);
+        return entry == null ? 0 : entry.references;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void evictIdle() {
+        Iterator<Entry> it = idle.values().iterator();
+        while (idle.size() > maxIdle && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            entries.remove(eldest.key);
+            byClassLoader.remove(eldest.classLoader);
+            evictions++;
+        }
+    }
+
+    private static boolean containsDirectory(List<URL> urls) {
+        for (URL url : urls) {
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    if (new File(url.toURI()).isDirectory()) {
+                        return true;
+                    }
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    return true;
+                }
+            } else if (url.getPath().endsWith("/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String digest(List<URL> urls) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (URL url : urls) {
+                digest.update(url.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(checksum(url).getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String checksum(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return "";
+        }
+        try {
+            File file = new File(url.toURI());
+            File sha1 = new File(file.getPath() + ".sha1");
+            if (sha1.isFile()) {
+                String content = new String(Files.readAllBytes(sha1.toPath()), StandardCharsets.UTF_8).trim();
+                int space = content.indexOf(' ');
+                return space > 0 ? content.substring(0, space) : content;
+            }
+            return file.length() + ":" + file.lastModified();
+        } catch (URISyntaxException | IOException | IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static class Key {
+
+        private final String digest;
+        private final ClassLoader parent;
+
+        Key(String digest,
+            ClassLoader parent) {
+            this.digest = digest;
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return digest.equals(other.digest) && parent == other.parent;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(digest, System.identityHashCode(parent));
+        }
+    }
+
+    private static class Entry {
+
+        private final Key key;
+        private final URLClassLoader classLoader;
+        private int references;
+
+        Entry(Key key,
+              URLClassLoader classLoader) {
+            this.key = key;
+            this.classLoader = classLoader;
+        }
+    }
+}
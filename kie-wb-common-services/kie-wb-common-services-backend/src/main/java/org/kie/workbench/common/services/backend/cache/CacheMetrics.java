@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and eviction counters of a cache, along with its current weight. The weight unit depends on the cache:
+ * an estimation in bytes for the caches bounded by memory, the number of entries for the others.
+ */
+public class CacheMetrics {
+
+    private final String name;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong spillHits = new AtomicLong();
+    private final AtomicLong weight = new AtomicLong();
+
+    public CacheMetrics(final String name) {
+        this.name = name;
+    }
+
+    public void recordAccess(final boolean hit) {
+        if (hit) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+    }
+
+    public void recordEvictions(final long count) {
+        if (count > 0) {
+            evictions.addAndGet(count);
+        }
+    }
+
+    /**
+     * An entry evicted from the cache was still softly reachable and has been restored.
+     */
+    public void recordSpillHit() {
+        spillHits.incrementAndGet();
+    }
+
+    public void setWeight(final long weight) {
+        this.weight.set(weight);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getSpillHits() {
+        return spillHits.get();
+    }
+
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public double getHitRatio() {
+        final long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", spillHits=" + spillHits +
+                ", weight=" + weight +
+                '}';
+    }
+}
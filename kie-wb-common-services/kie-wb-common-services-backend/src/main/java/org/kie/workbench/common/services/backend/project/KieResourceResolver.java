@@ -45,21 +45,38 @@ public class KieResourceResolver
 
     private KModuleService kModuleService;
 
+    private ModuleResolutionCache resolutionCache;
+
     public KieResourceResolver() {
 
     }
 
+    public KieResourceResolver(final IOService ioService,
+                               final POMService pomService,
+                               final CommentedOptionFactory commentedOptionFactory,
+                               final KModuleService kModuleService,
+                               final Instance<ModuleResourcePathResolver> resourcePathResolversInstance) {
+        this(ioService,
+             pomService,
+             commentedOptionFactory,
+             kModuleService,
+             resourcePathResolversInstance,
+             null);
+    }
+
     @Inject
     public KieResourceResolver(final @Named("ioStrategy") IOService ioService,
                                final POMService pomService,
                                final CommentedOptionFactory commentedOptionFactory,
                                final KModuleService kModuleService,
-                               final Instance<ModuleResourcePathResolver> resourcePathResolversInstance) {
+                               final Instance<ModuleResourcePathResolver> resourcePathResolversInstance,
+                               final ModuleResolutionCache resolutionCache) {
         super(ioService,
               pomService,
               commentedOptionFactory,
               resourcePathResolversInstance);
         this.kModuleService = kModuleService;
+        this.resolutionCache = resolutionCache;
     }
 
     @Override
@@ -77,19 +94,18 @@ public class KieResourceResolver
             if (Files.isRegularFile(path)) {
                 path = path.getParent();
             }
-            while (!hasPom(path)) {
-                path = path.getParent();
-                if (path == null) {
-                    return null;
-                }
+            if (path == null) {
+                return null;
             }
-
-            if (!hasKModule(path)) {
+            path = resolutionCache == null ? findModuleRoot(path) : resolutionCache.resolveModuleRoot(path,
+                                                                                                     this::findModuleRoot);
+            if (path == null || !hasKModule(path)) {
                 return null;
             }
 
             if (loadPOM) {
-                return makeModule(path);
+                return resolutionCache == null ? makeModule(path) : resolutionCache.resolveModule(path,
+                                                                                                  this::makeModule);
             } else {
                 return simpleModuleInstance(path);
             }
@@ -132,13 +148,32 @@ public class KieResourceResolver
                 return null;
             }
 
-            return makePackage(module,
-                               resource);
+            if (resolutionCache == null) {
+                return makePackage(module,
+                                   resource);
+            }
+
+            //Packages are folders, so every file of a folder resolves to the same package
+            org.uberfire.java.nio.file.Path directory = Paths.convert(resource).normalize();
+            if (Files.isRegularFile(directory)) {
+                directory = directory.getParent();
+            }
+            return resolutionCache.resolvePackage(directory,
+                                                  () -> makePackage(module,
+                                                                    resource));
         } catch (Exception e) {
             throw ExceptionUtilities.handleException(e);
         }
     }
 
+    private org.uberfire.java.nio.file.Path findModuleRoot(final org.uberfire.java.nio.file.Path directory) {
+        org.uberfire.java.nio.file.Path path = directory;
+        while (path != null && !hasPom(path)) {
+            path = path.getParent();
+        }
+        return path;
+    }
+
     @Override
     public KieModule simpleModuleInstance(final org.uberfire.java.nio.file.Path nioModuleRootPath) {
         final Path moduleRootPath = Paths.convert(nioModuleRootPath);
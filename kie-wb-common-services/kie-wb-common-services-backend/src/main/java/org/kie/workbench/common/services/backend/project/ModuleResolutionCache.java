@@ -0,0 +1,212 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.project;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.guvnor.common.services.project.events.DeleteModuleEvent;
+import org.guvnor.common.services.project.events.NewModuleEvent;
+import org.guvnor.common.services.project.model.Package;
+import org.kie.workbench.common.services.backend.cache.CacheMetrics;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.guvnor.common.services.project.utils.ModuleResourcePaths.POM_PATH;
+import static org.kie.workbench.common.services.backend.project.KieModuleResourcePaths.KMODULE_PATH;
+
+/**
+ * Remembers, for each directory, the root of the module it belongs to and the package it represents, so that
+ * {@link KieResourceResolver} does not walk up the file system looking for pom.xml and kmodule.xml on every call.
+ * The modules themselves are remembered by root once their pom.xml has been loaded, so that indexing a repository
+ * does not parse the same pom.xml for each of its files.
+ * Only successful resolutions are cached: a directory that is not (yet) within a module is resolved again.
+ * Adding, deleting or renaming a pom.xml or kmodule.xml, and creating or deleting a module, clears the cache.
+ * Deleting or renaming a directory drops the entries of its sub-tree.
+ */
+@ApplicationScoped
+public class ModuleResolutionCache {
+
+    private static final String POM_FILE_NAME = POM_PATH;
+    private static final String KMODULE_FILE_NAME = KMODULE_PATH.substring(KMODULE_PATH.lastIndexOf('/') + 1);
+
+    private final Map<String, org.uberfire.java.nio.file.Path> moduleRoots = new ConcurrentHashMap<>();
+
+    private final Map<String, KieModule> modules = new ConcurrentHashMap<>();
+
+    private final Map<String, Package> packages = new ConcurrentHashMap<>();
+
+    private final CacheMetrics moduleMetrics = new CacheMetrics("ModuleResolutionCache.modules");
+
+    private final CacheMetrics loadedModuleMetrics = new CacheMetrics("ModuleResolutionCache.loadedModules");
+
+    private final CacheMetrics packageMetrics = new CacheMetrics("ModuleResolutionCache.packages");
+
+    public org.uberfire.java.nio.file.Path resolveModuleRoot(final org.uberfire.java.nio.file.Path directory,
+                                                           final Function<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path> resolver) {
+        final String key = directory.toUri().toString();
+        final org.uberfire.java.nio.file.Path cached = moduleRoots.get(key);
+        moduleMetrics.recordAccess(cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        final org.uberfire.java.nio.file.Path moduleRoot = resolver.apply(directory);
+        if (moduleRoot != null) {
+            moduleRoots.put(key,
+                            moduleRoot);
+            moduleMetrics.setWeight(moduleRoots.size());
+        }
+        return moduleRoot;
+    }
+
+    public KieModule resolveModule(final org.uberfire.java.nio.file.Path moduleRoot,
+                                   final Function<org.uberfire.java.nio.file.Path, KieModule> loader) {
+        final String key = moduleRoot.toUri().toString();
+        final KieModule cached = modules.get(key);
+        loadedModuleMetrics.recordAccess(cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        final KieModule module = loader.apply(moduleRoot);
+        if (module != null) {
+            modules.put(key,
+                        module);
+            loadedModuleMetrics.setWeight(modules.size());
+        }
+        return module;
+    }
+
+    public Package resolvePackage(final org.uberfire.java.nio.file.Path directory,
+                                  final Supplier<Package> resolver) {
+        final String key = directory.toUri().toString();
+        final Package cached = packages.get(key);
+        packageMetrics.recordAccess(cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        final Package pkg = resolver.get();
+        if (pkg != null) {
+            packages.put(key,
+                         pkg);
+            packageMetrics.setWeight(packages.size());
+        }
+        return pkg;
+    }
+
+    public void invalidate(final Path path) {
+        if (path == null) {
+            return;
+        }
+        if (isModuleDescriptor(path)) {
+            invalidate();
+            return;
+        }
+        final String uri = path.toURI();
+        final String subTree = uri.endsWith("/") ? uri : uri + "/";
+        moduleRoots.keySet().removeIf(key -> key.equals(uri) || key.startsWith(subTree));
+        modules.keySet().removeIf(key -> key.equals(uri) || key.startsWith(subTree));
+        packages.keySet().removeIf(key -> key.equals(uri) || key.startsWith(subTree));
+        moduleMetrics.setWeight(moduleRoots.size());
+        loadedModuleMetrics.setWeight(modules.size());
+        packageMetrics.setWeight(packages.size());
+    }
+
+    public void invalidate() {
+        moduleRoots.clear();
+        modules.clear();
+        packages.clear();
+        moduleMetrics.setWeight(0);
+        loadedModuleMetrics.setWeight(0);
+        packageMetrics.setWeight(0);
+    }
+
+    public CacheMetrics getModuleMetrics() {
+        return moduleMetrics;
+    }
+
+    public CacheMetrics getLoadedModuleMetrics() {
+        return loadedModuleMetrics;
+    }
+
+    public CacheMetrics getPackageMetrics() {
+        return packageMetrics;
+    }
+
+    public void onResourceAdded(@Observes final ResourceAddedEvent event) {
+        //Adding a file only changes the resolution of other directories when it is a module descriptor
+        if (isModuleDescriptor(event.getPath())) {
+            invalidate();
+        }
+    }
+
+    public void onResourceUpdated(@Observes final ResourceUpdatedEvent event) {
+        if (isModuleDescriptor(event.getPath())) {
+            invalidate();
+        }
+    }
+
+    public void onResourceDeleted(@Observes final ResourceDeletedEvent event) {
+        invalidate(event.getPath());
+    }
+
+    public void onResourceRenamed(@Observes final ResourceRenamedEvent event) {
+        invalidate(event.getPath());
+        if (isModuleDescriptor(event.getDestinationPath())) {
+            invalidate();
+        }
+    }
+
+    public void onBatchResourceChanges(@Observes final ResourceBatchChangesEvent event) {
+        for (Map.Entry<Path, Collection<ResourceChange>> entry : event.getBatch().entrySet()) {
+            for (ResourceChange change : entry.getValue()) {
+                if (change.getType() == ResourceChangeType.DELETE || change.getType() == ResourceChangeType.RENAME) {
+                    invalidate(entry.getKey());
+                } else if (isModuleDescriptor(entry.getKey())) {
+                    invalidate();
+                }
+            }
+        }
+    }
+
+    public void onNewModule(@Observes final NewModuleEvent event) {
+        invalidate();
+    }
+
+    public void onDeleteModule(@Observes final DeleteModuleEvent event) {
+        invalidate();
+    }
+
+    private boolean isModuleDescriptor(final Path path) {
+        if (path == null) {
+            return false;
+        }
+        final String fileName = path.getFileName();
+        return POM_FILE_NAME.equals(fileName) || KMODULE_FILE_NAME.equals(fileName);
+    }
+}
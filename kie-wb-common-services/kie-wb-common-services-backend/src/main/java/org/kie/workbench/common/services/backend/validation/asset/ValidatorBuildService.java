@@ -34,6 +34,7 @@ import org.guvnor.common.services.shared.message.Level;
 import org.guvnor.common.services.shared.validation.model.ValidationMessage;
 import org.kie.workbench.common.services.backend.builder.core.Builder;
 import org.kie.workbench.common.services.backend.builder.core.LRUBuilderCache;
+import org.kie.workbench.common.services.backend.builder.core.ResourceChangeIncrementalBuilder;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfo;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoImpl;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
@@ -51,6 +52,7 @@ public class ValidatorBuildService {
     private LRUBuilderCache builderCache;
     private KieModuleService moduleService;
     private BuildInfoService buildInfoService;
+    private ResourceChangeIncrementalBuilder incrementalBuilder;
 
     public ValidatorBuildService() {
         //CDI proxies
@@ -60,15 +62,19 @@ public class ValidatorBuildService {
     public ValidatorBuildService(final @Named("ioStrategy") IOService ioService,
                                  final LRUBuilderCache builderCache,
                                  final KieModuleService moduleService,
-                                 final BuildInfoService buildInfoService) {
+                                 final BuildInfoService buildInfoService,
+                                 final ResourceChangeIncrementalBuilder incrementalBuilder) {
         this.ioService = ioService;
         this.builderCache = builderCache;
         this.moduleService = moduleService;
         this.buildInfoService = buildInfoService;
+        this.incrementalBuilder = incrementalBuilder;
     }
 
     public synchronized List<ValidationMessage> validate(final Path resourcePath,
                                                          final String content) {
+        //The asset is being edited, its changes should not wait for the incremental builds batch window
+        incrementalBuilder.prioritize(resourcePath);
         InputStream inputStream = null;
         try {
             inputStream = new ByteArrayInputStream(content.getBytes(Charsets.UTF_8));
@@ -93,6 +99,7 @@ public class ValidatorBuildService {
     }
 
     public synchronized List<ValidationMessage> validate(final Path resourcePath) {
+        incrementalBuilder.prioritize(resourcePath);
         InputStream inputStream = null;
         try {
             inputStream = ioService.newInputStream(Paths.convert(resourcePath));
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BuilderLockMetricsTest {
+
+    @Test
+    public void testWaitTimes() {
+        final BuilderLockMetrics metrics = new BuilderLockMetrics();
+
+        metrics.acquired(0);
+        metrics.acquired(TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.acquired(TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.snapshotBuild();
+
+        assertEquals(3,
+                     metrics.getAcquisitions());
+        assertEquals(2,
+                     metrics.getContendedAcquisitions());
+        assertEquals(7,
+                     metrics.getTotalWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(5,
+                     metrics.getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(1,
+                     metrics.getSnapshotBuilds());
+    }
+}
@@ -19,26 +19,43 @@ package org.kie.workbench.common.services.backend.builder.core;
 import java.io.File;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import com.google.common.io.Resources;
+import org.appformer.maven.support.PomModel;
+import org.drools.compiler.kie.builder.impl.KieFileSystemImpl;
 import org.drools.core.rule.TypeMetaInfo;
 import org.guvnor.common.services.project.builder.model.BuildMessage;
 import org.guvnor.common.services.project.builder.model.BuildResults;
 import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
 import org.guvnor.common.services.project.model.GAV;
 import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.POM;
+import org.guvnor.common.services.shared.message.Level;
 import org.guvnor.common.services.shared.validation.model.ValidationMessage;
 import org.guvnor.m2repo.backend.server.M2ServletContextListener;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
@@ -59,6 +76,8 @@ import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceChange;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -77,6 +96,9 @@ public class BuilderTest
 
     private final Predicate<String> alwaysTrue = o -> true;
 
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
     @Mock
     private PackageNameSearchProvider packageNameSearchProvider;
 
@@ -445,6 +467,223 @@ public class BuilderTest
                      addedMessages.size());
     }
 
+    @Test
+    public void testBuildRecordsLockMetrics() throws Exception {
+        final URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample1");
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath(url.toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue);
+
+        builder.build();
+        builder.build();
+
+        assertTrue(builder.getLockMetrics().getAcquisitions() >= 2);
+        assertEquals(0,
+                     builder.getLockMetrics().getContendedAcquisitions());
+        assertEquals(0,
+                     builder.getLockMetrics().getSnapshotBuilds());
+    }
+
+    @Test
+    public void testIncrementalBuildsDuringFullBuildAreReconciled() throws Exception {
+        final java.nio.file.Path root = copyResource("/BuildHelperTest");
+        final java.nio.file.Path updated = root.resolve("src/main/resources/update.drl");
+        final java.nio.file.Path added = root.resolve("src/main/resources/added.drl");
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+
+        final Module module = moduleService.resolveModule(Paths.convert(p.getPath(root.toUri())));
+
+        //Holds the full build, after the new KieBuilder has built, until the incremental builds completed
+        final CountDownLatch fullBuildRunning = new CountDownLatch(1);
+        final CountDownLatch incrementalBuildsDone = new CountDownLatch(1);
+        final LRUPomModelCache blockingPomModelCache = new LRUPomModelCache() {
+            private boolean blocking;
+
+            @Override
+            public synchronized void setEntry(final Module module,
+                                              final PomModel pomModel) {
+                super.setEntry(module,
+                               pomModel);
+                if (blocking) {
+                    fullBuildRunning.countDown();
+                    try {
+                        incrementalBuildsDone.await(30,
+                                                    TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                blocking = true;
+            }
+        };
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            blockingPomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue);
+        assertTrue(builder.build().getErrorMessages().isEmpty());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final Future<BuildResults> fullBuild = executor.submit(() -> builder.build());
+            assertTrue(fullBuildRunning.await(30,
+                                              TimeUnit.SECONDS));
+
+            java.nio.file.Files.write(updated,
+                                      "rule \"Broken\" when then".getBytes(StandardCharsets.UTF_8));
+            java.nio.file.Files.write(added,
+                                      "rule \"Added during the full build\" when then end".getBytes(StandardCharsets.UTF_8));
+            final CountDownLatch start = new CountDownLatch(1);
+            final Future<IncrementalBuildResults> update = executor.submit(() -> {
+                start.await();
+                return builder.updateResource(p.getPath(updated.toUri()));
+            });
+            final Future<IncrementalBuildResults> add = executor.submit(() -> {
+                start.await();
+                return builder.addResource(p.getPath(added.toUri()));
+            });
+            start.countDown();
+
+            //Both are validated against the snapshot while the full build is still holding the lock
+            assertFalse(update.get(30,
+                                   TimeUnit.SECONDS).getAddedMessages().isEmpty());
+            assertTrue(add.get(30,
+                               TimeUnit.SECONDS).getAddedMessages().isEmpty());
+            assertFalse(fullBuild.isDone());
+            assertEquals(2,
+                         builder.getLockMetrics().getSnapshotBuilds());
+
+            incrementalBuildsDone.countDown();
+            fullBuild.get(30,
+                          TimeUnit.SECONDS);
+        } finally {
+            incrementalBuildsDone.countDown();
+            executor.shutdownNow();
+        }
+
+        //The changes are replayed on the Builder once the full build completed
+        final KieFileSystemImpl kieFileSystem = (KieFileSystemImpl) builder.getKieFileSystem();
+        assertEquals("rule \"Broken\" when then",
+                     new String(kieFileSystem.read("src/main/resources/update.drl"),
+                                StandardCharsets.UTF_8));
+        assertNotNull(kieFileSystem.read("src/main/resources/added.drl"));
+        assertFalse(builder.build().getErrorMessages().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentBatchesKeepTheNonKieResourceMessages() throws Exception {
+        final int batches = 8;
+        final int resourcesPerBatch = 25;
+        final java.nio.file.Path root = copyResource("/BuildHelperTest");
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+
+        final Module module = moduleService.resolveModule(Paths.convert(p.getPath(root.toUri())));
+
+        //Every ".txt" resource is validated outside of Kie and reported with one message
+        final BuildValidationHelper txtValidator = new BuildValidationHelper() {
+            @Override
+            public boolean accepts(final Path path) {
+                return path.getFileName().endsWith(".txt");
+            }
+
+            @Override
+            public List<ValidationMessage> validate(final Path path) {
+                return Collections.singletonList(new ValidationMessage(Level.ERROR,
+                                                                       path.getFileName()));
+            }
+        };
+        final List<BuildValidationHelper> buildValidationHelpers = new ArrayList<>();
+        buildValidationHelpers.add(txtValidator);
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            buildValidationHelpers,
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue);
+        assertTrue(builder.build().getErrorMessages().isEmpty());
+
+        final List<Map<Path, Collection<ResourceChange>>> changes = new ArrayList<>();
+        for (int batch = 0; batch < batches; batch++) {
+            final Map<Path, Collection<ResourceChange>> batchChanges = new HashMap<>();
+            for (int resource = 0; resource < resourcesPerBatch; resource++) {
+                final java.nio.file.Path file = root.resolve("src/main/resources/batch" + batch + "_" + resource + ".txt");
+                java.nio.file.Files.write(file,
+                                          "text".getBytes(StandardCharsets.UTF_8));
+                batchChanges.put(Paths.convert(p.getPath(file.toUri())),
+                                 Collections.singletonList(new ResourceAdded("")));
+            }
+            changes.add(batchChanges);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(batches + 1);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<IncrementalBuildResults>> results = new ArrayList<>();
+            for (Map<Path, Collection<ResourceChange>> batchChanges : changes) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return builder.applyBatchResourceChanges(batchChanges);
+                }));
+            }
+            final Future<BuildResults> fullBuild = executor.submit(() -> {
+                start.await();
+                return builder.build();
+            });
+            start.countDown();
+
+            for (Future<IncrementalBuildResults> result : results) {
+                assertEquals(resourcesPerBatch,
+                             result.get(30,
+                                        TimeUnit.SECONDS).getAddedMessages().size());
+            }
+            fullBuild.get(30,
+                          TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //No resource validated by the batches was lost
+        assertEquals(batches * resourcesPerBatch,
+                     builder.build().getErrorMessages().size());
+    }
+
+    private java.nio.file.Path copyResource(final String resource) throws Exception {
+        final java.nio.file.Path source = java.nio.file.Paths.get(this.getClass().getResource(resource).toURI());
+        final java.nio.file.Path target = temp.newFolder().toPath();
+        try (Stream<java.nio.file.Path> files = java.nio.file.Files.walk(source)) {
+            for (java.nio.file.Path file : (Iterable<java.nio.file.Path>) files::iterator) {
+                final java.nio.file.Path copy = target.resolve(source.relativize(file).toString());
+                if (java.nio.file.Files.isDirectory(file)) {
+                    java.nio.file.Files.createDirectories(copy);
+                } else {
+                    java.nio.file.Files.copy(file,
+                                             copy);
+                }
+            }
+        }
+        return target;
+    }
+
     private PackageNameWhiteListService getPackageNameWhiteListService() {
         return new PackageNameWhiteListServiceImpl(ioService,
                                                    mock(KieModuleService.class),
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalBuildSchedulerTest {
+
+    private static final long ONE_HOUR = 3_600_000L;
+
+    private final List<Map<Path, Collection<ResourceChange>>> batches = new CopyOnWriteArrayList<>();
+    private final Path drl1 = PathFactory.newPath("rule1.drl",
+                                                  "default://main@repo/module1/src/main/resources/rule1.drl");
+    private final Path drl2 = PathFactory.newPath("rule2.drl",
+                                                  "default://main@repo/module1/src/main/resources/rule2.drl");
+    private final Path drl3 = PathFactory.newPath("rule3.drl",
+                                                  "default://main@repo/module2/src/main/resources/rule3.drl");
+
+    private IncrementalBuildScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new IncrementalBuildScheduler(ONE_HOUR,
+                                                  batches::add);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testChangesAreBatchedPerModule() {
+        scheduler.schedule("module1",
+                           drl1,
+                           new ResourceUpdated(""));
+        scheduler.schedule("module1",
+                           drl2,
+                           new ResourceUpdated(""));
+        scheduler.schedule("module2",
+                           drl3,
+                           new ResourceUpdated(""));
+
+        assertTrue(batches.isEmpty());
+        scheduler.flushAll();
+
+        assertEquals(2,
+                     batches.size());
+        assertEquals(3,
+                     scheduler.getReceivedChanges());
+        assertEquals(2,
+                     scheduler.getBuiltBatches());
+    }
+
+    @Test
+    public void testChangesOfTheSamePathAreMerged() {
+        scheduler.schedule("module1",
+                           drl1,
+                           new ResourceAdded(""));
+        scheduler.schedule("module1",
+                           drl1,
+                           new ResourceUpdated(""));
+        scheduler.schedule("module1",
+                           drl2,
+                           new ResourceUpdated(""));
+        scheduler.schedule("module1",
+                           drl2,
+                           new ResourceDeleted(""));
+        scheduler.schedule("module1",
+                           drl3,
+                           new ResourceAdded(""));
+        scheduler.schedule("module1",
+                           drl3,
+                           new ResourceDeleted(""));
+        scheduler.flushAll();
+
+        assertEquals(1,
+                     batches.size());
+        final Map<Path, Collection<ResourceChange>> batch = batches.get(0);
+        assertEquals(2,
+                     batch.size());
+        assertEquals(ResourceChangeType.UPDATE,
+                     batch.get(drl1).iterator().next().getType());
+        assertEquals(ResourceChangeType.DELETE,
+                     batch.get(drl2).iterator().next().getType());
+    }
+
+    @Test
+    public void testPrioritizedPathIsBuiltImmediately() {
+        scheduler.schedule("module1",
+                           drl2,
+                           new ResourceUpdated(""));
+        scheduler.prioritize(drl1);
+        scheduler.schedule("module1",
+                           drl1,
+                           new ResourceUpdated(""));
+
+        assertEquals(1,
+                     batches.size());
+        assertEquals(2,
+                     batches.get(0).size());
+    }
+
+    @Test
+    public void testBatchIsBuiltWhenTheWindowExpires() throws Exception {
+        scheduler.shutdown();
+        scheduler = new IncrementalBuildScheduler(10,
+                                                  batches::add);
+        scheduler.schedule("module1",
+                           drl1,
+                           new ResourceUpdated(""));
+
+        for (int i = 0; i < 100 && batches.isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(1,
+                     batches.size());
+    }
+}
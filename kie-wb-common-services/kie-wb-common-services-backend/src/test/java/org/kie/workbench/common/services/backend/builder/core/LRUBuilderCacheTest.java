@@ -15,16 +15,31 @@
  */
 package org.kie.workbench.common.services.backend.builder.core;
 
+import org.guvnor.common.services.project.model.Module;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class LRUBuilderCacheTest {
 
+    @Mock
+    private Module module1;
+
+    @Mock
+    private Module module2;
+
+    @Mock
+    private Builder builder1;
+
+    @Mock
+    private Builder builder2;
+
     @Test
     public void testValidateCacheSize() {
         assertEquals(LRUBuilderCache.validateCacheSize("10"), "10");
@@ -34,4 +49,48 @@ public class LRUBuilderCacheTest {
         assertEquals(LRUBuilderCache.validateCacheSize(null), LRUBuilderCache.DEFAULT_BUILDER_CACHE_SIZE);
     }
 
+    @Test
+    public void testValidateBudget() {
+        assertEquals(10 * 1024 * 1024, LRUBuilderCache.getBudget("10"));
+        assertEquals(LRUBuilderCache.DEFAULT_BUILDER_CACHE_BUDGET, LRUBuilderCache.getBudget("-10"));
+        assertEquals(LRUBuilderCache.DEFAULT_BUILDER_CACHE_BUDGET, LRUBuilderCache.getBudget(null));
+    }
+
+    @Test
+    public void testBuildersAreEvictedWhenTheBudgetIsExceeded() {
+        when(builder1.estimateRetainedSize()).thenReturn(60L);
+        when(builder2.estimateRetainedSize()).thenReturn(60L);
+        final LRUBuilderCache cache = new LRUBuilderCache();
+        cache.setBudget(100);
+
+        cache.setEntry(module1, builder1);
+        cache.setEntry(module2, builder2);
+
+        assertEquals(1, cache.getKeys().size());
+        assertTrue(cache.getKeys().contains(module2));
+        assertEquals(1, cache.getMetrics().getEvictions());
+        assertEquals(60, cache.getMetrics().getWeight());
+
+        //The evicted Builder is still softly reachable
+        assertSame(builder1, cache.getEntry(module1));
+        assertEquals(1, cache.getMetrics().getSpillHits());
+        assertEquals(1, cache.getMetrics().getMisses());
+        assertTrue(cache.getKeys().contains(module1));
+        assertFalse(cache.getKeys().contains(module2));
+    }
+
+    @Test
+    public void testInvalidatedBuildersAreNotRestored() {
+        when(builder1.estimateRetainedSize()).thenReturn(60L);
+        when(builder2.estimateRetainedSize()).thenReturn(60L);
+        final LRUBuilderCache cache = new LRUBuilderCache();
+        cache.setBudget(100);
+
+        cache.setEntry(module1, builder1);
+        cache.setEntry(module2, builder2);
+        cache.invalidateCache(module1);
+
+        assertNull(cache.getEntry(module1));
+        assertEquals(0, cache.getMetrics().getSpillHits());
+    }
 }
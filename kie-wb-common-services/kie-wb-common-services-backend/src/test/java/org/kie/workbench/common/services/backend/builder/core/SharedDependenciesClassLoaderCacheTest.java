@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedDependenciesClassLoaderCacheTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private List<URL> jars(String... names) throws Exception {
+        URL[] urls = new URL[names.length];
+        for (int i = 0; i < names.length; i++) {
+            File jar = temp.newFile(names[i]);
+            Files.write(jar.toPath(), names[i].getBytes());
+            urls[i] = jar.toURI().toURL();
+        }
+        return Arrays.asList(urls);
+    }
+
+    @Test
+    public void sameDependenciesShareTheClassLoader() throws Exception {
+        SharedDependenciesClassLoaderCache cache = new SharedDependenciesClassLoaderCache(0);
+        List<URL> deps = jars("a.jar", "b.jar");
+        ClassLoader parent = getClass().getClassLoader();
+
+        URLClassLoader first = cache.acquire(deps, parent);
+        URLClassLoader second = cache.acquire(deps, parent);
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.getReferences(first)).isEqualTo(2);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void differentDependenciesOrParentsAreNotShared() throws Exception {
+        SharedDependenciesClassLoaderCache cache = new SharedDependenciesClassLoaderCache(0);
+        List<URL> deps = jars("a.jar", "b.jar");
+        ClassLoader parent = getClass().getClassLoader();
+
+        URLClassLoader loader = cache.acquire(deps, parent);
+        assertThat(cache.acquire(Collections.singletonList(deps.get(0)), parent)).isNotSameAs(loader);
+        assertThat(cache.acquire(Arrays.asList(deps.get(1), deps.get(0)), parent)).isNotSameAs(loader);
+        assertThat(cache.acquire(deps, ClassLoader.getSystemClassLoader())).isNotSameAs(loader);
+        assertThat(cache.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void changedArtifactIsNotShared() throws Exception {
+        SharedDependenciesClassLoaderCache cache = new SharedDependenciesClassLoaderCache(0);
+        List<URL> deps = jars("a.jar");
+        ClassLoader parent = getClass().getClassLoader();
+        URLClassLoader loader = cache.acquire(deps, parent);
+
+        Files.write(new File(deps.get(0).toURI()).toPath(), "changed content".getBytes());
+        assertThat(cache.acquire(deps, parent)).isNotSameAs(loader);
+    }
+
+    @Test
+    public void unreferencedClassLoadersAreEvictedBeyondTheIdleSize() throws Exception {
+        SharedDependenciesClassLoaderCache cache = new SharedDependenciesClassLoaderCache(1);
+        ClassLoader parent = getClass().getClassLoader();
+        URLClassLoader a = cache.acquire(jars("a.jar"), parent);
+        URLClassLoader b = cache.acquire(jars("b.jar"), parent);
+
+        assertThat(cache.release(a)).isTrue();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.release(b)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.release(a)).isFalse();
+    }
+
+    @Test
+    public void evictedClassLoadersAreNotClosed() throws Exception {
+        SharedDependenciesClassLoaderCache cache = new SharedDependenciesClassLoaderCache(0);
+        File jar = temp.newFile("c.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("c.txt"));
+            out.write("c".getBytes());
+        }
+        URLClassLoader loader = cache.acquire(Collections.singletonList(jar.toURI().toURL()),
+                                              getClass().getClassLoader());
+
+        //A module class loader built on top of it may still be cached
+        assertThat(cache.release(loader)).isTrue();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(loader.findResource("c.txt")).isNotNull();
+    }
+
+    @Test
+    public void directoriesAreNotShared() throws Exception {
+        SharedDependenciesClassLoaderCache cache = new SharedDependenciesClassLoaderCache(0);
+        List<URL> deps = Arrays.asList(jars("a.jar").get(0),
+                                       temp.newFolder("target", "classes").toURI().toURL());
+        ClassLoader parent = getClass().getClassLoader();
+
+        URLClassLoader loader = cache.acquire(deps, parent);
+        assertThat(cache.acquire(deps, parent)).isNotSameAs(loader);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.release(loader)).isFalse();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.project;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class ModuleResolutionCacheTest {
+
+    private ModuleResolutionCache cache;
+
+    private AtomicInteger resolutions;
+
+    @Before
+    public void setUp() {
+        cache = new ModuleResolutionCache();
+        resolutions = new AtomicInteger();
+    }
+
+    @Test
+    public void testModuleRootIsResolvedOncePerDirectory() {
+        final org.uberfire.java.nio.file.Path root = nioPath("default://master@repo/module");
+        final org.uberfire.java.nio.file.Path directory = nioPath("default://master@repo/module/src/main/resources/org");
+
+        assertSame(root,
+                   resolveModuleRoot(directory,
+                                     root));
+        assertSame(root,
+                   resolveModuleRoot(directory,
+                                     root));
+
+        assertEquals(1,
+                     resolutions.get());
+        assertEquals(1,
+                     cache.getModuleMetrics().getHits());
+        assertEquals(1,
+                     cache.getModuleMetrics().getMisses());
+    }
+
+    @Test
+    public void testUnresolvedModuleRootIsNotCached() {
+        final org.uberfire.java.nio.file.Path directory = nioPath("default://master@repo/folder");
+
+        assertNull(resolveModuleRoot(directory,
+                                     null));
+        assertNull(resolveModuleRoot(directory,
+                                     null));
+
+        assertEquals(2,
+                     resolutions.get());
+    }
+
+    @Test
+    public void testDeletedFolderInvalidatesItsSubTree() {
+        final org.uberfire.java.nio.file.Path org = nioPath("default://master@repo/module/src/main/resources/org");
+        final org.uberfire.java.nio.file.Path orgs = nioPath("default://master@repo/module/src/main/resources/orgs");
+
+        resolvePackage(org);
+        resolvePackage(orgs);
+        cache.onResourceDeleted(new ResourceDeletedEvent(vfsPath("default://master@repo/module/src/main/resources/org",
+                                                                 "org"),
+                                                         "message",
+                                                         null));
+        resolvePackage(org);
+        resolvePackage(orgs);
+
+        assertEquals(3,
+                     resolutions.get());
+    }
+
+    @Test
+    public void testAddedFileKeepsCache() {
+        final org.uberfire.java.nio.file.Path org = nioPath("default://master@repo/module/src/main/resources/org");
+
+        resolvePackage(org);
+        cache.onResourceAdded(new ResourceAddedEvent(vfsPath("default://master@repo/module/src/main/resources/org/rule.drl",
+                                                             "rule.drl"),
+                                                     "message",
+                                                     null));
+        resolvePackage(org);
+
+        assertEquals(1,
+                     resolutions.get());
+    }
+
+    @Test
+    public void testAddedPomClearsCache() {
+        final org.uberfire.java.nio.file.Path root = nioPath("default://master@repo/module");
+        final org.uberfire.java.nio.file.Path org = nioPath("default://master@repo/module/src/main/resources/org");
+
+        resolveModuleRoot(org,
+                          root);
+        resolvePackage(org);
+        cache.onResourceAdded(new ResourceAddedEvent(vfsPath("default://master@repo/module/src/main/resources/pom.xml",
+                                                             "pom.xml"),
+                                                     "message",
+                                                     null));
+        resolveModuleRoot(org,
+                          root);
+        resolvePackage(org);
+
+        assertEquals(4,
+                     resolutions.get());
+    }
+
+    @Test
+    public void testModuleIsLoadedOnceUntilItsPomChanges() {
+        final org.uberfire.java.nio.file.Path root = nioPath("default://master@repo/module");
+
+        final KieModule module = resolveModule(root);
+        assertSame(module,
+                   resolveModule(root));
+        assertEquals(1,
+                     resolutions.get());
+
+        cache.onResourceUpdated(new ResourceUpdatedEvent(vfsPath("default://master@repo/module/pom.xml",
+                                                                 "pom.xml"),
+                                                         "message",
+                                                         null));
+        resolveModule(root);
+
+        assertEquals(2,
+                     resolutions.get());
+        assertEquals(1,
+                     cache.getLoadedModuleMetrics().getHits());
+    }
+
+    private KieModule resolveModule(final org.uberfire.java.nio.file.Path root) {
+        return cache.resolveModule(root,
+                                   p -> {
+                                       resolutions.incrementAndGet();
+                                       return mock(KieModule.class);
+                                   });
+    }
+
+    private org.uberfire.java.nio.file.Path resolveModuleRoot(final org.uberfire.java.nio.file.Path directory,
+                                                              final org.uberfire.java.nio.file.Path root) {
+        return cache.resolveModuleRoot(directory,
+                                       p -> {
+                                           resolutions.incrementAndGet();
+                                           return root;
+                                       });
+    }
+
+    private Package resolvePackage(final org.uberfire.java.nio.file.Path directory) {
+        return cache.resolvePackage(directory,
+                                    () -> {
+                                        resolutions.incrementAndGet();
+                                        return mock(Package.class);
+                                    });
+    }
+
+    private org.uberfire.java.nio.file.Path nioPath(final String uri) {
+        final org.uberfire.java.nio.file.Path path = mock(org.uberfire.java.nio.file.Path.class);
+        doReturn(URI.create(uri)).when(path).toUri();
+        return path;
+    }
+
+    private Path vfsPath(final String uri,
+                         final String fileName) {
+        final Path path = mock(Path.class);
+        doReturn(uri).when(path).toURI();
+        doReturn(fileName).when(path).getFileName();
+        return path;
+    }
+}
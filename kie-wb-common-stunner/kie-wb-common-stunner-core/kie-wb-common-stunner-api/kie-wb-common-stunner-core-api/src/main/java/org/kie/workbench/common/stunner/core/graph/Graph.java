@@ -16,6 +16,9 @@
 
 package org.kie.workbench.common.stunner.core.graph;
 
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 /**
  * <p>The graph implementation is given by it's content, basically based on the <b>Labeled Property Graph Model</b>:</p>
  * <p>
@@ -65,5 +68,16 @@ public interface Graph<C, N extends Node> extends Element<C> {
 
     Iterable<N> nodes();
 
+    /**
+     * Returns the nodes with the given label.
+     * Implementations can keep the nodes indexed by label, so the nodes for a role or a definition are found
+     * without iterating over all the nodes.
+     */
+    default Iterable<N> nodesByLabel(final String label) {
+        return StreamSupport.stream(nodes().spliterator(), false)
+                .filter(node -> null != node.getLabels() && node.getLabels().contains(label))
+                .collect(Collectors.toList());
+    }
+
     void clear();
 }
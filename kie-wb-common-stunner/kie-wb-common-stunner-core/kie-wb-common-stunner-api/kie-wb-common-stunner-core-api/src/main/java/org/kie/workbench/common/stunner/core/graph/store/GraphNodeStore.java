@@ -16,8 +16,19 @@
 
 package org.kie.workbench.common.stunner.core.graph.store;
 
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 import org.kie.workbench.common.stunner.core.graph.Node;
 
 public interface GraphNodeStore<T extends Node> extends GraphStore<T> {
 
+    /**
+     * Returns the nodes with the given label.
+     */
+    default Iterable<T> getByLabel(final String label) {
+        return StreamSupport.stream(spliterator(), false)
+                .filter(node -> null != node.getLabels() && node.getLabels().contains(label))
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.Set;
+
+/**
+ * A rule evaluation handler that only accepts a rule for the contexts
+ * which roles contain the role the rule applies to.
+ * <p>
+ * It allows the rule managers to index the rules by role, so the
+ * <code>accepts</code> method is only called for the rules that
+ * can apply to the context.
+ * @param <R> The rule type.
+ * @param <C> The evaluation context type.
+ */
+public interface RoleBasedEvaluationHandler<R extends Rule, C extends RuleEvaluationContext>
+        extends RuleEvaluationHandler<R, C> {
+
+    /**
+     * Returns the role that the context must have for this handler to
+     * accept the given rule, or <code>null</code> if the rule can be
+     * accepted whatever the context roles are.
+     */
+    String getRole(final R rule);
+
+    /**
+     * Returns the roles of the given context, or <code>null</code> if
+     * any of the rules can be accepted for it.
+     */
+    Set<String> getRoles(final C context);
+}
@@ -17,6 +17,8 @@
 package org.kie.workbench.common.stunner.core.rule.context;
 
 import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
@@ -42,6 +44,12 @@ public interface GraphEvaluationState {
     interface CardinalityState {
 
         Iterable<Node> nodes();
+
+        default Iterable<Node> nodesByLabel(final String label) {
+            return StreamSupport.stream(nodes().spliterator(), false)
+                    .filter(node -> null != node.getLabels() && node.getLabels().contains(label))
+                    .collect(Collectors.toList());
+        }
     }
 
     interface ConnectorCardinalityState {
@@ -25,6 +25,7 @@ import org.kie.workbench.common.stunner.core.definition.adapter.MorphAdapter;
 import org.kie.workbench.common.stunner.core.definition.morph.MorphDefinition;
 import org.kie.workbench.common.stunner.core.factory.impl.AbstractElementFactory;
 import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandResultBuilder;
@@ -95,11 +96,17 @@ public final class MorphNodeCommand extends AbstractGraphCommand {
                         .adapters()
                         .registry()
                         .getDefinitionAdapter(targetDef.getClass());
+        // The node is registered again with the new labels, as the graph indexes the nodes by label.
+        final Graph<?, Node> graph = getGraph(context);
+        final boolean isRegistered = null != graph.removeNode(candidate.getUUID());
         candidate.getLabels().clear();
         final String[] labels = AbstractElementFactory.computeLabels(adapter, targetDef);
         for (String label : labels) {
             candidate.getLabels().add(label);
         }
+        if (isRegistered) {
+            graph.addNode(candidate);
+        }
         return results;
     }
 
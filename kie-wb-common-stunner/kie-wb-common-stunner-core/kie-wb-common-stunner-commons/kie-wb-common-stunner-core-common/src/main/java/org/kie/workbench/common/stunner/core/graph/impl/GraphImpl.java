@@ -62,6 +62,11 @@ public class GraphImpl<C> extends AbstractElement<C> implements Graph<C, Node> {
         return nodeStore;
     }
 
+    @Override
+    public Iterable<Node> nodesByLabel(final String label) {
+        return nodeStore.getByLabel(label);
+    }
+
     @Override
     public void clear() {
         nodeStore.clear();
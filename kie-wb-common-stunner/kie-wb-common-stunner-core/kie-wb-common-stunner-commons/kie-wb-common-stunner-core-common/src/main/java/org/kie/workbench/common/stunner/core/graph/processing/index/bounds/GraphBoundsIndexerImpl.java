@@ -16,7 +16,10 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.enterprise.context.Dependent;
@@ -41,6 +44,8 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     ChildrenTraverseProcessor childrenTraverseProcessor;
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private NodeBoundsIndex index = null;
+    private double[] trimmedBounds = null;
 
     @Inject
     public GraphBoundsIndexerImpl(final ChildrenTraverseProcessor childrenTraverseProcessor) {
@@ -49,6 +54,11 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     @Override
     public GraphBoundsIndexerImpl build(final Graph<View, Node<View, Edge>> graph) {
+        // The index is kept while the nodes of the graph, their parents and their bounds are the same
+        if (graph != this.graph || (null != index && !index.isUpToDate(graph))) {
+            this.index = null;
+            this.trimmedBounds = null;
+        }
         this.graph = graph;
         return this;
     }
@@ -101,66 +111,123 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     @Override
     public double[] getTrimmedBounds() {
-        final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
+        if (null == trimmedBounds) {
+            trimmedBounds = buildTrimmedBounds(getIndex());
+        }
+        return trimmedBounds.clone();
+    }
+
+    @SuppressWarnings("unchecked")
+    public Node<View<?>, Edge> findElementAt(final double x,
+                                             final double y) {
+        final NodeBoundsIndex current = getIndex();
+        final int order = Math.max(current.tree.lastAt(x,
+                                                       y),
+                                   current.orderOf(rootUUID));
+        return order < 0 ? null : current.nodes[order];
+    }
+
+    /*
+     * The absolute bounds of the nodes are indexed by a single traversal, on the first query after the graph is set or
+     * changed. A node is found at a point when its bounds contain the point and no node traversed after it does,
+     * so the nodes are indexed in traversal order. The index does not depend on the root.
+     */
+    private NodeBoundsIndex getIndex() {
+        if (null == index) {
+            index = buildIndex();
+        }
+        return index;
+    }
+
+    private NodeBoundsIndex buildIndex() {
+        final List<Node> nodes = new ArrayList<>();
+        final List<Integer> parents = new ArrayList<>();
+        final List<double[]> coordinates = new ArrayList<>();
+        final Map<String, Integer> orders = new HashMap<>();
         childrenTraverseProcessor
-                .setRootUUID(this.rootUUID)
+                .setRootUUID(null)
                 .traverse(graph,
                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
 
                               @Override
                               public void onNodeTraverse(final Node<View, Edge> node,
+                                                         final Node<View, Edge> parent,
                                                          final double parentX,
                                                          final double parentY) {
-                                  final String uuid = node.getUUID();
-                                  final boolean isRoot = null != GraphBoundsIndexerImpl.this.rootUUID
-                                          && GraphBoundsIndexerImpl.this.rootUUID.equals(uuid);
-                                  if (!isRoot) {
-                                      final double[] absCoords = getNodeAbsoluteCoordinates(node,
-                                                                                            parentX,
-                                                                                            parentY);
-                                      final double x = absCoords[0];
-                                      final double y = absCoords[1];
-                                      final double w = absCoords[2];
-                                      final double h = absCoords[3];
-                                      if (x < result[0]) {
-                                          result[0] = x;
-                                      }
-                                      if (y < result[1]) {
-                                          result[1] = y;
-                                      }
-                                      if (w > result[2]) {
-                                          result[2] = w;
-                                      }
-                                      if (h > result[3]) {
-                                          result[3] = h;
-                                      }
-                                  }
+                                  final Integer parentOrder = null != parent ? orders.get(parent.getUUID()) : null;
+                                  orders.put(node.getUUID(),
+                                             nodes.size());
+                                  nodes.add(node);
+                                  parents.add(null != parentOrder ? parentOrder : -1);
+                                  coordinates.add(getNodeAbsoluteCoordinates(node,
+                                                                             parentX,
+                                                                             parentY));
                               }
                           }));
-        return result;
+
+        final int size = nodes.size();
+        final int[] parentOrders = new int[size];
+        final double[] ulX = new double[size];
+        final double[] ulY = new double[size];
+        final double[] lrX = new double[size];
+        final double[] lrY = new double[size];
+        final double[] bounds = new double[4 * size];
+        for (int i = 0; i < size; i++) {
+            final double[] absCoords = coordinates.get(i);
+            parentOrders[i] = parents.get(i);
+            ulX[i] = absCoords[0];
+            ulY[i] = absCoords[1];
+            lrX[i] = absCoords[2];
+            lrY[i] = absCoords[3];
+            System.arraycopy(getNodeBounds(nodes.get(i)),
+                             0,
+                             bounds,
+                             4 * i,
+                             4);
+        }
+        return new NodeBoundsIndex(nodes.toArray(new Node[size]),
+                                   parentOrders,
+                                   bounds,
+                                   new double[][]{ulX, ulY, lrX, lrY},
+                                   new NodeBoundsTree(ulX,
+                                                      ulY,
+                                                      lrX,
+                                                      lrY,
+                                                      size),
+                                   countNodes(graph));
     }
 
-    @SuppressWarnings("unchecked")
-    public Node<View<?>, Edge> findElementAt(final double x,
-                                             final double y) {
-        final Node[] result = new Node[1];
-        childrenTraverseProcessor.traverse(graph,
-                                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
-
-                                               @Override
-                                               public void onNodeTraverse(final Node<View, Edge> node,
-                                                                          final double parentX,
-                                                                          final double parentY) {
-                                                   if (isNodeAt(node,
-                                                                parentX,
-                                                                parentY,
-                                                                x,
-                                                                y)) {
-                                                       result[0] = node;
-                                                   }
-                                               }
-                                           }));
-        return result[0];
+    // When the root is set only the nodes inside of it are in the trimmed bounds
+    private double[] buildTrimmedBounds(final NodeBoundsIndex current) {
+        final double[] bounds = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
+        final boolean[] inRoot = new boolean[current.nodes.length];
+        for (int i = 0; i < current.nodes.length; i++) {
+            final int parent = current.parents[i];
+            inRoot[i] = parent >= 0 && (inRoot[parent] || isRoot(current.nodes[parent]));
+            if (null == rootUUID || inRoot[i]) {
+                bounds[0] = Math.min(bounds[0],
+                                     current.coordinates[0][i]);
+                bounds[1] = Math.min(bounds[1],
+                                     current.coordinates[1][i]);
+                bounds[2] = Math.max(bounds[2],
+                                     current.coordinates[2][i]);
+                bounds[3] = Math.max(bounds[3],
+                                     current.coordinates[3][i]);
+            }
+        }
+        return bounds;
+    }
+
+    private static int countNodes(final Graph<View, Node<View, Edge>> graph) {
+        int count = 0;
+        for (final Node<View, Edge> node : graph.nodes()) {
+            count++;
+        }
+        return count;
+    }
+
+    private boolean isRoot(final Node node) {
+        return null != rootUUID && node.getUUID().equals(rootUUID);
     }
 
     private Point2D getNodeCoordinates(final Node node) {
@@ -177,42 +244,26 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     private double[] getNodeAbsoluteCoordinates(final Node node,
                                                 final double parentX,
                                                 final double parentY) {
+        final double[] bounds = getNodeBounds(node);
+        final double ulX = bounds[0] + parentX;
+        final double ulY = bounds[1] + parentY;
+        final double lrX = bounds[2] + parentX;
+        final double lrY = bounds[3] + parentY;
+        return new double[]{ulX, ulY, lrX, lrY};
+    }
+
+    private static double[] getNodeBounds(final Node node) {
         final View content = (View) node.getContent();
         final Bounds bounds = content.getBounds();
         final Bound ulBound = bounds.getUpperLeft();
         final Bound lrBound = bounds.getLowerRight();
-        final double ulX = ulBound.getX() + parentX;
-        final double ulY = ulBound.getY() + parentY;
-        final double lrX = lrBound.getX() + parentX;
-        final double lrY = lrBound.getY() + parentY;
-        return new double[]{ulX, ulY, lrX, lrY};
-    }
-
-    private boolean isNodeAt(final Node node,
-                             final double parentX,
-                             final double parentY,
-                             final double mouseX,
-                             final double mouseY) {
-        if (null != rootUUID && node.getUUID().equals(rootUUID)) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates(node,
-                                                                   parentX,
-                                                                   parentY);
-        final double ulX = absoluteCoords[0];
-        final double ulY = absoluteCoords[1];
-        final double lrX = absoluteCoords[2];
-        final double lrY = absoluteCoords[3];
-        if (mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY) {
-            return true;
-        }
-        return false;
+        return new double[]{ulBound.getX(), ulBound.getY(), lrBound.getX(), lrBound.getY()};
     }
 
     @Override
     public GraphBoundsIndexer setRootUUID(final String uuid) {
         this.rootUUID = uuid;
+        this.trimmedBounds = null;
         return this;
     }
 
@@ -220,16 +271,82 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     public void destroy() {
         this.graph = null;
         this.rootUUID = null;
+        this.index = null;
+        this.trimmedBounds = null;
         this.childrenTraverseProcessor = null;
     }
 
     private abstract class NodeBoundsTraverseCallback {
 
         public abstract void onNodeTraverse(final Node<View, Edge> node,
+                                            final Node<View, Edge> parent,
                                             final double parentX,
                                             final double parentY);
     }
 
+    private static class NodeBoundsIndex {
+
+        private final Node[] nodes;
+        private final int[] parents;
+        private final double[] bounds;
+        private final double[][] coordinates;
+        private final NodeBoundsTree tree;
+        private final int graphSize;
+        private final Map<String, Integer> orderByUUID = new HashMap<>();
+
+        private NodeBoundsIndex(final Node[] nodes,
+                                final int[] parents,
+                                final double[] bounds,
+                                final double[][] coordinates,
+                                final NodeBoundsTree tree,
+                                final int graphSize) {
+            this.nodes = nodes;
+            this.parents = parents;
+            this.bounds = bounds;
+            this.coordinates = coordinates;
+            this.tree = tree;
+            this.graphSize = graphSize;
+            for (int i = 0; i < nodes.length; i++) {
+                orderByUUID.put(nodes[i].getUUID(),
+                                i);
+            }
+        }
+
+        private int orderOf(final String uuid) {
+            final Integer order = null != uuid ? orderByUUID.get(uuid) : null;
+            return null != order ? order : -1;
+        }
+
+        /*
+         * Checks that no node has been added or removed, moved to another parent or given other bounds since the
+         * nodes were indexed, without traversing the graph again. The bounds are also changed outside of the graph
+         * commands, so they are compared by value.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean isUpToDate(final Graph<View, Node<View, Edge>> graph) {
+            if (countNodes(graph) != graphSize) {
+                return false;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                final Node node = nodes[i];
+                if (graph.getNode(node.getUUID()) != node) {
+                    return false;
+                }
+                final Node parent = parents[i] >= 0 ? nodes[parents[i]] : null;
+                if (GraphUtils.getParent(node) != parent) {
+                    return false;
+                }
+                final double[] nodeBounds = getNodeBounds(node);
+                for (int j = 0; j < 4; j++) {
+                    if (nodeBounds[j] != bounds[4 * i + j]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
     private class GraphBoundIndexerTraverseCallback extends AbstractChildrenTraverseCallback<Node<View, Edge>, Edge<Child, Node>> {
 
         private final NodeBoundsTraverseCallback callback;
@@ -257,19 +374,23 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
         private void onStartNodeTraversal(final Optional<List<Node<View, Edge>>> parents,
                                           final Node<View, Edge> node) {
-            final double[] parentLocation = {0, 0};
+            double parentX = 0;
+            double parentY = 0;
+            Node<View, Edge> lastParent = null;
             if (parents.isPresent()) {
-                parents.get().forEach(parent -> {
+                for (final Node<View, Edge> parent : parents.get()) {
                     final Point2D nodeCoordinates = getNodeCoordinates(parent);
                     if (null != nodeCoordinates) {
-                        parentLocation[0] += nodeCoordinates.getX();
-                        parentLocation[1] += nodeCoordinates.getY();
+                        parentX += nodeCoordinates.getX();
+                        parentY += nodeCoordinates.getY();
                     }
-                });
+                    lastParent = parent;
+                }
             }
             callback.onNodeTraverse(node,
-                                    parentLocation[0],
-                                    parentLocation[1]);
+                                    lastParent,
+                                    parentX,
+                                    parentY);
         }
     }
 }
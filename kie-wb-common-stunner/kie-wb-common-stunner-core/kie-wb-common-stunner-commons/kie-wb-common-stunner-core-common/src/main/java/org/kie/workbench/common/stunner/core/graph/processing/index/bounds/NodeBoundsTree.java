@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A static R-tree over bounding boxes, packed with the Sort-Tile-Recursive algorithm.
+ * Each box is identified by its order, the position in which it was given, and a point query returns the greatest
+ * order of the boxes that contain the point, so the boxes of the nodes in traversal order give the last node found
+ * at a point by a traversal.
+ */
+final class NodeBoundsTree {
+
+    static final int NODE_CAPACITY = 16;
+
+    // The boxes at level 0, the nodes of the tree above them. The top level is not larger than NODE_CAPACITY
+    private final List<Level> levels = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     * @param minX The upper left x of the boxes, by order.
+     * @param minY The upper left y of the boxes, by order.
+     * @param maxX The lower right x of the boxes, by order.
+     * @param maxY The lower right y of the boxes, by order.
+     * @param size The number of boxes.
+     */
+    NodeBoundsTree(final double[] minX,
+                   final double[] minY,
+                   final double[] maxX,
+                   final double[] maxY,
+                   final int size) {
+        Level level = new Level(size);
+        for (int i = 0; i < size; i++) {
+            level.minX[i] = minX[i];
+            level.minY[i] = minY[i];
+            level.maxX[i] = maxX[i];
+            level.maxY[i] = maxY[i];
+            level.maxOrder[i] = i;
+        }
+        levels.add(level);
+        while (level.size > NODE_CAPACITY) {
+            level = pack(level);
+            levels.add(level);
+        }
+    }
+
+    int getHeight() {
+        return levels.size();
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The greatest order of the boxes that contain the point, borders included, or -1 if there is none.
+     */
+    int lastAt(final double x,
+               final double y) {
+        final int top = levels.size() - 1;
+        int last = -1;
+        for (int i = 0; i < levels.get(top).size; i++) {
+            last = lastAt(top,
+                          i,
+                          x,
+                          y,
+                          last);
+        }
+        return last;
+    }
+
+    private int lastAt(final int level,
+                       final int index,
+                       final double x,
+                       final double y,
+                       final int last) {
+        final Level current = levels.get(level);
+        if (current.maxOrder[index] <= last || !current.contains(index,
+                                                                 x,
+                                                                 y)) {
+            return last;
+        }
+        if (level == 0) {
+            return current.maxOrder[index];
+        }
+        int result = last;
+        for (int child = current.start[index]; child < current.end[index]; child++) {
+            result = lastAt(level - 1,
+                            child,
+                            x,
+                            y,
+                            result);
+        }
+        return result;
+    }
+
+    /*
+     * Sorts the entries of the level by the x of their center and cuts them in vertical slices, then sorts each slice by
+     * the y of the center and groups NODE_CAPACITY consecutive entries under a node of the level above.
+     */
+    private static Level pack(final Level level) {
+        final int parents = (level.size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        final int sliceSize = (int) Math.ceil(Math.sqrt(parents)) * NODE_CAPACITY;
+        final Integer[] sorted = new Integer[level.size];
+        for (int i = 0; i < level.size; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted,
+                    (i, j) -> Double.compare(level.minX[i] + level.maxX[i],
+                                             level.minX[j] + level.maxX[j]));
+        for (int start = 0; start < level.size; start += sliceSize) {
+            Arrays.sort(sorted,
+                        start,
+                        Math.min(start + sliceSize,
+                                 level.size),
+                        (i, j) -> Double.compare(level.minY[i] + level.maxY[i],
+                                                 level.minY[j] + level.maxY[j]));
+        }
+        level.reorder(sorted);
+
+        final Level parent = new Level(parents);
+        parent.start = new int[parents];
+        parent.end = new int[parents];
+        int p = 0;
+        for (int start = 0; start < level.size; start += sliceSize) {
+            final int sliceEnd = Math.min(start + sliceSize,
+                                          level.size);
+            for (int childStart = start; childStart < sliceEnd; childStart += NODE_CAPACITY) {
+                final int childEnd = Math.min(childStart + NODE_CAPACITY,
+                                              sliceEnd);
+                parent.start[p] = childStart;
+                parent.end[p] = childEnd;
+                parent.minX[p] = Double.POSITIVE_INFINITY;
+                parent.minY[p] = Double.POSITIVE_INFINITY;
+                parent.maxX[p] = Double.NEGATIVE_INFINITY;
+                parent.maxY[p] = Double.NEGATIVE_INFINITY;
+                parent.maxOrder[p] = -1;
+                for (int child = childStart; child < childEnd; child++) {
+                    parent.minX[p] = Math.min(parent.minX[p],
+                                              level.minX[child]);
+                    parent.minY[p] = Math.min(parent.minY[p],
+                                              level.minY[child]);
+                    parent.maxX[p] = Math.max(parent.maxX[p],
+                                              level.maxX[child]);
+                    parent.maxY[p] = Math.max(parent.maxY[p],
+                                              level.maxY[child]);
+                    parent.maxOrder[p] = Math.max(parent.maxOrder[p],
+                                                  level.maxOrder[child]);
+                }
+                p++;
+            }
+        }
+        return parent;
+    }
+
+    private static final class Level {
+
+        private final int size;
+        private double[] minX;
+        private double[] minY;
+        private double[] maxX;
+        private double[] maxY;
+        // The greatest order of the boxes below each entry
+        private int[] maxOrder;
+        // The range of the children of each entry in the level below, null at level 0
+        private int[] start;
+        private int[] end;
+
+        private Level(final int size) {
+            this.size = size;
+            this.minX = new double[size];
+            this.minY = new double[size];
+            this.maxX = new double[size];
+            this.maxY = new double[size];
+            this.maxOrder = new int[size];
+        }
+
+        private boolean contains(final int index,
+                                 final double x,
+                                 final double y) {
+            return x >= minX[index] && x <= maxX[index] &&
+                    y >= minY[index] && y <= maxY[index];
+        }
+
+        private void reorder(final Integer[] order) {
+            minX = reorder(minX,
+                           order);
+            minY = reorder(minY,
+                           order);
+            maxX = reorder(maxX,
+                           order);
+            maxY = reorder(maxY,
+                           order);
+            maxOrder = reorder(maxOrder,
+                               order);
+            if (null != start) {
+                start = reorder(start,
+                                order);
+                end = reorder(end,
+                              order);
+            }
+        }
+
+        private double[] reorder(final double[] values,
+                                 final Integer[] order) {
+            final double[] result = new double[values.length];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[order[i]];
+            }
+            return result;
+        }
+
+        private int[] reorder(final int[] values,
+                              final Integer[] order) {
+            final int[] result = new int[values.length];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[order[i]];
+            }
+            return result;
+        }
+    }
+}
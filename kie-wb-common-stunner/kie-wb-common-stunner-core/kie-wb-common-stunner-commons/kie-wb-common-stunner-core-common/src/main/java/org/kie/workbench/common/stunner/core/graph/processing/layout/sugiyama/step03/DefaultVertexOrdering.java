@@ -17,9 +17,12 @@
 package org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.step03;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 
 import javax.enterprise.inject.Default;
 import javax.inject.Inject;
@@ -31,8 +34,6 @@ import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.Gr
 import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.LayeredGraph;
 import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.OrientedEdge;
 
-import static java.util.stream.Collectors.toList;
-
 /**
  * Order vertices inside layers trying to reduce crossing between edges.
  */
@@ -66,6 +67,7 @@ public final class DefaultVertexOrdering implements VertexOrdering {
 
     /**
      * Reorder the vertices to reduce edges crossing.
+     * The vertices are ordered in {@link IndexedLayers}, only the best order found is copied back to the graph.
      * @param graph The graph.
      */
     @Override
@@ -73,30 +75,37 @@ public final class DefaultVertexOrdering implements VertexOrdering {
         final LayeredGraph layered = (LayeredGraph) graph;
         final List<OrientedEdge> edges = graph.getEdges();
         final List<GraphLayer> virtualized = createVirtual(edges, layered);
-        List<GraphLayer> best = clone(virtualized);
-
-        final Object[][] nestedBestRanks = new Object[virtualized.size()][];
         // Starts with the current order
-        for (int i = 0; i < nestedBestRanks.length; i++) {
-            final GraphLayer layer = best.get(i);
-            nestedBestRanks[i] = new Object[layer.getVertices().size()];
-            for (int j = 0; j < layer.getVertices().size(); j++) {
-                nestedBestRanks[i][j] = layer.getVertices().get(j);
-            }
-        }
+        final IndexedLayers indexed = new IndexedLayers(virtualized, edges);
+        IndexedLayers best = indexed.copy();
+        int bestCrossing = this.crossingCount.crossing(best);
 
         for (int i = 0; i < MAX_ITERATIONS; i++) {
-            this.vertexPositioning.positionVertices(virtualized, edges, i);
-            this.verticesTransposer.transpose(virtualized, edges, i);
-            if (this.crossingCount.crossing(best, edges) > this.crossingCount.crossing(virtualized, edges)) {
-                best = clone(virtualized);
+            positionVertices(indexed, edges, i);
+            this.verticesTransposer.transpose(indexed, i);
+            final int crossing = this.crossingCount.crossing(indexed);
+            if (bestCrossing > crossing) {
+                best = indexed.copy();
+                bestCrossing = crossing;
             } else {
                 break;
             }
         }
 
         layered.getLayers().clear();
-        layered.getLayers().addAll(best);
+        layered.getLayers().addAll(best.toLayers());
+    }
+
+    private void positionVertices(final IndexedLayers layers,
+                                  final List<OrientedEdge> edges,
+                                  final int currentIteration) {
+        if (this.vertexPositioning instanceof MedianVertexLayerPositioning) {
+            ((MedianVertexLayerPositioning) this.vertexPositioning).positionVertices(layers, currentIteration);
+        } else {
+            final List<GraphLayer> ordered = layers.toLayers();
+            this.vertexPositioning.positionVertices(ordered, edges, currentIteration);
+            layers.reorder(ordered);
+        }
     }
 
     private List<GraphLayer> clone(final List<GraphLayer> input) {
@@ -118,54 +127,88 @@ public final class DefaultVertexOrdering implements VertexOrdering {
         int virtualIndex = 0;
         final List<GraphLayer> virtualized = clone(graph.getLayers());
 
+        final HashMap<String, Integer> layerNumbers = new HashMap<>();
+        for (final GraphLayer layer : virtualized) {
+            for (final Vertex vertex : layer.getVertices()) {
+                layerNumbers.putIfAbsent(vertex.getId(), layer.getLevel());
+            }
+        }
+        final HashMap<String, List<OrientedEdge>> outgoingEdges = new HashMap<>();
+        final HashMap<String, List<OrientedEdge>> incomingEdges = new HashMap<>();
+        for (final OrientedEdge edge : edges) {
+            addEdge(edge, outgoingEdges, incomingEdges);
+        }
+        // The edges are split in place of the list, only once all the vertices are created
+        final Map<OrientedEdge, Boolean> split = new IdentityHashMap<>();
+        final List<OrientedEdge> added = new ArrayList<>();
+
         for (int i = 0; i < virtualized.size() - 1; i++) {
             final GraphLayer currentLayer = virtualized.get(i);
             final GraphLayer nextLayer = virtualized.get(i + 1);
             for (final Vertex vertex : currentLayer.getVertices()) {
+                final int layerNumber = getLayerNumber(vertex.getId(), layerNumbers);
 
-                final List<OrientedEdge> outgoing = edges.stream()
-                        .filter(e -> Objects.equals(e.getFromVertexId(), vertex.getId()))
-                        .filter(e -> Math.abs(getLayerNumber(e.getToVertexId(), virtualized) - getLayerNumber(vertex.getId(), virtualized)) > 1)
-                        .collect(toList());
+                final List<OrientedEdge> outgoing = new ArrayList<>();
+                for (final OrientedEdge edge : outgoingEdges.getOrDefault(vertex.getId(), Collections.emptyList())) {
+                    if (!split.containsKey(edge) && Math.abs(getLayerNumber(edge.getToVertexId(), layerNumbers) - layerNumber) > 1) {
+                        outgoing.add(edge);
+                    }
+                }
 
-                final List<OrientedEdge> incoming = edges.stream()
-                        .filter(e -> Objects.equals(e.getToVertexId(), vertex.getId()))
-                        .filter(e -> Math.abs(getLayerNumber(e.getFromVertexId(), virtualized) - getLayerNumber(vertex.getId(), virtualized)) > 1)
-                        .collect(toList());
+                final List<OrientedEdge> incoming = new ArrayList<>();
+                for (final OrientedEdge edge : incomingEdges.getOrDefault(vertex.getId(), Collections.emptyList())) {
+                    if (!split.containsKey(edge) && Math.abs(getLayerNumber(edge.getFromVertexId(), layerNumbers) - layerNumber) > 1) {
+                        incoming.add(edge);
+                    }
+                }
 
                 for (final OrientedEdge edge : outgoing) {
                     final Vertex virtualVertex = new Vertex("V" + virtualIndex++, true);
                     nextLayer.getVertices().add(virtualVertex);
-                    edges.remove(edge);
+                    layerNumbers.putIfAbsent(virtualVertex.getId(), nextLayer.getLevel());
+                    split.put(edge, Boolean.TRUE);
                     final OrientedEdge v1 = new OrientedEdgeImpl(edge.getFromVertexId(), virtualVertex.getId());
                     final OrientedEdge v2 = new OrientedEdgeImpl(virtualVertex.getId(), edge.getToVertexId());
-                    edges.add(v1);
-                    edges.add(v2);
+                    added.add(v1);
+                    added.add(v2);
+                    addEdge(v1, outgoingEdges, incomingEdges);
+                    addEdge(v2, outgoingEdges, incomingEdges);
                 }
 
                 for (final OrientedEdge edge : incoming) {
                     final Vertex virtualVertex = new Vertex("V" + virtualIndex++, true);
                     nextLayer.getVertices().add(virtualVertex);
-                    edges.remove(edge);
+                    layerNumbers.putIfAbsent(virtualVertex.getId(), nextLayer.getLevel());
+                    split.put(edge, Boolean.TRUE);
                     final OrientedEdge v1 = new OrientedEdgeImpl(virtualVertex.getId(), edge.getToVertexId());
                     final OrientedEdge v2 = new OrientedEdgeImpl(edge.getFromVertexId(), virtualVertex.getId());
-                    edges.add(v1);
-                    edges.add(v2);
+                    added.add(v1);
+                    added.add(v2);
+                    addEdge(v1, outgoingEdges, incomingEdges);
+                    addEdge(v2, outgoingEdges, incomingEdges);
                 }
             }
         }
 
+        edges.addAll(added);
+        edges.removeIf(split::containsKey);
+
         return virtualized;
     }
 
+    private static void addEdge(final OrientedEdge edge,
+                                final Map<String, List<OrientedEdge>> outgoingEdges,
+                                final Map<String, List<OrientedEdge>> incomingEdges) {
+        outgoingEdges.computeIfAbsent(edge.getFromVertexId(), id -> new ArrayList<>()).add(edge);
+        incomingEdges.computeIfAbsent(edge.getToVertexId(), id -> new ArrayList<>()).add(edge);
+    }
+
     private int getLayerNumber(final String vertex,
-                               final List<GraphLayer> layers) {
-        final GraphLayer layer = layers
-                .stream()
-                .filter(l -> l.getVertices().stream().anyMatch(v -> Objects.equals(v.getId(), vertex)))
-                .findFirst()
-                .orElseThrow(() -> new NoSuchElementException("Can not found the layer of the vertex."));
-
-        return layer.getLevel();
+                               final Map<String, Integer> layerNumbers) {
+        final Integer layerNumber = layerNumbers.get(vertex);
+        if (layerNumber == null) {
+            throw new NoSuchElementException("Can not found the layer of the vertex.");
+        }
+        return layerNumber;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.step03;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.kie.workbench.common.stunner.core.graph.processing.layout.Vertex;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayer;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayerImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.OrientedEdge;
+
+/**
+ * The layers of a graph with each vertex mapped to an int, so the vertices can be ordered without looking up ids or
+ * scanning the edges.
+ * The edges are kept in CSR (compressed sparse row) arrays: the vertices at the other end of the edges of the vertex
+ * v are incidences[incidenceOffsets[v]] to incidences[incidenceOffsets[v + 1] - 1].
+ * The vertices at the end of an edge that are not in any layer are also mapped, outside of the layers.
+ */
+final class IndexedLayers {
+
+    private final Vertex[] vertices;
+    private final HashMap<String, Integer> indexById;
+    private final int[] levels;
+    private final int[] layerOf;
+    private final int[] incidenceOffsets;
+    private final int[] incidences;
+
+    private final int[][] layers;
+    private final int[] positions;
+    private final double[] medians;
+    private final boolean[] hasMedian;
+
+    // Reused by the crossing count and the positioning, so nothing is allocated while the vertices are ordered
+    private final int[] entries;
+    private final int[] tree;
+    private final int[] buffer;
+    private final int[] otherBuffer;
+
+    /**
+     * Default constructor.
+     * @param layers The layers, the vertices are kept in the indexed layers and only cloned by {@link #toLayers()}.
+     * @param edges The edges connecting the vertices.
+     */
+    IndexedLayers(final List<GraphLayer> layers,
+                  final List<OrientedEdge> edges) {
+        final List<Vertex> layered = new ArrayList<>();
+        this.indexById = new HashMap<>();
+        this.levels = new int[layers.size()];
+        this.layers = new int[layers.size()][];
+        int maxLayerSize = 1;
+        for (int l = 0; l < layers.size(); l++) {
+            final List<Vertex> layerVertices = layers.get(l).getVertices();
+            this.levels[l] = layers.get(l).getLevel();
+            this.layers[l] = new int[layerVertices.size()];
+            for (int p = 0; p < layerVertices.size(); p++) {
+                final Vertex vertex = layerVertices.get(p);
+                this.layers[l][p] = layered.size();
+                this.indexById.putIfAbsent(vertex.getId(), layered.size());
+                layered.add(vertex);
+            }
+            maxLayerSize = Math.max(maxLayerSize, layerVertices.size());
+        }
+        this.vertices = layered.toArray(new Vertex[0]);
+
+        int count = vertices.length;
+        final int[] from = new int[edges.size()];
+        final int[] to = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            final OrientedEdge edge = edges.get(e);
+            Integer index = indexById.get(edge.getFromVertexId());
+            if (index == null) {
+                index = count++;
+                indexById.put(edge.getFromVertexId(), index);
+            }
+            from[e] = index;
+            index = indexById.get(edge.getToVertexId());
+            if (index == null) {
+                index = count++;
+                indexById.put(edge.getToVertexId(), index);
+            }
+            to[e] = index;
+        }
+
+        this.layerOf = new int[count];
+        this.positions = new int[count];
+        Arrays.fill(this.layerOf, -1);
+        for (int l = 0; l < this.layers.length; l++) {
+            for (int p = 0; p < this.layers[l].length; p++) {
+                this.layerOf[this.layers[l][p]] = l;
+                this.positions[this.layers[l][p]] = p;
+            }
+        }
+
+        // A loop is only one incidence of its vertex
+        this.incidenceOffsets = new int[count + 1];
+        for (int e = 0; e < from.length; e++) {
+            incidenceOffsets[from[e] + 1]++;
+            if (to[e] != from[e]) {
+                incidenceOffsets[to[e] + 1]++;
+            }
+        }
+        int maxDegree = 0;
+        for (int v = 0; v < count; v++) {
+            maxDegree = Math.max(maxDegree, incidenceOffsets[v + 1]);
+            incidenceOffsets[v + 1] += incidenceOffsets[v];
+        }
+        this.incidences = new int[incidenceOffsets[count]];
+        final int[] next = Arrays.copyOf(incidenceOffsets, count);
+        for (int e = 0; e < from.length; e++) {
+            incidences[next[from[e]]++] = to[e];
+            if (to[e] != from[e]) {
+                incidences[next[to[e]]++] = from[e];
+            }
+        }
+
+        this.medians = new double[vertices.length];
+        this.hasMedian = new boolean[vertices.length];
+        this.entries = new int[incidences.length];
+        this.tree = new int[4 * maxLayerSize];
+        this.buffer = new int[Math.max(maxLayerSize, maxDegree)];
+        this.otherBuffer = new int[buffer.length];
+    }
+
+    private IndexedLayers(final IndexedLayers other) {
+        this.vertices = other.vertices;
+        this.indexById = other.indexById;
+        this.levels = other.levels;
+        this.layerOf = other.layerOf;
+        this.incidenceOffsets = other.incidenceOffsets;
+        this.incidences = other.incidences;
+        this.layers = new int[other.layers.length][];
+        for (int l = 0; l < layers.length; l++) {
+            this.layers[l] = other.layers[l].clone();
+        }
+        this.positions = other.positions.clone();
+        this.medians = other.medians.clone();
+        this.hasMedian = other.hasMedian.clone();
+        // A copy is never used at the same time as its original
+        this.entries = other.entries;
+        this.tree = other.tree;
+        this.buffer = other.buffer;
+        this.otherBuffer = other.otherBuffer;
+    }
+
+    /**
+     * @return A copy of the current order of the vertices.
+     */
+    IndexedLayers copy() {
+        return new IndexedLayers(this);
+    }
+
+    int getLayersCount() {
+        return layers.length;
+    }
+
+    int getLayerSize(final int layer) {
+        return layers[layer].length;
+    }
+
+    int getVertex(final int layer,
+                  final int position) {
+        return layers[layer][position];
+    }
+
+    int[] getEntries() {
+        return entries;
+    }
+
+    int[] getTree() {
+        return tree;
+    }
+
+    int[] getBuffer() {
+        return buffer;
+    }
+
+    int[] getOtherBuffer() {
+        return otherBuffer;
+    }
+
+    /**
+     * Puts in the entries the position in the south layer of the vertex at the other end of each edge of the vertices
+     * of the north layer, or -1 if it is not in the south layer. The positions are sorted for each north vertex.
+     * @param north The north layer.
+     * @param south The south layer.
+     * @return The number of entries.
+     */
+    int flat(final int north,
+             final int south) {
+        int count = 0;
+        for (final int vertex : layers[north]) {
+            final int start = count;
+            for (int i = incidenceOffsets[vertex]; i < incidenceOffsets[vertex + 1]; i++) {
+                final int other = incidences[i];
+                entries[count++] = layerOf[other] == south ? positions[other] : -1;
+            }
+            sort(entries, start, count);
+        }
+        return count;
+    }
+
+    /**
+     * Puts in the target the positions in a layer of the vertices connected to a vertex, sorted and once for each edge.
+     * @param vertex The vertex.
+     * @param layer The layer.
+     * @param target The array to put the positions in, as large as the buffer.
+     * @return The number of positions.
+     */
+    int positionsOf(final int vertex,
+                    final int layer,
+                    final int[] target) {
+        int count = 0;
+        for (int i = incidenceOffsets[vertex]; i < incidenceOffsets[vertex + 1]; i++) {
+            final int other = incidences[i];
+            if (other != vertex && layerOf[other] == layer) {
+                target[count++] = positions[other];
+            }
+        }
+        sort(target, 0, count);
+        return count;
+    }
+
+    /**
+     * Puts in the buffer the positions in a layer of the vertices connected to a vertex, sorted and without repetitions.
+     * @param vertex The vertex.
+     * @param layer The layer.
+     * @return The number of positions.
+     */
+    int connectedPositions(final int vertex,
+                           final int layer) {
+        final int count = positionsOf(vertex, layer, buffer);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || buffer[distinct - 1] != buffer[i]) {
+                buffer[distinct++] = buffer[i];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * @param vertex The vertex.
+     * @param layer The layer.
+     * @return The number of edges of the vertex that do not reach the layer.
+     */
+    int countNotConnected(final int vertex,
+                          final int layer) {
+        int count = 0;
+        for (int i = incidenceOffsets[vertex]; i < incidenceOffsets[vertex + 1]; i++) {
+            if (layerOf[incidences[i]] != layer) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void setMedian(final int vertex,
+                   final double median) {
+        medians[vertex] = median;
+        hasMedian[vertex] = true;
+    }
+
+    /**
+     * Sorts the vertices of a layer by their median. The sort is stable, as {@link List#sort}.
+     * @param layer The layer.
+     */
+    void sortByMedian(final int layer) {
+        final int[] vertices = layers[layer];
+        for (int width = 1; width < vertices.length; width <<= 1) {
+            for (int start = 0; start < vertices.length - width; start += 2 * width) {
+                merge(vertices, start, start + width, Math.min(start + 2 * width, vertices.length));
+            }
+        }
+        updatePositions(layer);
+    }
+
+    private void merge(final int[] vertices,
+                       final int start,
+                       final int middle,
+                       final int end) {
+        final int length = middle - start;
+        System.arraycopy(vertices, start, buffer, 0, length);
+        int left = 0;
+        int right = middle;
+        int target = start;
+        while (left < length && right < end) {
+            if (medians[vertices[right]] < medians[buffer[left]]) {
+                vertices[target++] = vertices[right++];
+            } else {
+                vertices[target++] = buffer[left++];
+            }
+        }
+        while (left < length) {
+            vertices[target++] = buffer[left++];
+        }
+    }
+
+    void swap(final int layer,
+              final int i,
+              final int j) {
+        final int[] vertices = layers[layer];
+        final int vertex = vertices[i];
+        vertices[i] = vertices[j];
+        vertices[j] = vertex;
+        positions[vertices[i]] = i;
+        positions[vertices[j]] = j;
+    }
+
+    /**
+     * @return The layers in the current order, with a clone of each vertex.
+     */
+    List<GraphLayer> toLayers() {
+        final List<GraphLayer> result = new ArrayList<>(layers.length);
+        for (int l = 0; l < layers.length; l++) {
+            final GraphLayerImpl layer = new GraphLayerImpl(levels[l]);
+            for (final int vertex : layers[l]) {
+                final Vertex clone = vertices[vertex].clone();
+                if (hasMedian[vertex]) {
+                    clone.setMedian(medians[vertex]);
+                }
+                layer.addVertex(clone);
+            }
+            result.add(layer);
+        }
+        return result;
+    }
+
+    /**
+     * Takes the order of the vertices from layers with the same vertices.
+     * @param ordered The ordered layers.
+     */
+    void reorder(final List<GraphLayer> ordered) {
+        for (int l = 0; l < layers.length; l++) {
+            final List<Vertex> layerVertices = ordered.get(l).getVertices();
+            for (int p = 0; p < layers[l].length; p++) {
+                layers[l][p] = indexById.get(layerVertices.get(p).getId());
+            }
+            updatePositions(l);
+        }
+    }
+
+    private void updatePositions(final int layer) {
+        final int[] vertices = layers[layer];
+        for (int p = 0; p < vertices.length; p++) {
+            positions[vertices[p]] = p;
+        }
+    }
+
+    // The ranges are the edges of a vertex, short enough for an insertion sort
+    private static void sort(final int[] values,
+                             final int start,
+                             final int end) {
+        for (int i = start + 1; i < end; i++) {
+            final int value = values[i];
+            int j = i - 1;
+            while (j >= start && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.step03;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,20 +45,131 @@ public class LayerCrossingCount {
                         final GraphLayer north,
                         final GraphLayer south) {
 
-        final Object[] entries = flat(edges, north, south);
+        final int[] entries = flat(edges, north, south);
+        final int southSize = south.getVertices().size();
+        return crossing(entries, entries.length, southSize, new int[treeSize(southSize)]);
+    }
+
+    /**
+     * Counts the edges crossing considering two indexed layers, without allocating.
+     * @param layers The indexed layers.
+     * @param north The north layer.
+     * @param south The south layer.
+     * @return The total of edges crossing.
+     */
+    int crossing(final IndexedLayers layers,
+                 final int north,
+                 final int south) {
+        final int length = layers.flat(north, south);
+        return crossing(layers.getEntries(), length, layers.getLayerSize(south), layers.getTree());
+    }
+
+    /**
+     * Counts the total of edges crossing in all the indexed layers.
+     * @param layers The indexed layers.
+     * @return The sum of edges crossing between all layers.
+     */
+    int crossing(final IndexedLayers layers) {
+        int crossingCount = 0;
+        for (int i = 1; i < layers.getLayersCount(); i++) {
+            crossingCount += crossing(layers, i - 1, i);
+        }
+        return crossingCount;
+    }
 
+    /**
+     * Counts the change of the edges crossing between two indexed layers if two neighbouring vertices of the south
+     * layer are swapped, without counting all the crossings again.
+     * The accumulator tree counts one crossing for each pair of entries where the first one is greater than the second
+     * one, or where the first one is -1 (an edge of the north vertex that does not reach the south layer) and the second
+     * one is lower than the number of leaves of the tree minus 2, as the -1 entries fall in the internal node above
+     * the two last leaves. Only the pairs of entries of the swapped vertices change.
+     * @param layers The indexed layers.
+     * @param north The north layer.
+     * @param south The south layer.
+     * @param position The position of the second vertex to swap, the first one is at position - 1.
+     * @return The crossing after the swap minus the crossing before the swap.
+     */
+    int crossingDelta(final IndexedLayers layers,
+                      final int north,
+                      final int south,
+                      final int position) {
+        final int left = layers.getVertex(south, position - 1);
+        final int right = layers.getVertex(south, position);
+        final int[] lefts = layers.getBuffer();
+        final int[] rights = layers.getOtherBuffer();
+        final int leftsCount = layers.positionsOf(left, north, lefts);
+        final int rightsCount = layers.positionsOf(right, north, rights);
+
+        // The entries of both vertices in different north vertices: the right ones after left ones cross once swapped,
+        // the left ones after right ones do not cross anymore. In the same north vertex they are sorted, never crossing.
+        int delta = DEFAULT_VERTEX_WEIGHT * (countLowerPairs(lefts, leftsCount, rights, rightsCount) -
+                countLowerPairs(rights, rightsCount, lefts, leftsCount));
+
+        if (position == (treeSize(layers.getLayerSize(south)) + 1) / 2 - 2) {
+            // Only the first vertex was counted after the -1 entries, only the second one is once swapped
+            int notConnected = 0;
+            int l = 0;
+            int r = 0;
+            for (int p = 0; p < layers.getLayerSize(north); p++) {
+                notConnected += layers.countNotConnected(layers.getVertex(north, p), south);
+                while (l < leftsCount && lefts[l] == p) {
+                    delta -= DEFAULT_VERTEX_WEIGHT * notConnected;
+                    l++;
+                }
+                while (r < rightsCount && rights[r] == p) {
+                    delta += DEFAULT_VERTEX_WEIGHT * notConnected;
+                    r++;
+                }
+            }
+        }
+        return delta;
+    }
+
+    // Counts the pairs where the value of the first array is lower than the value of the second array, both sorted
+    private static int countLowerPairs(final int[] first,
+                                       final int firstCount,
+                                       final int[] second,
+                                       final int secondCount) {
+        int pairs = 0;
+        int lower = 0;
+        for (int i = 0; i < secondCount; i++) {
+            while (lower < firstCount && first[lower] < second[i]) {
+                lower++;
+            }
+            pairs += lower;
+        }
+        return pairs;
+    }
+
+    private static int treeSize(final int southSize) {
         int firstIndex = 1;
-        while (firstIndex < south.getVertices().size()) {
+        while (firstIndex < southSize) {
             firstIndex <<= 1;
         }
-        final int treeSize = 2 * firstIndex - 1;
-        firstIndex -= 1;
-        final int[] tree = new int[treeSize];
+        return 2 * firstIndex - 1;
+    }
+
+    /**
+     * Counts the crossings of the entries with an accumulator tree (Barth et al 2004).
+     * @param entries The positions in the south layer of the ends of the edges, sorted for each north vertex.
+     * @param length The number of entries.
+     * @param southSize The number of vertices in the south layer.
+     * @param tree The accumulator tree, large enough for the south layer. It is cleared before counting.
+     * @return The total of edges crossing.
+     */
+    private static int crossing(final int[] entries,
+                                final int length,
+                                final int southSize,
+                                final int[] tree) {
+        final int treeSize = treeSize(southSize);
+        final int firstIndex = (treeSize + 1) / 2 - 1;
+        Arrays.fill(tree, 0, treeSize, 0);
 
         int crossings = 0;
 
-        for (final Object entry : entries) {
-            int index = ((Integer) entry) + firstIndex;
+        for (int i = 0; i < length; i++) {
+            int index = entries[i] + firstIndex;
             if (index < 0) {
                 continue;
             }
@@ -76,36 +188,21 @@ public class LayerCrossingCount {
         return crossings;
     }
 
-    /**
-     * Counts the total of edges crossing in all layers.
-     * @param layers Existing layers.
-     * @param edges Existing edges.
-     * @return The sum of edges crossing between all layers.
-     */
-    int crossing(final List<GraphLayer> layers,
-                 final List<OrientedEdge> edges) {
-        int crossingCount = 0;
-        for (int i = 1; i < layers.size(); i++) {
-            crossingCount += crossing(edges, layers.get(i - 1), layers.get(i));
-        }
-        return crossingCount;
-    }
-
-    private Object[] flat(final List<OrientedEdge> edges,
-                          final GraphLayer north,
-                          final GraphLayer south) {
+    private int[] flat(final List<OrientedEdge> edges,
+                       final GraphLayer north,
+                       final GraphLayer south) {
 
         final ArrayList<String> southPos = new ArrayList<>(south.getVertices().size());
         for (int i = 0; i < south.getVertices().size(); i++) {
             southPos.add(south.getVertices().get(i).getId());
         }
 
-        return north.getVertices().stream().flatMap(v -> {
+        return north.getVertices().stream().flatMapToInt(v -> {
             List<OrientedEdge> connectedEdges = edges.stream()
                     .filter(e -> (e.getToVertexId().equals(v.getId()) || e.getFromVertexId().equals(v.getId())))
                     .collect(Collectors.toList());
 
-            return connectedEdges.stream().map(e -> {
+            return connectedEdges.stream().mapToInt(e -> {
                 if (southPos.contains(e.getToVertexId())) {
                     return southPos.indexOf(e.getToVertexId());
                 }
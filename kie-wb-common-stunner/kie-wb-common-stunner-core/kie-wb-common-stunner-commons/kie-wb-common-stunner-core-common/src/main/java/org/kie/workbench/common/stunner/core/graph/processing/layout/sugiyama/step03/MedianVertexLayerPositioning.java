@@ -71,6 +71,60 @@ public class MedianVertexLayerPositioning implements VertexLayerPositioning {
         }
     }
 
+    /**
+     * Same as {@link #positionVertices(List, List, int)}, on indexed layers.
+     * @param layers The indexed layers.
+     * @param currentIteration The current iteration of the execution. If is even goes up-down in layers, otherwise down-up.
+     */
+    void positionVertices(final IndexedLayers layers,
+                          final int currentIteration) {
+        if ((currentIteration % 2 == 0)) {
+            for (int j = layers.getLayersCount() - 1; j >= 1; j--) {
+                positionVertices(layers, j, j - 1);
+            }
+        } else {
+            for (int j = 0; j < layers.getLayersCount() - 1; j++) {
+                positionVertices(layers, j, j + 1);
+            }
+        }
+    }
+
+    private void positionVertices(final IndexedLayers layers,
+                                  final int layer,
+                                  final int neighborhood) {
+        for (int i = 0; i < layers.getLayerSize(layer); i++) {
+            final int vertex = layers.getVertex(layer, i);
+            layers.setMedian(vertex, calculateMedianOfVerticesConnectedTo(vertex, neighborhood, layers));
+        }
+        layers.sortByMedian(layer);
+    }
+
+    private double calculateMedianOfVerticesConnectedTo(final int vertex,
+                                                        final int layer,
+                                                        final IndexedLayers layers) {
+        final int size = layers.connectedPositions(vertex, layer);
+        final int[] connectedVerticesIndex = layers.getBuffer();
+
+        // The vertex is never in the neighborhood layer
+        if (size == 0) {
+            return -1;
+        }
+
+        if (size == 1) {
+            return connectedVerticesIndex[0];
+        }
+
+        final double median;
+
+        if (size % 2 == 0) {
+            median = ((double) connectedVerticesIndex[size / 2] + (double) connectedVerticesIndex[size / 2 - 1]) / 2;
+        } else {
+            median = (double) connectedVerticesIndex[size / 2];
+        }
+
+        return median;
+    }
+
     /**
      * Calculates the median position of a vertex connected to a neighborhood layer.
      * @param vertex The vertex.
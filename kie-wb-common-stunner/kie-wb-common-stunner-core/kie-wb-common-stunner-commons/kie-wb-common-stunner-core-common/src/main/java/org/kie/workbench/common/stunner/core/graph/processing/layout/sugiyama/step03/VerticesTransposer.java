@@ -16,15 +16,8 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.step03;
 
-import java.util.Collections;
-import java.util.List;
-
 import javax.inject.Inject;
 
-import org.kie.workbench.common.stunner.core.graph.processing.layout.Vertex;
-import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayer;
-import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.OrientedEdge;
-
 /**
  * Transpose vertices inside a layer in order to reduce edge crossing.
  */
@@ -39,11 +32,10 @@ public class VerticesTransposer {
 
     /**
      * Transpose neighbouring vertices inside layers trying to reduce crossing.
-     * @param layers The layers with vertices.
-     * @param edges The edges connecting vertices.
+     * @param layers The indexed layers.
+     * @param currentIteration The current iteration of the execution. If is even goes down-up in layers, otherwise up-down.
      */
-    void transpose(final List<GraphLayer> layers,
-                   final List<OrientedEdge> edges,
+    void transpose(final IndexedLayers layers,
                    final int currentIteration) {
 
         boolean improved = true;
@@ -53,44 +45,28 @@ public class VerticesTransposer {
             improved = false;
 
             if (bottomUp) {
-                for (int index = layers.size() - 1; index > 0; index--) {
-                    final GraphLayer current;
-                    final GraphLayer previous;
-                    current = layers.get(index - 1);
-                    previous = layers.get(index);
-                    improved = doTranspose(current, previous, edges);
+                for (int index = layers.getLayersCount() - 1; index > 0; index--) {
+                    improved = doTranspose(layers, index - 1, index);
                 }
             } else {
-                for (int index = 1; index < layers.size(); index++) {
-                    final GraphLayer current;
-                    final GraphLayer previous;
-                    current = layers.get(index);
-                    previous = layers.get(index - 1);
-                    improved = doTranspose(current, previous, edges);
+                for (int index = 1; index < layers.getLayersCount(); index++) {
+                    improved = doTranspose(layers, index, index - 1);
                 }
             }
         }
     }
 
-    private boolean doTranspose(final GraphLayer current,
-                                final GraphLayer previous,
-                                final List<OrientedEdge> edges) {
+    private boolean doTranspose(final IndexedLayers layers,
+                                final int current,
+                                final int previous) {
 
-        final List<Vertex> vertices = current.getVertices();
         boolean improved = false;
-        for (int i = 1; i < vertices.size(); i++) {
-
-            final int currentCrossing = this.crossingCount.crossing(edges, previous, current);
-
-            Collections.swap(vertices, i, i - 1);
-
-            final int newCrossing = this.crossingCount.crossing(edges, previous, current);
-            if (newCrossing >= currentCrossing) {
-                Collections.swap(vertices, i - 1, i);
-            } else {
+        for (int i = 1; i < layers.getLayerSize(current); i++) {
+            if (this.crossingCount.crossingDelta(layers, previous, current, i) < 0) {
+                layers.swap(current, i, i - 1);
                 improved = true;
             }
         }
         return improved;
     }
-}
\ No newline at end of file
+}
@@ -16,9 +16,12 @@
 
 package org.kie.workbench.common.stunner.core.graph.store;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.jboss.errai.common.client.api.annotations.Portable;
 import org.kie.workbench.common.stunner.core.graph.Node;
@@ -28,15 +31,27 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
 
     protected Map<String, Node> nodes = new HashMap<String, Node>();
 
+    // The nodes by label and uuid. Built on the first look-up by label, then updated as nodes are added or removed.
+    private transient Map<String, Map<String, Node>> nodesByLabel;
+
     @Override
     public Node add(final Node node) {
-        return nodes.put(node.getUUID(),
-                         node);
+        final Node previous = nodes.put(node.getUUID(),
+                                        node);
+        if (null != nodesByLabel) {
+            unindex(previous);
+            index(node);
+        }
+        return previous;
     }
 
     @Override
     public Node remove(final String uuid) {
-        return nodes.remove(uuid);
+        final Node removed = nodes.remove(uuid);
+        if (null != nodesByLabel) {
+            unindex(removed);
+        }
+        return removed;
     }
 
     @Override
@@ -44,6 +59,18 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
         return nodes.get(uuid);
     }
 
+    @Override
+    public Iterable<Node> getByLabel(final String label) {
+        if (null == nodesByLabel) {
+            nodesByLabel = new HashMap<>();
+            nodes.values().forEach(this::index);
+        }
+        final Map<String, Node> labelled = nodesByLabel.get(label);
+        return null != labelled ?
+                Collections.unmodifiableCollection(labelled.values()) :
+                Collections.emptyList();
+    }
+
     @Override
     public int size() {
         return nodes.size();
@@ -52,10 +79,37 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
     @Override
     public void clear() {
         nodes.clear();
+        nodesByLabel = null;
     }
 
     @Override
     public Iterator<Node> iterator() {
         return nodes.values().iterator();
     }
+
+    @SuppressWarnings("unchecked")
+    private void index(final Node node) {
+        final Set<String> labels = node.getLabels();
+        if (null != labels) {
+            for (final String label : labels) {
+                nodesByLabel.computeIfAbsent(label,
+                                             l -> new LinkedHashMap<>())
+                        .put(node.getUUID(),
+                             node);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unindex(final Node node) {
+        final Set<String> labels = null != node ? node.getLabels() : null;
+        if (null != labels) {
+            for (final String label : labels) {
+                final Map<String, Node> labelled = nodesByLabel.get(label);
+                if (null != labelled) {
+                    labelled.remove(node.getUUID());
+                }
+            }
+        }
+    }
 }
@@ -16,13 +16,9 @@
 
 package org.kie.workbench.common.stunner.core.rule;
 
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.Typed;
@@ -30,6 +26,10 @@ import javax.inject.Inject;
 
 import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
 
+/**
+ * A rule manager that compiles the rules of each rule set once for each context type, see
+ * {@link CompiledContextRules}, and evaluates the contexts against the compiled rules.
+ */
 @Dependent
 @Typed(CachedRuleManager.class)
 public class CachedRuleManager implements RuleManager {
@@ -43,19 +43,6 @@ public class CachedRuleManager implements RuleManager {
         this.cachedContextRules = new HashMap<>(4);
     }
 
-    @PostConstruct
-    public void init() {
-        ruleManager.setRulesProvider(this::getRulesByContext)
-                .setRuleEvaluator(new RuleManagerImpl.DefaultRuleEvaluator() {
-                    @Override
-                    public boolean accepts(final RuleEvaluationHandler handler,
-                                           final Rule rule) {
-                        // Acceptance by rule type is already satisfied due to the cache. No need to evaluate again.
-                        return true;
-                    }
-                });
-    }
-
     @Override
     public RuleHandlerRegistry registry() {
         return ruleManager.registry();
@@ -64,8 +51,8 @@ public class CachedRuleManager implements RuleManager {
     @Override
     public RuleViolations evaluate(final RuleSet ruleSet,
                                    final RuleEvaluationContext context) {
-        return ruleManager.evaluate(ruleSet,
-                                    context);
+        return getRulesByContext(ruleSet,
+                                 context).evaluate(context);
     }
 
     @PreDestroy
@@ -74,8 +61,8 @@ public class CachedRuleManager implements RuleManager {
         cachedContextRules.clear();
     }
 
-    private Collection<Rule> getRulesByContext(final RuleSet ruleSet,
-                                               final RuleEvaluationContext context) {
+    private CompiledContextRules getRulesByContext(final RuleSet ruleSet,
+                                                   final RuleEvaluationContext context) {
         CachedContextRules crs = cachedContextRules.get(ruleSet.getName());
         if (null == crs) {
             crs = new CachedContextRules();
@@ -88,15 +75,15 @@ public class CachedRuleManager implements RuleManager {
 
     private class CachedContextRules {
 
-        private final Map<Class<? extends RuleEvaluationContext>, List<Rule>> rulesByContent;
+        private final Map<Class<? extends RuleEvaluationContext>, CompiledContextRules> rulesByContent;
 
         public CachedContextRules() {
             this.rulesByContent = new HashMap<>(15);
         }
 
-        public Collection<Rule> getRulesByContext(final RuleSet ruleSet,
-                                                  final RuleEvaluationContext context) {
-            List<Rule> rules = rulesByContent.get(context.getClass());
+        public CompiledContextRules getRulesByContext(final RuleSet ruleSet,
+                                                      final RuleEvaluationContext context) {
+            CompiledContextRules rules = rulesByContent.get(context.getClass());
             if (null == rules) {
                 return cacheRulesByContext(ruleSet,
                                            context);
@@ -104,13 +91,11 @@ public class CachedRuleManager implements RuleManager {
             return rules;
         }
 
-        public Collection<Rule> cacheRulesByContext(final RuleSet ruleSet,
-                                                    final RuleEvaluationContext context) {
-            final Collection<RuleEvaluationHandler> handlers = registry().getHandlersByContext(context.getType());
-            final List<Rule> rules = ruleSet.getRules().stream()
-                    .filter(rule -> accepts(handlers,
-                                            rule))
-                    .collect(Collectors.toList());
+        public CompiledContextRules cacheRulesByContext(final RuleSet ruleSet,
+                                                        final RuleEvaluationContext context) {
+            final CompiledContextRules rules = CompiledContextRules.compile(ruleSet.getRules(),
+                                                                            registry(),
+                                                                            context);
             rulesByContent.put(context.getClass(), rules);
             return rules;
         }
@@ -118,12 +103,5 @@ public class CachedRuleManager implements RuleManager {
         public void clear() {
             rulesByContent.clear();
         }
-
-        private boolean accepts(final Collection<RuleEvaluationHandler> handlers,
-                                final Rule rule) {
-            return RuleManagerImpl.isRuleExtension().test(rule) ||
-                    handlers.stream()
-                            .anyMatch(handler -> RuleManagerImpl.isRuleTypeAllowed().test(rule, handler));
-        }
     }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtensionHandler;
+import org.kie.workbench.common.stunner.core.rule.violations.ContextOperationNotAllowedViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+
+/**
+ * The rules of a rule set for a context type, with the handlers that evaluate them.
+ * The handlers for the context type are resolved once for each rule type, and the rules of the
+ * {@link RoleBasedEvaluationHandler}s are indexed by role, so an evaluation only asks the handlers about the
+ * rules for the roles of the context.
+ * The evaluation gives the same results as {@link RuleManagerImpl#evaluate(RuleSet, RuleEvaluationContext)}, in the
+ * same order: the rules are evaluated in the rule set order, each rule by its handlers in the registry order.
+ */
+final class CompiledContextRules {
+
+    private final Rule[] rules;
+    private final HandlerRules[] handlerRules;
+    private final RuleExtension[] extensions;
+    private final RuleExtensionHandler[] extensionHandlers;
+
+    private CompiledContextRules(final Rule[] rules,
+                                 final HandlerRules[] handlerRules,
+                                 final RuleExtension[] extensions,
+                                 final RuleExtensionHandler[] extensionHandlers) {
+        this.rules = rules;
+        this.handlerRules = handlerRules;
+        this.extensions = extensions;
+        this.extensionHandlers = extensionHandlers;
+    }
+
+    /**
+     * @param rules The rules of the rule set.
+     * @param registry The registry of the rule evaluation handlers.
+     * @param context A context of the type to compile the rules for.
+     * @return The rules that can be evaluated for the context type.
+     */
+    static CompiledContextRules compile(final Collection<Rule> rules,
+                                        final RuleHandlerRegistry registry,
+                                        final RuleEvaluationContext context) {
+        final Rule[] ruleArray = rules.toArray(new Rule[0]);
+        final List<HandlerRules> handlerRules = new ArrayList<>();
+        for (final RuleEvaluationHandler handler : registry.getHandlersByContext(context.getType())) {
+            if (RuleManagerImpl.accepts(handler,
+                                        context)) {
+                final List<Integer> handled = new ArrayList<>();
+                for (int i = 0; i < ruleArray.length; i++) {
+                    if (!RuleManagerImpl.isRuleExtension().test(ruleArray[i]) &&
+                            RuleManagerImpl.isRuleTypeAllowed().test(ruleArray[i],
+                                                                     handler)) {
+                        handled.add(i);
+                    }
+                }
+                if (!handled.isEmpty()) {
+                    handlerRules.add(new HandlerRules(handler,
+                                                      ruleArray,
+                                                      toArray(handled)));
+                }
+            }
+        }
+
+        final List<RuleExtension> extensions = new ArrayList<>();
+        final List<RuleExtensionHandler> extensionHandlers = new ArrayList<>();
+        for (final Rule rule : rules) {
+            if (RuleManagerImpl.isRuleExtension().test(rule)) {
+                final RuleExtension extension = (RuleExtension) rule;
+                final RuleExtensionHandler handler = registry.getExtensionHandler(extension.getHandlerType());
+                extensions.add(extension);
+                extensionHandlers.add(null != handler && RuleManagerImpl.accepts(handler,
+                                                                                 context) ? handler : null);
+            }
+        }
+
+        return new CompiledContextRules(ruleArray,
+                                        handlerRules.toArray(new HandlerRules[0]),
+                                        extensions.toArray(new RuleExtension[0]),
+                                        extensionHandlers.toArray(new RuleExtensionHandler[0]));
+    }
+
+    boolean isEmpty() {
+        return handlerRules.length == 0 && extensions.length == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    RuleViolations evaluate(final RuleEvaluationContext context) {
+        final DefaultRuleViolations results = new DefaultRuleViolations();
+        if (isEmpty()) {
+            return results;
+        }
+
+        // The positions in the rule set of the rules each handler is asked about, merged in the rule set order
+        final int[][] positions = new int[handlerRules.length][];
+        final int[] next = new int[handlerRules.length];
+        for (int h = 0; h < handlerRules.length; h++) {
+            positions[h] = handlerRules[h].getPositions(context);
+        }
+        boolean accepted = false;
+        while (true) {
+            int handler = -1;
+            for (int h = 0; h < handlerRules.length; h++) {
+                if (next[h] < positions[h].length &&
+                        (handler < 0 || positions[h][next[h]] < positions[handler][next[handler]])) {
+                    handler = h;
+                }
+            }
+            if (handler < 0) {
+                break;
+            }
+            accepted |= handlerRules[handler].evaluate(rules[positions[handler][next[handler]++]],
+                                                       context,
+                                                       results);
+        }
+
+        // Check default accept or deny for the context, in case no handlers accepted the evaluation.
+        if (context.isDefaultDeny() && !accepted) {
+            return new DefaultRuleViolations().addViolation(new ContextOperationNotAllowedViolation(context));
+        }
+
+        for (int i = 0; i < extensions.length; i++) {
+            final RuleExtensionHandler handler = extensionHandlers[i];
+            if (null != handler && handler.accepts(extensions[i],
+                                                   context)) {
+                results.addViolations(handler.evaluate(extensions[i],
+                                                       context));
+            }
+        }
+        return results;
+    }
+
+    private static int[] toArray(final List<Integer> values) {
+        final int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * The rules of a handler, by role if the handler is a {@link RoleBasedEvaluationHandler}. The rules are given by
+     * their position in the rule set.
+     */
+    private static final class HandlerRules {
+
+        private static final int[] NO_POSITIONS = new int[0];
+
+        private final RuleEvaluationHandler handler;
+        // The positions of the rules of the handler, in ascending order
+        private final int[] positions;
+        // The role of each rule of the handler, null if the rule is not indexed
+        private final String[] roles;
+        // The positions of the indexed rules by role, in ascending order
+        private final Map<String, int[]> positionsByRole;
+        private final boolean allIndexed;
+
+        @SuppressWarnings("unchecked")
+        private HandlerRules(final RuleEvaluationHandler handler,
+                             final Rule[] rules,
+                             final int[] positions) {
+            this.handler = handler;
+            this.positions = positions;
+            this.roles = new String[positions.length];
+            final Map<String, List<Integer>> byRole = new HashMap<>();
+            boolean indexed = true;
+            for (int i = 0; i < positions.length; i++) {
+                roles[i] = handler instanceof RoleBasedEvaluationHandler ?
+                        ((RoleBasedEvaluationHandler) handler).getRole(rules[positions[i]]) :
+                        null;
+                if (null != roles[i]) {
+                    byRole.computeIfAbsent(roles[i],
+                                           role -> new ArrayList<>()).add(positions[i]);
+                } else {
+                    indexed = false;
+                }
+            }
+            this.positionsByRole = new HashMap<>(byRole.size());
+            byRole.forEach((role, rolePositions) -> positionsByRole.put(role,
+                                                                         toArray(rolePositions)));
+            this.allIndexed = indexed;
+        }
+
+        /**
+         * @return The positions of the rules to ask the handler about for the context, in ascending order.
+         */
+        @SuppressWarnings("unchecked")
+        private int[] getPositions(final RuleEvaluationContext context) {
+            final Set<String> contextRoles = handler instanceof RoleBasedEvaluationHandler ?
+                    ((RoleBasedEvaluationHandler) handler).getRoles(context) :
+                    null;
+            if (null == contextRoles) {
+                return positions;
+            }
+            if (contextRoles.size() == 1 && allIndexed) {
+                return positionsByRole.getOrDefault(contextRoles.iterator().next(),
+                                                    NO_POSITIONS);
+            }
+            int count = 0;
+            final int[] selected = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                if (null == roles[i] || contextRoles.contains(roles[i])) {
+                    selected[count++] = positions[i];
+                }
+            }
+            return count == selected.length ? selected : Arrays.copyOf(selected,
+                                                                       count);
+        }
+
+        /**
+         * Evaluates the rule if the handler accepts it for the context.
+         * @return If the handler accepted the rule.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean evaluate(final Rule rule,
+                                 final RuleEvaluationContext context,
+                                 final DefaultRuleViolations results) {
+            if (handler.accepts(rule,
+                                context)) {
+                results.addViolations(handler.evaluate(rule,
+                                                       context));
+                return true;
+            }
+            return false;
+        }
+    }
+}
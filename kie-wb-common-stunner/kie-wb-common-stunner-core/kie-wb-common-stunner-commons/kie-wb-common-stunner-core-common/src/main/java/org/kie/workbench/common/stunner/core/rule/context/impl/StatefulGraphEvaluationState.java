@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -130,12 +131,26 @@ public class StatefulGraphEvaluationState extends AbstractGraphEvaluationState {
             return StreamSupport.stream(nodes.spliterator(), false)
                     .filter(e -> !getDeletedElements().contains(e))
                     .collect(Collectors.collectingAndThen(Collectors.toList(),
-                                                          this::appendAddedNodes));
+                                                          result -> appendAddedNodes(result,
+                                                                                     e -> true)));
         }
 
-        private Collection<Node> appendAddedNodes(final Collection<Node> nodes) {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterable<Node> nodesByLabel(final String label) {
+            final Iterable<Node> nodes = (Iterable<Node>) getGraph().nodesByLabel(label);
+            return StreamSupport.stream(nodes.spliterator(), false)
+                    .filter(e -> !getDeletedElements().contains(e))
+                    .collect(Collectors.collectingAndThen(Collectors.toList(),
+                                                          result -> appendAddedNodes(result,
+                                                                                     e -> null != e.getLabels() && e.getLabels().contains(label))));
+        }
+
+        private Collection<Node> appendAddedNodes(final Collection<Node> nodes,
+                                                  final Predicate<Element<? extends View<?>>> filter) {
             getAddedElements().stream()
                     .filter(e -> Objects.nonNull(e.asNode()))
+                    .filter(filter)
                     .forEach(node -> nodes.add((Node) node));
             return nodes;
         }
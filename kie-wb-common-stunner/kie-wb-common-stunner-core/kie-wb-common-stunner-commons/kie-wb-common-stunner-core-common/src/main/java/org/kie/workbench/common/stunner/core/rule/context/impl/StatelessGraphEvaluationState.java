@@ -76,6 +76,12 @@ public class StatelessGraphEvaluationState extends AbstractGraphEvaluationState
         public Iterable<Node> nodes() {
             return (Iterable<Node>) getGraph().nodes();
         }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterable<Node> nodesByLabel(final String label) {
+            return (Iterable<Node>) getGraph().nodesByLabel(label);
+        }
     }
 
     public static class StatelessConnectorCardinalityState implements ConnectorCardinalityState {
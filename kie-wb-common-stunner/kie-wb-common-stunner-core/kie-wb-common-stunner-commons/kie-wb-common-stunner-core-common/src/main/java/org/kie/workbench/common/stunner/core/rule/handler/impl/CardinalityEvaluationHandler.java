@@ -17,10 +17,11 @@
 package org.kie.workbench.common.stunner.core.rule.handler.impl;
 
 import java.util.Optional;
+import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.impl.Occurrences;
@@ -30,7 +31,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import org.kie.workbench.common.stunner.core.validation.Violation;
 
 @ApplicationScoped
-public class CardinalityEvaluationHandler implements RuleEvaluationHandler<Occurrences, CardinalityContext> {
+public class CardinalityEvaluationHandler implements RoleBasedEvaluationHandler<Occurrences, CardinalityContext> {
 
     @Override
     public Class<Occurrences> getRuleType() {
@@ -42,6 +43,16 @@ public class CardinalityEvaluationHandler implements RuleEvaluationHandler<Occur
         return CardinalityContext.class;
     }
 
+    @Override
+    public String getRole(final Occurrences rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final CardinalityContext context) {
+        return context.getRoles();
+    }
+
     @Override
     public boolean accepts(final Occurrences rule,
                            final CardinalityContext context) {
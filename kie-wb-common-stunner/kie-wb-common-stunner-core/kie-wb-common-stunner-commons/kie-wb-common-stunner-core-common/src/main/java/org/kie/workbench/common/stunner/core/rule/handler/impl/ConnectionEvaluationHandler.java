@@ -24,7 +24,7 @@ import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.ConnectionContext;
 import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
@@ -33,7 +33,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import org.uberfire.commons.data.Pair;
 
 @ApplicationScoped
-public class ConnectionEvaluationHandler implements RuleEvaluationHandler<CanConnect, ConnectionContext> {
+public class ConnectionEvaluationHandler implements RoleBasedEvaluationHandler<CanConnect, ConnectionContext> {
 
     @Override
     public Class<CanConnect> getRuleType() {
@@ -45,6 +45,16 @@ public class ConnectionEvaluationHandler implements RuleEvaluationHandler<CanCon
         return ConnectionContext.class;
     }
 
+    @Override
+    public String getRole(final CanConnect rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final ConnectionContext context) {
+        return Collections.singleton(context.getConnectorRole());
+    }
+
     @Override
     public boolean accepts(final CanConnect rule,
                            final ConnectionContext context) {
@@ -17,6 +17,7 @@
 package org.kie.workbench.common.stunner.core.rule.handler.impl;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,7 +29,7 @@ import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.ConnectorCardinalityContext;
@@ -39,7 +40,7 @@ import org.kie.workbench.common.stunner.core.rule.impl.EdgeOccurrences;
 import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 
 @ApplicationScoped
-public class ConnectorCardinalityEvaluationHandler implements RuleEvaluationHandler<EdgeOccurrences, ConnectorCardinalityContext> {
+public class ConnectorCardinalityEvaluationHandler implements RoleBasedEvaluationHandler<EdgeOccurrences, ConnectorCardinalityContext> {
 
     private final GraphEvaluationHandlerUtils evalUtils;
     private final EdgeCardinalityEvaluationHandler edgeCardinalityEvaluationHandler;
@@ -72,6 +73,16 @@ public class ConnectorCardinalityEvaluationHandler implements RuleEvaluationHand
         return ConnectorCardinalityContext.class;
     }
 
+    @Override
+    public String getRole(final EdgeOccurrences rule) {
+        return rule.getConnectorRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final ConnectorCardinalityContext context) {
+        return Collections.singleton(evalUtils.getElementDefinitionId(context.getEdge()));
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public boolean accepts(final EdgeOccurrences rule,
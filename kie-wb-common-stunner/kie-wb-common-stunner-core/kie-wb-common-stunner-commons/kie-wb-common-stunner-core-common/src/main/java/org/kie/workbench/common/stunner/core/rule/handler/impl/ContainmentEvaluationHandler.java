@@ -16,9 +16,11 @@
 
 package org.kie.workbench.common.stunner.core.rule.handler.impl;
 
+import java.util.Set;
+
 import javax.enterprise.context.ApplicationScoped;
 
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
 import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
@@ -26,7 +28,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.ContainmentRuleViol
 import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 
 @ApplicationScoped
-public class ContainmentEvaluationHandler implements RuleEvaluationHandler<CanContain, ContainmentContext> {
+public class ContainmentEvaluationHandler implements RoleBasedEvaluationHandler<CanContain, ContainmentContext> {
 
     @Override
     public Class<CanContain> getRuleType() {
@@ -38,6 +40,16 @@ public class ContainmentEvaluationHandler implements RuleEvaluationHandler<CanCo
         return ContainmentContext.class;
     }
 
+    @Override
+    public String getRole(final CanContain rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final ContainmentContext context) {
+        return context.getParentRoles();
+    }
+
     @Override
     public boolean accepts(final CanContain rule,
                            final ContainmentContext context) {
@@ -16,9 +16,11 @@
 
 package org.kie.workbench.common.stunner.core.rule.handler.impl;
 
+import java.util.Set;
+
 import javax.enterprise.context.ApplicationScoped;
 
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.DockingContext;
 import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
@@ -26,7 +28,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import org.kie.workbench.common.stunner.core.rule.violations.DockingRuleViolation;
 
 @ApplicationScoped
-public class DockingEvaluationHandler implements RuleEvaluationHandler<CanDock, DockingContext> {
+public class DockingEvaluationHandler implements RoleBasedEvaluationHandler<CanDock, DockingContext> {
 
     @Override
     public Class<CanDock> getRuleType() {
@@ -38,6 +40,16 @@ public class DockingEvaluationHandler implements RuleEvaluationHandler<CanDock,
         return DockingContext.class;
     }
 
+    @Override
+    public String getRole(final CanDock rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final DockingContext context) {
+        return context.getParentRoles();
+    }
+
     @Override
     public boolean accepts(final CanDock rule,
                            final DockingContext context) {
@@ -16,11 +16,13 @@
 
 package org.kie.workbench.common.stunner.core.rule.handler.impl;
 
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
@@ -31,7 +33,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.EdgeCardinalityMinR
 import org.kie.workbench.common.stunner.core.validation.Violation;
 
 @ApplicationScoped
-public class EdgeCardinalityEvaluationHandler implements RuleEvaluationHandler<EdgeOccurrences, EdgeCardinalityContext> {
+public class EdgeCardinalityEvaluationHandler implements RoleBasedEvaluationHandler<EdgeOccurrences, EdgeCardinalityContext> {
 
     @Override
     public Class<EdgeOccurrences> getRuleType() {
@@ -43,6 +45,16 @@ public class EdgeCardinalityEvaluationHandler implements RuleEvaluationHandler<E
         return EdgeCardinalityContext.class;
     }
 
+    @Override
+    public String getRole(final EdgeOccurrences rule) {
+        return rule.getConnectorRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final EdgeCardinalityContext context) {
+        return Collections.singleton(context.getEdgeRole());
+    }
+
     @Override
     public boolean accepts(final EdgeOccurrences rule,
                            final EdgeCardinalityContext context) {
@@ -19,6 +19,7 @@ package org.kie.workbench.common.stunner.core.rule.handler.impl;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -31,10 +32,8 @@ import javax.inject.Inject;
 
 import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.graph.Element;
-import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
-import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.ElementCardinalityContext;
@@ -46,7 +45,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import static org.kie.workbench.common.stunner.core.rule.handler.impl.GraphEvaluationHandlerUtils.addViolationsSourceUUID;
 
 @ApplicationScoped
-public class ElementCardinalityEvaluationHandler implements RuleEvaluationHandler<Occurrences, ElementCardinalityContext> {
+public class ElementCardinalityEvaluationHandler implements RoleBasedEvaluationHandler<Occurrences, ElementCardinalityContext> {
 
     private final CardinalityEvaluationHandler cardinalityEvaluationHandler;
     private final GraphEvaluationHandlerUtils evalUtils;
@@ -73,6 +72,26 @@ public class ElementCardinalityEvaluationHandler implements RuleEvaluationHandle
         return ElementCardinalityContext.class;
     }
 
+    @Override
+    public String getRole(final Occurrences rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<String> getRoles(final ElementCardinalityContext context) {
+        final Collection<Element<? extends View<?>>> candidates = context.getCandidates();
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return evalUtils.getLabels(candidates.iterator().next());
+        }
+        final Set<String> roles = new HashSet<>();
+        candidates.forEach(candidate -> roles.addAll(evalUtils.getLabels(candidate)));
+        return roles;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public boolean accepts(final Occurrences rule,
@@ -147,11 +166,14 @@ public class ElementCardinalityEvaluationHandler implements RuleEvaluationHandle
     Map<String, Integer> countLabels(final GraphEvaluationState state,
                                      final Set<String> roleFilter) {
         final GraphEvaluationState.CardinalityState cardinalityState = state.getCardinalityState();
-
-        final Iterable<Node> nodes = cardinalityState.nodes();
         final Map<String, Integer> labelsCount = new HashMap<>();
-        StreamSupport.stream(nodes.spliterator(), false)
-                .forEach(node -> GraphUtils.computeLabelsCount(node, labelsCount, roleFilter));
+        for (final String role : roleFilter) {
+            final long count = StreamSupport.stream(cardinalityState.nodesByLabel(role).spliterator(), false).count();
+            if (count > 0) {
+                labelsCount.put(role,
+                                (int) count);
+            }
+        }
         return labelsCount;
     }
 }
@@ -26,7 +26,7 @@ import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.GraphConnectionContext;
 import org.kie.workbench.common.stunner.core.rule.context.GraphEvaluationState;
@@ -35,7 +35,7 @@ import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
 import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 
 @ApplicationScoped
-public class GraphConnectionEvaluationHandler implements RuleEvaluationHandler<CanConnect, GraphConnectionContext> {
+public class GraphConnectionEvaluationHandler implements RoleBasedEvaluationHandler<CanConnect, GraphConnectionContext> {
 
     private final ConnectionEvaluationHandler connectionEvaluationHandler;
     private final GraphEvaluationHandlerUtils evalUtils;
@@ -62,6 +62,16 @@ public class GraphConnectionEvaluationHandler implements RuleEvaluationHandler<C
         return GraphConnectionContext.class;
     }
 
+    @Override
+    public String getRole(final CanConnect rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final GraphConnectionContext context) {
+        return evalUtils.getLabels(context.getConnector());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public boolean accepts(final CanConnect rule,
@@ -28,7 +28,7 @@ import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.definition.Definition;
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.NodeContainmentContext;
 import org.kie.workbench.common.stunner.core.rule.context.impl.RuleEvaluationContextBuilder;
@@ -38,7 +38,7 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import static org.kie.workbench.common.stunner.core.rule.handler.impl.GraphEvaluationHandlerUtils.addViolationsSourceUUID;
 
 @ApplicationScoped
-public class NodeContainmentEvaluationHandler implements RuleEvaluationHandler<CanContain, NodeContainmentContext> {
+public class NodeContainmentEvaluationHandler implements RoleBasedEvaluationHandler<CanContain, NodeContainmentContext> {
 
     private final ContainmentEvaluationHandler containmentHandler;
     private final GraphEvaluationHandlerUtils evalUtils;
@@ -65,6 +65,16 @@ public class NodeContainmentEvaluationHandler implements RuleEvaluationHandler<C
         return NodeContainmentContext.class;
     }
 
+    @Override
+    public String getRole(final CanContain rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final NodeContainmentContext context) {
+        return evalUtils.getLabels(context.getParent());
+    }
+
     @Override
     public boolean accepts(final CanContain rule,
                            final NodeContainmentContext context) {
@@ -26,7 +26,7 @@ import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.definition.Definition;
-import org.kie.workbench.common.stunner.core.rule.RuleEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.RoleBasedEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.NodeDockingContext;
 import org.kie.workbench.common.stunner.core.rule.context.impl.RuleEvaluationContextBuilder;
@@ -34,7 +34,7 @@ import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
 import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 
 @ApplicationScoped
-public class NodeDockingEvaluationHandler implements RuleEvaluationHandler<CanDock, NodeDockingContext> {
+public class NodeDockingEvaluationHandler implements RoleBasedEvaluationHandler<CanDock, NodeDockingContext> {
 
     private final DockingEvaluationHandler dockingHandler;
     private final GraphEvaluationHandlerUtils evalUtils;
@@ -61,6 +61,16 @@ public class NodeDockingEvaluationHandler implements RuleEvaluationHandler<CanDo
         return NodeDockingContext.class;
     }
 
+    @Override
+    public String getRole(final CanDock rule) {
+        return rule.getRole();
+    }
+
+    @Override
+    public Set<String> getRoles(final NodeDockingContext context) {
+        return evalUtils.getLabels(context.getParent());
+    }
+
     @Override
     public boolean accepts(final CanDock rule,
                            final NodeDockingContext context) {
@@ -34,6 +34,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -115,6 +116,20 @@ public class MorphNodeCommandTest extends AbstractGraphCommandTest {
         assertTrue(labels.contains(NEW_DEFINITION_LABEL));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecuteIndexesNewLabels() {
+        labels.add(CURRENT_DEFINITION_ID);
+        graph.addNode(candidate);
+        assertTrue(graph.nodesByLabel(CURRENT_DEFINITION_ID).iterator().hasNext());
+
+        tested.execute(graphCommandExecutionContext);
+
+        assertEquals(candidate, graph.getNode(UUID));
+        assertFalse(graph.nodesByLabel(CURRENT_DEFINITION_ID).iterator().hasNext());
+        assertEquals(candidate, graph.nodesByLabel(NEW_DEFINITION_LABEL).iterator().next());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testUndo() {
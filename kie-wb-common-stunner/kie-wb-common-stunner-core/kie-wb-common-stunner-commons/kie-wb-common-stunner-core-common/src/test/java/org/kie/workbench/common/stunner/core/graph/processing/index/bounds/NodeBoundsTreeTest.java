@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NodeBoundsTreeTest {
+
+    @Test
+    public void testEmpty() {
+        final NodeBoundsTree tree = new NodeBoundsTree(new double[0],
+                                                       new double[0],
+                                                       new double[0],
+                                                       new double[0],
+                                                       0);
+
+        assertEquals(-1,
+                     tree.lastAt(0,
+                                 0));
+    }
+
+    @Test
+    public void testLastAt() {
+        final NodeBoundsTree tree = new NodeBoundsTree(new double[]{0, 10, 50},
+                                                       new double[]{0, 10, 50},
+                                                       new double[]{100, 20, 60},
+                                                       new double[]{100, 20, 60},
+                                                       3);
+
+        assertEquals(1,
+                     tree.lastAt(10,
+                                 20));
+        assertEquals(2,
+                     tree.lastAt(55,
+                                 55));
+        assertEquals(0,
+                     tree.lastAt(90,
+                                 90));
+        assertEquals(-1,
+                     tree.lastAt(101,
+                                 50));
+    }
+
+    @Test
+    public void testLastAtAsScan() {
+        final Random random = new Random(7);
+        final int size = 2000;
+        final double[] minX = new double[size];
+        final double[] minY = new double[size];
+        final double[] maxX = new double[size];
+        final double[] maxY = new double[size];
+        for (int i = 0; i < size; i++) {
+            // Some large boxes, as containers
+            final double extent = random.nextInt(20) == 0 ? 400 : 40;
+            minX[i] = random.nextDouble() * 1000;
+            minY[i] = random.nextDouble() * 1000;
+            maxX[i] = minX[i] + random.nextDouble() * extent;
+            maxY[i] = minY[i] + random.nextDouble() * extent;
+        }
+        final NodeBoundsTree tree = new NodeBoundsTree(minX,
+                                                       minY,
+                                                       maxX,
+                                                       maxY,
+                                                       size);
+        assertEquals(3,
+                     tree.getHeight());
+
+        for (int q = 0; q < 1000; q++) {
+            final double x = random.nextDouble() * 1100;
+            final double y = random.nextDouble() * 1100;
+            int expected = -1;
+            for (int i = 0; i < size; i++) {
+                if (x >= minX[i] && x <= maxX[i] && y >= minY[i] && y <= maxY[i]) {
+                    expected = i;
+                }
+            }
+            assertEquals(expected,
+                         tree.lastAt(x,
+                                     y));
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.kie.workbench.common.stunner.core.TestingGraphInstanceBuilder;
 import org.kie.workbench.common.stunner.core.TestingGraphMockHandler;
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.GraphBoundsIndexerImpl;
@@ -34,7 +35,13 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class GraphBoundsIndexerImplTest {
@@ -127,4 +134,94 @@ public class GraphBoundsIndexerImplTest {
                      size[1],
                      0.001);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAtAfterBuild() {
+        assertNull(graphBoundsIndexerImpl.getAt(220,
+                                                220));
+
+        ((View) graphInstanceParent.endNode.getContent()).setBounds(Bounds.create(200,
+                                                                                  200,
+                                                                                  250,
+                                                                                  250));
+        assertNull(graphBoundsIndexerImpl.getAt(220,
+                                                220));
+
+        graphBoundsIndexerImpl.build(graphInstanceParent.graph);
+
+        assertEquals(graphInstanceParent.endNode,
+                     graphBoundsIndexerImpl.getAt(220,
+                                                  220));
+        assertNotEquals(graphInstanceParent.endNode,
+                        graphBoundsIndexerImpl.getAt(50,
+                                                     50));
+    }
+
+    @Test
+    public void testGetAtRoot() {
+        graphBoundsIndexerImpl.setRootUUID(graphInstanceParent.parentNode.getUUID());
+
+        assertEquals(graphInstanceParent.parentNode,
+                     graphBoundsIndexerImpl.getAt(500,
+                                                  500));
+    }
+
+    @Test
+    public void testIndexIsKeptWhileTheGraphIsUnchanged() {
+        final ChildrenTraverseProcessor childrenTraverseProcessor = spy(new ChildrenTraverseProcessorImpl(new TreeWalkTraverseProcessorImpl()));
+        final GraphBoundsIndexerImpl indexer = new GraphBoundsIndexerImpl(childrenTraverseProcessor);
+
+        for (int i = 0; i < 3; i++) {
+            indexer.setRootUUID(graphInstanceParent.parentNode.getUUID()).build(graphInstanceParent.graph);
+            indexer.getAt(50,
+                          50);
+        }
+        indexer.setRootUUID(null).build(graphInstanceParent.graph);
+        indexer.getAt(50,
+                      50);
+        indexer.getTrimmedBounds();
+
+        verify(childrenTraverseProcessor,
+               times(1)).traverse(eq(graphInstanceParent.graph),
+                                  any());
+
+        ((View) graphInstanceParent.endNode.getContent()).setBounds(Bounds.create(200,
+                                                                                  200,
+                                                                                  250,
+                                                                                  250));
+        indexer.build(graphInstanceParent.graph);
+
+        assertEquals(graphInstanceParent.endNode,
+                     indexer.getAt(220,
+                                   220));
+        verify(childrenTraverseProcessor,
+               times(2)).traverse(eq(graphInstanceParent.graph),
+                                  any());
+
+        graphInstanceParent.graph.removeNode(graphInstanceParent.endNode.getUUID());
+        indexer.build(graphInstanceParent.graph);
+        indexer.getAt(220,
+                      220);
+
+        verify(childrenTraverseProcessor,
+               times(3)).traverse(eq(graphInstanceParent.graph),
+                                  any());
+    }
+
+    @Test
+    public void testTrimmedBoundsFollowTheRoot() {
+        final double[] graphBounds = graphBoundsIndexerImpl.getTrimmedBounds();
+
+        graphBoundsIndexerImpl.setRootUUID("not-a-node");
+        final double[] emptyBounds = graphBoundsIndexerImpl.getTrimmedBounds();
+
+        graphBoundsIndexerImpl.setRootUUID(null);
+
+        assertEquals(Double.MAX_VALUE,
+                     emptyBounds[0],
+                     0.001);
+        assertEquals(graphBounds[2],
+                     graphBoundsIndexerImpl.getTrimmedBounds()[2],
+                     0.001);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.step03;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.OrientedEdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.Vertex;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayer;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayerImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.LayeredGraph;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.OrientedEdge;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexedLayersTest {
+
+    private GraphLayerImpl top;
+    private GraphLayerImpl bottom;
+    private List<OrientedEdge> edges;
+    private List<GraphLayer> layers;
+
+    @Before
+    public void setUp() {
+        /*
+         *       A           B
+         *      /\\         /
+         *     /  \ -------+ --
+         *    / /-- +-----/    \
+         *   / /     \          \
+         *  D         E          F
+         * */
+        top = new GraphLayerImpl(0);
+        top.addNewVertex("A");
+        top.addNewVertex("B");
+
+        bottom = new GraphLayerImpl(1);
+        bottom.addNewVertex("D");
+        bottom.addNewVertex("E");
+        bottom.addNewVertex("F");
+
+        edges = new ArrayList<>();
+        edges.add(new OrientedEdgeImpl("A", "D"));
+        edges.add(new OrientedEdgeImpl("E", "A"));
+        edges.add(new OrientedEdgeImpl("A", "F"));
+        edges.add(new OrientedEdgeImpl("D", "B"));
+
+        layers = Arrays.asList(top, bottom);
+    }
+
+    @Test
+    public void testFlat() {
+        final IndexedLayers indexed = new IndexedLayers(layers, edges);
+
+        final int length = indexed.flat(0, 1);
+
+        Assertions.assertThat(Arrays.copyOf(indexed.getEntries(), length))
+                .containsExactly(0, 1, 2, 0);
+    }
+
+    @Test
+    public void testCrossing() {
+        final LayerCrossingCount cc = new LayerCrossingCount();
+        final IndexedLayers indexed = new IndexedLayers(layers, edges);
+
+        assertEquals(cc.crossing(edges, top, bottom), cc.crossing(indexed, 0, 1));
+        assertEquals(2, cc.crossing(indexed));
+
+        indexed.swap(1, 0, 1);
+        bottom.getVertices().add(0, bottom.getVertices().remove(1));
+
+        assertEquals(cc.crossing(edges, top, bottom), cc.crossing(indexed, 0, 1));
+    }
+
+    @Test
+    public void testCrossingDeltaMatchesRecount() {
+        final LayerCrossingCount cc = new LayerCrossingCount();
+        final Random random = new Random(7);
+
+        for (int graph = 0; graph < 200; graph++) {
+            final GraphLayerImpl north = newLayer(0, "N", 1 + random.nextInt(6));
+            final GraphLayerImpl south = newLayer(1, "S", 2 + random.nextInt(8));
+            final GraphLayerImpl other = newLayer(2, "O", 1 + random.nextInt(3));
+            final List<GraphLayer> randomLayers = Arrays.asList(north, south, other);
+            final List<OrientedEdge> randomEdges = new ArrayList<>();
+            final int edgesCount = random.nextInt(20);
+            for (int e = 0; e < edgesCount; e++) {
+                // Some edges do not reach the other layer: they are -1 entries in the crossing count
+                final String from = randomId(random, north, south);
+                final String to = random.nextInt(4) == 0 ? randomId(random, north, other) : randomId(random, north, south);
+                randomEdges.add(random.nextBoolean() ? new OrientedEdgeImpl(from, to) : new OrientedEdgeImpl(to, from));
+            }
+            if (random.nextInt(4) == 0) {
+                randomEdges.add(new OrientedEdgeImpl(randomId(random, north, south), "outside"));
+            }
+            final IndexedLayers indexed = new IndexedLayers(randomLayers, randomEdges);
+
+            for (int swap = 0; swap < 20; swap++) {
+                final int southLayer = random.nextInt(2);
+                final int northLayer = 1 - southLayer;
+                if (indexed.getLayerSize(southLayer) < 2) {
+                    continue;
+                }
+                final int position = 1 + random.nextInt(indexed.getLayerSize(southLayer) - 1);
+                final int before = cc.crossing(indexed, northLayer, southLayer);
+                assertEquals(cc.crossing(randomEdges, randomLayers.get(northLayer), randomLayers.get(southLayer)), before);
+
+                final int delta = cc.crossingDelta(indexed, northLayer, southLayer, position);
+                indexed.swap(southLayer, position, position - 1);
+                final GraphLayer swapped = randomLayers.get(southLayer);
+                swapped.getVertices().add(position - 1, swapped.getVertices().remove(position));
+
+                final int after = cc.crossing(indexed, northLayer, southLayer);
+                assertEquals(cc.crossing(randomEdges, randomLayers.get(northLayer), randomLayers.get(southLayer)), after);
+                assertEquals(after - before, delta);
+            }
+        }
+    }
+
+    @Test
+    public void testConnectedPositions() {
+        edges.add(new OrientedEdgeImpl("F", "A"));
+        final IndexedLayers indexed = new IndexedLayers(layers, edges);
+
+        final int size = indexed.connectedPositions(indexed.getVertex(0, 0), 1);
+
+        Assertions.assertThat(Arrays.copyOf(indexed.getBuffer(), size))
+                .containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void testSortByMedianIsStable() {
+        final IndexedLayers indexed = new IndexedLayers(layers, edges);
+        final int d = indexed.getVertex(1, 0);
+        final int e = indexed.getVertex(1, 1);
+        final int f = indexed.getVertex(1, 2);
+        indexed.setMedian(d, 1);
+        indexed.setMedian(e, 0.5);
+        indexed.setMedian(f, 1);
+
+        indexed.sortByMedian(1);
+
+        assertEquals(e, indexed.getVertex(1, 0));
+        assertEquals(d, indexed.getVertex(1, 1));
+        assertEquals(f, indexed.getVertex(1, 2));
+    }
+
+    @Test
+    public void testCopyAndToLayers() {
+        final IndexedLayers indexed = new IndexedLayers(layers, edges);
+        final IndexedLayers copy = indexed.copy();
+
+        indexed.swap(0, 0, 1);
+        indexed.setMedian(indexed.getVertex(0, 0), 1.5);
+
+        final List<GraphLayer> result = indexed.toLayers();
+        assertEquals(0, result.get(0).getLevel());
+        Assertions.assertThat(result.get(0).getVertices())
+                .extracting(Vertex::getId)
+                .containsExactly("B", "A");
+        final Vertex b = new Vertex("B");
+        b.setMedian(1.5);
+        assertEquals(b, result.get(0).getVertices().get(0));
+        Assertions.assertThat(result.get(1).getVertices())
+                .extracting(Vertex::getId)
+                .containsExactly("D", "E", "F");
+
+        Assertions.assertThat(copy.toLayers().get(0).getVertices())
+                .extracting(Vertex::getId)
+                .containsExactly("A", "B");
+    }
+
+    @Test
+    public void testReorder() {
+        final IndexedLayers indexed = new IndexedLayers(layers, edges);
+        final List<GraphLayer> ordered = indexed.toLayers();
+        ordered.get(1).getVertices().sort((v1, v2) -> v2.getId().compareTo(v1.getId()));
+
+        indexed.reorder(ordered);
+
+        Assertions.assertThat(indexed.toLayers().get(1).getVertices())
+                .extracting(Vertex::getId)
+                .containsExactly("F", "E", "D");
+        final LayerCrossingCount cc = new LayerCrossingCount();
+        assertEquals(cc.crossing(edges, ordered.get(0), ordered.get(1)), cc.crossing(indexed));
+    }
+
+    @Test
+    public void testOrderVerticesWithVirtualVertices() {
+        final LayeredGraph graph = new LayeredGraph();
+        graph.addEdge("A", "B");
+        graph.addEdge("A", "C");
+
+        final GraphLayerImpl layer01 = new GraphLayerImpl(1);
+        layer01.addNewVertex("A");
+        graph.getLayers().add(layer01);
+        final GraphLayerImpl layer02 = new GraphLayerImpl(2);
+        layer02.addNewVertex("B");
+        graph.getLayers().add(layer02);
+        final GraphLayerImpl layer03 = new GraphLayerImpl(3);
+        layer03.addNewVertex("C");
+        graph.getLayers().add(layer03);
+
+        final LayerCrossingCount cc = new LayerCrossingCount();
+        new DefaultVertexOrdering(new MedianVertexLayerPositioning(),
+                                  cc,
+                                  new VerticesTransposer(cc)).orderVertices(graph);
+
+        Assertions.assertThat(graph.getLayers().get(1).getVertices())
+                .extracting(Vertex::getId, Vertex::isVirtual)
+                .containsExactly(Assertions.tuple("B", false),
+                                 Assertions.tuple("V0", true));
+        Assertions.assertThat(graph.getEdges())
+                .containsExactly(new OrientedEdgeImpl("A", "B"),
+                                 new OrientedEdgeImpl("A", "V0"),
+                                 new OrientedEdgeImpl("V0", "C"));
+    }
+
+    private static GraphLayerImpl newLayer(final int level,
+                                           final String prefix,
+                                           final int size) {
+        final GraphLayerImpl layer = new GraphLayerImpl(level);
+        for (int i = 0; i < size; i++) {
+            layer.addNewVertex(prefix + i);
+        }
+        return layer;
+    }
+
+    private static String randomId(final Random random,
+                                   final GraphLayer first,
+                                   final GraphLayer second) {
+        final int index = random.nextInt(first.getVertices().size() + second.getVertices().size());
+        return index < first.getVertices().size() ?
+                first.getVertices().get(index).getId() :
+                second.getVertices().get(index - first.getVertices().size()).getId();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.step03;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.core.graph.processing.layout.OrientedEdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayer;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.GraphLayerImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.layout.sugiyama.LayeredGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link DefaultVertexOrdering#orderVertices} and the crossing count of all the layers of synthetic layered DAGs, with
+ * about sqrt(vertices) layers and one in ten edges going across two layers.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VertexOrderingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int vertices;
+
+    private LayerCrossingCount crossingCount;
+    private DefaultVertexOrdering ordering;
+    private IndexedLayers indexed;
+
+    @Setup
+    public void setUp() {
+        crossingCount = new LayerCrossingCount();
+        ordering = new DefaultVertexOrdering(new MedianVertexLayerPositioning(),
+                                             crossingCount,
+                                             new VerticesTransposer(crossingCount));
+        final LayeredGraph graph = createGraph(vertices);
+        indexed = new IndexedLayers(graph.getLayers(),
+                                    graph.getEdges());
+    }
+
+    @Benchmark
+    public List<GraphLayer> orderVertices(final Graph state) {
+        ordering.orderVertices(state.graph);
+        return state.graph.getLayers();
+    }
+
+    @Benchmark
+    public int crossing() {
+        return crossingCount.crossing(indexed);
+    }
+
+    /**
+     * A new graph for each call, the ordering changes the layers and the edges of the graph.
+     */
+    @State(Scope.Thread)
+    public static class Graph {
+
+        private LayeredGraph graph;
+
+        @Setup(Level.Invocation)
+        public void setUp(final VertexOrderingBenchmark benchmark) {
+            graph = createGraph(benchmark.vertices);
+        }
+    }
+
+    static LayeredGraph createGraph(final int vertices) {
+        final Random random = new Random(vertices);
+        final int layersCount = Math.max(2, (int) Math.sqrt(vertices));
+        final LayeredGraph graph = new LayeredGraph();
+        final List<List<String>> layers = new ArrayList<>();
+        for (int i = 0; i < vertices; i++) {
+            if (i < layersCount) {
+                layers.add(new ArrayList<>());
+                graph.getLayers().add(new GraphLayerImpl(i));
+            }
+            final int layer = i < layersCount ? i : random.nextInt(layersCount);
+            final String vertex = "v" + i;
+            layers.get(layer).add(vertex);
+            ((GraphLayerImpl) graph.getLayers().get(layer)).addNewVertex(vertex);
+        }
+
+        final Set<String> edges = new HashSet<>();
+        for (int layer = 0; layer < layersCount - 1; layer++) {
+            for (final String vertex : layers.get(layer)) {
+                final int targets = 1 + random.nextInt(2);
+                for (int i = 0; i < targets; i++) {
+                    final int targetLayer = layer + (layer < layersCount - 2 && random.nextInt(10) == 0 ? 2 : 1);
+                    final List<String> candidates = layers.get(targetLayer);
+                    final String target = candidates.get(random.nextInt(candidates.size()));
+                    if (edges.add(vertex + "->" + target)) {
+                        graph.getEdges().add(new OrientedEdgeImpl(vertex,
+                                                                  target));
+                    }
+                }
+            }
+        }
+        return graph;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(VertexOrderingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GraphNodeStoreImplTest {
+
+    private GraphNodeStoreImpl tested;
+    private Node node1;
+    private Node node2;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        tested = new GraphNodeStoreImpl();
+        node1 = new NodeImpl<>("node1");
+        node1.getLabels().add("label1");
+        node1.getLabels().add("all");
+        node2 = new NodeImpl<>("node2");
+        node2.getLabels().add("label2");
+        node2.getLabels().add("all");
+        tested.add(node1);
+    }
+
+    @Test
+    public void testGetByLabel() {
+        tested.add(node2);
+
+        assertThat(tested.getByLabel("all")).containsExactlyInAnyOrder(node1, node2);
+        assertThat(tested.getByLabel("label1")).containsExactly(node1);
+        assertThat(tested.getByLabel("label3")).isEmpty();
+    }
+
+    @Test
+    public void testGetByLabelAfterUpdates() {
+        assertThat(tested.getByLabel("all")).containsExactly(node1);
+
+        tested.add(node2);
+        assertThat(tested.getByLabel("label2")).containsExactly(node2);
+
+        tested.remove("node1");
+        assertThat(tested.getByLabel("all")).containsExactly(node2);
+        assertThat(tested.getByLabel("label1")).isEmpty();
+
+        final Node other = new NodeImpl<>("node2");
+        tested.add(other);
+        assertThat(tested.getByLabel("label2")).isEmpty();
+        assertThat(tested.getByLabel("all")).isEmpty();
+
+        tested.clear();
+        tested.add(node1);
+        assertThat(tested.getByLabel("label1")).containsExactly(node1);
+    }
+}
@@ -96,7 +96,6 @@ public class CachedRuleManagerTest {
         when(ruleSet.getName()).thenReturn("testRuleSet");
         when(ruleSet.getRules()).thenReturn(Arrays.asList(containmentRule, connectionRule));
         tested = new CachedRuleManager(delegate);
-        tested.init();
     }
 
     @Test
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.registry.impl.RuleHandlerRegistryImpl;
+import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.context.impl.RuleEvaluationContextBuilder;
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtensionHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
+import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.RuleSetImpl;
+import org.kie.workbench.common.stunner.core.rule.violations.ContainmentRuleViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.ContextOperationNotAllowedViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+import org.mockito.InOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompiledContextRulesTest {
+
+    private static final CanContain CONTAIN_IN_ROLE1 = new CanContain("cont1",
+                                                                      "role1",
+                                                                      Collections.singleton("child1"));
+    private static final CanContain CONTAIN_IN_ROLE2 = new CanContain("cont2",
+                                                                      "role2",
+                                                                      Collections.singleton("child2"));
+    private static final CanContain OTHER_CONTAIN_IN_ROLE1 = new CanContain("cont3",
+                                                                            "role1",
+                                                                            Collections.singleton("child3"));
+    private static final CanConnect CONNECTION = new CanConnect("conn1",
+                                                                "role1",
+                                                                Collections.singletonList(new CanConnect.PermittedConnection("role1",
+                                                                                                                             "role2")));
+
+    private ContainmentEvaluationHandler containmentHandler;
+    private RuleExtensionHandler extensionHandler;
+    private RuleExtension extension;
+    private RuleHandlerRegistryImpl registry;
+
+    @Before
+    public void setup() {
+        containmentHandler = spy(new ContainmentEvaluationHandler());
+        extensionHandler = mock(RuleExtensionHandler.class);
+        when(extensionHandler.getExtensionType()).thenReturn(RuleExtensionHandler.class);
+        when(extensionHandler.getContextType()).thenReturn(ContainmentContext.class);
+        extension = new RuleExtension("ext1",
+                                      "role1").setHandlerType(RuleExtensionHandler.class);
+        registry = new RuleHandlerRegistryImpl();
+        registry.register(containmentHandler);
+        registry.register(new ConnectionEvaluationHandler());
+        registry.register(extensionHandler);
+    }
+
+    @Test
+    public void testEvaluateOnlyTheRulesForTheContextRoles() {
+        final List<Rule> rules = Arrays.asList(CONTAIN_IN_ROLE1,
+                                               CONNECTION,
+                                               CONTAIN_IN_ROLE2,
+                                               OTHER_CONTAIN_IN_ROLE1);
+        final CompiledContextRules tested = CompiledContextRules.compile(rules,
+                                                                         registry,
+                                                                         containment("role1",
+                                                                                     "child1"));
+
+        final ContainmentContext context = containment("role1",
+                                                       "child1");
+        final RuleViolations violations = tested.evaluate(context);
+
+        verify(containmentHandler).accepts(eq(CONTAIN_IN_ROLE1),
+                                           eq(context));
+        verify(containmentHandler).accepts(eq(OTHER_CONTAIN_IN_ROLE1),
+                                           eq(context));
+        verify(containmentHandler, never()).accepts(eq(CONTAIN_IN_ROLE2),
+                                                    any(ContainmentContext.class));
+        // Only the other rule for role1 does not allow child1
+        assertEquals(1,
+                     count(violations));
+        assertTrue(violations.violations().iterator().next() instanceof ContainmentRuleViolation);
+    }
+
+    @Test
+    public void testEvaluateSeveralContextRoles() {
+        final CompiledContextRules tested = CompiledContextRules.compile(Arrays.asList(CONTAIN_IN_ROLE1,
+                                                                                       CONTAIN_IN_ROLE2,
+                                                                                       OTHER_CONTAIN_IN_ROLE1),
+                                                                         registry,
+                                                                         containment("role1",
+                                                                                     "child1"));
+
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(new HashSet<>(Arrays.asList("role1",
+                                                                                                                              "role2")),
+                                                                                                 Collections.singleton("child2"));
+        final RuleViolations violations = tested.evaluate(context);
+
+        verify(containmentHandler, times(3)).evaluate(any(CanContain.class),
+                                                      eq(context));
+        assertEquals(2,
+                     count(violations));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEvaluateEachRuleBySeveralHandlers() {
+        final RuleEvaluationHandler otherHandler = mock(RuleEvaluationHandler.class);
+        when(otherHandler.getRuleType()).thenReturn(CanContain.class);
+        when(otherHandler.getContextType()).thenReturn(ContainmentContext.class);
+        when(otherHandler.accepts(any(CanContain.class),
+                                  any(ContainmentContext.class))).thenReturn(true);
+        final RuleViolation[] otherViolations = new RuleViolation[3];
+        final List<Rule> rules = Arrays.asList(CONTAIN_IN_ROLE1,
+                                               CONTAIN_IN_ROLE2,
+                                               OTHER_CONTAIN_IN_ROLE1);
+        for (int i = 0; i < rules.size(); i++) {
+            otherViolations[i] = mock(RuleViolation.class);
+            when(otherHandler.evaluate(eq(rules.get(i)),
+                                       any(ContainmentContext.class))).thenReturn(new DefaultRuleViolations().addViolation(otherViolations[i]));
+        }
+        registry.register(otherHandler);
+
+        final CompiledContextRules tested = CompiledContextRules.compile(rules,
+                                                                         registry,
+                                                                         containment("role1",
+                                                                                     "child1"));
+        final ContainmentContext context = containment("role1",
+                                                       "child1");
+        final List<RuleViolation> violations = toList(tested.evaluate(context));
+
+        // Each rule by all its handlers, in the registry order, before the next rule
+        final InOrder inOrder = inOrder(containmentHandler,
+                                        otherHandler);
+        inOrder.verify(containmentHandler).evaluate(eq(CONTAIN_IN_ROLE1),
+                                                    eq(context));
+        inOrder.verify(otherHandler).evaluate(eq(CONTAIN_IN_ROLE1),
+                                              eq(context));
+        inOrder.verify(otherHandler).evaluate(eq(CONTAIN_IN_ROLE2),
+                                              eq(context));
+        inOrder.verify(containmentHandler).evaluate(eq(OTHER_CONTAIN_IN_ROLE1),
+                                                    eq(context));
+        inOrder.verify(otherHandler).evaluate(eq(OTHER_CONTAIN_IN_ROLE1),
+                                              eq(context));
+
+        final List<RuleViolation> expected = toList(new RuleManagerImpl(registry).evaluate(new RuleSetImpl("rules",
+                                                                                                           rules),
+                                                                                           context));
+        assertEquals(4,
+                     violations.size());
+        assertEquals(expected.size(),
+                     violations.size());
+        assertSame(otherViolations[0],
+                   violations.get(0));
+        assertSame(otherViolations[1],
+                   violations.get(1));
+        assertTrue(violations.get(2) instanceof ContainmentRuleViolation);
+        assertSame(otherViolations[2],
+                   violations.get(3));
+        for (int i = 0; i < violations.size(); i++) {
+            assertEquals(expected.get(i).getClass(),
+                         violations.get(i).getClass());
+        }
+    }
+
+    @Test
+    public void testDefaultDenyWhenNoRulesAccepted() {
+        final CompiledContextRules tested = CompiledContextRules.compile(Arrays.asList(CONTAIN_IN_ROLE1,
+                                                                                       extension),
+                                                                         registry,
+                                                                         containment("role1",
+                                                                                     "child1"));
+
+        final RuleViolations violations = tested.evaluate(containment("role3",
+                                                                      "child1"));
+
+        assertEquals(1,
+                     count(violations));
+        assertTrue(violations.violations().iterator().next() instanceof ContextOperationNotAllowedViolation);
+        verify(extensionHandler, never()).evaluate(any(RuleExtension.class),
+                                                   any(ContainmentContext.class));
+    }
+
+    @Test
+    public void testEvaluateExtensions() {
+        final CompiledContextRules tested = CompiledContextRules.compile(Arrays.asList(CONTAIN_IN_ROLE1,
+                                                                                       extension),
+                                                                         registry,
+                                                                         containment("role1",
+                                                                                     "child1"));
+        final ContainmentContext context = containment("role1",
+                                                       "child1");
+        when(extensionHandler.accepts(eq(extension),
+                                      eq(context))).thenReturn(true);
+
+        tested.evaluate(context);
+
+        verify(extensionHandler).evaluate(eq(extension),
+                                          eq(context));
+    }
+
+    @Test
+    public void testNoRulesForTheContextType() {
+        final CompiledContextRules tested = CompiledContextRules.compile(Collections.singletonList(CONNECTION),
+                                                                         registry,
+                                                                         containment("role1",
+                                                                                     "child1"));
+
+        assertTrue(tested.isEmpty());
+        assertFalse(tested.evaluate(containment("role1",
+                                                "child1")).violations().iterator().hasNext());
+    }
+
+    private static ContainmentContext containment(final String parentRole,
+                                                  final String candidateRole) {
+        return RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton(parentRole),
+                                                                       Collections.singleton(candidateRole));
+    }
+
+    private static List<RuleViolation> toList(final RuleViolations violations) {
+        final List<RuleViolation> result = new ArrayList<>();
+        violations.violations().forEach(result::add);
+        return result;
+    }
+
+    private static int count(final RuleViolations violations) {
+        int count = 0;
+        for (final RuleViolation ignored : violations.violations()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -34,6 +34,7 @@ import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -76,6 +77,26 @@ public class StatefulGraphEvaluationStateTests {
         assertTrue(nodes.contains(someNewNode));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCardinalityStateByLabel() {
+        StatefulGraphEvaluationState.StatefulCardinalityState cardinalityState = tested.getCardinalityState();
+        NodeImpl someNewNode = new NodeImpl<>("someNewNodeUUID");
+        someNewNode.getLabels().add("all");
+        cardinalityState.add(someNewNode);
+        cardinalityState.add(new NodeImpl<>("otherNewNodeUUID"));
+        cardinalityState.delete(graphInstance.nodeA);
+        Set<Node> nodes = StreamSupport.stream(cardinalityState.nodesByLabel("all").spliterator(), false).collect(Collectors.toSet());
+        assertEquals(6, nodes.size());
+        assertTrue(nodes.contains(graphInstance.parentNode));
+        assertTrue(nodes.contains(graphInstance.containerNode));
+        assertTrue(nodes.contains(graphInstance.startNode));
+        assertTrue(nodes.contains(graphInstance.intermNode));
+        assertTrue(nodes.contains(graphInstance.endNode));
+        assertTrue(nodes.contains(someNewNode));
+        assertFalse(cardinalityState.nodesByLabel("nodeALabel").iterator().hasNext());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testConnectorCardinalityState() {
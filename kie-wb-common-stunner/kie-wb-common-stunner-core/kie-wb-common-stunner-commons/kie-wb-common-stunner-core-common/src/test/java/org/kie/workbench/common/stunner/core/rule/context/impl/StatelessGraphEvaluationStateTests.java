@@ -32,6 +32,7 @@ import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -70,6 +71,17 @@ public class StatelessGraphEvaluationStateTests {
         assertTrue(nodes.contains(graphInstance.nodeA));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCardinalityStateByLabel() {
+        StatelessGraphEvaluationState.StatelessCardinalityState cardinalityState = tested.getCardinalityState();
+        Set<Node> nodes = StreamSupport.stream(cardinalityState.nodesByLabel("startNodeLabel").spliterator(), false).collect(Collectors.toSet());
+        assertEquals(1, nodes.size());
+        assertTrue(nodes.contains(graphInstance.startNode));
+        assertEquals(6, StreamSupport.stream(cardinalityState.nodesByLabel("all").spliterator(), false).count());
+        assertFalse(cardinalityState.nodesByLabel("unknownLabel").iterator().hasNext());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testConnectorCardinalityState() {
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.bpmn.BPMNDefinitionSet;
+import org.kie.workbench.common.stunner.bpmn.definition.adapter.binding.BPMNDefinitionSetRuleAdapterImpl;
+import org.kie.workbench.common.stunner.core.registry.impl.RuleHandlerRegistryImpl;
+import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.CachedRuleManager;
+import org.kie.workbench.common.stunner.core.rule.Rule;
+import org.kie.workbench.common.stunner.core.rule.RuleEvaluationContext;
+import org.kie.workbench.common.stunner.core.rule.RuleManager;
+import org.kie.workbench.common.stunner.core.rule.RuleManagerImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleSet;
+import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.impl.RuleEvaluationContextBuilder;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.CardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.DockingEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.EdgeCardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
+import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
+import org.kie.workbench.common.stunner.core.rule.impl.EdgeOccurrences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The evaluation of the BPMN rule set by {@link RuleManagerImpl}, which goes through all the rules and handlers on
+ * each evaluation, and by {@link CachedRuleManager}, which evaluates the rules compiled for the context type.
+ * The contexts are the containment, docking, connection and edge cardinality checks done while dragging, connecting
+ * or showing the palette, one for each rule of the context type, with the roles the rule applies to.
+ * Run it from the IDE or with the main method, it is not executed by the surefire tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BPMNRuleEvaluationBenchmark {
+
+    @Param({"containment", "docking", "connection", "edgeCardinality"})
+    private String contextType;
+
+    private RuleSet ruleSet;
+    private RuleManager ruleManager;
+    private RuleManager cachedRuleManager;
+    private List<RuleEvaluationContext> contexts;
+
+    @Setup
+    public void setUp() {
+        final BPMNDefinitionSetRuleAdapterImpl ruleAdapter = new BPMNDefinitionSetRuleAdapterImpl();
+        ruleAdapter.init();
+        ruleSet = ruleAdapter.getRuleSet(new BPMNDefinitionSet());
+        ruleManager = new RuleManagerImpl(createRegistry());
+        cachedRuleManager = new CachedRuleManager(new RuleManagerImpl(createRegistry()));
+        contexts = createContexts(ruleSet,
+                                  contextType);
+    }
+
+    @Benchmark
+    public void ruleManager(final Blackhole blackhole) {
+        for (final RuleEvaluationContext context : contexts) {
+            blackhole.consume(ruleManager.evaluate(ruleSet,
+                                                   context));
+        }
+    }
+
+    @Benchmark
+    public void cachedRuleManager(final Blackhole blackhole) {
+        for (final RuleEvaluationContext context : contexts) {
+            blackhole.consume(cachedRuleManager.evaluate(ruleSet,
+                                                         context));
+        }
+    }
+
+    private static RuleHandlerRegistry createRegistry() {
+        final RuleHandlerRegistry registry = new RuleHandlerRegistryImpl();
+        registry.register(new ContainmentEvaluationHandler());
+        registry.register(new DockingEvaluationHandler());
+        registry.register(new ConnectionEvaluationHandler());
+        registry.register(new CardinalityEvaluationHandler());
+        registry.register(new EdgeCardinalityEvaluationHandler());
+        return registry;
+    }
+
+    private static List<RuleEvaluationContext> createContexts(final RuleSet ruleSet,
+                                                              final String contextType) {
+        final List<RuleEvaluationContext> contexts = new ArrayList<>();
+        for (final Rule rule : ruleSet.getRules()) {
+            if ("containment".equals(contextType) && rule instanceof CanContain) {
+                final CanContain canContain = (CanContain) rule;
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton(canContain.getRole()),
+                                                                                     canContain.getAllowedRoles()));
+            } else if ("docking".equals(contextType) && rule instanceof CanDock) {
+                final CanDock canDock = (CanDock) rule;
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.docking(Collections.singleton(canDock.getRole()),
+                                                                                 canDock.getAllowedRoles()));
+            } else if ("connection".equals(contextType) && rule instanceof CanConnect) {
+                final CanConnect canConnect = (CanConnect) rule;
+                for (final CanConnect.PermittedConnection connection : canConnect.getPermittedConnections()) {
+                    contexts.add(RuleEvaluationContextBuilder.DomainContexts.connection(canConnect.getRole(),
+                                                                                        Optional.of(Collections.singleton(connection.getStartRole())),
+                                                                                        Optional.of(Collections.singleton(connection.getEndRole()))));
+                }
+            } else if ("edgeCardinality".equals(contextType) && rule instanceof EdgeOccurrences) {
+                final EdgeOccurrences occurrences = (EdgeOccurrences) rule;
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.edgeCardinality(Collections.singleton(occurrences.getRole()),
+                                                                                         occurrences.getConnectorRole(),
+                                                                                         0,
+                                                                                         occurrences.getDirection(),
+                                                                                         Optional.of(CardinalityContext.Operation.ADD)));
+            }
+        }
+        return contexts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(BPMNRuleEvaluationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -190,8 +190,8 @@ public abstract class BaseDirectDiagramMarshaller implements DiagramMarshaller<G
 
             // the root node contains all of the information
             // needed to build the entire graph (including parent/child relationships)
-            // thus, we can now walk the graph to issue all the commands
-            // to draw it on our canvas
+            // thus, we can now walk the graph to load it
+            // directly into the graph store
             Diagram<Graph<DefinitionSet, Node>, Metadata> diagram =
                     typedFactoryManager.newDiagram(
                             definitionResolver.getDefinitions().getId(),
@@ -206,7 +206,7 @@ public abstract class BaseDirectDiagramMarshaller implements DiagramMarshaller<G
                             ruleManager,
                             commandFactory,
                             commandManager);
-            graphBuilder.render(diagramRoot);
+            graphBuilder.load(diagramRoot);
 
             LOG.debug("Diagram drawing completed successfully for:" + request);
             return MarshallingResponse.builder()
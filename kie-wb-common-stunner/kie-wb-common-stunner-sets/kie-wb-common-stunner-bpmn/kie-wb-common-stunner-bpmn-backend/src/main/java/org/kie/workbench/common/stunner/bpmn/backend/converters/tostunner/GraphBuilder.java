@@ -42,13 +42,19 @@ import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFact
 import org.kie.workbench.common.stunner.core.graph.command.impl.UpdateElementPositionCommand;
 import org.kie.workbench.common.stunner.core.graph.content.Bounds;
 import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
 import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
 import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.kie.workbench.common.stunner.core.rule.RuleManager;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +78,9 @@ import org.slf4j.LoggerFactory;
  * once all the conversions have took place: it traverses the entire directed graph described by the `BPMNNode`s
  * starting from the "root node", which represents the root of the diagram, and visiting
  * the parent/child relations in each BPMNNode and the `BPMNEdge` they may contain.
+ * <p>
+ * {@link GraphBuilder#load(BpmnNode)} walks the nodes the same way, but builds the graph
+ * directly into the graph store instead of issuing the commands.
  */
 public class GraphBuilder {
 
@@ -81,6 +90,8 @@ public class GraphBuilder {
     private final GraphCommandFactory commandFactory;
     private final GraphCommandManager commandManager;
     private final Graph<DefinitionSet, Node> graph;
+    private final GraphOperations commandOperations = new CommandOperations();
+    private final GraphOperations directOperations = new DirectOperations();
 
     public GraphBuilder(
             Graph<DefinitionSet, Node> graph,
@@ -107,14 +118,34 @@ public class GraphBuilder {
         buildGraph(root);
     }
 
+    /**
+     * Clears the graph and then walks the graph root
+     * to build it directly into the graph store, in a single pass.
+     * <p>
+     * No commands are issued, so there is no per-element
+     * command execution, index update or event. It is meant for
+     * the trusted node trees the converters produce: the commands
+     * issued by {@link #render(BpmnNode)} run on a
+     * {@link DirectGraphCommandExecutionContext}, which evaluates no rules,
+     * and the graph built here is the same one.
+     */
+    public void load(BpmnNode root) {
+        graph.clear();
+        buildGraph(root, directOperations);
+    }
+
     /**
      * Starting from the given root node,
      * it walks the graph breadth-first and issues
      * all the required commands to draw it on the canvas
      */
     public void buildGraph(BpmnNode rootNode) {
-        this.addNode(rootNode.value());
-        rootNode.getEdges().forEach(this::addEdge);
+        buildGraph(rootNode, commandOperations);
+    }
+
+    private void buildGraph(BpmnNode rootNode, GraphOperations operations) {
+        operations.addNode(rootNode.value());
+        rootNode.getEdges().forEach(edge -> addEdge(edge, operations));
         List<BpmnNode> nodes = rootNode.getChildren();
 
         Deque<BpmnNode> workingSet =
@@ -135,8 +166,8 @@ public class GraphBuilder {
                          current.getParent().value().getUUID(),
                          current.value().getUUID());
 
-            this.addChildNode(current);
-            current.getEdges().forEach(this::addEdge);
+            this.addChildNode(current, operations);
+            current.getEdges().forEach(edge -> addEdge(edge, operations));
         }
     }
 
@@ -154,18 +185,14 @@ public class GraphBuilder {
         return prioritized;
     }
 
-    private void addDockedNode(Node parent, Node candidate) {
-        AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
-        execute(addNodeCommand);
-    }
-
-    private void addChildNode(BpmnNode current) {
-        addChildNode(current.getParent().value(), current.value());
+    private void addChildNode(BpmnNode current, GraphOperations operations) {
+        operations.addChildNode(current.getParent().value(), current.value());
         if (!current.isDocked()) {
             Point2D translationFactors = calculateTranslationFactors(current);
             translate(
                     current.value(),
-                    translationFactors.getX(), translationFactors.getY());
+                    translationFactors.getX(), translationFactors.getY(),
+                    operations);
         }
     }
 
@@ -183,11 +210,6 @@ public class GraphBuilder {
         return Point2D.create(xFactor, yFactor);
     }
 
-    private void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
-        AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
-        execute(addChildNodeCommand);
-    }
-
     /**
      * Move node into a new coordinate system with origin in newOrigin.
      * <p>
@@ -195,7 +217,7 @@ public class GraphBuilder {
      * If we move node into a new coordinate system where the origin is in (3, 4)
      * then the new coordinates for node are: (10-3, 11-4) = (7,7)
      */
-    private void translate(Node<? extends View, ?> node, double deltaX, double deltaY) {
+    private void translate(Node<? extends View, ?> node, double deltaX, double deltaY, GraphOperations operations) {
 
         logger.debug("Translating {} from {} with (deltaX,deltaY) ({},{})",
                      node.getUUID(), node.getContent().getBounds(), deltaX, deltaX);
@@ -205,59 +227,7 @@ public class GraphBuilder {
         double constrainedY = childBounds.getUpperLeft().getY() - deltaY;
 
         Point2D coords = Point2D.create(constrainedX, constrainedY);
-        updatePosition(node, coords);
-    }
-
-    private void updatePosition(Node node, Point2D position) {
-        UpdateElementPositionCommand updateElementPositionCommand =
-                commandFactory.updatePosition(node, position);
-        execute(updateElementPositionCommand);
-    }
-
-    private void addNode(Node node) {
-        AddNodeCommand addNodeCommand = commandFactory.addNode(node);
-        execute(addNodeCommand);
-    }
-
-    @SuppressWarnings("unchecked")
-    private void addEdge(
-            Edge<? extends View<?>, Node> edge,
-            Node source,
-            Connection sourceConnection,
-            List<Point2D> controlPoints,
-            Node target,
-            Connection targetConnection) {
-        final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder =
-                new DeferredCompositeCommand.Builder<>();
-        addConnector(commandBuilder, source, edge, sourceConnection);
-        final ControlPoint[] cps = new ControlPoint[controlPoints.size()];
-        for (int i = 0; i < cps.length; i++) {
-            final ControlPoint cp = ControlPoint.build(controlPoints.get(i));
-            addControlPoint(commandBuilder, edge, cp, i);
-        }
-        setTargetNode(commandBuilder, target, edge, targetConnection);
-        execute(commandBuilder.build());
-    }
-
-    private void addConnector(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
-                              final Node<? extends View<?>, Edge> sourceNode,
-                              final Edge<? extends View<?>, Node> edge,
-                              final Connection connection) {
-        commandBuilder.deferCommand(() -> commandFactory.addConnector(sourceNode, edge, connection));
-    }
-
-    private void setTargetNode(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
-                               final Node<? extends View<?>, Edge> targetNode,
-                               final Edge<? extends View<?>, Node> edge,
-                               final Connection connection) {
-        commandBuilder.deferCommand(() -> commandFactory.setTargetNode(targetNode, edge, connection));
-    }
-
-    private void addControlPoint(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
-                                 final Edge edge,
-                                 final ControlPoint controlPoint,
-                                 final int index) {
-        commandBuilder.deferCommand(() -> commandFactory.addControlPoint(edge, controlPoint, index));
+        operations.updatePosition(node, coords);
     }
 
     private CommandResult<RuleViolation> execute(Command<GraphCommandExecutionContext, RuleViolation> command) {
@@ -268,19 +238,197 @@ public class GraphBuilder {
         return commandManager.execute(executionContext, commandFactory.clearGraph());
     }
 
-    private void addEdge(BpmnEdge edge) {
+    private void addEdge(BpmnEdge edge, GraphOperations operations) {
         VoidMatch.of(BpmnEdge.class)
                 .when(BpmnEdge.Simple.class, e ->
-                        addEdge(e.getEdge(),
-                                e.getSource().value(),
-                                e.getSourceConnection(),
-                                e.getControlPoints(),
-                                e.getTarget().value(),
-                                e.getTargetConnection())
+                        operations.addEdge(e.getEdge(),
+                                           e.getSource().value(),
+                                           e.getSourceConnection(),
+                                           e.getControlPoints(),
+                                           e.getTarget().value(),
+                                           e.getTargetConnection())
                 )
                 .when(BpmnEdge.Docked.class, e ->
-                        addDockedNode(e.getSource().value(),
-                                      e.getTarget().value())
+                        operations.addDockedNode(e.getSource().value(),
+                                                 e.getTarget().value())
                 ).apply(edge);
     }
+
+    /**
+     * The changes made to the graph while walking the nodes.
+     */
+    private interface GraphOperations {
+
+        void addNode(Node node);
+
+        void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child);
+
+        void addDockedNode(Node parent, Node candidate);
+
+        void updatePosition(Node node, Point2D position);
+
+        void addEdge(Edge<? extends View<?>, Node> edge,
+                     Node source,
+                     Connection sourceConnection,
+                     List<Point2D> controlPoints,
+                     Node target,
+                     Connection targetConnection);
+    }
+
+    /**
+     * Issues a command for each change.
+     */
+    private class CommandOperations implements GraphOperations {
+
+        @Override
+        public void addNode(Node node) {
+            AddNodeCommand addNodeCommand = commandFactory.addNode(node);
+            execute(addNodeCommand);
+        }
+
+        @Override
+        public void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
+            AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
+            execute(addChildNodeCommand);
+        }
+
+        @Override
+        public void addDockedNode(Node parent, Node candidate) {
+            AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
+            execute(addNodeCommand);
+        }
+
+        @Override
+        public void updatePosition(Node node, Point2D position) {
+            UpdateElementPositionCommand updateElementPositionCommand =
+                    commandFactory.updatePosition(node, position);
+            execute(updateElementPositionCommand);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void addEdge(
+                Edge<? extends View<?>, Node> edge,
+                Node source,
+                Connection sourceConnection,
+                List<Point2D> controlPoints,
+                Node target,
+                Connection targetConnection) {
+            final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder =
+                    new DeferredCompositeCommand.Builder<>();
+            addConnector(commandBuilder, source, edge, sourceConnection);
+            final ControlPoint[] cps = new ControlPoint[controlPoints.size()];
+            for (int i = 0; i < cps.length; i++) {
+                final ControlPoint cp = ControlPoint.build(controlPoints.get(i));
+                addControlPoint(commandBuilder, edge, cp, i);
+            }
+            setTargetNode(commandBuilder, target, edge, targetConnection);
+            execute(commandBuilder.build());
+        }
+
+        private void addConnector(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
+                                  final Node<? extends View<?>, Edge> sourceNode,
+                                  final Edge<? extends View<?>, Node> edge,
+                                  final Connection connection) {
+            commandBuilder.deferCommand(() -> commandFactory.addConnector(sourceNode, edge, connection));
+        }
+
+        private void setTargetNode(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
+                                   final Node<? extends View<?>, Edge> targetNode,
+                                   final Edge<? extends View<?>, Node> edge,
+                                   final Connection connection) {
+            commandBuilder.deferCommand(() -> commandFactory.setTargetNode(targetNode, edge, connection));
+        }
+
+        private void addControlPoint(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
+                                     final Edge edge,
+                                     final ControlPoint controlPoint,
+                                     final int index) {
+            commandBuilder.deferCommand(() -> commandFactory.addControlPoint(edge, controlPoint, index));
+        }
+    }
+
+    /**
+     * Applies each change directly to the graph store and the
+     * elements, the same way the commands do.
+     */
+    private class DirectOperations implements GraphOperations {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void addNode(Node node) {
+            graph.addNode(node);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
+            graph.addNode(child);
+            final Edge<Child, Node> edge = new EdgeImpl<>(UUID.uuid());
+            edge.setContent(new Child());
+            connect(parent, edge, child);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void addDockedNode(Node parent, Node candidate) {
+            // A node with incoming connections cannot be docked, the docking command
+            // fails and its undo removes the candidate from the graph.
+            if (GraphUtils.hasTargetConnections(candidate)) {
+                logger.debug("Cannot dock {} into {}, it has incoming connections",
+                             candidate.getUUID(), parent.getUUID());
+                graph.removeNode(candidate.getUUID());
+                return;
+            }
+            graph.addNode(candidate);
+            final Edge<Dock, Node> edge = new EdgeImpl<>(UUID.uuid());
+            edge.setContent(new Dock());
+            connect(parent, edge, candidate);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void updatePosition(Node node, Point2D position) {
+            ((View) node.getContent()).setBounds(UpdateElementPositionCommand.computeCandidateBounds(node, position));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void addEdge(
+                Edge<? extends View<?>, Node> edge,
+                Node source,
+                Connection sourceConnection,
+                List<Point2D> controlPoints,
+                Node target,
+                Connection targetConnection) {
+            final ViewConnector connector = (ViewConnector) edge.getContent();
+            source.getOutEdges().add(edge);
+            edge.setSourceNode(source);
+            connector.setSourceConnection(sourceConnection);
+            if (!controlPoints.isEmpty()) {
+                // The control points are inserted in front of any existing ones, as the commands do
+                final ControlPoint[] existing = connector.getControlPoints();
+                final int size = null != existing ? existing.length : 0;
+                final ControlPoint[] cps = new ControlPoint[controlPoints.size() + size];
+                for (int i = 0; i < controlPoints.size(); i++) {
+                    cps[i] = ControlPoint.build(controlPoints.get(i));
+                }
+                for (int i = 0; i < size; i++) {
+                    cps[controlPoints.size() + i] = existing[i];
+                }
+                connector.setControlPoints(cps);
+            }
+            target.getInEdges().add(edge);
+            edge.setTargetNode(target);
+            connector.setTargetConnection(targetConnection);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void connect(Node parent, Edge edge, Node candidate) {
+            edge.setSourceNode(parent);
+            edge.setTargetNode(candidate);
+            parent.getOutEdges().add(edge);
+            candidate.getInEdges().add(edge);
+        }
+    }
 }
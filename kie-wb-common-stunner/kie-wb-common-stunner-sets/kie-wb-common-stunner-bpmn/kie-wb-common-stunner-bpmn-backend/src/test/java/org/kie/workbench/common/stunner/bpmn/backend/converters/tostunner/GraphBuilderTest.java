@@ -18,6 +18,7 @@ package org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.bpmn2.Definitions;
 import org.eclipse.bpmn2.RootElement;
@@ -34,22 +35,36 @@ import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.proper
 import org.kie.workbench.common.stunner.bpmn.definition.BPMNDiagramImpl;
 import org.kie.workbench.common.stunner.bpmn.definition.BPMNViewDefinition;
 import org.kie.workbench.common.stunner.bpmn.definition.EmbeddedSubprocess;
+import org.kie.workbench.common.stunner.bpmn.definition.IntermediateTimerEvent;
+import org.kie.workbench.common.stunner.bpmn.definition.SequenceFlow;
+import org.kie.workbench.common.stunner.bpmn.definition.UserTask;
 import org.kie.workbench.common.stunner.core.backend.StunnerTestingGraphBackendAPI;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
 import org.kie.workbench.common.stunner.core.diagram.MetadataImpl;
+import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.Bounds;
 import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.MagnetConnection;
+import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.kie.workbench.common.stunner.bpmn.backend.converters.fromstunner.Factories.dc;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -62,6 +77,15 @@ public class GraphBuilderTest {
     private static final String SUBPROCESS1_ID = "SUBPROCESS1_ID";
     private static final String SUBPROCESS2_ID = "SUBPROCESS2_ID";
     private static final String SUBPROCESS3_ID = "SUBPROCESS3_ID";
+    private static final String TASK_ID = "TASK_ID";
+    private static final String EVENT_ID = "EVENT_ID";
+    private static final String SEQUENCE_FLOW_ID = "SEQUENCE_FLOW_ID";
+    private static final double SUBPROCESS1_X = 10;
+    private static final double SUBPROCESS1_Y = 10;
+    private static final double SUBPROCESS2_X = 20;
+    private static final double SUBPROCESS2_Y = 20;
+    private static final double SUBPROCESS3_X = 30;
+    private static final double SUBPROCESS3_Y = 30;
 
     private DefinitionResolver definitionResolver;
 
@@ -114,47 +138,116 @@ public class GraphBuilderTest {
 
     @Test
     public void testBoundsCalculation() {
+        graphBuilder.buildGraph(mockSubprocesses());
+
+        //stunner model must have the relative coordinates
+        assertNodePosition(SUBPROCESS1_ID, SUBPROCESS1_X, SUBPROCESS1_Y);
+        assertNodePosition(SUBPROCESS2_ID, SUBPROCESS2_X, SUBPROCESS2_Y);
+        assertNodePosition(SUBPROCESS3_ID, SUBPROCESS3_X, SUBPROCESS3_Y);
+    }
+
+    @Test
+    public void testBoundsCalculationWhenLoading() {
+        graphBuilder.load(mockSubprocesses());
+
+        //stunner model must have the relative coordinates
+        assertNodePosition(SUBPROCESS1_ID, SUBPROCESS1_X, SUBPROCESS1_Y);
+        assertNodePosition(SUBPROCESS2_ID, SUBPROCESS2_X, SUBPROCESS2_Y);
+        assertNodePosition(SUBPROCESS3_ID, SUBPROCESS3_X, SUBPROCESS3_Y);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoad() {
+        Node subprocess = newNode(SUBPROCESS1_ID, mock(EmbeddedSubprocess.class), 100, 100, 300, 300);
+        Node task = newNode(TASK_ID, mock(UserTask.class), 500, 100, 100, 50);
+        Node event = newNode(EVENT_ID, mock(IntermediateTimerEvent.class), 150, 380, 40, 40);
+        Node rootDiagram = newNode(DIAGRAM_UUID, mock(BPMNDiagramImpl.class), 0, 0, 1000, 1000);
+        BpmnNode rootNode = BpmnNode.of(rootDiagram, mock(BasePropertyReader.class));
+        BpmnNode subprocessNode = BpmnNode.of(subprocess, mock(BasePropertyReader.class));
+        BpmnNode taskNode = BpmnNode.of(task, mock(BasePropertyReader.class));
+        BpmnNode eventNode = BpmnNode.of(event, mock(BasePropertyReader.class)).docked();
+        subprocessNode.setParent(rootNode);
+        taskNode.setParent(rootNode);
+        eventNode.setParent(rootNode);
+        Edge<ViewConnector<SequenceFlow>, Node> sequenceFlow = new EdgeImpl<>(SEQUENCE_FLOW_ID);
+        sequenceFlow.setContent(new ViewConnectorImpl<>(mock(SequenceFlow.class), Bounds.create(0, 0, 10, 10)));
+        MagnetConnection sourceConnection = MagnetConnection.Builder.atCenter(event);
+        MagnetConnection targetConnection = MagnetConnection.Builder.atCenter(task);
+        rootNode.addEdge(BpmnEdge.docked(subprocessNode, eventNode));
+        eventNode.addEdge(BpmnEdge.of((Edge) sequenceFlow,
+                                      eventNode, sourceConnection,
+                                      Collections.singletonList(Point2D.create(170, 500)),
+                                      taskNode, targetConnection,
+                                      null));
+        graph.addNode(newNode("OLD_ID", mock(UserTask.class), 0, 0, 10, 10));
+
+        graphBuilder.load(rootNode);
+
+        assertEquals(4, StreamSupport.stream(graph.nodes().spliterator(), false).count());
+        assertNull(graph.getNode("OLD_ID"));
+        assertEquals(subprocess, graph.getNode(SUBPROCESS1_ID));
+        assertEquals(task, graph.getNode(TASK_ID));
+        assertEquals(event, graph.getNode(EVENT_ID));
+        assertEquals(rootDiagram, graph.getNode(DIAGRAM_UUID));
+        assertChild(rootDiagram, subprocess);
+        assertChild(rootDiagram, task);
+        assertChild(rootDiagram, event);
+        Edge dock = (Edge) event.getInEdges().stream()
+                .filter(edge -> ((Edge) edge).getContent() instanceof Dock)
+                .findFirst()
+                .get();
+        assertEquals(subprocess, dock.getSourceNode());
+        assertTrue(subprocess.getOutEdges().contains(dock));
+        assertEquals(event, sequenceFlow.getSourceNode());
+        assertEquals(task, sequenceFlow.getTargetNode());
+        assertTrue(event.getOutEdges().contains(sequenceFlow));
+        assertTrue(task.getInEdges().contains(sequenceFlow));
+        assertEquals(sourceConnection, sequenceFlow.getContent().getSourceConnection().get());
+        assertEquals(targetConnection, sequenceFlow.getContent().getTargetConnection().get());
+        assertEquals(1, sequenceFlow.getContent().getControlPoints().length);
+        assertEquals(Point2D.create(170, 500), sequenceFlow.getContent().getControlPoints()[0].getLocation());
+        // the children are translated into the parent coordinates, the docked nodes are not
+        assertNodePosition(TASK_ID, 500, 100);
+        assertNodePosition(EVENT_ID, 150, 380);
+    }
+
+    private BpmnNode mockSubprocesses() {
         //subprocess1
-        double subprocess1X = 10;
-        double subprocess1Y = 10;
         double subprocess1Width = 100;
         double subprocess1Height = 200;
         EmbeddedSubprocess subprocess1Definition = mock(EmbeddedSubprocess.class);
         Node<? extends View<? extends BPMNViewDefinition>, ?> subprocess1 = mockNode(subprocess1Definition,
-                                                                                     subprocess1X,
-                                                                                     subprocess1Y,
+                                                                                     SUBPROCESS1_X,
+                                                                                     SUBPROCESS1_Y,
                                                                                      subprocess1Width,
                                                                                      subprocess1Height);
         when(subprocess1.getUUID()).thenReturn(SUBPROCESS1_ID);
         BpmnNode subprocess1Node = mockBpmnNode(subprocess1);
 
         //subprocess2
-        double subprocess2X = 20;
-        double subprocess2Y = 20;
         double subprocess2Width = 70;
         double subprocess2Height = 170;
         EmbeddedSubprocess subprocess2Definition = mock(EmbeddedSubprocess.class);
         //subprocess1 -> subprocess2
         //absolute coordinates in eclipse model
         Node<? extends View<? extends BPMNViewDefinition>, ?> subprocess2 = mockNode(subprocess2Definition,
-                                                                                     subprocess1X + subprocess2X,
-                                                                                     subprocess1Y + subprocess2Y,
+                                                                                     SUBPROCESS1_X + SUBPROCESS2_X,
+                                                                                     SUBPROCESS1_Y + SUBPROCESS2_Y,
                                                                                      subprocess2Width,
                                                                                      subprocess2Height);
         when(subprocess2.getUUID()).thenReturn(SUBPROCESS2_ID);
         BpmnNode subprocess2Node = mockBpmnNode(subprocess2);
 
         //subprocess3
-        double subprocess3X = 30;
-        double subprocess3Y = 30;
         double subprocess3Width = 30;
         double subprocess3Height = 120;
         EmbeddedSubprocess subprocess3Definition = mock(EmbeddedSubprocess.class);
         //subprocess1 -> subprocess2 -> subprocess3
         //absolute coordinates in eclipse model
         Node<? extends View<? extends BPMNViewDefinition>, ?> subprocess3 = mockNode(subprocess3Definition,
-                                                                                     subprocess1X + subprocess2X + subprocess3X,
-                                                                                     subprocess1Y + subprocess2Y + subprocess3Y,
+                                                                                     SUBPROCESS1_X + SUBPROCESS2_X + SUBPROCESS3_X,
+                                                                                     SUBPROCESS1_Y + SUBPROCESS2_Y + SUBPROCESS3_Y,
                                                                                      subprocess3Width, subprocess3Height);
         when(subprocess3.getUUID()).thenReturn(SUBPROCESS3_ID);
         BpmnNode subprocess3Node = mockBpmnNode(subprocess3);
@@ -167,12 +260,21 @@ public class GraphBuilderTest {
         subprocess1Node.setParent(rootNode);
         subprocess2Node.setParent(subprocess1Node);
         subprocess3Node.setParent(subprocess2Node);
-        graphBuilder.buildGraph(rootNode);
+        return rootNode;
+    }
 
-        //stunner model must have the relative coordinates
-        assertNodePosition(SUBPROCESS1_ID, subprocess1X, subprocess1Y);
-        assertNodePosition(SUBPROCESS2_ID, subprocess2X, subprocess2Y);
-        assertNodePosition(SUBPROCESS3_ID, subprocess3X, subprocess3Y);
+    @SuppressWarnings("unchecked")
+    private static void assertChild(Node parent, Node child) {
+        assertTrue(parent.getOutEdges().stream()
+                           .anyMatch(edge -> ((Edge) edge).getContent() instanceof Child
+                                   && ((Edge) edge).getTargetNode().equals(child)
+                                   && child.getInEdges().contains(edge)));
+    }
+
+    private static Node newNode(String uuid, BPMNViewDefinition definition, double x, double y, double width, double height) {
+        Node<View<BPMNViewDefinition>, Edge> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(definition, Bounds.create(x, y, x + width, y + height)));
+        return node;
     }
 
     @SuppressWarnings("unchecked")
@@ -16,19 +16,21 @@
 
 package org.kie.workbench.common.stunner.bpmn.backend.service.diagram.marshalling.events.intermediate;
 
-import java.util.List;
-
 import org.junit.Before;
 import org.junit.Test;
 import org.kie.workbench.common.stunner.bpmn.backend.service.diagram.marshalling.BPMNDiagramMarshallerBaseTest;
-import org.kie.workbench.common.stunner.core.command.Command;
-import org.kie.workbench.common.stunner.core.graph.command.impl.UpdateElementPositionCommand;
-import org.mockito.ArgumentCaptor;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bound;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
 
-import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class DockedEventsTest extends BPMNDiagramMarshallerBaseTest {
@@ -41,18 +43,25 @@ public class DockedEventsTest extends BPMNDiagramMarshallerBaseTest {
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     public void testDockedElementProcessingOrder() throws Exception {
-        final String TASK_ID = "_02DDF5FF-E1E4-4DA3-9971-70CFB158A08C";
-        final String DOCKED_NODE_ID = "_6A26F0A2-3368-4769-B9E9-A6290530ED8F";
-        unmarshall(marshaller, JBPM_7645);
-        ArgumentCaptor<Command> cmd = ArgumentCaptor.forClass(Command.class);
-        verify(api.commandManager, times(8)).execute(any(), cmd.capture());
-        List<Command> commands = cmd.getAllValues();
-        List<UpdateElementPositionCommand> posCmds = commands.stream()
-                .filter(UpdateElementPositionCommand.class::isInstance)
-                .map(UpdateElementPositionCommand.class::cast)
-                .collect(toList());
-        assertThat(posCmds.get(0).getNode().getUUID()).isEqualTo(TASK_ID);
-        assertThat(posCmds.get(1).getNode().getUUID()).isEqualTo(DOCKED_NODE_ID);
+        final String SUBPROCESS_ID = "_02DDF5FF-E1E4-4DA3-9971-70CFB158A08C";
+        final String TASK_ID = "_6A26F0A2-3368-4769-B9E9-A6290530ED8F";
+        final String EVENT_ID = "_D37CB404-5190-4CF4-92A1-E5BDBFDD3276";
+        Diagram<Graph, Metadata> diagram = unmarshall(marshaller, JBPM_7645);
+        // the graph is loaded directly into the graph store
+        verify(api.commandManager, never()).execute(any(), any());
+        Graph graph = diagram.getGraph();
+        Node<View<?>, Edge> subprocess = graph.getNode(SUBPROCESS_ID);
+        Node<View<?>, Edge> task = graph.getNode(TASK_ID);
+        Node<View<?>, Edge> event = graph.getNode(EVENT_ID);
+        // the nodes are moved into the coordinates of their parents
+        assertThat(subprocess.getContent().getBounds().getUpperLeft()).isEqualTo(Bound.create(301, 157));
+        assertThat(task.getContent().getBounds().getUpperLeft()).isEqualTo(Bound.create(53, 28));
+        // the boundary event is docked after the task it is attached to
+        assertThat(event.getInEdges())
+                .filteredOn(edge -> edge.getContent() instanceof Dock)
+                .extracting(Edge::getSourceNode)
+                .containsExactly(task);
     }
 }